@@ -7,6 +7,9 @@ plugins {
   checkstyle
   jacoco
   alias(libs.plugins.sonarqube)
+
+  // Benchmarking plugins
+  alias(libs.plugins.jmh)
 }
 
 group = "uk.nhs.tis.trainee"
@@ -39,12 +42,14 @@ dependencies {
   implementation("org.springframework.boot:spring-boot-starter-web")
 
   implementation(libs.bundles.shedlock.mongo)
+  implementation("com.github.ben-manes.caffeine:caffeine")
 
   implementation("io.awspring.cloud:spring-cloud-aws-starter-s3")
   implementation("io.awspring.cloud:spring-cloud-aws-starter-ses")
   implementation("io.awspring.cloud:spring-cloud-aws-starter-sns")
   implementation("io.awspring.cloud:spring-cloud-aws-starter-sqs")
   implementation("software.amazon.awssdk:cognitoidentityprovider")
+  implementation("software.amazon.awssdk:sesv2")
   implementation(libs.bundles.aws.xray)
 
   // Lombok
@@ -97,6 +102,17 @@ sonarqube {
   }
 }
 
+jmh {
+  jmhVersion.set(libs.versions.jmh)
+  resultFormat.set("JSON")
+  resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+  profilers.add("gc")
+
+  if (project.hasProperty("jmhIncludes")) {
+    includes.add(project.property("jmhIncludes").toString())
+  }
+}
+
 tasks.jacocoTestReport {
   reports {
     html.required.set(true)
@@ -8,6 +8,9 @@ dependencyResolutionManagement {
   versionCatalogs {
     create("libs") {
       from("uk.nhs.tis.trainee:version-catalog:0.0.10")
+
+      version("jmh", "1.37")
+      plugin("jmh", "me.champeau.jmh").version("0.7.2")
     }
   }
 }
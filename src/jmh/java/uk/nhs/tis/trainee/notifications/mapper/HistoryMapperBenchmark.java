@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.mapper;
+
+import static uk.nhs.tis.trainee.notifications.model.MessageType.IN_APP;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.READ;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.UNREAD;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.DAY_ONE;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.nhs.tis.trainee.notifications.dto.HistoryDto;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
+import uk.nhs.tis.trainee.notifications.model.TisReferenceType;
+
+/**
+ * Benchmarks for mapping notification history entities to DTOs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistoryMapperBenchmark {
+
+  private static final int HISTORY_COUNT = 100;
+  private static final String SUBJECT = "Your Day One information";
+
+  private HistoryMapper mapper;
+  private History history;
+  private List<History> histories;
+
+  /**
+   * Prepare the mapper and representative in-app history items.
+   */
+  @Setup
+  public void setUp() {
+    mapper = new HistoryMapperImpl();
+    Instant sentAt = Instant.parse("2024-07-01T09:00:00Z");
+
+    histories = IntStream.range(0, HISTORY_COUNT)
+        .mapToObj(i -> History.builder()
+            .id(ObjectId.get())
+            .tisReference(new TisReferenceInfo(TisReferenceType.PROGRAMME_MEMBERSHIP,
+                String.valueOf(i)))
+            .type(DAY_ONE)
+            .recipient(new RecipientInfo("47165", IN_APP, null))
+            .template(new TemplateInfo(DAY_ONE.getTemplateName(), "v1.1.0",
+                Map.of("familyName", "Maillig", "programmeName", "General Practice")))
+            .sentAt(sentAt.minus(i, ChronoUnit.DAYS))
+            .readAt(i % 2 == 0 ? sentAt : null)
+            .status(i % 2 == 0 ? READ : UNREAD)
+            .build())
+        .toList();
+    history = histories.get(0);
+  }
+
+  /**
+   * Map a single history entity.
+   *
+   * @return The mapped DTO.
+   */
+  @Benchmark
+  public HistoryDto toDto() {
+    return mapper.toDto(history);
+  }
+
+  /**
+   * Map a single history entity with a rebuilt subject and overridden status.
+   *
+   * @return The mapped DTO.
+   */
+  @Benchmark
+  public HistoryDto toDtoWithSubjectAndStatus() {
+    return mapper.toDto(history, SUBJECT, UNREAD);
+  }
+
+  /**
+   * Map a page of history entities.
+   *
+   * @return The mapped DTOs.
+   */
+  @Benchmark
+  public List<HistoryDto> toDtos() {
+    return mapper.toDtos(histories);
+  }
+}
@@ -0,0 +1,370 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.unit.DataSize;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import uk.nhs.tis.trainee.notifications.model.MessageType;
+import uk.nhs.tis.trainee.notifications.model.TraineeType;
+
+/**
+ * Shared fixtures for the benchmarks, the template variables are representative of those used
+ * by the test fixtures and the listeners which populate them.
+ */
+public final class BenchmarkFixtures {
+
+  public static final String TIMEZONE = "Europe/London";
+
+  private static final String TEMPLATE_VERSION_PROPERTY = "application.template-versions.%s.%s";
+
+  private static final Properties APPLICATION_PROPERTIES = loadApplicationProperties();
+
+  private BenchmarkFixtures() {
+  }
+
+  /**
+   * Create a template engine resolving the application templates from the classpath.
+   *
+   * @return The created template engine.
+   */
+  public static TemplateEngine templateEngine() {
+    ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+    resolver.setPrefix("templates/");
+    resolver.setSuffix(".html");
+    SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(resolver);
+    return templateEngine;
+  }
+
+  /**
+   * Create a template service using the application templates.
+   *
+   * @param outputCacheSize The size of the in-app output cache, zero to render every time.
+   * @return The created template service.
+   */
+  public static TemplateService templateService(DataSize outputCacheSize) {
+    TemplateOutputCache outputCache = new TemplateOutputCache(new SimpleMeterRegistry(),
+        outputCacheSize);
+    return new TemplateService(templateEngine(), outputCache, TIMEZONE);
+  }
+
+  /**
+   * Get the path of a template at its configured version.
+   *
+   * @param messageType  The message type of the template.
+   * @param templateName The name of the template.
+   * @return The template path.
+   * @throws IllegalArgumentException If the template does not have a configured version.
+   */
+  public static String templatePath(MessageType messageType, String templateName) {
+    String version = templateVersion(messageType, templateName);
+    return messageType.getTemplatePath() + "/" + templateName + "/" + version;
+  }
+
+  /**
+   * Get the configured version of a template.
+   *
+   * @param messageType  The message type of the template.
+   * @param templateName The name of the template.
+   * @return The configured template version.
+   * @throws IllegalArgumentException If the template does not have a configured version.
+   */
+  public static String templateVersion(MessageType messageType, String templateName) {
+    String property = String.format(TEMPLATE_VERSION_PROPERTY, templateName,
+        messageType.getTemplatePath());
+    String version = APPLICATION_PROPERTIES.getProperty(property);
+
+    if (version == null) {
+      throw new IllegalArgumentException("No version configured for " + property);
+    }
+
+    return version;
+  }
+
+  /**
+   * Get a representative set of template variables, covering the variables used by the
+   * configured email and in-app templates.
+   *
+   * @return A new mutable map of template variables.
+   */
+  public static Map<String, Object> templateVariables() {
+    Map<String, Object> variables = new HashMap<>();
+    variables.put("domain", URI.create("https://local.notifications.com"));
+    variables.put("hashedEmail", "5e0aa8b8b1a4a2b9bfa3a9c5e7b4d2c1");
+    variables.put("traineeId", "47165");
+    variables.put("title", "Dr");
+    variables.put("givenName", "Anthony");
+    variables.put("familyName", "Maillig");
+    variables.put("email", "anthony.maillig@example.com");
+    variables.put("gmcNumber", "1234567");
+    variables.put("gmcStatus", "CONFIRMED");
+    variables.put("isRegistered", true);
+    variables.put("traineeType", TraineeType.SPECIALTY);
+
+    variables.put("programmeName", "General Practice");
+    variables.put("programmeNumber", "EOE123");
+    variables.put("startDate", LocalDate.of(2024, 8, 7));
+    variables.put("specialty", "Cardiology");
+    variables.put("site", "Addenbrookes Hospital");
+    variables.put("designatedBody", "1-1RSSPZ7");
+    variables.put("roName", "Dr Responsible Officer");
+    variables.put("hasBlockIndemnity", true);
+
+    variables.put("localOfficeName", "Thames Valley");
+    variables.put("localOfficeContact", "https://www.example.com/thames-valley");
+    variables.put("localOfficeContactType", "url");
+    variables.put("localOfficeWebsite", "https://www.example.com");
+    variables.put("contact", "onboarding@example.com");
+    variables.put("contactHref", "email");
+    variables.put("pogContact", "https://www.example.com/pog");
+    variables.put("pogContactHref", "url");
+    variables.put("contacts", Map.of(
+        "LTFT", Map.of("contact", "https://www.example.com/ltft", "type", "url"),
+        "LTFT_SUPPORT", Map.of("contact", "ltft@example.com", "type", "email"),
+        "SUPPORTED_RETURN_TO_TRAINING", Map.of("contact", "srtt@example.com", "type", "email"),
+        "TSS_SUPPORT", Map.of("contact", "tss@example.com", "type", "email")));
+
+    variables.put("formType", "formr-parta");
+    variables.put("lifecycleState", "SUBMITTED");
+    variables.put("modifiedRole", "TRAINEE");
+    variables.put("credentialType", "Training Placement");
+    variables.put("ccOfSentTo", "anthony.maillig@example.com");
+    variables.put("previousEmail", "anthony.maillig@example.com");
+    variables.put("newEmail", "anthony.gilliam@example.com");
+
+    variables.put("eventDate", LocalDateTime.of(2025, 9, 1, 10, 0));
+    variables.put("issuedAt", Instant.parse("2024-07-01T09:00:00Z"));
+    variables.put("syncedAt", Instant.parse("2024-07-02T10:30:00Z"));
+    variables.put("originallySentOn", Instant.parse("2024-07-03T11:45:00Z"));
+
+    Map<String, Object> ltft = new HashMap<>();
+    ltft.put("formRef", "ltft_47165_001");
+    ltft.put("formName", "my LTFT application");
+    ltft.put("state", "SUBMITTED");
+    ltft.put("timestamp", Instant.parse("2024-07-04T12:00:00Z"));
+    ltft.put("discussions", Map.of("tpdName", "TPD name"));
+    ltft.put("programmeMembership", Map.of("startDate", LocalDate.of(2024, 1, 1),
+        "name", "General Practice", "wte", 1.0, "managingDeanery", "Thames Valley"));
+    ltft.put("personalDetails", Map.of("gmcNumber", "1234567"));
+    ltft.put("change", Map.of("startDate", LocalDate.of(2024, 10, 1), "wte", 0.5,
+        "cctDate", LocalDate.of(2028, 1, 1)));
+    ltft.put("reasons", Map.of("selected", List.of("Caring responsibilities", "Other")));
+    ltft.put("stateDetail", Map.of("reason", "some reason", "message", "some message"));
+    ltft.put("modifiedBy", Map.of("name", "Anthony Maillig", "role", "TRAINEE"));
+    variables.put("var", ltft);
+
+    return variables;
+  }
+
+  /**
+   * Get the template variables for a single template, limited to those populated for it when
+   * sent. Where the listener integration tests have a fixture for a variable its value is reused,
+   * so that each template renders the same conditional sections as the expected test output.
+   *
+   * @param messageType  The message type of the template.
+   * @param templateName The name of the template.
+   * @return A new mutable map of template variables.
+   */
+  public static Map<String, Object> templateVariables(MessageType messageType,
+      String templateName) {
+    Map<String, Object> variables = new HashMap<>();
+
+    if (messageType == MessageType.EMAIL) {
+      variables.put("domain", URI.create("https://local.notifications.com"));
+      variables.put("hashedEmail", "5e0aa8b8b1a4a2b9bfa3a9c5e7b4d2c1");
+      variables.put("familyName", "Gilliam");
+      variables.put("givenName", "Anthony");
+    }
+
+    if (templateName.startsWith("ltft-")) {
+      variables.putAll(ltftVariables());
+    } else if (templateName.startsWith("form-")) {
+      variables.put("formName", "123.json");
+      variables.put("formType", "form-type");
+      variables.put("lifecycleState", "SUBMITTED");
+      variables.put("eventDate", Instant.parse("2023-08-01T00:00:00Z"));
+    } else if (templateName.startsWith("gmc-")) {
+      variables.put("traineeId", "40");
+      variables.put("gmcNumber", "111111");
+      variables.put("gmcStatus", "CONFIRMED");
+      variables.put("tisTrigger", "GMC number rejected");
+      variables.put("tisTriggerDetail", "The GMC number does not match the trainee.");
+      variables.put("ccOfSentTo", "anthony.gilliam@tis.nhs.uk");
+    } else if (templateName.equals("coj-confirmation")) {
+      variables.put("syncedAt", Instant.parse("2023-08-01T00:00:00Z"));
+    } else if (templateName.startsWith("email-updated-")) {
+      variables.put("newEmail", "anthony.gilliam@tis.nhs.uk");
+      variables.put("previousEmail", "anthony.gilliam@example.com");
+    } else if (templateName.equals("credential-revoked")) {
+      variables.put("credentialType", "Training Placement");
+      variables.put("issuedAt", Instant.parse("2023-08-01T00:00:00Z"));
+    } else if (templateName.startsWith("placement-")) {
+      variables.putAll(placementVariables(messageType));
+    } else {
+      variables.putAll(programmeVariables(messageType));
+    }
+
+    return variables;
+  }
+
+  /**
+   * Get the template variables populated for LTFT notifications.
+   *
+   * @return The LTFT template variables.
+   */
+  private static Map<String, Object> ltftVariables() {
+    Map<String, Object> variables = new HashMap<>();
+    variables.put("contacts", Map.of(
+        "LTFT", Map.of("contact", "https://test/LTFT", "type", "url"),
+        "LTFT_SUPPORT", Map.of("contact", "https://test/LTFT_SUPPORT", "type", "url"),
+        "SUPPORTED_RETURN_TO_TRAINING", Map.of("contact",
+            "https://test/SUPPORTED_RETURN_TO_TRAINING", "type", "url"),
+        "TSS_SUPPORT", Map.of("contact", "https://test/TSS_SUPPORT", "type", "url")));
+    variables.put("title", "Dr");
+
+    Map<String, Object> ltft = new HashMap<>();
+    ltft.put("traineeTisId", "40");
+    ltft.put("formRef", "ltft_47165_001");
+    ltft.put("formName", "ltft_name");
+    ltft.put("personalDetails", Map.of("gmcNumber", "111111"));
+    ltft.put("programmeMembership", Map.of("name", "General Practice",
+        "managingDeanery", "North West", "wte", 1.0, "startDate", LocalDate.of(2024, 1, 1)));
+    ltft.put("change", Map.of("startDate", LocalDate.of(2025, 4, 3), "wte", 0.5));
+    ltft.put("discussions", Map.of("tpdName", "Mr TPD", "tpdEmail", "tpd@email.nhs"));
+    ltft.put("reasons", Map.of("selected", List.of("Caring responsibilities", "Other")));
+    ltft.put("status", Map.of("current", Map.of(
+        "state", "SUBMITTED",
+        "timestamp", Instant.parse("2025-03-15T10:00:00Z"),
+        "detail", Map.of("reason", "changePercentage", "message", "some detail"),
+        "modifiedBy", Map.of("name", "Anne Other", "role", "TRAINEE"))));
+    variables.put("var", ltft);
+    return variables;
+  }
+
+  /**
+   * Get the template variables populated for placement notifications.
+   *
+   * @param messageType The message type of the template.
+   * @return The placement template variables.
+   */
+  private static Map<String, Object> placementVariables(MessageType messageType) {
+    Map<String, Object> variables = new HashMap<>();
+    variables.put("startDate", LocalDate.of(2024, 8, 7));
+    variables.put("specialty", "Cardiology");
+    variables.put("site", "Addenbrookes Hospital");
+
+    if (messageType == MessageType.EMAIL) {
+      variables.put("tisId", "placement-1");
+      variables.put("personId", "40");
+      variables.put("placementType", "In post");
+      variables.put("localOfficeName", "deaneryTest");
+      variables.put("traineeType", TraineeType.SPECIALTY);
+      variables.putAll(enrichedJobVariables());
+    } else {
+      variables.put("localOfficeContact", "local.office@example.com");
+      variables.put("localOfficeContactType", "email");
+      variables.put("gmcNumber", "111111");
+      variables.put("traineeType", TraineeType.SPECIALTY);
+    }
+
+    return variables;
+  }
+
+  /**
+   * Get the template variables populated for programme membership notifications.
+   *
+   * @param messageType The message type of the template.
+   * @return The programme membership template variables.
+   */
+  private static Map<String, Object> programmeVariables(MessageType messageType) {
+    Map<String, Object> variables = new HashMap<>();
+    variables.put("programmeName", "General Practice");
+    variables.put("programmeNumber", "EOE123");
+    variables.put("startDate", LocalDate.of(2024, 8, 7));
+    variables.put("roName", "Responsible TestRO");
+    variables.put("designatedBody", "1-1RSSPZ7");
+    variables.put("traineeType", TraineeType.SPECIALTY);
+
+    if (messageType == MessageType.EMAIL) {
+      variables.put("tisId", "programme-membership-1");
+      variables.put("personId", "40");
+      variables.put("localOfficeName", "deaneryTest");
+      variables.put("conditionsOfJoiningSyncedAt", Instant.parse("2023-08-01T00:00:00Z"));
+      variables.put("cctDate", LocalDate.of(2028, 8, 7));
+      variables.put("welcomeSendDate", Instant.parse("2024-07-01T09:00:00Z"));
+      variables.putAll(enrichedJobVariables());
+    } else {
+      variables.put("localOfficeContact", "local.office@example.com");
+      variables.put("localOfficeContactType", "email");
+      variables.put("gmcNumber", "111111");
+      variables.put("hasBlockIndemnity", true);
+    }
+
+    return variables;
+  }
+
+  /**
+   * Get the template variables added when a scheduled or immediate job is enriched with the
+   * trainee's account and local office details.
+   *
+   * @return The enriched job template variables.
+   */
+  private static Map<String, Object> enrichedJobVariables() {
+    Map<String, Object> variables = new HashMap<>();
+    variables.put("localOfficeContact", "local.office@example.com");
+    variables.put("contactHref", "email");
+    variables.put("localOfficeWebsite", "https://www.example.com");
+    variables.put("pogContact", "local.office@example.com");
+    variables.put("pogContactHref", "email");
+    variables.put("isRegistered", true);
+    variables.put("title", "Mr");
+    variables.put("email", "anthony.gilliam@tis.nhs.uk");
+    variables.put("gmcNumber", "111111");
+    variables.put("isValidGmc", true);
+    return variables;
+  }
+
+  /**
+   * Load the application properties, so that template versions can match the deployed
+   * configuration.
+   *
+   * @return The loaded application properties.
+   */
+  private static Properties loadApplicationProperties() {
+    YamlPropertiesFactoryBean factory = new YamlPropertiesFactoryBean();
+    factory.setResources(new ClassPathResource("application.yml"));
+    return factory.getObject();
+  }
+}
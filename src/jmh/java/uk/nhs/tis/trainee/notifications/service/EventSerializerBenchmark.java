@@ -0,0 +1,122 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_CREATED;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.nhs.tis.trainee.notifications.config.ObjectIdSerializerModule;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
+import uk.nhs.tis.trainee.notifications.model.TisReferenceType;
+
+/**
+ * Benchmarks for serializing notification history events for broadcast, comparing the shared
+ * writer against building a mapper and intermediate tree for every event. Run with the GC
+ * profiler to report the bytes allocated per event.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSerializerBenchmark {
+
+  private EventSerializer eventSerializer;
+  private History history;
+
+  /**
+   * Prepare the serializer and a representative history event.
+   */
+  @Setup
+  public void setUp() {
+    eventSerializer = new EventSerializer();
+
+    String templateName = PROGRAMME_CREATED.getTemplateName();
+    String version = BenchmarkFixtures.templateVersion(EMAIL, templateName);
+
+    history = History.builder()
+        .id(ObjectId.get())
+        .tisReference(new TisReferenceInfo(TisReferenceType.PROGRAMME_MEMBERSHIP, "40"))
+        .type(PROGRAMME_CREATED)
+        .recipient(new RecipientInfo("47165", EMAIL, "anthony.maillig@example.com"))
+        .template(new TemplateInfo(templateName, version, BenchmarkFixtures.templateVariables()))
+        .sentAt(Instant.parse("2024-07-01T09:00:00Z"))
+        .status(SENT)
+        .build();
+  }
+
+  /**
+   * Serialize the event with a new mapper and an intermediate tree, as previously done for every
+   * broadcast event.
+   *
+   * @return The serialized event.
+   */
+  @Benchmark
+  public String perEventMapperTree() {
+    ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .registerModule(new ObjectIdSerializerModule());
+    return objectMapper.valueToTree(history).toString();
+  }
+
+  /**
+   * Serialize the event to a string with the shared writer.
+   *
+   * @return The serialized event.
+   */
+  @Benchmark
+  public String sharedWriterString() {
+    return eventSerializer.serialize(history);
+  }
+
+  /**
+   * Serialize the event to bytes with the shared writer.
+   *
+   * @return The serialized event.
+   */
+  @Benchmark
+  public byte[] sharedWriterBytes() {
+    return eventSerializer.serializeToBytes(history);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+import static uk.nhs.tis.trainee.notifications.model.MessageType.IN_APP;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.UNREAD;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.DAY_ONE;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_CREATED;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.util.unit.DataSize;
+import uk.nhs.tis.trainee.notifications.dto.HistoryDto;
+import uk.nhs.tis.trainee.notifications.mapper.HistoryMapperImpl;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
+import uk.nhs.tis.trainee.notifications.model.MessageType;
+import uk.nhs.tis.trainee.notifications.model.NotificationType;
+import uk.nhs.tis.trainee.notifications.model.TisReferenceType;
+
+/**
+ * Benchmarks for mapping notification history to DTOs, including rebuilding the subject.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HistoryServiceBenchmark {
+
+  @Param({"EMAIL", "IN_APP"})
+  public MessageType messageType;
+
+  private HistoryService historyService;
+  private MethodHandle toDto;
+  private History.HistoryBuilder historyBuilder;
+  private History history;
+
+  /**
+   * Prepare the history service and a representative history item, the private DTO conversion is
+   * accessed through a method handle so it can be measured in isolation.
+   *
+   * @throws ReflectiveOperationException If the conversion method could not be found.
+   */
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    TemplateService templateService = BenchmarkFixtures.templateService(DataSize.ofMegabytes(16));
+    RenderedMessageCache messageCache = new RenderedMessageCache(new ConcurrentMapCacheManager(),
+        new SimpleMeterRegistry(), DataSize.ofMegabytes(32), false);
+    EventOutbox eventOutbox = new EventOutbox(null, null, false, false, Duration.ZERO);
+    historyService = new HistoryService(null, templateService, null, eventOutbox,
+        new HistoryMapperImpl(), null, messageCache, Duration.ofMinutes(15));
+
+    MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(HistoryService.class,
+        MethodHandles.lookup());
+    toDto = lookup.findVirtual(HistoryService.class, "toDto",
+        MethodType.methodType(HistoryDto.class, History.class));
+
+    NotificationType notificationType = messageType == EMAIL ? PROGRAMME_CREATED : DAY_ONE;
+    String templateName = notificationType.getTemplateName();
+    String version = BenchmarkFixtures.templateVersion(messageType, templateName);
+
+    historyBuilder = History.builder()
+        .tisReference(new TisReferenceInfo(TisReferenceType.PROGRAMME_MEMBERSHIP, "40"))
+        .type(notificationType)
+        .recipient(new RecipientInfo("47165", messageType, "anthony.maillig@example.com"))
+        .template(new TemplateInfo(templateName, version, BenchmarkFixtures.templateVariables()))
+        .sentAt(Instant.parse("2024-07-01T09:00:00Z"))
+        .status(messageType == IN_APP ? UNREAD : SENT);
+    history = historyBuilder.id(ObjectId.get()).build();
+  }
+
+  /**
+   * Convert the history to a DTO, with the rebuilt subject served from the message cache.
+   *
+   * @return The converted DTO.
+   * @throws Throwable If the conversion failed.
+   */
+  @Benchmark
+  public HistoryDto toDtoCached() throws Throwable {
+    return (HistoryDto) toDto.invoke(historyService, history);
+  }
+
+  /**
+   * Convert a history with a new ID to a DTO, so the subject is not in the message cache and is
+   * rebuilt. The in-app output cache is left warm, as it is shared between trainees.
+   *
+   * @return The converted DTO.
+   * @throws Throwable If the conversion failed.
+   */
+  @Benchmark
+  public HistoryDto toDtoUncached() throws Throwable {
+    History uncached = historyBuilder.id(ObjectId.get()).build();
+    return (HistoryDto) toDto.invoke(historyService, uncached);
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static uk.nhs.tis.trainee.notifications.model.LocalOfficeContactType.DEFERRAL;
+import static uk.nhs.tis.trainee.notifications.model.LocalOfficeContactType.ONBOARDING_SUPPORT;
+import static uk.nhs.tis.trainee.notifications.model.LocalOfficeContactType.POG;
+import static uk.nhs.tis.trainee.notifications.model.LocalOfficeContactType.TSS_SUPPORT;
+import static uk.nhs.tis.trainee.notifications.service.NotificationService.CONTACT_FIELD;
+import static uk.nhs.tis.trainee.notifications.service.NotificationService.CONTACT_TYPE_FIELD;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.nhs.tis.trainee.notifications.model.LocalOfficeContactType;
+
+/**
+ * Benchmarks for the local office contact enrichment applied to notification variables.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NotificationServiceBenchmark {
+
+  private static final String DEFAULT_CONTACT = "your local office";
+
+  private NotificationService notificationService;
+  private List<Map<String, String>> ownerContacts;
+
+  /**
+   * Prepare the notification service and a representative local office contact list, which has
+   * every contact type except the period of grace and deferral contacts.
+   */
+  @Setup
+  public void setUp() {
+    notificationService = new NotificationService(null, null, null, null, null, null, null,
+        "https://local.trainee.com", "https://local.reference.com", 60, List.of(),
+        BenchmarkFixtures.TIMEZONE);
+
+    ownerContacts = Arrays.stream(LocalOfficeContactType.values())
+        .filter(type -> type != POG && type != DEFERRAL)
+        .map(type -> Map.of(
+            CONTACT_TYPE_FIELD, type.getContactTypeName(),
+            CONTACT_FIELD, type.name().toLowerCase() + "@example.com"))
+        .toList();
+  }
+
+  /**
+   * Get a contact which is present in the contact list.
+   *
+   * @return The found contact.
+   */
+  @Benchmark
+  public String getOwnerContact() {
+    return notificationService.getOwnerContact(ownerContacts, ONBOARDING_SUPPORT, TSS_SUPPORT,
+        DEFAULT_CONTACT);
+  }
+
+  /**
+   * Get a contact which is missing from the contact list, using the fallback contact type.
+   *
+   * @return The fallback contact.
+   */
+  @Benchmark
+  public String getOwnerContactFallback() {
+    return notificationService.getOwnerContact(ownerContacts, POG, TSS_SUPPORT, DEFAULT_CONTACT);
+  }
+
+  /**
+   * Get a contact which is missing from the contact list, without a fallback contact type.
+   *
+   * @return The default contact.
+   */
+  @Benchmark
+  public String getOwnerContactDefault() {
+    return notificationService.getOwnerContact(ownerContacts, DEFERRAL, null, DEFAULT_CONTACT);
+  }
+
+  /**
+   * Get the href type for a URL contact.
+   *
+   * @return The href type.
+   */
+  @Benchmark
+  public String getHrefTypeForUrl() {
+    return notificationService.getHrefTypeForContact("https://www.example.com/contact");
+  }
+
+  /**
+   * Get the href type for an email contact.
+   *
+   * @return The href type.
+   */
+  @Benchmark
+  public String getHrefTypeForEmail() {
+    return notificationService.getHrefTypeForContact("onboarding@example.com");
+  }
+
+  /**
+   * Get the href type for a contact which is neither a URL nor an email address.
+   *
+   * @return The href type.
+   */
+  @Benchmark
+  public String getHrefTypeForNonHref() {
+    return notificationService.getHrefTypeForContact("your local office");
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.LTFT_SUBMITTED;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.nhs.tis.trainee.notifications.mapper.HistoryMapper;
+import uk.nhs.tis.trainee.notifications.mapper.HistoryMapperImpl;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
+import uk.nhs.tis.trainee.notifications.model.TisReferenceType;
+
+/**
+ * Benchmarks for serializing a status change broadcast event, comparing the full notification
+ * history against the compact status event. The history uses the representative template
+ * variables, including the LTFT form stored by the LTFT listener. The payload size of each event
+ * is printed during setup, run with the GC profiler to report the bytes allocated per event.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatusEventBenchmark {
+
+  private EventSerializer eventSerializer;
+  private HistoryMapper historyMapper;
+  private History history;
+
+  /**
+   * Prepare the serializer and a representative delivered notification.
+   */
+  @Setup
+  public void setUp() {
+    eventSerializer = new EventSerializer();
+    historyMapper = new HistoryMapperImpl();
+
+    String templateName = LTFT_SUBMITTED.getTemplateName();
+    String version = BenchmarkFixtures.templateVersion(EMAIL, templateName);
+
+    history = History.builder()
+        .id(ObjectId.get())
+        .tisReference(new TisReferenceInfo(TisReferenceType.LTFT, "ltft_47165_001"))
+        .type(LTFT_SUBMITTED)
+        .recipient(new RecipientInfo("47165", EMAIL, "anthony.maillig@example.com"))
+        .template(new TemplateInfo(templateName, version, BenchmarkFixtures.templateVariables()))
+        .sentAt(Instant.parse("2024-07-04T12:00:00Z"))
+        .status(SENT)
+        .latestStatusEventAt(Instant.parse("2024-07-04T12:00:05Z"))
+        .build();
+
+    int fullSize = fullHistory().length;
+    int statusSize = statusEvent().length;
+    System.out.printf("%nStatus change payload: full history %d bytes, status event %d bytes"
+        + " (%.1f%% of full).%n", fullSize, statusSize, 100.0 * statusSize / fullSize);
+  }
+
+  /**
+   * Serialize a status change as the full notification history.
+   *
+   * @return The serialized event.
+   */
+  @Benchmark
+  public byte[] fullHistory() {
+    return eventSerializer.serializeToBytes(history);
+  }
+
+  /**
+   * Serialize a status change as a compact status event.
+   *
+   * @return The serialized event.
+   */
+  @Benchmark
+  public byte[] statusEvent() {
+    return eventSerializer.serializeToBytes(historyMapper.toStatusEvent(history));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+import org.thymeleaf.context.Context;
+
+/**
+ * Benchmarks for building template contexts, including the localization of timestamps.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateContextBenchmark {
+
+  private TemplateService templateService;
+  private MethodHandle localizeTimestamps;
+  private Map<String, Object> variables;
+
+  /**
+   * Prepare the template service and variables, the private timestamp localization is accessed
+   * through a method handle so it can be measured in isolation.
+   *
+   * @throws ReflectiveOperationException If the localization method could not be found.
+   */
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    templateService = BenchmarkFixtures.templateService(DataSize.ofMegabytes(16));
+    variables = BenchmarkFixtures.templateVariables();
+
+    MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(TemplateService.class,
+        MethodHandles.lookup());
+    localizeTimestamps = lookup.findVirtual(TemplateService.class, "localizeTimestamps",
+        MethodType.methodType(Map.class, Map.class));
+  }
+
+  /**
+   * Localize the timestamps in the template variables.
+   *
+   * @return The localized variables.
+   * @throws Throwable If the localization failed.
+   */
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public Map<String, Object> localizeTimestamps() throws Throwable {
+    return (Map<String, Object>) localizeTimestamps.invoke(templateService, variables);
+  }
+
+  /**
+   * Build a template context from the template variables.
+   *
+   * @return The built context.
+   */
+  @Benchmark
+  public Context buildContext() {
+    return templateService.buildContext(variables);
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+
+import jakarta.activation.DataHandler;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.util.unit.DataSize;
+import org.thymeleaf.context.Context;
+import uk.nhs.tis.trainee.notifications.service.TemplateService.RenderedMessage;
+
+/**
+ * Benchmarks for rendering an email subject and content, comparing the single-pass message
+ * rendering with separate subject and content passes, and a streamed MIME body with a string
+ * body. Run with the GC profiler to compare allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateMessageBenchmark {
+
+  private static final String SELECTOR_SUBJECT = "subject";
+  private static final String SELECTOR_CONTENT = "content";
+
+  @Param({
+      "coj-confirmation",
+      "ltft-submitted",
+      "placement-updated-week-12",
+      "programme-created"
+  })
+  public String template;
+
+  private TemplateService templateService;
+  private String templatePath;
+  private Map<String, Object> variables;
+  private Session session;
+
+  /**
+   * Resolve the configured template version and prepare the template variables.
+   */
+  @Setup
+  public void setUp() {
+    templateService = BenchmarkFixtures.templateService(DataSize.ofMegabytes(16));
+    templatePath = BenchmarkFixtures.templatePath(EMAIL, template);
+    variables = BenchmarkFixtures.templateVariables(EMAIL, template);
+    session = Session.getInstance(new Properties());
+  }
+
+  /**
+   * Render the subject and content with a separate pass for each selector.
+   *
+   * @return The rendered subject and content.
+   */
+  @Benchmark
+  public RenderedMessage twoPass() {
+    Context context = templateService.buildContext(variables);
+    String subject = templateService.process(templatePath, Set.of(SELECTOR_SUBJECT), context);
+    String content = templateService.process(templatePath, Set.of(SELECTOR_CONTENT), context);
+    return new RenderedMessage(subject, content);
+  }
+
+  /**
+   * Render the subject and content in a single pass.
+   *
+   * @return The rendered subject and content.
+   */
+  @Benchmark
+  public RenderedMessage singlePass() {
+    Context context = templateService.buildContext(variables);
+    return templateService.processMessage(templatePath, context);
+  }
+
+  /**
+   * Build and write a MIME message with the content rendered to a string body.
+   *
+   * @return The built MIME message.
+   * @throws MessagingException If the message could not be built.
+   * @throws IOException        If the message could not be written.
+   */
+  @Benchmark
+  public MimeMessage stringBody() throws MessagingException, IOException {
+    Context context = templateService.buildContext(variables);
+    RenderedMessage message = templateService.processMessage(templatePath, context);
+
+    MimeMessage mimeMessage = new MimeMessage(session);
+    MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, false,
+        StandardCharsets.UTF_8.name());
+    helper.setSubject(message.subject());
+    helper.setText(message.content(), true);
+
+    mimeMessage.writeTo(OutputStream.nullOutputStream());
+    return mimeMessage;
+  }
+
+  /**
+   * Build and write a MIME message with the content streamed in to the body's data source.
+   *
+   * @return The built MIME message.
+   * @throws MessagingException If the message could not be built.
+   * @throws IOException        If the message could not be written.
+   */
+  @Benchmark
+  public MimeMessage streamedBody() throws MessagingException, IOException {
+    Context context = templateService.buildContext(variables);
+    RenderedContentDataSource content = new RenderedContentDataSource();
+    String subject;
+
+    try (Writer contentWriter = content.getWriter()) {
+      subject = templateService.processMessage(templatePath, context, contentWriter);
+    }
+
+    MimeMessage mimeMessage = new MimeMessage(session);
+    MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, false,
+        StandardCharsets.UTF_8.name());
+    helper.setSubject(subject);
+    mimeMessage.setDataHandler(new DataHandler(content));
+
+    mimeMessage.writeTo(OutputStream.nullOutputStream());
+    return mimeMessage;
+  }
+}
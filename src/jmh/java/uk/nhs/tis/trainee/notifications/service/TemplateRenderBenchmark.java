@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+import org.thymeleaf.context.Context;
+import uk.nhs.tis.trainee.notifications.model.MessageType;
+
+/**
+ * Benchmarks for rendering each email and in-app template at its configured version.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateRenderBenchmark {
+
+  @Param({
+      "email/coj-confirmation",
+      "email/credential-revoked",
+      "email/email-updated-new",
+      "email/email-updated-old",
+      "email/form-submitted",
+      "email/form-updated",
+      "email/gmc-rejected-lo",
+      "email/gmc-rejected-trainee",
+      "email/gmc-updated",
+      "email/ltft-admin-unsubmitted",
+      "email/ltft-approved",
+      "email/ltft-approved-tpd",
+      "email/ltft-rejected",
+      "email/ltft-rejected-tpd",
+      "email/ltft-submitted",
+      "email/ltft-submitted-tpd",
+      "email/ltft-unsubmitted",
+      "email/ltft-updated",
+      "email/ltft-withdrawn",
+      "email/placement-updated-week-12",
+      "email/placement-updated-week-12-foundation",
+      "email/programme-created",
+      "email/programme-day-one",
+      "email/programme-pog-month-12",
+      "email/programme-pog-month-6",
+      "email/programme-updated-week-0",
+      "email/programme-updated-week-1",
+      "email/programme-updated-week-12",
+      "email/programme-updated-week-2",
+      "email/programme-updated-week-4",
+      "email/programme-updated-week-8",
+      "in-app/day-one",
+      "in-app/day-one-foundation",
+      "in-app/deferral",
+      "in-app/deferral-foundation",
+      "in-app/e-portfolio",
+      "in-app/f2-ro-connection",
+      "in-app/indemnity-insurance",
+      "in-app/less-than-full-time",
+      "in-app/less-than-full-time-foundation",
+      "in-app/non-employment",
+      "in-app/non-employment-foundation",
+      "in-app/placement-information",
+      "in-app/placement-information-foundation",
+      "in-app/placement-rollout-2024-correction",
+      "in-app/placement-useful-information",
+      "in-app/placement-useful-information-foundation",
+      "in-app/sponsorship",
+      "in-app/sponsorship-foundation",
+      "in-app/welcome"
+  })
+  public String template;
+
+  private TemplateService templateService;
+  private String templatePath;
+  private Map<String, Object> variables;
+
+  /**
+   * Resolve the configured template version and prepare the template variables.
+   */
+  @Setup
+  public void setUp() {
+    String[] templateParts = template.split("/", 2);
+    MessageType messageType = Arrays.stream(MessageType.values())
+        .filter(type -> type.getTemplatePath().equals(templateParts[0]))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown message type " + template));
+
+    templateService = BenchmarkFixtures.templateService(DataSize.ofMegabytes(16));
+    templatePath = BenchmarkFixtures.templatePath(messageType, templateParts[1]);
+    variables = BenchmarkFixtures.templateVariables(messageType, templateParts[1]);
+  }
+
+  /**
+   * Render the full template, bypassing any output cache.
+   *
+   * @return The rendered template.
+   */
+  @Benchmark
+  public String render() {
+    Context context = templateService.buildContext(variables);
+    return templateService.process(templatePath, null, context);
+  }
+
+  /**
+   * Process the full template through the service entry point, in-app output will be served from
+   * the output cache once warm.
+   *
+   * @return The processed template.
+   */
+  @Benchmark
+  public String process() {
+    return templateService.process(templatePath, null, variables);
+  }
+}
@@ -21,6 +21,9 @@
 
 package uk.nhs.tis.trainee.notifications.api;
 
+import static uk.nhs.tis.trainee.notifications.api.util.CacheHeaderUtil.createStrongEtag;
+import static uk.nhs.tis.trainee.notifications.api.util.CacheHeaderUtil.privateImmutable;
+
 import java.util.List;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
@@ -67,7 +70,8 @@ public class HistoryResource {
   }
 
   /**
-   * Get the historic notification with the given ID.
+   * Get the historic notification with the given ID. The rebuilt message is returned with a
+   * strong ETag, so conditional requests for an unchanged message receive a 304 response.
    *
    * @param notificationId The ID of the notification to get.
    * @return The found notification.
@@ -77,7 +81,11 @@ public class HistoryResource {
     log.info("Rebuilding message for notification {}.", notificationId);
     Optional<String> message = service.rebuildMessage(notificationId);
 
-    return message.map(msg -> ResponseEntity.ok().contentType(MediaType.TEXT_HTML).body(msg))
+    return message.map(msg -> ResponseEntity.ok()
+            .contentType(MediaType.TEXT_HTML)
+            .eTag(createStrongEtag(msg))
+            .cacheControl(privateImmutable())
+            .body(msg))
         .orElseGet(() -> ResponseEntity.notFound().build());
   }
 }
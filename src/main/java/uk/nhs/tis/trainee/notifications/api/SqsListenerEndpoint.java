@@ -0,0 +1,155 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.api;
+
+import io.awspring.cloud.sqs.listener.SqsContainerOptions;
+import io.awspring.cloud.sqs.listener.SqsMessageListenerContainer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.notifications.service.SqsListenerCoordinator;
+
+/**
+ * An actuator endpoint for viewing the SQS listener containers and adjusting their concurrency at
+ * runtime, for example to increase throughput during peak periods without redeploying. Changes
+ * are not persisted, a restart reverts to the configured values.
+ *
+ * <p>The endpoint is only exposed over JMX, as the application does not authenticate actuator
+ * requests.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "sqsListeners")
+public class SqsListenerEndpoint {
+
+  private final SqsListenerCoordinator listenerCoordinator;
+
+  /**
+   * Create the SQS listener endpoint.
+   *
+   * @param listenerCoordinator The coordinator used to view and update the SQS listeners.
+   */
+  public SqsListenerEndpoint(SqsListenerCoordinator listenerCoordinator) {
+    this.listenerCoordinator = listenerCoordinator;
+  }
+
+  /**
+   * Get the state of all SQS listener containers.
+   *
+   * @return The listener states, keyed by listener ID.
+   */
+  @ReadOperation
+  public Map<String, ListenerState> listeners() {
+    Map<String, ListenerState> states = new TreeMap<>();
+
+    for (SqsMessageListenerContainer<?> container : listenerCoordinator.getContainers()) {
+      states.put(container.getId(), toState(container));
+    }
+
+    return states;
+  }
+
+  /**
+   * Get the state of an SQS listener container.
+   *
+   * @param id The ID of the listener.
+   * @return The listener state, or null if the listener was not found.
+   */
+  @ReadOperation
+  public ListenerState listener(@Selector String id) {
+    SqsMessageListenerContainer<?> container = listenerCoordinator.getContainer(id);
+    return container == null ? null : toState(container);
+  }
+
+  /**
+   * Update the maximum number of concurrent messages for an SQS listener container. A running
+   * container is stopped, waiting for in-flight messages, and restarted with the new value, a
+   * container paused by the send rate governor stays paused.
+   *
+   * @param id                    The ID of the listener.
+   * @param maxConcurrentMessages The new maximum number of concurrent messages.
+   * @return The updated listener state, or null if the listener was not found.
+   */
+  @WriteOperation
+  public ListenerState updateConcurrency(@Selector String id, int maxConcurrentMessages) {
+    if (maxConcurrentMessages < 1) {
+      throw new InvalidEndpointRequestException("Invalid max concurrent messages.",
+          "The max concurrent messages must be at least 1.");
+    }
+
+    SqsMessageListenerContainer<?> container = listenerCoordinator.getContainer(id);
+
+    if (container == null) {
+      return null;
+    }
+
+    int previous = container.getContainerOptions().getMaxConcurrentMessages();
+    int maxMessagesPerPoll = container.getContainerOptions().getMaxMessagesPerPoll();
+
+    listenerCoordinator.reconfigure(id, options -> {
+      options.maxConcurrentMessages(maxConcurrentMessages);
+
+      // A poll can not receive more messages than can be processed concurrently.
+      if (maxMessagesPerPoll > maxConcurrentMessages) {
+        options.maxMessagesPerPoll(maxConcurrentMessages);
+      }
+    });
+
+    log.info("Updated SQS listener '{}' max concurrent messages from {} to {}.", id, previous,
+        maxConcurrentMessages);
+    return toState(container);
+  }
+
+  /**
+   * Get the current state of an SQS listener container.
+   *
+   * @param container The container.
+   * @return The container state.
+   */
+  private ListenerState toState(SqsMessageListenerContainer<?> container) {
+    SqsContainerOptions options = container.getContainerOptions();
+    return new ListenerState(container.isRunning(),
+        listenerCoordinator.isPaused(container.getId()), options.getMaxConcurrentMessages(),
+        options.getMaxMessagesPerPoll(), options.getPollTimeout());
+  }
+
+  /**
+   * The state of an SQS listener container.
+   *
+   * @param running               Whether the container is running.
+   * @param paused                Whether the container is paused by the send rate governor.
+   * @param maxConcurrentMessages The maximum number of messages processed at once.
+   * @param maxMessagesPerPoll    The maximum number of messages received by each poll.
+   * @param pollTimeout           The maximum time to wait for messages in each poll.
+   */
+  public record ListenerState(boolean running, boolean paused, int maxConcurrentMessages,
+      int maxMessagesPerPoll, Duration pollTimeout) {
+
+  }
+}
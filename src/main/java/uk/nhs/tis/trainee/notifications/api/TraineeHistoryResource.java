@@ -21,6 +21,8 @@
 
 package uk.nhs.tis.trainee.notifications.api;
 
+import static uk.nhs.tis.trainee.notifications.api.util.CacheHeaderUtil.createStrongEtag;
+import static uk.nhs.tis.trainee.notifications.api.util.CacheHeaderUtil.privateImmutable;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.ARCHIVED;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.READ;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.UNREAD;
@@ -95,7 +97,8 @@ public class TraineeHistoryResource {
   }
 
   /**
-   * Get the historic notification with the given ID.
+   * Get the historic notification with the given ID. The rebuilt message is returned with a
+   * strong ETag, so conditional requests for an unchanged message receive a 304 response.
    *
    * @param notificationId The ID of the notification to get.
    * @param token          The authorization token from the request header.
@@ -116,12 +119,20 @@ public class TraineeHistoryResource {
       log.info("Rebuilding full message for notification {}.", notificationId);
       Optional<HistoryMessageDto> message = service.rebuildMessageFull(traineeId, notificationId);
 
-      return ResponseEntity.of(message);
+      return message.map(msg -> ResponseEntity.ok()
+              .eTag(createStrongEtag(msg.subject(), msg.content(), msg.sentAt()))
+              .cacheControl(privateImmutable())
+              .body(msg))
+          .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     log.info("Rebuilding message content for notification {}.", notificationId);
     Optional<String> message = service.rebuildMessageContent(traineeId, notificationId);
-    return message.map(msg -> ResponseEntity.ok().contentType(MediaType.TEXT_HTML).body(msg))
+    return message.map(msg -> ResponseEntity.ok()
+            .contentType(MediaType.TEXT_HTML)
+            .eTag(createStrongEtag(msg))
+            .cacheControl(privateImmutable())
+            .body(msg))
         .orElseGet(() -> ResponseEntity.notFound().build());
   }
 
@@ -0,0 +1,63 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.api.util;
+
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+
+/**
+ * A utility for building HTTP caching headers.
+ */
+public class CacheHeaderUtil {
+
+  private static final char PART_SEPARATOR = '\u001f';
+
+  private CacheHeaderUtil() {
+  }
+
+  /**
+   * Create a strong entity tag for the given response parts.
+   *
+   * @param parts The parts of the response body which identify its representation.
+   * @return The quoted entity tag.
+   */
+  public static String createStrongEtag(Object... parts) {
+    StringBuilder builder = new StringBuilder();
+
+    for (Object part : parts) {
+      builder.append(part).append(PART_SEPARATOR);
+    }
+
+    byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+    return "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+  }
+
+  /**
+   * Create the cache control for a private response which will not change.
+   *
+   * @return The built cache control.
+   */
+  public static CacheControl privateImmutable() {
+    return CacheControl.empty().cachePrivate().immutable();
+  }
+}
@@ -22,6 +22,7 @@
 package uk.nhs.tis.trainee.notifications.config;
 
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
@@ -29,7 +30,10 @@ import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.index.IndexOperations;
+import uk.nhs.tis.trainee.notifications.model.BulkEmailMessage;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
 import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.ScheduleSlot;
 
 /**
  * Custom configuration for Mongo collections.
@@ -52,5 +56,18 @@ public class MongoCollectionConfiguration {
   public void initIndexes() {
     IndexOperations indexOps = template.indexOps(History.class);
     indexOps.createIndex(new Index().on("recipient.id", Direction.ASC));
+    indexOps.createIndex(new Index().on("status", Direction.ASC).on("sentAt", Direction.ASC));
+
+    IndexOperations slotIndexOps = template.indexOps(ScheduleSlot.class);
+    slotIndexOps.createIndex(new Index().on("expiresAt", Direction.ASC).expire(Duration.ZERO));
+
+    IndexOperations bulkMessageIndexOps = template.indexOps(BulkEmailMessage.class);
+    bulkMessageIndexOps.createIndex(
+        new Index().on("expiresAt", Direction.ASC).expire(Duration.ZERO));
+
+    IndexOperations outboxIndexOps = template.indexOps(EventOutboxEntry.class);
+    outboxIndexOps.createIndex(
+        new Index().on("deliveredAt", Direction.ASC).on("createdAt", Direction.ASC));
+    outboxIndexOps.createIndex(new Index().on("expiresAt", Direction.ASC).expire(Duration.ZERO));
   }
 }
@@ -25,12 +25,14 @@ import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.data.convert.Jsr310Converters;
 import org.springframework.data.convert.ReadingConverter;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
@@ -62,6 +64,19 @@ public class MongoConfiguration {
     return new MongoTemplate(dbFactory, mongoConverter);
   }
 
+  /**
+   * Mongo transaction manager, used to write notification history changes and their outbox
+   * events together. Transactions require Mongo to be running as a replica set.
+   *
+   * @param dbFactory The Mongo Database Factory to use.
+   * @return the Mongo transaction manager.
+   */
+  @Bean
+  @ConditionalOnProperty(name = "application.sns.outbox.transactional", havingValue = "true")
+  public MongoTransactionManager mongoTransactionManager(MongoDatabaseFactory dbFactory) {
+    return new MongoTransactionManager(dbFactory);
+  }
+
   /**
    * Map dates to LocalDate when the target is an Object.
    */
@@ -0,0 +1,120 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.config;
+
+import io.awspring.cloud.sqs.config.SqsMessageListenerContainerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import uk.nhs.tis.trainee.notifications.config.SqsListenerProperties.ListenerProperties;
+
+/**
+ * Registers a dedicated SQS listener container factory for each listener configured in the
+ * {@link SqsListenerProperties}, named using {@link #getFactoryName(String)} so it can be
+ * referenced by the listener's {@code factory} attribute.
+ */
+@Slf4j
+class SqsListenerContainerFactoryRegistrar implements BeanDefinitionRegistryPostProcessor {
+
+  private static final String PROPERTIES_PREFIX = "application.sqs";
+  private static final String FACTORY_NAME_SUFFIX = "-container-factory";
+
+  private final SqsListenerProperties properties;
+
+  private BeanFactory beanFactory;
+
+  /**
+   * Create a registrar for the listeners configured in the given environment.
+   *
+   * @param environment The environment to bind the listener properties from.
+   */
+  SqsListenerContainerFactoryRegistrar(Environment environment) {
+    properties = Binder.get(environment)
+        .bind(PROPERTIES_PREFIX, SqsListenerProperties.class)
+        .orElseGet(() -> new SqsListenerProperties(null, null));
+  }
+
+  /**
+   * Get the name of the container factory bean for a listener.
+   *
+   * @param listenerId The ID of the listener.
+   * @return The container factory bean name.
+   */
+  static String getFactoryName(String listenerId) {
+    return listenerId + FACTORY_NAME_SUFFIX;
+  }
+
+  @Override
+  public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+    for (String listenerId : properties.listeners().keySet()) {
+      ListenerProperties listener = properties.getListener(listenerId);
+      RootBeanDefinition definition = new RootBeanDefinition(
+          SqsMessageListenerContainerFactory.class,
+          () -> createFactory(beanFactory.getBean(SqsAsyncClient.class), listener));
+      registry.registerBeanDefinition(getFactoryName(listenerId), definition);
+      log.debug("Registered SQS container factory for listener '{}' with {}.", listenerId,
+          listener);
+    }
+  }
+
+  @Override
+  public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    this.beanFactory = beanFactory;
+  }
+
+  /**
+   * Create a listener container factory with the given tuning.
+   *
+   * @param sqsAsyncClient The SQS client to use for the listener containers.
+   * @param listener       The tuning for the listener, unset values use the container defaults.
+   * @return The built container factory.
+   */
+  static SqsMessageListenerContainerFactory<Object> createFactory(SqsAsyncClient sqsAsyncClient,
+      ListenerProperties listener) {
+    return SqsMessageListenerContainerFactory.builder()
+        .sqsAsyncClient(sqsAsyncClient)
+        .configure(options -> {
+          if (listener.maxConcurrentMessages() != null) {
+            options.maxConcurrentMessages(listener.maxConcurrentMessages());
+          }
+          if (listener.maxMessagesPerPoll() != null) {
+            options.maxMessagesPerPoll(listener.maxMessagesPerPoll());
+          }
+          if (listener.pollTimeout() != null) {
+            options.pollTimeout(listener.pollTimeout());
+          }
+          if (listener.messageVisibility() != null) {
+            options.messageVisibility(listener.messageVisibility());
+          }
+          if (listener.acknowledgementMode() != null) {
+            options.acknowledgementMode(listener.acknowledgementMode());
+          }
+        })
+        .build();
+  }
+}
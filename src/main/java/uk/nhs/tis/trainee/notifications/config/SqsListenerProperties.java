@@ -0,0 +1,106 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.config;
+
+import io.awspring.cloud.sqs.listener.acknowledgement.handler.AcknowledgementMode;
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the SQS listener containers, with tuning for each listener.
+ *
+ * @param defaults  The default tuning, used where a listener does not override it.
+ * @param listeners The tuning for each listener, keyed by listener ID.
+ */
+@ConfigurationProperties(prefix = "application.sqs")
+public record SqsListenerProperties(
+    ListenerProperties defaults,
+    Map<String, ListenerProperties> listeners) {
+
+  /**
+   * Create the SQS listener properties, treating missing sections as empty.
+   *
+   * @param defaults  The default tuning, used where a listener does not override it.
+   * @param listeners The tuning for each listener, keyed by listener ID.
+   */
+  public SqsListenerProperties {
+    defaults = defaults == null ? ListenerProperties.EMPTY : defaults;
+    listeners = listeners == null ? Map.of() : Map.copyOf(listeners);
+  }
+
+  /**
+   * Get the tuning for a listener, with any unset values taken from the defaults.
+   *
+   * @param id The ID of the listener.
+   * @return The resolved listener properties.
+   */
+  public ListenerProperties getListener(String id) {
+    return listeners.getOrDefault(id, ListenerProperties.EMPTY).withDefaults(defaults);
+  }
+
+  /**
+   * Tuning for a single SQS listener container, unset values use the container defaults.
+   *
+   * @param maxConcurrentMessages The maximum number of messages processed at once.
+   * @param maxMessagesPerPoll    The maximum number of messages received by each poll.
+   * @param pollTimeout           The maximum time to wait for messages in each poll.
+   * @param messageVisibility     The visibility timeout applied to received messages.
+   * @param acknowledgementMode   When processed messages should be acknowledged.
+   */
+  public record ListenerProperties(
+      Integer maxConcurrentMessages,
+      Integer maxMessagesPerPoll,
+      Duration pollTimeout,
+      Duration messageVisibility,
+      AcknowledgementMode acknowledgementMode) {
+
+    static final ListenerProperties EMPTY = new ListenerProperties(null, null, null, null, null);
+
+    /**
+     * Fill any unset values from the given defaults.
+     *
+     * @param defaults The default properties.
+     * @return The merged listener properties.
+     */
+    ListenerProperties withDefaults(ListenerProperties defaults) {
+      return new ListenerProperties(
+          orElse(maxConcurrentMessages, defaults.maxConcurrentMessages),
+          orElse(maxMessagesPerPoll, defaults.maxMessagesPerPoll),
+          orElse(pollTimeout, defaults.pollTimeout),
+          orElse(messageVisibility, defaults.messageVisibility),
+          orElse(acknowledgementMode, defaults.acknowledgementMode));
+    }
+
+    /**
+     * Get the value if set, otherwise the default value.
+     *
+     * @param value        The value.
+     * @param defaultValue The default value, may also be null.
+     * @param <T>          The type of the value.
+     * @return The value, or the default if the value is null.
+     */
+    private static <T> T orElse(T value, T defaultValue) {
+      return value != null ? value : defaultValue;
+    }
+  }
+}
@@ -76,6 +76,15 @@ public final class TemplateVersionsProperties {
     return Optional.ofNullable(templateVersion);
   }
 
+  /**
+   * Get all configured template versions.
+   *
+   * @return An unmodifiable map of notification type to the configured template versions.
+   */
+  public Map<NotificationType, MessageTypeVersions> getTemplateVersions() {
+    return templateVersions;
+  }
+
   /**
    * A record that holds template versions for different message types.
    *
@@ -58,9 +58,10 @@ public record EmailEvent(String notificationType, Mail mail, Bounce bounce, Comp
    * A representation of the mail details included in an Amazon SES event.
    *
    * @param timestamp The timestamp of the email.
+   * @param messageId The SES message ID of the email.
    * @param headers   The headers sent with the email.
    */
-  public record Mail(Instant timestamp, List<MailHeader> headers) {
+  public record Mail(Instant timestamp, String messageId, List<MailHeader> headers) {
 
     /**
      * An email header.
@@ -25,10 +25,10 @@ import static uk.nhs.tis.trainee.notifications.model.NotificationType.COJ_CONFIR
 import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PROGRAMME_MEMBERSHIP;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
-import jakarta.mail.MessagingException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -62,14 +62,15 @@ public class ConditionsOfJoiningListener {
   }
 
   /**
-   * Handle Conditions of Joining published events.
+   * Handle Conditions of Joining published events. The message is acknowledged once the returned
+   * future completes, so the listener thread is not held while the email is sent.
    *
    * @param event The program membership event.
-   * @throws MessagingException If the message could not be sent.
+   * @return A future which completes once the notification has been sent and recorded.
    */
-  @SqsListener("${application.queues.coj-published}")
-  public void handleConditionsOfJoiningPublished(CojPublishedEvent event)
-      throws MessagingException {
+  @SqsListener(id = "coj-published", value = "${application.queues.coj-published}",
+      factory = "coj-published-container-factory")
+  public CompletableFuture<Void> handleConditionsOfJoiningPublished(CojPublishedEvent event) {
     log.info("Handling COJ published event {}.", event);
 
     Optional<HistoryDto> sent = historyService.findAllSentForTrainee(event.personId()).stream()
@@ -80,7 +81,7 @@ public class ConditionsOfJoiningListener {
 
     if (sent.isPresent()) {
       log.info("Skipping event as a Conditions of Joining confirmation was previously sent.");
-      return;
+      return CompletableFuture.completedFuture(null);
     }
 
     Map<String, Object> templateVariables = new HashMap<>();
@@ -92,8 +93,8 @@ public class ConditionsOfJoiningListener {
     String traineeId = event.personId();
     TisReferenceInfo tisReference = new TisReferenceInfo(
         PROGRAMME_MEMBERSHIP, event.programmeMembershipId().toString());
-    emailService.sendMessageToExistingUser(traineeId, COJ_CONFIRMATION, templateVersion,
-        templateVariables, tisReference, event.pdf());
-    log.info("COJ published notification sent for trainee {}.", traineeId);
+    return emailService.sendMessageToExistingUserAsync(traineeId, COJ_CONFIRMATION,
+            templateVersion, templateVariables, tisReference, event.pdf())
+        .thenRun(() -> log.info("COJ published notification sent for trainee {}.", traineeId));
   }
 }
@@ -22,12 +22,14 @@
 package uk.nhs.tis.trainee.notifications.event;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.notifications.dto.ContactDetailsEvent;
 import uk.nhs.tis.trainee.notifications.mapper.ContactDetailsMapper;
 import uk.nhs.tis.trainee.notifications.model.ContactDetails;
 import uk.nhs.tis.trainee.notifications.service.ContactDetailsService;
+import uk.nhs.tis.trainee.notifications.service.EventDeduplicationService;
 
 /**
  * A listener for contact details events.
@@ -36,20 +38,41 @@ import uk.nhs.tis.trainee.notifications.service.ContactDetailsService;
 @Component
 public class ContactDetailsListener {
 
+  private static final String UPDATED_QUEUE = "contact-details-updated";
+
   private ContactDetailsService service;
   private ContactDetailsMapper mapper;
+  private EventDeduplicationService deduplicationService;
 
-  public ContactDetailsListener(ContactDetailsService service, ContactDetailsMapper mapper) {
+  /**
+   * Construct a listener for contact details events.
+   *
+   * @param service              The contact details service.
+   * @param mapper               The contact details mapper.
+   * @param deduplicationService The service used to suppress repeated contact details events.
+   */
+  public ContactDetailsListener(ContactDetailsService service, ContactDetailsMapper mapper,
+      EventDeduplicationService deduplicationService) {
     this.service = service;
     this.mapper = mapper;
+    this.deduplicationService = deduplicationService;
   }
 
-  @SqsListener("${application.queues.contact-details-updated}")
+  @SqsListener(id = "contact-details-updated",
+      value = "${application.queues.contact-details-updated}",
+      factory = "contact-details-updated-container-factory")
   void handleUpdate(ContactDetailsEvent event) {
     log.info("Handling contact details update event {}.", event);
     if (event.recrd() != null && event.recrd().getData() != null) {
-      ContactDetails contactDetails = mapper.toEntity(event.recrd().getData());
+      Map<String, String> data = event.recrd().getData();
+
+      if (deduplicationService.isDuplicate(UPDATED_QUEUE, event.tisId(), data)) {
+        return;
+      }
+
+      ContactDetails contactDetails = mapper.toEntity(data);
       service.updateContactDetails(contactDetails);
+      deduplicationService.recordProcessed(UPDATED_QUEUE, event.tisId(), data);
     } else {
       log.info("Ignoring non contact details update event: {}", event);
     }
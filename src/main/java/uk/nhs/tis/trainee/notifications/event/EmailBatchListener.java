@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.event;
+
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.notifications.dto.EmailEvent;
+import uk.nhs.tis.trainee.notifications.model.BulkEmailMessage;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.HistoryStatusUpdate;
+import uk.nhs.tis.trainee.notifications.model.NotificationStatus;
+import uk.nhs.tis.trainee.notifications.repository.BulkEmailMessageRepository;
+import uk.nhs.tis.trainee.notifications.service.HistoryService;
+
+/**
+ * A batch listener for email events, such as delivery, bounce and complaints. The events received
+ * by each poll are applied to the notification history in a single bulk write, with their status
+ * changes published together. Messages are acknowledged individually, so that any events which
+ * can not be handled are redelivered without repeating the rest of the batch.
+ *
+ * @see EmailListener
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.email.event-batch.enabled", havingValue = "true")
+public class EmailBatchListener {
+
+  private final HistoryService historyService;
+  private final BulkEmailMessageRepository bulkEmailMessageRepository;
+
+  public EmailBatchListener(HistoryService historyService,
+      BulkEmailMessageRepository bulkEmailMessageRepository) {
+    this.historyService = historyService;
+    this.bulkEmailMessageRepository = bulkEmailMessageRepository;
+  }
+
+  /**
+   * Handle a batch of email events.
+   *
+   * @param messages        The email event messages from SES.
+   * @param acknowledgement The acknowledgement to use for successfully handled messages.
+   */
+  @SqsListener(id = "email-event", value = "${application.queues.email-event}",
+      factory = "email-event-container-factory", acknowledgementMode = "MANUAL")
+  void handleEmailEvents(List<Message<EmailEvent>> messages,
+      BatchAcknowledgement<EmailEvent> acknowledgement) {
+    log.debug("Received {} email event(s).", messages.size());
+    Map<String, ObjectId> bulkNotificationIds = getBulkNotificationIds(messages);
+
+    List<Message<EmailEvent>> handled = new ArrayList<>();
+    List<HistoryStatusUpdate> updates = new ArrayList<>();
+
+    for (Message<EmailEvent> message : messages) {
+      EmailEvent event = message.getPayload();
+
+      try {
+        ObjectId notificationId = EmailListener.getHeaderNotificationId(event.mail())
+            .map(ObjectId::new)
+            .or(() -> Optional.ofNullable(event.mail().messageId())
+                .map(bulkNotificationIds::get))
+            .orElseThrow(() -> new IllegalArgumentException("No notification ID found."));
+
+        String reason = EmailListener.getFailureReason(event);
+        NotificationStatus status = reason != null ? NotificationStatus.FAILED
+            : NotificationStatus.SENT;
+
+        if (event.mail().timestamp() != null) {
+          updates.add(new HistoryStatusUpdate(notificationId, status, reason,
+              event.mail().timestamp()));
+        } else {
+          // Without an event timestamp the update is unconditional, so it can not be batched.
+          historyService.updateStatus(notificationId.toString(), status, reason, null);
+        }
+
+        handled.add(message);
+      } catch (RuntimeException e) {
+        log.error("Unable to handle email event for message {}.", event.mail().messageId(), e);
+      }
+    }
+
+    List<History> updated = historyService.updateStatusesIfNewer(updates);
+    log.info("Handled {} email event(s), updating {} notification(s).", handled.size(),
+        updated.size());
+    acknowledgement.acknowledge(handled);
+
+    if (handled.size() < messages.size()) {
+      log.warn("Failed to handle {} of {} email event(s), they will be redelivered.",
+          messages.size() - handled.size(), messages.size());
+    }
+  }
+
+  /**
+   * Get the notification IDs for the bulk emails in a batch of email events. Bulk emails do not
+   * include the notification ID header, so the notifications are found together by SES message ID.
+   *
+   * @param messages The email event messages.
+   * @return The notification IDs, keyed by SES message ID.
+   */
+  private Map<String, ObjectId> getBulkNotificationIds(List<Message<EmailEvent>> messages) {
+    Set<String> messageIds = messages.stream()
+        .map(Message::getPayload)
+        .filter(event -> EmailListener.getHeaderNotificationId(event.mail()).isEmpty())
+        .map(event -> event.mail().messageId())
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+
+    if (messageIds.isEmpty()) {
+      return Map.of();
+    }
+
+    return bulkEmailMessageRepository.findAllById(messageIds).stream()
+        .collect(Collectors.toMap(BulkEmailMessage::messageId, BulkEmailMessage::notificationId));
+  }
+}
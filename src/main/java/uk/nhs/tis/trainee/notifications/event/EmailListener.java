@@ -23,26 +23,37 @@ package uk.nhs.tis.trainee.notifications.event;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
 import java.time.Instant;
+import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.notifications.dto.EmailEvent;
 import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Bounce;
 import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Complaint;
+import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Mail;
 import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Mail.MailHeader;
 import uk.nhs.tis.trainee.notifications.model.NotificationStatus;
+import uk.nhs.tis.trainee.notifications.repository.BulkEmailMessageRepository;
 import uk.nhs.tis.trainee.notifications.service.HistoryService;
 
 /**
- * A listener for email events.
+ * A listener for email events, handling each event individually unless batch handling is enabled.
+ *
+ * @see EmailBatchListener
  */
 @Slf4j
 @Component
+@ConditionalOnProperty(name = "application.email.event-batch.enabled", havingValue = "false",
+    matchIfMissing = true)
 public class EmailListener {
 
   private final HistoryService historyService;
+  private final BulkEmailMessageRepository bulkEmailMessageRepository;
 
-  public EmailListener(HistoryService historySrvice) {
+  public EmailListener(HistoryService historySrvice,
+      BulkEmailMessageRepository bulkEmailMessageRepository) {
     this.historyService = historySrvice;
+    this.bulkEmailMessageRepository = bulkEmailMessageRepository;
   }
 
   /**
@@ -50,16 +61,13 @@ public class EmailListener {
    *
    * @param event The email event from SES.
    */
-  @SqsListener("${application.queues.email-event}")
+  @SqsListener(id = "email-event", value = "${application.queues.email-event}",
+      factory = "email-event-container-factory")
   void handleEmailEvent(EmailEvent event) {
     String notificationId = getNotificationId(event);
     log.info("Handling email event for notification {}.", notificationId);
 
-    String reason = switch (event.notificationType()) {
-      case "Bounce" -> getReason(event.bounce());
-      case "Complaint" -> getReason(event.complaint());
-      default -> null;
-    };
+    String reason = getFailureReason(event);
 
     if (reason != null) {
       log.info("Updating notification {} with failure detail '{}'", notificationId, reason);
@@ -73,17 +81,46 @@ public class EmailListener {
   }
 
   /**
-   * Get the notification ID from the email event.
+   * Get the notification ID from the email event. Bulk emails do not include the notification ID
+   * header, so the notification is found using the SES message ID instead.
    *
    * @param event The email event to get the notification ID from.
-   * @return The notification ID from the email event headers.
+   * @return The notification ID from the email event headers or bulk message mapping.
    */
   private String getNotificationId(EmailEvent event) {
-    return event.mail().headers().stream()
+    Mail mail = event.mail();
+    return getHeaderNotificationId(mail)
+        .or(() -> Optional.ofNullable(mail.messageId())
+            .flatMap(bulkEmailMessageRepository::findById)
+            .map(message -> message.notificationId().toString()))
+        .orElseThrow(() -> new IllegalArgumentException("No notification ID found."));
+  }
+
+  /**
+   * Get the notification ID from the email event headers, bulk emails do not include the header.
+   *
+   * @param mail The mail details from the email event.
+   * @return The notification ID from the email headers, or empty if not included.
+   */
+  static Optional<String> getHeaderNotificationId(Mail mail) {
+    return mail.headers() == null ? Optional.empty() : mail.headers().stream()
         .filter(header -> header.name().equals("NotificationId"))
         .findFirst()
-        .orElseThrow(() -> new IllegalArgumentException("No notification ID found."))
-        .value();
+        .map(MailHeader::value);
+  }
+
+  /**
+   * Get the failure reason for an email event.
+   *
+   * @param event The email event.
+   * @return The failure reason, or null if the event is not a failure.
+   */
+  static String getFailureReason(EmailEvent event) {
+    return switch (event.notificationType()) {
+      case "Bounce" -> getReason(event.bounce());
+      case "Complaint" -> getReason(event.complaint());
+      default -> null;
+    };
   }
 
   /**
@@ -92,7 +129,7 @@ public class EmailListener {
    * @param bounce The bounce to construct a message for.
    * @return The reason message.
    */
-  private String getReason(Bounce bounce) {
+  private static String getReason(Bounce bounce) {
     return String.format("Bounce: %s - %s", bounce.bounceType(), bounce.bounceSubType());
   }
 
@@ -102,7 +139,7 @@ public class EmailListener {
    * @param complaint The complaint to construct a message for.
    * @return The reason message.
    */
-  private String getReason(Complaint complaint) {
+  private static String getReason(Complaint complaint) {
     // Check for nulls here as the complaint fields are optional.
     String reason = complaint.complaintSubType() != null ? complaint.complaintSubType()
         : complaint.complaintFeedbackType();
@@ -25,9 +25,9 @@ import static uk.nhs.tis.trainee.notifications.model.NotificationType.FORM_SUBMI
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.FORM_UPDATED;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
-import jakarta.mail.MessagingException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.Header;
@@ -62,17 +62,18 @@ public class FormListener {
    * Handle form update events.
    *
    * @param event The form update event message.
-   * @throws MessagingException If the message could not be sent.
+   * @return A future which completes once the notification has been sent and recorded.
    */
-  @SqsListener("${application.queues.form-updated}")
-  public void handleFormUpdate(FormUpdateEvent event) throws MessagingException {
+  @SqsListener(id = "form-updated", value = "${application.queues.form-updated}",
+      factory = "form-updated-container-factory")
+  public CompletableFuture<Void> handleFormUpdate(FormUpdateEvent event) {
     log.info("Handling form update event {}.", event);
 
     if (event.lifecycleState() != null
         && event.lifecycleState().equalsIgnoreCase("SUBMITTED")) {
       log.info("Ignoring form update event {} with lifecycle state {} since it will be handled by "
               + "handleFormPublished().", event, event.lifecycleState());
-      return;
+      return CompletableFuture.completedFuture(null);
     }
 
     Map<String, Object> templateVariables = new HashMap<>();
@@ -82,20 +83,21 @@ public class FormListener {
     templateVariables.put("eventDate", event.eventDate());
 
     String traineeId = event.traineeId();
-    emailService.sendMessageToExistingUser(traineeId, FORM_UPDATED, templateVersion,
-        templateVariables, null);
-    log.info("Form updated notification sent for trainee {}.", traineeId);
+    return emailService.sendMessageToExistingUserAsync(traineeId, FORM_UPDATED, templateVersion,
+            templateVariables, null)
+        .thenRun(() -> log.info("Form updated notification sent for trainee {}.", traineeId));
   }
 
   /**
    * Handle submitted Form published events.
    *
    * @param event The Form event.
-   * @throws MessagingException If the message could not be sent.
+   * @return A future which completes once the notification has been sent and recorded.
    */
-  @SqsListener("${application.queues.form-published}")
-  public void handleFormPublished(FormPublishedEvent event, @Header("form_type") FormType formType)
-      throws MessagingException {
+  @SqsListener(id = "form-published", value = "${application.queues.form-published}",
+      factory = "form-published-container-factory")
+  public CompletableFuture<Void> handleFormPublished(FormPublishedEvent event,
+      @Header("form_type") FormType formType) {
     log.info("Handling submitted Form published event {}.", event);
 
     Map<String, Object> templateVariables = new HashMap<>();
@@ -105,8 +107,9 @@ public class FormListener {
     templateVariables.put("eventDate", event.form().submissionDate());
 
     String traineeId = event.traineeId();
-    emailService.sendMessageToExistingUser(traineeId, FORM_SUBMITTED, templateVersion,
-        templateVariables, null, event.pdf());
-    log.info("Submitted form published notification sent for trainee {}.", traineeId);
+    return emailService.sendMessageToExistingUserAsync(traineeId, FORM_SUBMITTED, templateVersion,
+            templateVariables, null, event.pdf())
+        .thenRun(() -> log.info("Submitted form published notification sent for trainee {}.",
+            traineeId));
   }
 }
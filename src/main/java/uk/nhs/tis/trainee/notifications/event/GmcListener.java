@@ -38,6 +38,7 @@ import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.notifications.dto.UserDetails;
 import uk.nhs.tis.trainee.notifications.model.GmcRejectedEvent;
 import uk.nhs.tis.trainee.notifications.model.GmcUpdateEvent;
+import uk.nhs.tis.trainee.notifications.service.EventDeduplicationService;
 import uk.nhs.tis.trainee.notifications.service.NotificationService;
 
 /**
@@ -55,10 +56,13 @@ public class GmcListener {
   public static final String TIS_TRIGGER_FIELD = "tisTrigger";
   public static final String TIS_TRIGGER_DETAIL_FIELD = "tisTriggerDetail";
 
+  private static final String UPDATED_QUEUE = "gmc-updated";
+
   private final String updateTemplateVersion;
   private final String rejectLoTemplateVersion;
   private final String rejectTraineeTemplateVersion;
   private final NotificationService notificationService;
+  private final EventDeduplicationService deduplicationService;
 
   /**
    * Construct a listener for GMC events.
@@ -67,17 +71,20 @@ public class GmcListener {
    * @param updateTemplateVersion        The update-GMC template version to use.
    * @param rejectLoTemplateVersion      The rejected-GMC template version to use for local office.
    * @param rejectTraineeTemplateVersion The rejected-GMC template version to use for trainee.
+   * @param deduplicationService         The service used to suppress repeated GMC updates.
    */
   public GmcListener(NotificationService notificationService,
       @Value("${application.template-versions.gmc-updated.email}") String updateTemplateVersion,
       @Value("${application.template-versions.gmc-rejected-lo.email}")
       String rejectLoTemplateVersion,
       @Value("${application.template-versions.gmc-rejected-trainee.email}")
-      String rejectTraineeTemplateVersion) {
+      String rejectTraineeTemplateVersion,
+      EventDeduplicationService deduplicationService) {
     this.updateTemplateVersion = updateTemplateVersion;
     this.rejectLoTemplateVersion = rejectLoTemplateVersion;
     this.rejectTraineeTemplateVersion = rejectTraineeTemplateVersion;
     this.notificationService = notificationService;
+    this.deduplicationService = deduplicationService;
   }
 
   /**
@@ -86,10 +93,15 @@ public class GmcListener {
    * @param event The GMC update event message.
    * @throws MessagingException If the message could not be sent.
    */
-  @SqsListener("${application.queues.gmc-updated}")
+  @SqsListener(id = "gmc-updated", value = "${application.queues.gmc-updated}",
+      factory = "gmc-updated-container-factory")
   public void handleGmcUpdate(GmcUpdateEvent event) throws MessagingException {
     log.info("Handling GMC update event {}.", event);
 
+    if (deduplicationService.isDuplicate(UPDATED_QUEUE, event.traineeId(), event)) {
+      return;
+    }
+
     UserDetails userDetails = notificationService.getTraineeDetails(event.traineeId());
     Map<String, Object> templateVariables = new HashMap<>();
     templateVariables.put(TRAINEE_ID_FIELD, event.traineeId());
@@ -100,6 +112,7 @@ public class GmcListener {
 
     notificationService.sendLocalOfficeMail(userDetails, event.traineeId(), GMC_UPDATE,
         templateVariables, updateTemplateVersion, GMC_UPDATED);
+    deduplicationService.recordProcessed(UPDATED_QUEUE, event.traineeId(), event);
   }
 
   /**
@@ -108,7 +121,8 @@ public class GmcListener {
    * @param event The GMC rejected event message, which contains the reset GMC details.
    * @throws MessagingException If the message could not be sent.
    */
-  @SqsListener("${application.queues.gmc-rejected}")
+  @SqsListener(id = "gmc-rejected", value = "${application.queues.gmc-rejected}",
+      factory = "gmc-rejected-container-factory")
   public void handleGmcRejected(GmcRejectedEvent event) throws MessagingException {
     log.info("Handling GMC rejected event {}.", event);
 
@@ -39,11 +39,11 @@ import static uk.nhs.tis.trainee.notifications.model.NotificationType.LTFT_WITHD
 import static uk.nhs.tis.trainee.notifications.model.TraineeType.SPECIALTY;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
-import jakarta.mail.MessagingException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -100,10 +100,11 @@ public class LtftListener {
    * Handle LTFT update events, where the trainee is the message recipient.
    *
    * @param event The LTFT update event message.
-   * @throws MessagingException If the message could not be sent.
+   * @return A future which completes once the notification has been sent and recorded.
    */
-  @SqsListener("${application.queues.ltft-updated}")
-  public void handleLtftUpdate(LtftUpdateEvent event) throws MessagingException {
+  @SqsListener(id = "ltft-updated", value = "${application.queues.ltft-updated}",
+      factory = "ltft-updated-container-factory")
+  public CompletableFuture<Void> handleLtftUpdate(LtftUpdateEvent event) {
     log.info("Handling LTFT update event {}.", event);
     event = ltftEventMapper.map(event);
     String statusModifiedByRole = getModifiedByRole(event);
@@ -133,19 +134,20 @@ public class LtftListener {
     );
     History.TisReferenceInfo tisReferenceInfo
         = new History.TisReferenceInfo(TisReferenceType.LTFT, event.getFormId());
-    emailService.sendMessageToExistingUser(traineeTisId, notificationType, templateVersion,
-        templateVariables, tisReferenceInfo);
-    log.info("LTFT updated notification sent for trainee {}.", traineeTisId);
+    return emailService.sendMessageToExistingUserAsync(traineeTisId, notificationType,
+            templateVersion, templateVariables, tisReferenceInfo)
+        .thenRun(() -> log.info("LTFT updated notification sent for trainee {}.", traineeTisId));
   }
 
   /**
    * Handle LTFT update events, where the TPD is the message recipient.
    *
    * @param event The LTFT update event message.
-   * @throws MessagingException If the message could not be sent.
+   * @return A future which completes once the notification has been sent and recorded.
    */
-  @SqsListener("${application.queues.ltft-updated-tpd}")
-  public void handleLtftUpdateTpd(LtftUpdateEvent event) throws MessagingException {
+  @SqsListener(id = "ltft-updated-tpd", value = "${application.queues.ltft-updated-tpd}",
+      factory = "ltft-updated-tpd-container-factory")
+  public CompletableFuture<Void> handleLtftUpdateTpd(LtftUpdateEvent event) {
     log.info("Handling LTFT update TPD event {}.", event);
 
     NotificationType notificationType = switch (event.getState()) {
@@ -175,13 +177,15 @@ public class LtftListener {
       History.TisReferenceInfo tisReferenceInfo
           = new History.TisReferenceInfo(TisReferenceType.LTFT, event.getFormId());
       String tpdEmail = event.getDiscussions() == null ? null : event.getDiscussions().tpdEmail();
-      emailService.sendMessage(traineeTisId, tpdEmail, notificationType,
-          templateVersion, templateVariables, tisReferenceInfo, !emailNotificationsEnabled);
-      log.info("LTFT {} notification sent to TPD at email '{}' for trainee {}.", event.getState(),
-          tpdEmail, traineeTisId);
+      return emailService.sendMessageAsync(traineeTisId, tpdEmail, notificationType,
+              templateVersion, templateVariables, tisReferenceInfo, null,
+              !emailNotificationsEnabled)
+          .thenRun(() -> log.info("LTFT {} notification sent to TPD at email '{}' for trainee {}.",
+              event.getState(), tpdEmail, traineeTisId));
     } else {
       log.info("No action required for the LTFT update TPD event with notification type '{}', "
           + "ignoring.", event.getState());
+      return CompletableFuture.completedFuture(null);
     }
   }
 
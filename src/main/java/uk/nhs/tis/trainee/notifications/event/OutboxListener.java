@@ -23,6 +23,11 @@ package uk.nhs.tis.trainee.notifications.event;
 
 import com.amazonaws.xray.spring.aop.XRayEnabled;
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.notifications.model.ObjectIdWrapper;
@@ -31,6 +36,7 @@ import uk.nhs.tis.trainee.notifications.service.MessageSendingService;
 /**
  * Listener for messages in the email outbox.
  */
+@Slf4j
 @Component
 @XRayEnabled
 public class OutboxListener {
@@ -42,13 +48,31 @@ public class OutboxListener {
   }
 
   /**
-   * Handle messages in the email outbox queue.
+   * Handle batches of messages in the email outbox queue. Messages are acknowledged individually,
+   * so that any failures are redelivered without resending the rest of the batch.
    *
-   * @param message The wrapped notification ID message.
+   * @param messages        The wrapped notification ID messages.
+   * @param acknowledgement The acknowledgement to use for successfully handled messages.
    */
-  @SqsListener("${application.queues.outbox}")
-  public void handleOutboxMessages(Message<ObjectIdWrapper> message) {
-    ObjectIdWrapper notificationIdWrapper = message.getPayload();
-    messageSendingService.sendScheduled(notificationIdWrapper);
+  @SqsListener(id = "outbox", value = "${application.queues.outbox}",
+      factory = "outbox-container-factory",
+      acknowledgementMode = "MANUAL")
+  public void handleOutboxMessages(List<Message<ObjectIdWrapper>> messages,
+      BatchAcknowledgement<ObjectIdWrapper> acknowledgement) {
+    log.debug("Received {} outbox message(s).", messages.size());
+    List<ObjectIdWrapper> notificationIds = messages.stream()
+        .map(Message::getPayload)
+        .toList();
+    Set<ObjectId> handled = messageSendingService.sendScheduled(notificationIds);
+
+    List<Message<ObjectIdWrapper>> toAcknowledge = messages.stream()
+        .filter(message -> handled.contains(message.getPayload().id()))
+        .toList();
+    acknowledgement.acknowledge(toAcknowledge);
+
+    if (toAcknowledge.size() < messages.size()) {
+      log.warn("Failed to handle {} of {} outbox message(s), they will be redelivered.",
+          messages.size() - toAcknowledge.size(), messages.size());
+    }
   }
 }
@@ -21,12 +21,22 @@
 
 package uk.nhs.tis.trainee.notifications.event;
 
+import static io.awspring.cloud.sqs.listener.SqsHeaders.MessageSystemAttributes.SQS_APPROXIMATE_RECEIVE_COUNT;
+import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PLACEMENT;
+
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.Visibility;
+import io.awspring.cloud.sqs.listener.acknowledgement.Acknowledgement;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.notifications.dto.PlacementEvent;
 import uk.nhs.tis.trainee.notifications.mapper.PlacementMapper;
 import uk.nhs.tis.trainee.notifications.model.Placement;
+import uk.nhs.tis.trainee.notifications.service.EventCoalescingService;
+import uk.nhs.tis.trainee.notifications.service.EventDeduplicationService;
 import uk.nhs.tis.trainee.notifications.service.PlacementService;
 
 /**
@@ -36,18 +46,54 @@ import uk.nhs.tis.trainee.notifications.service.PlacementService;
 @Component
 public class PlacementListener {
 
+  private static final String UPDATED_QUEUE = "placement-updated";
+
   private final PlacementService placementService;
   private final PlacementMapper mapper;
+  private final EventCoalescingService coalescingService;
+  private final EventDeduplicationService deduplicationService;
 
   /**
    * Construct a listener for placement events.
    *
-   * @param placementService The placement service.
+   * @param placementService     The placement service.
+   * @param coalescingService    The service used to coalesce bursts of placement updates.
+   * @param deduplicationService The service used to suppress repeated placement updates.
    */
   public PlacementListener(PlacementService placementService,
-      PlacementMapper mapper) {
+      PlacementMapper mapper, EventCoalescingService coalescingService,
+      EventDeduplicationService deduplicationService) {
     this.placementService = placementService;
     this.mapper = mapper;
+    this.coalescingService = coalescingService;
+    this.deduplicationService = deduplicationService;
+  }
+
+  /**
+   * Receive Placement update event messages, bursts of updates for the same placement are
+   * coalesced so that only the latest is handled.
+   *
+   * @param message         The placement event message.
+   * @param visibility      The visibility of the message, used to defer it.
+   * @param acknowledgement The acknowledgement for the message.
+   */
+  @SqsListener(id = "placement-updated", value = "${application.queues.placement-updated}",
+      factory = "placement-updated-container-factory", acknowledgementMode = "MANUAL")
+  void receivePlacementUpdate(Message<PlacementEvent> message, Visibility visibility,
+      Acknowledgement acknowledgement) {
+    PlacementEvent event = message.getPayload();
+    MessageHeaders headers = message.getHeaders();
+    int receiveCount = Integer.parseInt(
+        String.valueOf(headers.getOrDefault(SQS_APPROXIMATE_RECEIVE_COUNT, 1)));
+
+    switch (coalescingService.coalesce(PLACEMENT, event.tisId(), headers.getId(), receiveCount)) {
+      case DEFER -> visibility.changeTo(coalescingService.getWindowSeconds());
+      case COALESCED -> acknowledgement.acknowledge();
+      case PROCESS -> {
+        handlePlacementUpdate(event);
+        acknowledgement.acknowledge();
+      }
+    }
   }
 
   /**
@@ -55,12 +101,18 @@ public class PlacementListener {
    *
    * @param event The placement event.
    */
-  @SqsListener("${application.queues.placement-updated}")
   public void handlePlacementUpdate(PlacementEvent event) {
     log.info("Handling placement update event {}.", event);
     if (event.recrd() != null && event.recrd().getData() != null) {
-      Placement placement = mapper.toEntity(event.recrd().getData());
+      Map<String, String> data = event.recrd().getData();
+
+      if (deduplicationService.isDuplicate(UPDATED_QUEUE, event.tisId(), data)) {
+        return;
+      }
+
+      Placement placement = mapper.toEntity(data);
       placementService.addNotifications(placement);
+      deduplicationService.recordProcessed(UPDATED_QUEUE, event.tisId(), data);
     } else {
       log.info("Ignoring non placement update event: {}", event);
     }
@@ -71,12 +123,14 @@ public class PlacementListener {
    *
    * @param event The placement event.
    */
-  @SqsListener("${application.queues.placement-deleted}")
+  @SqsListener(id = "placement-deleted", value = "${application.queues.placement-deleted}",
+      factory = "placement-deleted-container-factory")
   public void handlePlacementDelete(PlacementEvent event) {
     log.info("Handling placement delete event {}.", event);
     if (event.recrd() != null && event.recrd().getData() != null) {
       Placement placement = mapper.toEntity(event.recrd().getData());
       placement.setTisId(event.tisId()); //delete messages used to have empty record data
+      deduplicationService.clearProcessed(UPDATED_QUEUE, event.tisId());
       placementService.deleteScheduledNotificationsFromDb(placement);
     } else {
       log.info("Ignoring non placement delete event: {}", event);
@@ -51,7 +51,8 @@ public class ProfileMoveListener {
    *
    * @param event The profile move event.
    */
-  @SqsListener("${application.queues.profile-move}")
+  @SqsListener(id = "profile-move", value = "${application.queues.profile-move}",
+      factory = "profile-move-container-factory")
   public void handleProfileMove(ProfileMoveEvent event) {
     log.info("Handling profile move notifications from trainee {} to trainee {}",
         event.fromTraineeId(), event.toTraineeId());
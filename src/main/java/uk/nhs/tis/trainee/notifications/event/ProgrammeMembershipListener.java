@@ -21,12 +21,22 @@
 
 package uk.nhs.tis.trainee.notifications.event;
 
+import static io.awspring.cloud.sqs.listener.SqsHeaders.MessageSystemAttributes.SQS_APPROXIMATE_RECEIVE_COUNT;
+import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PROGRAMME_MEMBERSHIP;
+
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.Visibility;
+import io.awspring.cloud.sqs.listener.acknowledgement.Acknowledgement;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.stereotype.Component;
 import uk.nhs.tis.trainee.notifications.dto.ProgrammeMembershipEvent;
 import uk.nhs.tis.trainee.notifications.mapper.ProgrammeMembershipMapper;
 import uk.nhs.tis.trainee.notifications.model.ProgrammeMembership;
+import uk.nhs.tis.trainee.notifications.service.EventCoalescingService;
+import uk.nhs.tis.trainee.notifications.service.EventDeduplicationService;
 import uk.nhs.tis.trainee.notifications.service.ProgrammeMembershipService;
 
 /**
@@ -36,18 +46,58 @@ import uk.nhs.tis.trainee.notifications.service.ProgrammeMembershipService;
 @Component
 public class ProgrammeMembershipListener {
 
+  private static final String UPDATED_QUEUE = "programme-membership-updated";
+
   private final ProgrammeMembershipService programmeMembershipService;
   private final ProgrammeMembershipMapper mapper;
+  private final EventCoalescingService coalescingService;
+  private final EventDeduplicationService deduplicationService;
 
   /**
    * Construct a listener for programme membership events.
    *
    * @param programmeMembershipService The programme membership service.
+   * @param coalescingService          The service used to coalesce bursts of programme
+   *                                   membership updates.
+   * @param deduplicationService       The service used to suppress repeated programme
+   *                                   membership updates.
    */
   public ProgrammeMembershipListener(ProgrammeMembershipService programmeMembershipService,
-      ProgrammeMembershipMapper mapper) {
+      ProgrammeMembershipMapper mapper, EventCoalescingService coalescingService,
+      EventDeduplicationService deduplicationService) {
     this.programmeMembershipService = programmeMembershipService;
     this.mapper = mapper;
+    this.coalescingService = coalescingService;
+    this.deduplicationService = deduplicationService;
+  }
+
+  /**
+   * Receive Programme membership update event messages, bursts of updates for the same programme
+   * membership are coalesced so that only the latest is handled.
+   *
+   * @param message         The program membership event message.
+   * @param visibility      The visibility of the message, used to defer it.
+   * @param acknowledgement The acknowledgement for the message.
+   */
+  @SqsListener(id = "programme-membership-updated",
+      value = "${application.queues.programme-membership-updated}",
+      factory = "programme-membership-updated-container-factory", acknowledgementMode = "MANUAL")
+  void receiveProgrammeMembershipUpdate(Message<ProgrammeMembershipEvent> message,
+      Visibility visibility, Acknowledgement acknowledgement) {
+    ProgrammeMembershipEvent event = message.getPayload();
+    MessageHeaders headers = message.getHeaders();
+    int receiveCount = Integer.parseInt(
+        String.valueOf(headers.getOrDefault(SQS_APPROXIMATE_RECEIVE_COUNT, 1)));
+
+    switch (coalescingService.coalesce(PROGRAMME_MEMBERSHIP, event.tisId(), headers.getId(),
+        receiveCount)) {
+      case DEFER -> visibility.changeTo(coalescingService.getWindowSeconds());
+      case COALESCED -> acknowledgement.acknowledge();
+      case PROCESS -> {
+        handleProgrammeMembershipUpdate(event);
+        acknowledgement.acknowledge();
+      }
+    }
   }
 
   /**
@@ -55,12 +105,18 @@ public class ProgrammeMembershipListener {
    *
    * @param event The program membership event.
    */
-  @SqsListener("${application.queues.programme-membership-updated}")
   public void handleProgrammeMembershipUpdate(ProgrammeMembershipEvent event) {
     log.info("Handling programme membership update event {}.", event);
     if (event.recrd() != null && event.recrd().getData() != null) {
-      ProgrammeMembership programmeMembership = mapper.toEntity(event.recrd().getData());
+      Map<String, String> data = event.recrd().getData();
+
+      if (deduplicationService.isDuplicate(UPDATED_QUEUE, event.tisId(), data)) {
+        return;
+      }
+
+      ProgrammeMembership programmeMembership = mapper.toEntity(data);
       programmeMembershipService.addNotifications(programmeMembership);
+      deduplicationService.recordProcessed(UPDATED_QUEUE, event.tisId(), data);
     } else {
       log.info("Ignoring non programme membership update event: {}", event);
     }
@@ -71,12 +127,15 @@ public class ProgrammeMembershipListener {
    *
    * @param event The program membership event.
    */
-  @SqsListener("${application.queues.programme-membership-deleted}")
+  @SqsListener(id = "programme-membership-deleted",
+      value = "${application.queues.programme-membership-deleted}",
+      factory = "programme-membership-deleted-container-factory")
   public void handleProgrammeMembershipDelete(ProgrammeMembershipEvent event) {
     log.info("Handling programme membership delete event {}.", event);
     if (event.recrd() != null && event.recrd().getData() != null) {
       ProgrammeMembership programmeMembership = mapper.toEntity(event.recrd().getData());
       programmeMembership.setTisId(event.tisId());
+      deduplicationService.clearProcessed(UPDATED_QUEUE, event.tisId());
       programmeMembershipService.deleteScheduledNotificationsFromDb(programmeMembership);
     } else {
       log.info("Ignoring non programme membership delete event: {}", event);
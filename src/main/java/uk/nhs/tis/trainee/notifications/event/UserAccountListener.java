@@ -26,11 +26,11 @@ import static uk.nhs.tis.trainee.notifications.model.NotificationType.EMAIL_UPDA
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.WELCOME;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
-import jakarta.mail.MessagingException;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -83,19 +83,23 @@ public class UserAccountListener {
    *
    * @param event The account confirmation event.
    */
-  @SqsListener("${application.queues.account-confirmed}")
+  @SqsListener(id = "account-confirmed", value = "${application.queues.account-confirmed}",
+      factory = "account-confirmed-container-factory")
   public void handleAccountConfirmation(AccountConfirmedEvent event) {
     log.info("Handling account confirmation event for user {}.", event.userId());
     inAppService.createNotifications(event.traineeId(), null, WELCOME, welcomeVersion, Map.of());
   }
 
   /**
-   * Handle account update events.
+   * Handle account update events, the previous email address is notified once the new email
+   * address has been notified.
    *
    * @param event The account update event.
+   * @return A future which completes once both notifications have been sent and recorded.
    */
-  @SqsListener("${application.queues.account-updated}")
-  public void handleAccountUpdate(AccountUpdatedEvent event) throws MessagingException {
+  @SqsListener(id = "account-updated", value = "${application.queues.account-updated}",
+      factory = "account-updated-container-factory")
+  public CompletableFuture<Void> handleAccountUpdate(AccountUpdatedEvent event) {
     UUID userId = event.userId();
     log.info("Handling account update event for user {}.", userId);
 
@@ -106,12 +110,14 @@ public class UserAccountListener {
     newEmailVariables.put("domain", appDomain);
     newEmailVariables.put("newEmail", event.newEmail());
 
-    emailService.sendMessage(event.traineeId(), event.newEmail(), EMAIL_UPDATED_NEW,
-        emailUpdatedNewVersion, newEmailVariables, null, false);
-
+    // Copied before sending, as the variables are updated while the new email is rendered.
     Map<String, Object> oldEmailVariables = new HashMap<>(newEmailVariables);
     oldEmailVariables.put("previousEmail", event.previousEmail());
-    emailService.sendMessage(event.traineeId(), event.previousEmail(), EMAIL_UPDATED_OLD,
-        emailUpdatedOldVersion, oldEmailVariables, null, false);
+
+    return emailService.sendMessageAsync(event.traineeId(), event.newEmail(), EMAIL_UPDATED_NEW,
+            emailUpdatedNewVersion, newEmailVariables, null, null, false)
+        .thenCompose(sent -> emailService.sendMessageAsync(event.traineeId(),
+            event.previousEmail(), EMAIL_UPDATED_OLD, emailUpdatedOldVersion, oldEmailVariables,
+            null, null, false));
   }
 }
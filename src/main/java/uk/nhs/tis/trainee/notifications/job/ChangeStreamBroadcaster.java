@@ -0,0 +1,340 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.job;
+
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.HISTORY;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.STATUS;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.DELETED;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.notifications.mapper.HistoryMapper;
+import uk.nhs.tis.trainee.notifications.model.ChangeStreamToken;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.HistoryEventType;
+import uk.nhs.tis.trainee.notifications.service.EventBroadcastService;
+import uk.nhs.tis.trainee.notifications.service.EventSerializer;
+
+/**
+ * A job which broadcasts notification events from a change stream on the History collection, so
+ * that every change is broadcast regardless of how it was written, including bulk updates by
+ * migrations. The resume token is persisted after each published batch, so broadcasting continues
+ * from the same position after a restart or on another instance.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.sns.change-stream.enabled", havingValue = "true")
+public class ChangeStreamBroadcaster {
+
+  static final String STREAM_ID = "History";
+  static final int MAX_BATCH_SIZE = 10;
+
+  private static final Set<String> STATUS_FIELDS = Set.of("status", "statusDetail",
+      "latestStatusEventAt", "readAt");
+  private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+  private static final Duration MAX_AWAIT = Duration.ofMillis(200);
+
+  private final MongoTemplate mongoTemplate;
+  private final EventBroadcastService eventBroadcastService;
+  private final EventSerializer eventSerializer;
+  private final HistoryMapper historyMapper;
+  private final boolean deltaStatusEvents;
+  private final Duration runTime;
+  private final Duration retryBackoff;
+
+  private final Counter publishedCounter;
+
+  private BsonDocument savedToken;
+
+  /**
+   * Construct a change stream broadcaster.
+   *
+   * @param mongoTemplate         The Mongo template used to watch the History collection.
+   * @param eventBroadcastService The service used to publish the events.
+   * @param eventSerializer       The serializer for event payloads.
+   * @param historyMapper         The mapper used to build status change events.
+   * @param meterRegistry         The registry to record broadcast metrics with.
+   * @param deltaStatusEvents     Whether status changes are broadcast as compact status events.
+   * @param runTime               How long each run tails the stream before releasing the lock.
+   * @param retryBackoff          The delay between attempts to publish a failed batch.
+   */
+  public ChangeStreamBroadcaster(MongoTemplate mongoTemplate,
+      EventBroadcastService eventBroadcastService, EventSerializer eventSerializer,
+      HistoryMapper historyMapper, MeterRegistry meterRegistry,
+      @Value("${application.sns.delta-status-events:false}") boolean deltaStatusEvents,
+      @Value("${application.sns.change-stream.run-time:PT1M}") Duration runTime,
+      @Value("${application.sns.change-stream.retry-backoff:PT1S}") Duration retryBackoff) {
+    this.mongoTemplate = mongoTemplate;
+    this.eventBroadcastService = eventBroadcastService;
+    this.eventSerializer = eventSerializer;
+    this.historyMapper = historyMapper;
+    this.deltaStatusEvents = deltaStatusEvents;
+    this.runTime = runTime;
+    this.retryBackoff = retryBackoff;
+
+    publishedCounter = Counter.builder("notifications.event.change-stream.published")
+        .description("The number of change stream events delivered to SNS.")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Execute the scheduled job to tail the change stream for the configured run time, publishing
+   * the changes in batches. A batch contains at most one event per notification and is retried
+   * until delivered, so a notification's events are broadcast in order.
+   */
+  @Scheduled(fixedDelayString = "${application.sns.change-stream.interval:PT1S}")
+  @SchedulerLock(name = "ChangeStreamBroadcaster.execute", lockAtMostFor = "PT5M")
+  public void execute() {
+    Instant deadline = Instant.now().plus(runTime);
+    savedToken = loadResumeToken();
+
+    ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(
+            mongoTemplate.getCollectionName(History.class))
+        .watch()
+        .fullDocument(FullDocument.UPDATE_LOOKUP)
+        .maxAwaitTime(MAX_AWAIT.toMillis(), TimeUnit.MILLISECONDS);
+
+    if (savedToken != null) {
+      stream = stream.resumeAfter(savedToken);
+    }
+
+    try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+      tail(cursor, deadline);
+    } catch (MongoCommandException e) {
+      if (e.getErrorCode() != CHANGE_STREAM_HISTORY_LOST) {
+        throw e;
+      }
+
+      log.error("The change stream can not be resumed as the resume point is no longer in the "
+          + "oplog, changes since {} have not been broadcast.", savedToken, e);
+      saveResumeToken(null);
+    }
+  }
+
+  /**
+   * Tail the change stream until the deadline, publishing each batch and then saving the resume
+   * token.
+   *
+   * @param cursor   The change stream cursor.
+   * @param deadline When to stop tailing the stream.
+   */
+  private void tail(MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor,
+      Instant deadline) {
+    List<EventOutboxEntry> batch = new ArrayList<>();
+    BsonDocument previousToken = savedToken;
+
+    while (Instant.now().isBefore(deadline)) {
+      ChangeStreamDocument<Document> change = cursor.tryNext();
+
+      if (change == null) {
+        // No changes are waiting, the cursor's token covers everything read so far.
+        if (!flush(batch, cursor.getResumeToken(), deadline)) {
+          return;
+        }
+        continue;
+      }
+
+      if (change.getOperationType() == OperationType.INVALIDATE) {
+        log.warn("The History change stream was invalidated, restarting from the current time.");
+        if (flush(batch, previousToken, deadline)) {
+          saveResumeToken(null);
+        }
+        return;
+      }
+
+      EventOutboxEntry event = toEvent(change);
+
+      if (event != null) {
+        boolean full = batch.size() == MAX_BATCH_SIZE;
+        boolean duplicate = batch.stream().anyMatch(e -> e.eventId().equals(event.eventId()));
+
+        if ((full || duplicate) && !flush(batch, previousToken, deadline)) {
+          return;
+        }
+        batch.add(event);
+      }
+
+      previousToken = change.getResumeToken();
+    }
+
+    flush(batch, cursor.getResumeToken(), deadline);
+  }
+
+  /**
+   * Publish the batched events until delivered and then save the resume token.
+   *
+   * @param batch       The events to publish, cleared once published.
+   * @param resumeToken The resume token to save once the events are published.
+   * @param deadline    When to stop retrying a failed batch.
+   * @return Whether the batch was published, if false the resume token is not saved.
+   */
+  private boolean flush(List<EventOutboxEntry> batch, BsonDocument resumeToken,
+      Instant deadline) {
+    List<EventOutboxEntry> pending = List.copyOf(batch);
+    int attempt = 0;
+
+    while (!pending.isEmpty()) {
+      Set<ObjectId> completed = eventBroadcastService.publishOutboxEvents(pending);
+      publishedCounter.increment(completed.size());
+      pending = pending.stream().filter(e -> !completed.contains(e.id())).toList();
+
+      if (!pending.isEmpty()) {
+        attempt++;
+        Duration backoff = retryBackoff.multipliedBy(Math.min(attempt, 10));
+
+        if (Instant.now().plus(backoff).isAfter(deadline)) {
+          log.warn("Failed to broadcast {} change stream event(s), will resume from the last "
+              + "published change.", pending.size());
+          return false;
+        }
+
+        try {
+          Thread.sleep(backoff.toMillis());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+    }
+
+    batch.clear();
+
+    if (resumeToken != null && !resumeToken.equals(savedToken)) {
+      saveResumeToken(resumeToken);
+    }
+    return true;
+  }
+
+  /**
+   * Convert a change to a broadcast event.
+   *
+   * @param change The change to convert.
+   * @return The event to broadcast, or null if the change is not broadcast.
+   */
+  private EventOutboxEntry toEvent(ChangeStreamDocument<Document> change) {
+    BsonDocument documentKey = change.getDocumentKey();
+
+    if (documentKey == null || !documentKey.isObjectId("_id")) {
+      return null;
+    }
+
+    ObjectId id = documentKey.getObjectId("_id").getValue();
+    Object event;
+    HistoryEventType eventType = HISTORY;
+
+    switch (change.getOperationType()) {
+      case INSERT, REPLACE, UPDATE -> {
+        Document fullDocument = change.getFullDocument();
+
+        if (fullDocument == null) {
+          // The notification has since been deleted, the delete will be broadcast instead.
+          return null;
+        }
+
+        History history = mongoTemplate.getConverter().read(History.class, fullDocument);
+
+        if (isStatusOnly(change)) {
+          event = historyMapper.toStatusEvent(history);
+          eventType = STATUS;
+        } else {
+          event = history;
+        }
+      }
+      case DELETE -> event = History.builder()
+          .id(id)
+          .sentAt(Instant.now())
+          .status(DELETED)
+          .build();
+      default -> {
+        return null;
+      }
+    }
+
+    return new EventOutboxEntry(ObjectId.get(), id, eventType, eventSerializer.serialize(event),
+        Instant.now());
+  }
+
+  /**
+   * Whether the change only updated the notification status fields.
+   *
+   * @param change The change to check.
+   * @return true if only status fields changed and status events are enabled, else false.
+   */
+  private boolean isStatusOnly(ChangeStreamDocument<Document> change) {
+    UpdateDescription update = change.getUpdateDescription();
+
+    if (!deltaStatusEvents || update == null || update.getUpdatedFields() == null) {
+      return false;
+    }
+
+    List<String> removedFields = update.getRemovedFields();
+    return STATUS_FIELDS.containsAll(update.getUpdatedFields().keySet())
+        && (removedFields == null || STATUS_FIELDS.containsAll(removedFields));
+  }
+
+  /**
+   * Load the saved resume token.
+   *
+   * @return The resume token, or null if the stream should start from the current time.
+   */
+  private BsonDocument loadResumeToken() {
+    ChangeStreamToken token = mongoTemplate.findById(STREAM_ID, ChangeStreamToken.class);
+    return token == null || token.resumeToken() == null
+        ? null
+        : BsonDocument.parse(token.resumeToken());
+  }
+
+  /**
+   * Save the resume token.
+   *
+   * @param resumeToken The resume token to save, null to start from the current time.
+   */
+  private void saveResumeToken(BsonDocument resumeToken) {
+    String json = resumeToken == null ? null : resumeToken.toJson();
+    mongoTemplate.save(new ChangeStreamToken(STREAM_ID, json, Instant.now()));
+    savedToken = resumeToken;
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
+import uk.nhs.tis.trainee.notifications.service.EventBroadcastService;
+import uk.nhs.tis.trainee.notifications.service.EventOutbox;
+
+/**
+ * A job which relays undelivered outbox events to SNS, in the order they were appended. Events
+ * remain in the outbox until SNS accepts them, so broadcasts resume after an SNS outage. A failed
+ * event is retried with an exponential backoff, and is dead-lettered once the maximum attempts
+ * are reached so that it does not hold back the events for that notification indefinitely.
+ */
+@Slf4j
+@Component
+public class EventOutboxRelay {
+
+  static final int MAX_BATCH_SIZE = 10;
+
+  private final EventOutbox eventOutbox;
+  private final EventBroadcastService eventBroadcastService;
+  private final int fetchSize;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+  private final Duration maxRetryBackoff;
+
+  private final Counter relayedCounter;
+  private final Counter failedCounter;
+  private final Counter deadLetteredCounter;
+
+  /**
+   * Construct an event outbox relay.
+   *
+   * @param eventOutbox           The outbox to relay events from.
+   * @param eventBroadcastService The service used to publish the events.
+   * @param meterRegistry         The registry to record relay metrics with.
+   * @param fetchSize             The maximum number of events to read from the outbox at once.
+   * @param maxAttempts           The number of failed attempts before an event is dead-lettered.
+   * @param retryBackoff          The delay before the first retry, doubled for each later retry.
+   * @param maxRetryBackoff       The maximum delay between retries.
+   */
+  public EventOutboxRelay(EventOutbox eventOutbox, EventBroadcastService eventBroadcastService,
+      MeterRegistry meterRegistry,
+      @Value("${application.sns.outbox.relay.fetch-size:100}") int fetchSize,
+      @Value("${application.sns.outbox.relay.max-attempts:20}") int maxAttempts,
+      @Value("${application.sns.outbox.relay.retry-backoff:PT1S}") Duration retryBackoff,
+      @Value("${application.sns.outbox.relay.max-retry-backoff:PT15M}") Duration maxRetryBackoff) {
+    this.eventOutbox = eventOutbox;
+    this.eventBroadcastService = eventBroadcastService;
+    this.fetchSize = fetchSize;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoff = retryBackoff;
+    this.maxRetryBackoff = maxRetryBackoff;
+
+    relayedCounter = Counter.builder("notifications.event.outbox.relayed")
+        .description("The number of outbox events delivered to SNS.")
+        .register(meterRegistry);
+    failedCounter = Counter.builder("notifications.event.outbox.failed")
+        .description("The number of outbox event deliveries which failed.")
+        .register(meterRegistry);
+    deadLetteredCounter = Counter.builder("notifications.event.outbox.dead-lettered")
+        .description("The number of outbox events which failed too many times to be retried.")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Execute the scheduled job to relay all due outbox events. Failed events are set aside to be
+   * retried later, along with any later events for the same notification so they are not delivered
+   * out of order. Relaying stops at the first failed batch, so that an SNS outage does not fail
+   * every event in the outbox, the remaining events are relayed by the next execution.
+   */
+  @Scheduled(fixedDelayString = "${application.sns.outbox.relay.interval:PT1S}")
+  @SchedulerLock(name = "EventOutboxRelay.execute", lockAtMostFor = "PT5M")
+  public void execute() {
+    if (!eventOutbox.isEnabled()) {
+      return;
+    }
+
+    List<EventOutboxEntry> events;
+    int relayed = 0;
+
+    do {
+      events = eventOutbox.findUndelivered(fetchSize);
+
+      for (List<EventOutboxEntry> batch : toBatches(events)) {
+        Set<ObjectId> completed = eventBroadcastService.publishOutboxEvents(batch);
+        eventOutbox.markDelivered(completed);
+        relayedCounter.increment(completed.size());
+        relayed += completed.size();
+
+        List<EventOutboxEntry> failed = batch.stream()
+            .filter(event -> !completed.contains(event.id()))
+            .toList();
+
+        if (!failed.isEmpty()) {
+          failedCounter.increment(failed.size());
+          failed.forEach(this::handleFailure);
+          log.warn("Relayed {} outbox event(s), stopping after {} failure(s).", relayed,
+              failed.size());
+          return;
+        }
+      }
+    } while (events.size() == fetchSize);
+
+    if (relayed > 0) {
+      log.info("Relayed {} outbox event(s).", relayed);
+    }
+  }
+
+  /**
+   * Handle a failed event, either scheduling a retry or dead-lettering it once the maximum attempts
+   * are reached.
+   *
+   * @param event The failed event.
+   */
+  private void handleFailure(EventOutboxEntry event) {
+    int attempts = event.attempts() + 1;
+
+    if (attempts >= maxAttempts) {
+      log.error("Dead-lettering outbox event {} for notification event {} after {} attempts.",
+          event.id(), event.eventId(), attempts);
+      eventOutbox.markFailed(event.id());
+      deadLetteredCounter.increment();
+      return;
+    }
+
+    // Cap the exponent to avoid overflow, the backoff is capped long before then.
+    Duration backoff = retryBackoff.multipliedBy(1L << Math.min(event.attempts(), 30));
+    if (backoff.compareTo(maxRetryBackoff) > 0) {
+      backoff = maxRetryBackoff;
+    }
+
+    eventOutbox.markRetry(event.id(), Instant.now().plus(backoff));
+  }
+
+  /**
+   * Split the events in to publishable batches, a batch contains at most one event per
+   * notification so that a partially failed batch can not reorder a notification's events.
+   *
+   * @param events The events to split.
+   * @return The batches of events, in order.
+   */
+  private List<List<EventOutboxEntry>> toBatches(List<EventOutboxEntry> events) {
+    List<List<EventOutboxEntry>> batches = new ArrayList<>();
+    List<EventOutboxEntry> batch = new ArrayList<>();
+    Set<ObjectId> eventIds = new HashSet<>();
+
+    for (EventOutboxEntry event : events) {
+      if (batch.size() == MAX_BATCH_SIZE || !eventIds.add(event.eventId())) {
+        batches.add(batch);
+        batch = new ArrayList<>();
+        eventIds.clear();
+        eventIds.add(event.eventId());
+      }
+
+      batch.add(event);
+    }
+
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+
+    return batches;
+  }
+}
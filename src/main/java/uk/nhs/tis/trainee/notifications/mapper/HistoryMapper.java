@@ -30,6 +30,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants.ComponentModel;
 import uk.nhs.tis.trainee.notifications.dto.HistoryDto;
 import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.HistoryStatusEvent;
 import uk.nhs.tis.trainee.notifications.model.NotificationStatus;
 
 /**
@@ -135,6 +136,14 @@ public interface HistoryMapper {
   @Mapping(target = "readAt", expression = "java(calculateReadAt(entity, status))")
   History updateStatus(History entity, NotificationStatus status, String detail);
 
+  /**
+   * Convert a history entity to a compact status change event.
+   *
+   * @param entity The history entity to convert.
+   * @return The converted status event.
+   */
+  HistoryStatusEvent toStatusEvent(History entity);
+
   /**
    * Calculate the readAt field based on the entity and status.
    *
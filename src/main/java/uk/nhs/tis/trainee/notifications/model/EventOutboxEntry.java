@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.model;
+
+import java.time.Instant;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A notification change event waiting in the outbox to be broadcast. Entries are written alongside
+ * the notification history change and relayed to SNS in insertion order.
+ *
+ * @param id          The ID of the outbox entry, which also gives the insertion order.
+ * @param eventId     The ID of the notification history the event is for.
+ * @param eventType   The type of event, entries without a type are full history events.
+ * @param payload     The serialized event to broadcast.
+ * @param createdAt   When the event was added to the outbox.
+ * @param attempts    The number of failed attempts to broadcast the event.
+ * @param retryAt     When a failed event can next be broadcast, null if not yet failed.
+ * @param failedAt    When the event was dead-lettered after too many failed attempts.
+ * @param deliveredAt When the event was broadcast, null if not yet delivered.
+ * @param expiresAt   When the delivered entry is no longer needed and can be removed.
+ */
+@Document(collection = "EventOutbox")
+public record EventOutboxEntry(
+    @Id
+    ObjectId id,
+    ObjectId eventId,
+    HistoryEventType eventType,
+    String payload,
+    Instant createdAt,
+    int attempts,
+    Instant retryAt,
+    Instant failedAt,
+    Instant deliveredAt,
+    Instant expiresAt) {
+
+  /**
+   * Create a new outbox entry which has not yet been broadcast.
+   *
+   * @param id        The ID of the outbox entry, which also gives the insertion order.
+   * @param eventId   The ID of the notification history the event is for.
+   * @param eventType The type of event.
+   * @param payload   The serialized event to broadcast.
+   * @param createdAt When the event was added to the outbox.
+   */
+  public EventOutboxEntry(ObjectId id, ObjectId eventId, HistoryEventType eventType,
+      String payload, Instant createdAt) {
+    this(id, eventId, eventType, payload, createdAt, 0, null, null, null, null);
+  }
+}
@@ -45,6 +45,7 @@ import uk.nhs.tis.trainee.notifications.dto.StoredFile;
  * @param statusDetail        Any additional detail about the status.
  * @param lastRetry           The timestamp of the last retry attempt.
  * @param latestStatusEventAt The timestamp of the last status change, if from an SES event.
+ * @param claimedAt           The timestamp a scheduled notification was claimed for sending.
  */
 @Document(collection = "History")
 @Builder
@@ -63,7 +64,39 @@ public record History(
     NotificationStatus status,
     String statusDetail,
     Instant lastRetry,
-    Instant latestStatusEventAt) {
+    Instant latestStatusEventAt,
+    Instant claimedAt) {
+
+  /**
+   * An alternate constructor for a historical notification which has not been claimed.
+   *
+   * @param id                  A unique identifier for the notification.
+   * @param type                The type of notification sent.
+   * @param recipient           The recipient information the notification was sent to.
+   * @param template            The template information used to generate the notification.
+   * @param sentAt              The timestamp that the notification was sent at.
+   * @param readAt              The timestamp that the notification was read at.
+   * @param status              The status of the notification history e.g. SENT or FAILED.
+   * @param statusDetail        Any additional detail about the status.
+   * @param lastRetry           The timestamp of the last retry attempt.
+   * @param latestStatusEventAt The timestamp of the last status change, if from an SES event.
+   */
+  public History(
+      ObjectId id,
+      TisReferenceInfo tisReference,
+      NotificationType type,
+      RecipientInfo recipient,
+      TemplateInfo template,
+      List<StoredFile> attachments,
+      Instant sentAt,
+      Instant readAt,
+      NotificationStatus status,
+      String statusDetail,
+      Instant lastRetry,
+      Instant latestStatusEventAt) {
+    this(id, tisReference, type, recipient, template, attachments, sentAt, readAt,
+        status, statusDetail, lastRetry, latestStatusEventAt, null);
+  }
 
   /**
    * An alternate constructor for a historical notification without a status event timestamp.
@@ -91,7 +124,7 @@ public record History(
       String statusDetail,
       Instant lastRetry) {
     this(id, tisReference, type, recipient, template, attachments, sentAt, readAt,
-        status, statusDetail, lastRetry, null);
+        status, statusDetail, lastRetry, null, null);
   }
 
   /**
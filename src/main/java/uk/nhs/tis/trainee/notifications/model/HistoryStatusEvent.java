@@ -0,0 +1,45 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.model;
+
+import java.time.Instant;
+import org.bson.types.ObjectId;
+
+/**
+ * A compact broadcast event for a notification status change, containing only the fields which
+ * change with the status. The field names match {@link History}, so that consumers can apply the
+ * event as a partial update of the notification.
+ *
+ * @param id                  The ID of the notification.
+ * @param status              The new status of the notification.
+ * @param statusDetail        Any additional detail about the status.
+ * @param latestStatusEventAt The timestamp of the last status change, if from an SES event.
+ * @param readAt              The timestamp that the notification was read at.
+ */
+public record HistoryStatusEvent(
+    ObjectId id,
+    NotificationStatus status,
+    String statusDetail,
+    Instant latestStatusEventAt,
+    Instant readAt) {
+
+}
@@ -159,8 +159,39 @@ public enum NotificationType {
       SPONSORSHIP_FOUNDATION,
       DAY_ONE_FOUNDATION);
 
+  /**
+   * The set of bulk reminder and mass correction email notification types, sent in the bulk
+   * priority lane.
+   */
+  @Getter
+  private static final Set<NotificationType> bulkNotificationTypes = EnumSet.of(
+      PLACEMENT_ROLLOUT_2024_CORRECTION,
+      PLACEMENT_UPDATED_WEEK_12,
+      PLACEMENT_UPDATED_WEEK_12_FOUNDATION,
+      PROGRAMME_DAY_ONE,
+      PROGRAMME_UPDATED_WEEK_12,
+      PROGRAMME_UPDATED_WEEK_8,
+      PROGRAMME_UPDATED_WEEK_4,
+      PROGRAMME_UPDATED_WEEK_2,
+      PROGRAMME_UPDATED_WEEK_1,
+      PROGRAMME_UPDATED_WEEK_0,
+      PROGRAMME_CREATED,
+      PROGRAMME_POG_MONTH_12,
+      PROGRAMME_POG_MONTH_6);
+
   private final String templateName;
 
+  /**
+   * Get the priority lane for this notification type.
+   *
+   * @return The bulk priority for reminder and mass correction notifications, otherwise
+   *     transactional.
+   */
+  public NotificationPriority getPriority() {
+    return bulkNotificationTypes.contains(this) ? NotificationPriority.BULK
+        : NotificationPriority.TRANSACTIONAL;
+  }
+
   /**
    * Converts a template name to its corresponding notification type.
    *
@@ -32,7 +32,6 @@ import org.springframework.data.repository.query.QueryByExampleExecutor;
 import org.springframework.stereotype.Repository;
 import uk.nhs.tis.trainee.notifications.model.History;
 import uk.nhs.tis.trainee.notifications.model.NotificationStatus;
-import uk.nhs.tis.trainee.notifications.model.ObjectIdWrapper;
 
 /**
  * A repository of historical notifications.
@@ -41,17 +40,6 @@ import uk.nhs.tis.trainee.notifications.model.ObjectIdWrapper;
 public interface HistoryRepository extends
     MongoRepository<History, ObjectId>, QueryByExampleExecutor<History> {
 
-  /**
-   * Get a list of the IDs of all matching history items.
-   *
-   * @param status The status to filter by.
-   * @param sentAt The timestamp to filter results by, must be less than or equal to this value.
-   * @return A list of IDs for matching history items.
-   */
-  @Query(fields = "{_id: 1}")
-  List<ObjectIdWrapper> findIdByStatusAndSentAtLessThanEqualOrderById(NotificationStatus status,
-      Instant sentAt);
-
   /**
    * Find all history for the given recipient ID.
    *
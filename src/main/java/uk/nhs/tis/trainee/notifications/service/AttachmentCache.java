@@ -0,0 +1,328 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.activation.DataSource;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import uk.nhs.tis.trainee.notifications.dto.StoredFile;
+
+/**
+ * A bounded, disk-backed cache of email attachments stored in S3. Attachments are streamed to
+ * local files keyed by bucket, key and ETag, so resends and retries only need to check the ETag
+ * and the attachment content is never held on the heap.
+ */
+@Slf4j
+@Component
+public class AttachmentCache {
+
+  static final String CACHE_NAME = "Attachment";
+
+  private static final String KEY_SEPARATOR = ":";
+  private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+  private static final String FILE_SUFFIX = ".attachment";
+
+  private final S3Client s3Client;
+  private final Path directory;
+  private final Cache<String, CachedAttachment> cache;
+
+  /**
+   * Create an attachment cache.
+   *
+   * @param s3Client      The S3 client to download attachments with.
+   * @param meterRegistry The registry to publish the cache metrics to.
+   * @param baseDirectory The directory to cache attachments under, the system temporary directory
+   *                      is used if blank.
+   * @param maxSize       The maximum total size of the cached attachments.
+   * @throws IOException If the cache directory could not be created.
+   */
+  AttachmentCache(S3Client s3Client, MeterRegistry meterRegistry,
+      @Value("${application.email.attachment-cache.directory:}") String baseDirectory,
+      @Value("${application.email.attachment-cache.max-size:256MB}") DataSize maxSize)
+      throws IOException {
+    this.s3Client = s3Client;
+    directory = createDirectory(baseDirectory);
+    cache = Caffeine.newBuilder()
+        .maximumWeight(maxSize.toBytes())
+        .weigher((String key, CachedAttachment value) ->
+            (int) Math.min(value.size(), Integer.MAX_VALUE))
+        .removalListener((String key, CachedAttachment value, RemovalCause cause) -> delete(value))
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    log.info("Caching email attachments in {}.", directory);
+  }
+
+  /**
+   * Get a data source for the given stored file, downloading it to the cache if the current
+   * version is not already cached.
+   *
+   * @param storedFile The stored file to get.
+   * @return A data source streaming the cached file.
+   * @throws IOException If the stored file could not be downloaded.
+   */
+  public DataSource getDataSource(StoredFile storedFile) throws IOException {
+    String eTag = getETag(storedFile);
+    String cacheKey = buildKey(storedFile, eTag);
+    CachedAttachment attachment = getCached(storedFile, eTag, cacheKey);
+    return new AttachmentDataSource(storedFile, eTag, cacheKey, attachment);
+  }
+
+  /**
+   * Remove the cache directory and any cached attachments.
+   */
+  @PreDestroy
+  void close() {
+    cache.invalidateAll();
+    cache.cleanUp();
+
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        Files.deleteIfExists(file);
+      }
+
+      Files.deleteIfExists(directory);
+    } catch (IOException e) {
+      log.warn("Unable to remove attachment cache directory {}.", directory, e);
+    }
+  }
+
+  /**
+   * Build the cache key for a stored file.
+   *
+   * @param storedFile The stored file.
+   * @param eTag       The ETag of the stored file's current version.
+   * @return The built cache key.
+   */
+  static String buildKey(StoredFile storedFile, String eTag) {
+    return String.join(KEY_SEPARATOR, storedFile.bucket(), storedFile.key(), eTag);
+  }
+
+  /**
+   * Create a new cache directory, a new directory is used for each instance so that files left
+   * behind by a previous process are never served.
+   *
+   * @param baseDirectory The directory to create the cache directory in, may be blank.
+   * @return The created cache directory.
+   * @throws IOException If the directory could not be created.
+   */
+  private static Path createDirectory(String baseDirectory) throws IOException {
+    if (!StringUtils.hasText(baseDirectory)) {
+      return Files.createTempDirectory("attachments");
+    }
+
+    Path base = Files.createDirectories(Path.of(baseDirectory));
+    return Files.createTempDirectory(base, "attachments");
+  }
+
+  /**
+   * Get the ETag of the current version of a stored file.
+   *
+   * @param storedFile The stored file.
+   * @return The ETag of the stored file.
+   * @throws IOException If the stored file's metadata could not be retrieved.
+   */
+  private String getETag(StoredFile storedFile) throws IOException {
+    HeadObjectRequest request = HeadObjectRequest.builder()
+        .bucket(storedFile.bucket())
+        .key(storedFile.key())
+        .build();
+
+    try {
+      HeadObjectResponse response = s3Client.headObject(request);
+      return response.eTag();
+    } catch (SdkException e) {
+      throw new IOException(String.format("Unable to find file '%s:%s'.", storedFile.bucket(),
+          storedFile.key()), e);
+    }
+  }
+
+  /**
+   * Get a cached attachment, downloading it if not cached. Concurrent requests for the same
+   * attachment will only download it once.
+   *
+   * @param storedFile The stored file.
+   * @param eTag       The ETag of the version to download.
+   * @param cacheKey   The cache key of the stored file version.
+   * @return The cached attachment.
+   * @throws IOException If the stored file could not be downloaded.
+   */
+  private CachedAttachment getCached(StoredFile storedFile, String eTag, String cacheKey)
+      throws IOException {
+    try {
+      return cache.get(cacheKey, key -> download(storedFile, eTag, key));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Download a stored file to the cache directory. Each download is streamed to a new file, so a
+   * file being removed for an evicted entry can never be one which has since replaced it.
+   *
+   * @param storedFile The stored file to download.
+   * @param eTag       The ETag of the version to download.
+   * @param cacheKey   The cache key of the stored file version.
+   * @return The cached attachment.
+   * @throws UncheckedIOException If the stored file could not be downloaded.
+   */
+  private CachedAttachment download(StoredFile storedFile, String eTag, String cacheKey) {
+    GetObjectRequest request = GetObjectRequest.builder()
+        .bucket(storedFile.bucket())
+        .key(storedFile.key())
+        .ifMatch(eTag)
+        .build();
+    Path file = null;
+
+    try (ResponseInputStream<GetObjectResponse> content = s3Client.getObject(request)) {
+      file = Files.createTempFile(directory, null, FILE_SUFFIX);
+      long size = Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+
+      String contentType = content.response().contentType();
+      log.debug("Cached attachment {} ({} bytes).", cacheKey, size);
+      return new CachedAttachment(file,
+          contentType == null ? DEFAULT_CONTENT_TYPE : contentType, size);
+    } catch (IOException | SdkException e) {
+      deleteQuietly(file);
+      String message = String.format("Unable to read file '%s:%s'.", storedFile.bucket(),
+          storedFile.key());
+      throw new UncheckedIOException(new IOException(message, e));
+    }
+  }
+
+  /**
+   * Delete the file of a removed attachment.
+   *
+   * @param attachment The removed attachment.
+   */
+  private void delete(CachedAttachment attachment) {
+    if (attachment != null) {
+      deleteQuietly(attachment.path());
+    }
+  }
+
+  /**
+   * Delete a file, logging rather than throwing any failure.
+   *
+   * @param file The file to delete, may be null.
+   */
+  private static void deleteQuietly(Path file) {
+    if (file != null) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        log.warn("Unable to delete cached attachment {}.", file, e);
+      }
+    }
+  }
+
+  /**
+   * A cached attachment.
+   *
+   * @param path        The path of the cached file.
+   * @param contentType The content type of the attachment.
+   * @param size        The size of the attachment in bytes.
+   */
+  record CachedAttachment(Path path, String contentType, long size) {
+
+  }
+
+  /**
+   * A data source streaming a cached attachment. The attachment may be evicted between the
+   * message being built and sent, in which case the same version is downloaded again.
+   */
+  private class AttachmentDataSource implements DataSource {
+
+    private final StoredFile storedFile;
+    private final String eTag;
+    private final String cacheKey;
+    private CachedAttachment attachment;
+
+    /**
+     * Create a data source for a cached attachment.
+     *
+     * @param storedFile The stored file.
+     * @param eTag       The ETag of the cached version.
+     * @param cacheKey   The cache key of the cached version.
+     * @param attachment The cached attachment.
+     */
+    AttachmentDataSource(StoredFile storedFile, String eTag, String cacheKey,
+        CachedAttachment attachment) {
+      this.storedFile = storedFile;
+      this.eTag = eTag;
+      this.cacheKey = cacheKey;
+      this.attachment = attachment;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+      try {
+        return Files.newInputStream(attachment.path());
+      } catch (NoSuchFileException e) {
+        log.debug("Cached attachment {} was removed, downloading again.", cacheKey);
+        cache.asMap().remove(cacheKey, attachment);
+        attachment = getCached(storedFile, eTag, cacheKey);
+        return Files.newInputStream(attachment.path());
+      }
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+      throw new IOException("Cached attachments are read-only.");
+    }
+
+    @Override
+    public String getContentType() {
+      return attachment.contentType();
+    }
+
+    @Override
+    public String getName() {
+      return StringUtils.getFilename(storedFile.key());
+    }
+  }
+}
@@ -0,0 +1,457 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.services.sesv2.SesV2Client;
+import software.amazon.awssdk.services.sesv2.model.AlreadyExistsException;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailContent;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailEntry;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailEntryResult;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailStatus;
+import software.amazon.awssdk.services.sesv2.model.CreateEmailTemplateRequest;
+import software.amazon.awssdk.services.sesv2.model.Destination;
+import software.amazon.awssdk.services.sesv2.model.EmailTemplateContent;
+import software.amazon.awssdk.services.sesv2.model.MessageTag;
+import software.amazon.awssdk.services.sesv2.model.ReplacementEmailContent;
+import software.amazon.awssdk.services.sesv2.model.ReplacementTemplate;
+import software.amazon.awssdk.services.sesv2.model.SendBulkEmailRequest;
+import software.amazon.awssdk.services.sesv2.model.SendBulkEmailResponse;
+import software.amazon.awssdk.services.sesv2.model.Template;
+import uk.nhs.tis.trainee.notifications.model.BulkEmailMessage;
+import uk.nhs.tis.trainee.notifications.model.NotificationPriority;
+import uk.nhs.tis.trainee.notifications.model.NotificationType;
+import uk.nhs.tis.trainee.notifications.repository.BulkEmailMessageRepository;
+
+/**
+ * A transport which sends homogeneous bulk notifications using SES bulk email. Emails rendered
+ * from the same template version are buffered and sent together, up to the SES limit of 50
+ * destinations per call, once the batch is full or the linger time has passed.
+ *
+ * <p>This batches the SES calls only, it is not a templated bulk send. Each email is still
+ * rendered in full by Thymeleaf, and the SES template simply substitutes the rendered subject and
+ * content for each destination, so the per-recipient HTML is sent as replacement data. The SES
+ * message ID of each email is mapped to its notification so that email events can be matched
+ * without the notification ID header.
+ *
+ * <p>Emails are submitted by the outbox sends, which wait for their email to be sent, so a batch
+ * can only fill if at least as many outbox messages are handled concurrently as the batch size.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.email.bulk.enabled", havingValue = "true")
+public class BulkEmailSender {
+
+  static final int MAX_BATCH_SIZE = 50;
+  static final String SUBJECT_FIELD = "subject";
+  static final String CONTENT_FIELD = "content";
+
+  private static final String TEMPLATE_TAG = "template";
+  private static final ObjectWriter TEMPLATE_DATA_WRITER = new ObjectMapper().writer();
+
+  private final SesV2Client sesClient;
+  private final SendRateGovernor sendRateGovernor;
+  private final BulkEmailMessageRepository messageRepository;
+  private final ScheduledThreadPoolExecutor flushExecutor;
+  private final DistributionSummary batchSizes;
+  private final Counter failedCounter;
+
+  private final String sender;
+  private final String sesTemplateName;
+  private final String configurationSet;
+  private final int batchSize;
+  private final Duration linger;
+  private final Duration messageRetention;
+
+  private final Map<String, Batch> pendingBatches = new HashMap<>();
+  private volatile boolean sesTemplateCreated;
+
+  /**
+   * Create a bulk email sender.
+   *
+   * @param sesClient         The SES v2 client to send with.
+   * @param sendRateGovernor  The governor limiting the email send rate.
+   * @param messageRepository The repository to store message ID mappings in.
+   * @param meterRegistry     The registry to publish batch metrics to.
+   * @param sender            The sender email address.
+   * @param sesTemplateName   The name of the SES template used for bulk sends.
+   * @param configurationSet  The SES configuration set which publishes email events, optional.
+   * @param batchSize         The maximum number of emails in each bulk send.
+   * @param linger            The maximum time to wait for a batch to fill.
+   * @param messageRetention  How long to keep message ID mappings for email events.
+   * @param threads           The number of threads sending batches.
+   * @param outboxConcurrency The number of outbox messages handled concurrently, which must be
+   *                          at least the batch size.
+   */
+  BulkEmailSender(SesV2Client sesClient, SendRateGovernor sendRateGovernor,
+      BulkEmailMessageRepository messageRepository, MeterRegistry meterRegistry,
+      @Value("${application.email.sender}") String sender,
+      @Value("${application.email.bulk.template-name:tis-trainee-notifications-bulk}")
+      String sesTemplateName,
+      @Value("${application.email.bulk.configuration-set:}") String configurationSet,
+      @Value("${application.email.bulk.batch-size:10}") int batchSize,
+      @Value("${application.email.bulk.linger:PT0.5S}") Duration linger,
+      @Value("${application.email.bulk.message-retention:P14D}") Duration messageRetention,
+      @Value("${application.email.bulk.threads:2}") int threads,
+      @Value("${application.sqs.listeners.outbox.max-concurrent-messages:10}")
+      int outboxConcurrency) {
+    if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException(
+          "The bulk email batch size must be between 1 and %s.".formatted(MAX_BATCH_SIZE));
+    }
+
+    if (outboxConcurrency < batchSize) {
+      throw new IllegalArgumentException(
+          "The outbox max concurrent messages must be at least the bulk email batch size.");
+    }
+
+    this.sesClient = sesClient;
+    this.sendRateGovernor = sendRateGovernor;
+    this.messageRepository = messageRepository;
+    this.sender = sender;
+    this.sesTemplateName = sesTemplateName;
+    this.configurationSet = configurationSet;
+    this.batchSize = batchSize;
+    this.linger = linger;
+    this.messageRetention = messageRetention;
+
+    flushExecutor = new ScheduledThreadPoolExecutor(threads,
+        new CustomizableThreadFactory("email-bulk-send-"));
+    flushExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+    batchSizes = DistributionSummary.builder("notifications.email.bulk.batch.size")
+        .description("The number of emails included in each bulk send.")
+        .register(meterRegistry);
+    failedCounter = Counter.builder("notifications.email.bulk.failed")
+        .description("The number of emails which could not be sent in a bulk send.")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Get the maximum number of emails in each bulk send.
+   *
+   * @return The batch size.
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Check whether a notification type should be sent by bulk send, only bulk priority reminders
+   * are homogeneous enough to benefit from batching.
+   *
+   * @param notificationType The notification type to check.
+   * @return Whether the notification type is sent by bulk send.
+   */
+  public boolean supports(NotificationType notificationType) {
+    return notificationType.getPriority() == NotificationPriority.BULK;
+  }
+
+  /**
+   * Add a rendered email to the batch for its template, the batch is sent once full or once the
+   * linger time has passed.
+   *
+   * @param templateName   The versioned template name the email was rendered from.
+   * @param priority       The priority lane to send the batch in.
+   * @param notificationId The ID of the notification being sent.
+   * @param recipient      The email address of the recipient.
+   * @param subject        The rendered subject.
+   * @param content        The rendered HTML content.
+   * @return A future which completes with the SES message ID once the email has been sent.
+   */
+  public CompletableFuture<String> submit(String templateName, NotificationPriority priority,
+      ObjectId notificationId, String recipient, String subject, String content) {
+    BulkEmail email = new BulkEmail(notificationId, recipient, subject, content,
+        new CompletableFuture<>());
+    Batch full = null;
+
+    synchronized (this) {
+      Batch batch = pendingBatches.get(templateName);
+
+      if (batch == null) {
+        batch = new Batch(templateName, priority, new ArrayList<>());
+        pendingBatches.put(templateName, batch);
+        Batch lingering = batch;
+        flushExecutor.schedule(() -> flush(lingering), linger.toNanos(), TimeUnit.NANOSECONDS);
+      }
+
+      batch.emails().add(email);
+
+      if (batch.emails().size() >= batchSize) {
+        pendingBatches.remove(templateName);
+        full = batch;
+      }
+    }
+
+    if (full != null) {
+      Batch toSend = full;
+      flushExecutor.execute(() -> send(toSend));
+    }
+
+    return email.result();
+  }
+
+  /**
+   * Send any pending batches and stop the send threads.
+   */
+  @PreDestroy
+  void shutdown() {
+    List<Batch> remaining;
+
+    synchronized (this) {
+      remaining = new ArrayList<>(pendingBatches.values());
+      pendingBatches.clear();
+    }
+
+    remaining.forEach(batch -> flushExecutor.execute(() -> send(batch)));
+    flushExecutor.shutdown();
+
+    try {
+      if (!flushExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+        log.warn("Pending bulk email batches were not sent in time.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Send a lingering batch, unless it has already been sent.
+   *
+   * @param batch The batch to send.
+   */
+  private void flush(Batch batch) {
+    synchronized (this) {
+      if (!pendingBatches.remove(batch.templateName(), batch)) {
+        return;
+      }
+    }
+
+    send(batch);
+  }
+
+  /**
+   * Send a batch of emails with a single SES bulk send, completing each email's result.
+   *
+   * @param batch The batch to send.
+   */
+  private void send(Batch batch) {
+    List<BulkEmail> emails = batch.emails();
+    log.debug("Sending {} bulk email(s) for template {}.", emails.size(), batch.templateName());
+
+    List<BulkEmailEntryResult> results;
+
+    try {
+      createSesTemplate();
+
+      SendBulkEmailRequest request = buildRequest(batch);
+      AtomicReference<SendBulkEmailResponse> response = new AtomicReference<>();
+      sendRateGovernor.execute(batch.priority(), emails.size(),
+          () -> response.set(sesClient.sendBulkEmail(request)));
+      results = response.get().bulkEmailEntryResults();
+    } catch (RuntimeException e) {
+      log.error("Failed to send {} bulk email(s) for template {}.", emails.size(),
+          batch.templateName(), e);
+      failedCounter.increment(emails.size());
+      emails.forEach(email -> email.result().completeExceptionally(e));
+      return;
+    }
+
+    batchSizes.record(emails.size());
+    Instant expiresAt = Instant.now().plus(messageRetention);
+    List<BulkEmailMessage> messages = new ArrayList<>();
+
+    for (int i = 0; i < emails.size(); i++) {
+      BulkEmailEntryResult result = i < results.size() ? results.get(i) : null;
+
+      if (result != null && result.status() == BulkEmailStatus.SUCCESS) {
+        messages.add(new BulkEmailMessage(result.messageId(), emails.get(i).notificationId(),
+            expiresAt));
+      }
+    }
+
+    try {
+      messageRepository.saveAll(messages);
+    } catch (RuntimeException e) {
+      // The emails have been sent, so the result is unaffected but events will not be matched.
+      log.error("Failed to store message IDs for {} bulk email(s).", messages.size(), e);
+    }
+
+    for (int i = 0; i < emails.size(); i++) {
+      BulkEmail email = emails.get(i);
+      BulkEmailEntryResult result = i < results.size() ? results.get(i) : null;
+
+      if (result != null && result.status() == BulkEmailStatus.SUCCESS) {
+        email.result().complete(result.messageId());
+      } else {
+        String reason = result == null ? "No result returned."
+            : "%s - %s".formatted(result.statusAsString(), result.error());
+        log.warn("Bulk email for notification {} was not sent: {}", email.notificationId(),
+            reason);
+        failedCounter.increment();
+        email.result().completeExceptionally(new MailSendException(
+            "Bulk email for notification '%s' was not sent: %s".formatted(email.notificationId(),
+                reason)));
+      }
+    }
+  }
+
+  /**
+   * Build the bulk send request for a batch.
+   *
+   * @param batch The batch to build the request for.
+   * @return The built request.
+   */
+  private SendBulkEmailRequest buildRequest(Batch batch) {
+    List<BulkEmailEntry> entries = batch.emails().stream()
+        .map(email -> BulkEmailEntry.builder()
+            .destination(Destination.builder().toAddresses(email.recipient()).build())
+            .replacementEmailContent(ReplacementEmailContent.builder()
+                .replacementTemplate(ReplacementTemplate.builder()
+                    .replacementTemplateData(buildTemplateData(email))
+                    .build())
+                .build())
+            .build())
+        .toList();
+
+    SendBulkEmailRequest.Builder request = SendBulkEmailRequest.builder()
+        .fromEmailAddress(sender)
+        .defaultContent(BulkEmailContent.builder()
+            .template(Template.builder()
+                .templateName(sesTemplateName)
+                .templateData(buildTemplateData(Map.of(SUBJECT_FIELD, "", CONTENT_FIELD, "")))
+                .build())
+            .build())
+        .defaultEmailTags(MessageTag.builder()
+            .name(TEMPLATE_TAG)
+            .value(batch.templateName().replaceAll("[^A-Za-z0-9_-]", "_"))
+            .build())
+        .bulkEmailEntries(entries);
+
+    if (StringUtils.hasText(configurationSet)) {
+      request.configurationSetName(configurationSet);
+    }
+
+    return request.build();
+  }
+
+  /**
+   * Build the SES template data for an email.
+   *
+   * @param email The email to build the data for.
+   * @return The template data JSON.
+   */
+  private String buildTemplateData(BulkEmail email) {
+    return buildTemplateData(Map.of(SUBJECT_FIELD, email.subject(), CONTENT_FIELD,
+        email.content()));
+  }
+
+  /**
+   * Build the SES template data from the given fields.
+   *
+   * @param fields The template data fields.
+   * @return The template data JSON.
+   */
+  private String buildTemplateData(Map<String, String> fields) {
+    try {
+      return TEMPLATE_DATA_WRITER.writeValueAsString(fields);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Create the SES template used for bulk sends, if it has not already been created. The template
+   * inserts the pre-rendered subject and content without escaping.
+   */
+  private void createSesTemplate() {
+    if (sesTemplateCreated) {
+      return;
+    }
+
+    try {
+      sesClient.createEmailTemplate(CreateEmailTemplateRequest.builder()
+          .templateName(sesTemplateName)
+          .templateContent(EmailTemplateContent.builder()
+              .subject("{{{" + SUBJECT_FIELD + "}}}")
+              .html("{{{" + CONTENT_FIELD + "}}}")
+              .build())
+          .build());
+      log.info("Created SES template {} for bulk email.", sesTemplateName);
+    } catch (AlreadyExistsException e) {
+      log.debug("SES template {} already exists.", sesTemplateName);
+    }
+
+    sesTemplateCreated = true;
+  }
+
+  /**
+   * A batch of emails rendered from the same template.
+   *
+   * @param templateName The versioned template name.
+   * @param priority     The priority lane to send the batch in.
+   * @param emails       The emails in the batch, guarded by the sender's lock until sent.
+   */
+  private record Batch(String templateName, NotificationPriority priority,
+      List<BulkEmail> emails) {
+
+  }
+
+  /**
+   * A rendered email waiting to be sent.
+   *
+   * @param notificationId The ID of the notification being sent.
+   * @param recipient      The email address of the recipient.
+   * @param subject        The rendered subject.
+   * @param content        The rendered HTML content.
+   * @param result         The future to complete with the SES message ID.
+   */
+  private record BulkEmail(ObjectId notificationId, String recipient, String subject,
+      String content, CompletableFuture<String> result) {
+
+  }
+}
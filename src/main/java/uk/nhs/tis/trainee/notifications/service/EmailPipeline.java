@@ -0,0 +1,282 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * A pipeline for email sends, each send is rendered, assembled, submitted and recorded by a
+ * separate stage. The stages are connected by bounded queues and each has its own parallelism, so
+ * slow submissions do not hold up rendering and assembly of the next sends. A full queue blocks
+ * the previous stage, applying back-pressure through to the caller.
+ */
+@Slf4j
+@Component
+public class EmailPipeline {
+
+  private static final String STAGE_TAG = "stage";
+
+  private final Map<Stage, ThreadPoolExecutor> stageExecutors;
+  private final Map<Stage, Timer> stageTimers;
+
+  /**
+   * Create an email pipeline.
+   *
+   * @param meterRegistry   The registry to publish the stage metrics to.
+   * @param renderThreads   The number of threads rendering templates.
+   * @param assembleThreads The number of threads assembling MIME messages.
+   * @param submitThreads   The number of threads submitting messages for sending.
+   * @param recordThreads   The number of threads recording notification history.
+   * @param queueCapacity   The maximum number of sends waiting for each stage.
+   */
+  EmailPipeline(MeterRegistry meterRegistry,
+      @Value("${application.email.pipeline.render.threads:2}") int renderThreads,
+      @Value("${application.email.pipeline.assemble.threads:2}") int assembleThreads,
+      @Value("${application.email.pipeline.submit.threads:8}") int submitThreads,
+      @Value("${application.email.pipeline.record.threads:2}") int recordThreads,
+      @Value("${application.email.pipeline.queue-capacity:50}") int queueCapacity) {
+    Map<Stage, Integer> stageThreads = Map.of(
+        Stage.RENDER, renderThreads,
+        Stage.ASSEMBLE, assembleThreads,
+        Stage.SUBMIT, submitThreads,
+        Stage.RECORD, recordThreads);
+
+    stageExecutors = new EnumMap<>(Stage.class);
+    stageTimers = new EnumMap<>(Stage.class);
+
+    for (Stage stage : Stage.values()) {
+      int threads = stageThreads.get(stage);
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L,
+          TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+          new CustomizableThreadFactory("email-" + stage.getStageName() + "-"),
+          new BlockingSubmitPolicy());
+      stageExecutors.put(stage, executor);
+
+      Gauge.builder("notifications.email.pipeline.queue.depth", executor,
+              e -> e.getQueue().size())
+          .description("The number of email sends waiting for a pipeline stage.")
+          .tag(STAGE_TAG, stage.getStageName())
+          .register(meterRegistry);
+      Gauge.builder("notifications.email.pipeline.active", executor,
+              ThreadPoolExecutor::getActiveCount)
+          .description("The number of email sends being processed by a pipeline stage.")
+          .tag(STAGE_TAG, stage.getStageName())
+          .register(meterRegistry);
+      stageTimers.put(stage, Timer.builder("notifications.email.pipeline.stage")
+          .description("The time taken by a pipeline stage to process an email send.")
+          .tag(STAGE_TAG, stage.getStageName())
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Start a send at the given stage.
+   *
+   * @param stage The stage to start at.
+   * @param task  The task to perform in the stage.
+   * @param <T>   The type of the stage output.
+   * @return A future completing with the stage output.
+   */
+  public <T> CompletableFuture<T> start(Stage stage, StageSupplier<T> task) {
+    return CompletableFuture.supplyAsync(() -> run(stage, task), stageExecutors.get(stage));
+  }
+
+  /**
+   * Continue a send in the given stage once the previous stage has completed.
+   *
+   * @param previous The future of the previous stage.
+   * @param stage    The stage to continue in.
+   * @param task     The task to perform in the stage, applied to the previous output.
+   * @param <I>      The type of the previous stage output.
+   * @param <O>      The type of the stage output.
+   * @return A future completing with the stage output.
+   */
+  public <I, O> CompletableFuture<O> then(CompletableFuture<I> previous, Stage stage,
+      StageFunction<I, O> task) {
+    return previous.thenApplyAsync(input -> run(stage, () -> task.apply(input)),
+        stageExecutors.get(stage));
+  }
+
+  /**
+   * Wait for a send to complete all of its stages.
+   *
+   * @param send The future of the final stage.
+   * @throws MessagingException If any stage failed with a messaging error.
+   */
+  public void await(CompletableFuture<?> send) throws MessagingException {
+    try {
+      send.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for an email send.", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+
+      if (cause instanceof MessagingException messagingException) {
+        throw messagingException;
+      }
+
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+
+      throw new IllegalStateException("Unable to send email.", cause);
+    }
+  }
+
+  /**
+   * Stop the stage executors, waiting for in-flight sends to be recorded.
+   */
+  @PreDestroy
+  void shutdown() {
+    for (Stage stage : Stage.values()) {
+      ThreadPoolExecutor executor = stageExecutors.get(stage);
+      executor.shutdown();
+
+      try {
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+          log.warn("Email pipeline {} stage did not finish in time.", stage.getStageName());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Run a stage task, timing it and wrapping any checked exception.
+   *
+   * @param stage The stage being run.
+   * @param task  The task to run.
+   * @param <T>   The type of the stage output.
+   * @return The stage output.
+   */
+  private <T> T run(Stage stage, StageSupplier<T> task) {
+    long start = System.nanoTime();
+
+    try {
+      return task.get();
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new CompletionException(e);
+    } finally {
+      stageTimers.get(stage).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * The stages of the email pipeline, in processing order.
+   */
+  public enum Stage {
+    RENDER,
+    ASSEMBLE,
+    SUBMIT,
+    RECORD;
+
+    /**
+     * Get the name of the stage, as used in thread names and metric tags.
+     *
+     * @return The stage name.
+     */
+    public String getStageName() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  /**
+   * A stage task which starts a send.
+   *
+   * @param <T> The type of the stage output.
+   */
+  @FunctionalInterface
+  public interface StageSupplier<T> {
+
+    /**
+     * Perform the stage task.
+     *
+     * @return The stage output.
+     * @throws Exception If the task failed.
+     */
+    T get() throws Exception;
+  }
+
+  /**
+   * A stage task which continues a send.
+   *
+   * @param <I> The type of the previous stage output.
+   * @param <O> The type of the stage output.
+   */
+  @FunctionalInterface
+  public interface StageFunction<I, O> {
+
+    /**
+     * Perform the stage task.
+     *
+     * @param input The output of the previous stage.
+     * @return The stage output.
+     * @throws Exception If the task failed.
+     */
+    O apply(I input) throws Exception;
+  }
+
+  /**
+   * A rejection policy which blocks until the stage queue has space, so that a full stage applies
+   * back-pressure to the stage before it.
+   */
+  private static class BlockingSubmitPolicy implements RejectedExecutionHandler {
+
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+      if (executor.isShutdown()) {
+        throw new RejectedExecutionException("The email pipeline has been shut down.");
+      }
+
+      try {
+        executor.getQueue().put(task);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RejectedExecutionException("Interrupted while waiting for a pipeline stage.", e);
+      }
+    }
+  }
+}
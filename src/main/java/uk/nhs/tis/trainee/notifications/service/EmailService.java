@@ -23,12 +23,14 @@ package uk.nhs.tis.trainee.notifications.service;
 
 import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
 
-import io.awspring.cloud.s3.S3Resource;
-import io.awspring.cloud.s3.S3Template;
+import jakarta.activation.DataHandler;
+import jakarta.activation.DataSource;
 import jakarta.annotation.Nullable;
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
 import java.io.IOException;
+import java.io.Writer;
 import java.math.BigInteger;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
@@ -39,12 +41,15 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.logging.log4j.util.Strings;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -58,6 +63,8 @@ import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
 import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
 import uk.nhs.tis.trainee.notifications.model.NotificationStatus;
 import uk.nhs.tis.trainee.notifications.model.NotificationType;
+import uk.nhs.tis.trainee.notifications.service.EmailPipeline.Stage;
+import uk.nhs.tis.trainee.notifications.service.SendDeduplicationService.ClaimStatus;
 
 /**
  * A service for sending emails.
@@ -69,20 +76,31 @@ public class EmailService {
   private final UserAccountService userAccountService;
   private final HistoryService historyService;
   private final JavaMailSender mailSender;
+  private final SendRateGovernor sendRateGovernor;
   private final TemplateService templateService;
-  private final S3Template s3Template;
+  private final AttachmentCache attachmentCache;
+  private final EmailPipeline emailPipeline;
+  private final ObjectProvider<BulkEmailSender> bulkEmailSender;
+  private final SendDeduplicationService deduplicationService;
   private final String sender;
   private final URI appDomain;
 
   EmailService(UserAccountService userAccountService, HistoryService historyService,
-      JavaMailSender mailSender, TemplateService templateService, S3Template s3Template,
+      JavaMailSender mailSender, SendRateGovernor sendRateGovernor,
+      TemplateService templateService, AttachmentCache attachmentCache,
+      EmailPipeline emailPipeline, ObjectProvider<BulkEmailSender> bulkEmailSender,
+      SendDeduplicationService deduplicationService,
       @Value("${application.email.sender}") String sender,
       @Value("${application.domain}") URI appDomain) {
     this.userAccountService = userAccountService;
     this.historyService = historyService;
     this.mailSender = mailSender;
+    this.sendRateGovernor = sendRateGovernor;
     this.templateService = templateService;
-    this.s3Template = s3Template;
+    this.attachmentCache = attachmentCache;
+    this.emailPipeline = emailPipeline;
+    this.bulkEmailSender = bulkEmailSender;
+    this.deduplicationService = deduplicationService;
     this.sender = sender;
     this.appDomain = appDomain;
   }
@@ -120,6 +138,44 @@ public class EmailService {
   public void sendMessageToExistingUser(String traineeId, NotificationType notificationType,
       String templateVersion, Map<String, Object> templateVariables,
       TisReferenceInfo tisReferenceInfo, StoredFile attachment) throws MessagingException {
+    emailPipeline.await(sendMessageToExistingUserAsync(traineeId, notificationType,
+        templateVersion, templateVariables, tisReferenceInfo, attachment));
+  }
+
+  /**
+   * Email a user with an existing account through the email pipeline, the name and domain
+   * variables will be set if not provided.
+   *
+   * @param traineeId         The trainee ID of the user.
+   * @param notificationType  The type of notification, which will determine the template used.
+   * @param templateVersion   The version of the template to be sent.
+   * @param templateVariables The variables to pass to the template.
+   * @param tisReferenceInfo  The TIS reference information (table and key).
+   * @return A future which completes once the send has been recorded.
+   */
+  public CompletableFuture<Void> sendMessageToExistingUserAsync(String traineeId,
+      NotificationType notificationType, String templateVersion,
+      Map<String, Object> templateVariables, TisReferenceInfo tisReferenceInfo) {
+    return sendMessageToExistingUserAsync(traineeId, notificationType, templateVersion,
+        templateVariables, tisReferenceInfo, null);
+  }
+
+  /**
+   * Email a user with an existing account through the email pipeline, the name and domain
+   * variables will be set if not provided.
+   *
+   * @param traineeId         The trainee ID of the user.
+   * @param notificationType  The type of notification, which will determine the template used.
+   * @param templateVersion   The version of the template to be sent.
+   * @param templateVariables The variables to pass to the template.
+   * @param tisReferenceInfo  The TIS reference information (table and key).
+   * @param attachment        A published PDF to include as an attachment.
+   * @return A future which completes once the send has been recorded.
+   */
+  public CompletableFuture<Void> sendMessageToExistingUserAsync(String traineeId,
+      NotificationType notificationType, String templateVersion,
+      Map<String, Object> templateVariables, TisReferenceInfo tisReferenceInfo,
+      StoredFile attachment) {
     if (traineeId == null) {
       throw new IllegalArgumentException("Unable to send notification as no trainee ID available");
     }
@@ -134,7 +190,7 @@ public class EmailService {
     templateVariables = new HashMap<>(templateVariables);
     templateVariables.putIfAbsent("familyName", userDetails.familyName());
     templateVariables.putIfAbsent("givenName", userDetails.givenName());
-    sendMessage(traineeId, userDetails.email(), notificationType, templateVersion,
+    return sendMessageAsync(traineeId, userDetails.email(), notificationType, templateVersion,
         templateVariables, tisReferenceInfo, attachment, false);
   }
 
@@ -180,31 +236,158 @@ public class EmailService {
       String templateVersion, Map<String, Object> templateVariables,
       TisReferenceInfo tisReferenceInfo, StoredFile attachment, boolean doNotSendJustLog)
       throws MessagingException {
+    emailPipeline.await(sendMessageAsync(traineeId, recipient, notificationType, templateVersion,
+        templateVariables, tisReferenceInfo, attachment, doNotSendJustLog));
+  }
+
+  /**
+   * Send an email message through the email pipeline, the domain variable will be set if not
+   * provided. If no email address is given a history record will still be saved with a failed state
+   * for reporting purposes.
+   *
+   * @param traineeId         The trainee ID of the recipient.
+   * @param recipient         Where the email should be sent, should be null when not available.
+   * @param notificationType  The type of notification, which will determine the template used.
+   * @param templateVersion   The version of the template to be sent.
+   * @param templateVariables The variables to pass to the template.
+   * @param tisReferenceInfo  The TIS reference information (table and key).
+   * @param attachment        A published PDF to include as an attachment.
+   * @param doNotSendJustLog  Do not actually send the mail, simply log the action.
+   * @return A future which completes once the send has been recorded.
+   */
+  public CompletableFuture<Void> sendMessageAsync(String traineeId, @Nullable String recipient,
+      NotificationType notificationType,
+      String templateVersion, Map<String, Object> templateVariables,
+      TisReferenceInfo tisReferenceInfo, StoredFile attachment, boolean doNotSendJustLog) {
     String templateName = templateService.getTemplatePath(EMAIL, notificationType, templateVersion);
     log.info("Processing send job template {} to {}.", templateName, recipient);
 
-    if (!doNotSendJustLog) {
+    if (doNotSendJustLog) {
+      log.info("Send job is ignored. "
+              + "For now, just logging mail to '{}' from template '{}' with variables '{}'",
+          recipient, templateName, templateVariables);
+
+      // Delete SCHEDULED history after the notification is ignored
+      return emailPipeline.start(Stage.RECORD, () -> {
+        if (tisReferenceInfo != null) {
+          historyService.deleteScheduledEmails(traineeId, tisReferenceInfo.type(),
+              tisReferenceInfo.id(), notificationType);
+        }
+        return null;
+      });
+    }
+
+    List<StoredFile> attachments = attachment == null ? null : List.of(attachment);
+
+    // Bulk reminders without attachments are batched in to templated bulk sends when enabled.
+    BulkEmailSender availableBulkSender = bulkEmailSender.getIfAvailable();
+    BulkEmailSender bulkSender = availableBulkSender != null && attachments == null
+        && availableBulkSender.supports(notificationType) ? availableBulkSender : null;
+
+    AtomicReference<ObjectId> claimedId = new AtomicReference<>();
+    AtomicReference<String> sendClaimKey = new AtomicReference<>();
+
+    CompletableFuture<EmailSend> rendered = emailPipeline.start(Stage.RENDER, () -> {
       ObjectId notificationId = ObjectId.get();
-      NotificationStatus status;
-      String statusDetail = null;
 
-      // find scheduled history from DB
-      History latestScheduledHistory = null;
+      // Claim the scheduled history, any duplicates are deleted as part of the claim.
       if (tisReferenceInfo != null) {
-        latestScheduledHistory = historyService.findScheduledEmailForTraineeByRefAndType(
-            traineeId, tisReferenceInfo.type(), tisReferenceInfo.id(), notificationType);
-        if (latestScheduledHistory != null) {
-          notificationId = latestScheduledHistory.id();
+        Optional<History> claimed = historyService.claimScheduledEmail(traineeId,
+            tisReferenceInfo.type(), tisReferenceInfo.id(), notificationType);
+        if (claimed.isPresent()) {
+          notificationId = claimed.get().id();
+          claimedId.set(notificationId);
         }
       }
 
-      List<StoredFile> attachments = attachment == null ? null : List.of(attachment);
+      if (recipient == null) {
+        return new EmailSend(notificationId, null, null, null, false);
+      }
+
+      // Claim the send, keyed on the scheduled notification or the reference when not scheduled.
+      String sendKey = null;
+      if (claimedId.get() != null) {
+        sendKey = SendDeduplicationService.getSendKey(notificationId);
+      } else if (tisReferenceInfo != null) {
+        sendKey = SendDeduplicationService.getSendKey(tisReferenceInfo, notificationType,
+            recipient);
+      }
 
-      if (recipient != null) {
-        MimeMessageHelper helper = buildMessageHelper(recipient, templateName, templateVariables,
-            notificationId, attachments);
-        mailSender.send(helper.getMimeMessage());
-        log.info("Sent template {} to {}.", templateName, recipient);
+      if (sendKey != null) {
+        ClaimStatus claimStatus = deduplicationService.claim(sendKey);
+
+        if (claimStatus == ClaimStatus.SENT) {
+          log.info("Notification {} was already sent to {}, it will not be resent.",
+              notificationId, recipient);
+          return new EmailSend(notificationId, null, null, null, true);
+        } else if (claimStatus == ClaimStatus.HELD) {
+          String message = "The send of template %s to %s is in progress, it will be retried."
+              .formatted(templateName, recipient);
+          throw new IllegalStateException(message);
+        }
+        sendClaimKey.set(sendKey);
+      }
+
+      RenderedContentDataSource content = new RenderedContentDataSource();
+      String subject = renderContent(recipient, templateName, templateVariables, content);
+      return new EmailSend(notificationId, subject, content, null, false);
+    });
+
+    CompletableFuture<EmailSend> assembled = emailPipeline.then(rendered, Stage.ASSEMBLE,
+        send -> {
+          if (send.content() == null || bulkSender != null) {
+            return send;
+          }
+
+          MimeMessageHelper helper = assembleMessage(recipient, templateName,
+              send.notificationId(), send.subject(), send.content(), attachments);
+          return new EmailSend(send.notificationId(), send.subject(), send.content(),
+              helper.getMimeMessage(), false);
+        });
+
+    CompletableFuture<EmailSend> submitted;
+
+    if (bulkSender != null) {
+      // The bulk sender waits for its batch to fill, so a submit thread is not held meanwhile.
+      submitted = assembled.thenCompose(send -> {
+        if (send.content() == null) {
+          return CompletableFuture.completedFuture(send);
+        }
+
+        // The bulk send takes a copy of the content, so the rendered buffer can be reused.
+        String content = send.content().getContent();
+        send.content().release();
+
+        return bulkSender.submit(templateName, notificationType.getPriority(),
+            send.notificationId(), recipient, send.subject(), content).thenApply(messageId -> {
+              log.info("Sent template {} to {} in bulk send as message {}.", templateName,
+                  recipient, messageId);
+              markSent(sendClaimKey);
+              return send;
+            });
+      });
+    } else {
+      submitted = emailPipeline.then(assembled, Stage.SUBMIT, send -> {
+        if (send.message() != null) {
+          sendRateGovernor.execute(notificationType.getPriority(),
+              () -> mailSender.send(send.message()));
+          log.info("Sent template {} to {}.", templateName, recipient);
+          markSent(sendClaimKey);
+        }
+        return send;
+      });
+    }
+
+    CompletableFuture<Void> recorded = emailPipeline.then(submitted, Stage.RECORD, send -> {
+      // An unscheduled send which was already made has been recorded by the original attempt.
+      if (send.alreadySent() && claimedId.get() == null) {
+        return null;
+      }
+
+      NotificationStatus status;
+      String statusDetail = null;
+
+      if (send.content() != null || send.alreadySent()) {
         status = NotificationStatus.PENDING;
       } else {
         log.info("No email address available for trainee {}, this failure will be recorded.",
@@ -217,26 +400,41 @@ public class EmailService {
       RecipientInfo recipientInfo = new RecipientInfo(traineeId, EMAIL, recipient);
       TemplateInfo templateInfo = new TemplateInfo(notificationType.getTemplateName(),
           templateVersion, templateVariables);
-      History history = new History(notificationId, tisReferenceInfo, notificationType,
+      History history = new History(send.notificationId(), tisReferenceInfo, notificationType,
           recipientInfo, templateInfo, attachments, Instant.now(), null, status, statusDetail,
           null);
       historyService.save(history);
 
       log.info("Finish processing send job {} to {}.", templateName, recipient);
-    } else {
-      log.info("Send job is ignored. "
-              + "For now, just logging mail to '{}' from template '{}' with variables '{}'",
-          recipient, templateName, templateVariables);
-    }
+      return null;
+    });
+
+    // Release the claims if the send failed, so that it can be retried. The send claim is only
+    // released if the message was not sent, so that a failure to record it is not resent.
+    return recorded.whenComplete((result, throwable) -> {
+      if (throwable != null) {
+        String sendClaim = sendClaimKey.get();
+        if (sendClaim != null) {
+          deduplicationService.release(sendClaim);
+        }
 
-    // Delete SCHEDULED history after the notification is sent or ignored
-    if (tisReferenceInfo != null) {
-      List<History> allScheduledHistories =
-          historyService.findAllScheduledEmailForTraineeByRefAndType(
-          traineeId, tisReferenceInfo.type(), tisReferenceInfo.id(), notificationType);
-      for (History history : allScheduledHistories) {
-        historyService.deleteHistoryForTrainee(history.id(), traineeId);
+        ObjectId claimed = claimedId.get();
+        if (claimed != null) {
+          historyService.releaseScheduledEmail(claimed);
+        }
       }
+    });
+  }
+
+  /**
+   * Mark the claimed send as sent, if there is one, so that the notification is not sent again.
+   *
+   * @param sendClaimKey The key of the claimed send, cleared once marked as sent.
+   */
+  private void markSent(AtomicReference<String> sendClaimKey) {
+    String sent = sendClaimKey.getAndSet(null);
+    if (sent != null) {
+      deduplicationService.markSent(sent);
     }
   }
 
@@ -259,10 +457,13 @@ public class EmailService {
       Map<String, Object> resendVariables = new HashMap<>(toResend.template().variables());
       resendVariables.putIfAbsent("originallySentOn", toResend.sentAt());
 
-      MimeMessageHelper helper = buildMessageHelper(updatedEmailAddress, templateName,
-          resendVariables, notificationId, toResend.attachments());
+      RenderedContentDataSource content = new RenderedContentDataSource();
+      String subject = renderContent(updatedEmailAddress, templateName, resendVariables, content);
+      MimeMessageHelper helper = assembleMessage(updatedEmailAddress, templateName,
+          notificationId, subject, content, toResend.attachments());
 
-      mailSender.send(helper.getMimeMessage());
+      sendRateGovernor.execute(toResend.type().getPriority(),
+          () -> mailSender.send(helper.getMimeMessage()));
 
       //update history entry
       TemplateInfo updatedTemplateInfo = new TemplateInfo(toResend.type().getTemplateName(),
@@ -279,18 +480,17 @@ public class EmailService {
   }
 
   /**
-   * Build the Mime message helper object with the populated template as content.
+   * Render the template content of a message.
    *
    * @param recipient         Where the email should be sent.
    * @param templateName      The versioned template name.
    * @param templateVariables The variables to pass to the template.
-   * @param notificationId    The notification ID to set in the email header.
-   * @param attachments       Optional stored files to include as attachments.
-   * @return The build Mime message helper.
-   * @throws MessagingException if there is an error populating the helper.
+   * @param content           The data source to render the content in to.
+   * @return The rendered subject.
+   * @throws MessagingException if there is an error rendering the template.
    */
-  private MimeMessageHelper buildMessageHelper(String recipient, String templateName,
-      Map<String, Object> templateVariables, ObjectId notificationId, List<StoredFile> attachments)
+  private String renderContent(String recipient, String templateName,
+      Map<String, Object> templateVariables, RenderedContentDataSource content)
       throws MessagingException {
 
     // Add the application domain for any templates with hyperlinks.
@@ -298,11 +498,30 @@ public class EmailService {
     templateVariables.putIfAbsent("hashedEmail", createMd5Hash(recipient));
 
     Context templateContext = templateService.buildContext(templateVariables);
-    final String subject = templateService.process(templateName, Set.of("subject"),
-        templateContext);
-    final String content = templateService.process(templateName, Set.of("content"),
-        templateContext);
 
+    try (Writer contentWriter = content.getWriter()) {
+      return templateService.processMessage(templateName, templateContext, contentWriter);
+    } catch (IOException e) {
+      String message = String.format("Unable to render template '%s'.", templateName);
+      throw new MessagingException(message, e);
+    }
+  }
+
+  /**
+   * Assemble the Mime message helper object with the rendered content.
+   *
+   * @param recipient      Where the email should be sent.
+   * @param templateName   The versioned template name.
+   * @param notificationId The notification ID to set in the email header.
+   * @param subject        The rendered subject.
+   * @param content        The rendered content.
+   * @param attachments    Optional stored files to include as attachments.
+   * @return The assembled Mime message helper.
+   * @throws MessagingException if there is an error populating the helper.
+   */
+  private MimeMessageHelper assembleMessage(String recipient, String templateName,
+      ObjectId notificationId, String subject, RenderedContentDataSource content,
+      List<StoredFile> attachments) throws MessagingException {
     MimeMessage mimeMessage = mailSender.createMimeMessage();
     mimeMessage.addHeader("NotificationId", notificationId.toString());
     mimeMessage.addHeader("Template-Name", templateName);
@@ -312,15 +531,13 @@ public class EmailService {
     helper.setTo(recipient);
     helper.setFrom(sender);
     helper.setSubject(subject);
-    helper.setText(content, true);
+    setHtmlContent(helper, content);
 
     if (attachments != null) {
       for (StoredFile attachment : attachments) {
-        S3Resource resource = s3Template.download(attachment.bucket(), attachment.key());
-
         try {
-          helper.addAttachment(Objects.requireNonNull(resource.getFilename()),
-              new ByteArrayResource(resource.getContentAsByteArray()), resource.contentType());
+          DataSource dataSource = attachmentCache.getDataSource(attachment);
+          helper.addAttachment(Objects.requireNonNull(dataSource.getName()), dataSource);
         } catch (IOException e) {
           String message = String.format("Unable to read file '%s:%s'.", attachment.bucket(),
               attachment.key());
@@ -332,6 +549,27 @@ public class EmailService {
     return helper;
   }
 
+  /**
+   * Set the HTML content of the message, the rendered content is attached as a data source so
+   * that it does not need to be copied in to an intermediate string.
+   *
+   * @param helper  The message helper to set the content on.
+   * @param content The rendered content.
+   * @throws MessagingException if there is an error setting the content.
+   */
+  private void setHtmlContent(MimeMessageHelper helper, RenderedContentDataSource content)
+      throws MessagingException {
+    DataHandler dataHandler = new DataHandler(content);
+
+    if (helper.isMultipart()) {
+      MimeBodyPart bodyPart = new MimeBodyPart();
+      bodyPart.setDataHandler(dataHandler);
+      helper.getMimeMultipart().addBodyPart(bodyPart, 0);
+    } else {
+      helper.getMimeMessage().setDataHandler(dataHandler);
+    }
+  }
+
   /**
    * Get the user account for the given trainee email.
    *
@@ -395,4 +633,18 @@ public class EmailService {
     }
     return hexText;
   }
+
+  /**
+   * An email send as it passes through the pipeline stages.
+   *
+   * @param notificationId The notification ID of the send.
+   * @param subject        The rendered subject, null until rendered or if there is no recipient.
+   * @param content        The rendered content, null until rendered or if there is no recipient.
+   * @param message        The assembled message, null until assembled or if there is no recipient.
+   * @param alreadySent    Whether the notification was already sent, so should only be recorded.
+   */
+  private record EmailSend(ObjectId notificationId, String subject,
+      RenderedContentDataSource content, MimeMessage message, boolean alreadySent) {
+
+  }
 }
@@ -0,0 +1,333 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+
+/**
+ * A bounded in-memory buffer of SNS events, which are published asynchronously in batches so that
+ * callers do not wait for an SNS round trip. A batch is published once full or once the linger
+ * time has passed since its first event.
+ *
+ * <p>Batches are published one at a time and failed entries are retried before the next batch,
+ * so for FIFO topics the order within each message group is preserved. A batch never contains two
+ * events for the same message group, as a failure of the first would otherwise reorder them.
+ */
+@Slf4j
+@Component
+public class EventBroadcastBuffer {
+
+  static final int MAX_BATCH_SIZE = 10;
+
+  private static final Duration IDLE_POLL = Duration.ofMillis(100);
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+  private static final String REASON_TAG = "reason";
+
+  private final SnsClient snsClient;
+  private final BlockingQueue<PendingEvent> queue;
+  private final ExecutorService flushExecutor;
+  private final Timer flushTimer;
+  private final Counter overflowCounter;
+  private final Counter failedCounter;
+
+  private final int batchSize;
+  private final Duration linger;
+  private final int maxAttempts;
+  private final Duration retryBackoff;
+
+  private volatile boolean closed;
+
+  /**
+   * Create an event broadcast buffer.
+   *
+   * @param snsClient     The SNS client to publish with.
+   * @param meterRegistry The registry to publish the buffer metrics to.
+   * @param capacity      The maximum number of events waiting to be published.
+   * @param batchSize     The maximum number of events in each batch publish.
+   * @param linger        The maximum time to wait for a batch to fill.
+   * @param maxAttempts   The maximum number of attempts to publish each event.
+   * @param retryBackoff  The time to wait before the first retry, increasing with each attempt.
+   */
+  EventBroadcastBuffer(SnsClient snsClient, MeterRegistry meterRegistry,
+      @Value("${application.sns.broadcast.capacity:10000}") int capacity,
+      @Value("${application.sns.broadcast.batch-size:10}") int batchSize,
+      @Value("${application.sns.broadcast.linger:PT0.1S}") Duration linger,
+      @Value("${application.sns.broadcast.max-attempts:3}") int maxAttempts,
+      @Value("${application.sns.broadcast.retry-backoff:PT0.2S}") Duration retryBackoff) {
+    if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+      throw new IllegalArgumentException(
+          "The broadcast batch size must be between 1 and %s.".formatted(MAX_BATCH_SIZE));
+    }
+
+    this.snsClient = snsClient;
+    this.batchSize = batchSize;
+    this.linger = linger;
+    this.maxAttempts = maxAttempts;
+    this.retryBackoff = retryBackoff;
+
+    queue = new LinkedBlockingQueue<>(capacity);
+    Gauge.builder("notifications.event.broadcast.buffer.depth", queue, BlockingQueue::size)
+        .description("The number of events waiting to be published.")
+        .register(meterRegistry);
+    flushTimer = Timer.builder("notifications.event.broadcast.flush")
+        .description("The time taken to publish each batch of events, including retries.")
+        .register(meterRegistry);
+    overflowCounter = Counter.builder("notifications.event.broadcast.dropped")
+        .description("The number of events which were not published.")
+        .tag(REASON_TAG, "overflow")
+        .register(meterRegistry);
+    failedCounter = Counter.builder("notifications.event.broadcast.dropped")
+        .description("The number of events which were not published.")
+        .tag(REASON_TAG, "failed")
+        .register(meterRegistry);
+
+    flushExecutor = Executors.newSingleThreadExecutor(
+        new CustomizableThreadFactory("event-broadcast-"));
+    flushExecutor.execute(this::flushLoop);
+  }
+
+  /**
+   * Add an event to the buffer to be published, without waiting for it to be published.
+   *
+   * @param topicArn The ARN of the topic to publish to.
+   * @param entry    The event to publish, the entry ID is replaced when batched.
+   * @return Whether the event was accepted, false if the buffer is full or closed.
+   */
+  public boolean offer(String topicArn, PublishBatchRequestEntry entry) {
+    if (closed || !queue.offer(new PendingEvent(topicArn, entry))) {
+      log.error("Broadcast buffer {}, event {} for topic '{}' was dropped.",
+          closed ? "closed" : "full", entry.id(), topicArn);
+      overflowCounter.increment();
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Stop accepting events and wait for the buffered events to be published.
+   */
+  @PreDestroy
+  void shutdown() {
+    closed = true;
+    flushExecutor.shutdown();
+
+    try {
+      if (!flushExecutor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+        log.warn("{} buffered broadcast event(s) were not published in time.", queue.size());
+        flushExecutor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Collect and publish batches until the buffer is closed and empty.
+   */
+  private void flushLoop() {
+    PendingEvent carried = null;
+
+    try {
+      while (carried != null || !closed || !queue.isEmpty()) {
+        PendingEvent first = carried != null ? carried
+            : queue.poll(IDLE_POLL.toNanos(), TimeUnit.NANOSECONDS);
+        carried = null;
+
+        if (first == null) {
+          continue;
+        }
+
+        List<PendingEvent> batch = new ArrayList<>();
+        batch.add(first);
+        Set<String> groups = new HashSet<>();
+        addGroup(groups, first);
+        long deadline = System.nanoTime() + linger.toNanos();
+
+        while (batch.size() < batchSize) {
+          // Wait in short polls so that a shutdown does not wait for the full linger time.
+          long remaining = deadline - System.nanoTime();
+          PendingEvent next = closed || remaining <= 0 ? queue.poll()
+              : queue.poll(Math.min(remaining, IDLE_POLL.toNanos()), TimeUnit.NANOSECONDS);
+
+          if (next == null) {
+            if (closed || System.nanoTime() >= deadline) {
+              break;
+            }
+            continue;
+          }
+
+          if (!next.topicArn().equals(first.topicArn()) || !addGroup(groups, next)) {
+            carried = next;
+            break;
+          }
+
+          batch.add(next);
+        }
+
+        try {
+          publish(batch);
+        } catch (RuntimeException e) {
+          // Keep publishing later batches, an unexpected failure must not stop the buffer.
+          log.error("Failed to broadcast {} event(s).", batch.size(), e);
+          failedCounter.increment(batch.size());
+        }
+      }
+    } catch (InterruptedException e) {
+      log.warn("Broadcast buffer interrupted, {} event(s) were not published.", queue.size());
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Add an event's message group to the set of groups in a batch.
+   *
+   * @param groups The message groups already in the batch.
+   * @param event  The event to add the group of.
+   * @return Whether the event can join the batch, false if its group is already present.
+   */
+  private boolean addGroup(Set<String> groups, PendingEvent event) {
+    String group = event.entry().messageGroupId();
+    return group == null || groups.add(group);
+  }
+
+  /**
+   * Publish a batch of events, retrying any retryable failures.
+   *
+   * @param batch The events to publish, all for the same topic.
+   * @throws InterruptedException If interrupted while waiting to retry.
+   */
+  private void publish(List<PendingEvent> batch) throws InterruptedException {
+    long start = System.nanoTime();
+    String topicArn = batch.get(0).topicArn();
+    List<PendingEvent> remaining = batch;
+
+    for (int attempt = 1; !remaining.isEmpty(); attempt++) {
+      remaining = publishOnce(topicArn, remaining);
+
+      if (!remaining.isEmpty()) {
+        if (attempt >= maxAttempts) {
+          log.error("Failed to broadcast {} event(s) to SNS topic '{}' after {} attempt(s).",
+              remaining.size(), topicArn, attempt);
+          failedCounter.increment(remaining.size());
+          break;
+        }
+
+        Thread.sleep(retryBackoff.multipliedBy(attempt).toMillis());
+      }
+    }
+
+    flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Make a single attempt to publish a batch of events.
+   *
+   * @param topicArn The topic to publish to.
+   * @param batch    The events to publish.
+   * @return The events which failed and can be retried, in their original order.
+   */
+  private List<PendingEvent> publishOnce(String topicArn, List<PendingEvent> batch) {
+    // Entry IDs only need to be unique within the batch, the event may not have a unique ID.
+    List<PublishBatchRequestEntry> entries = IntStream.range(0, batch.size())
+        .mapToObj(i -> batch.get(i).entry().toBuilder().id(String.valueOf(i)).build())
+        .toList();
+    PublishBatchRequest request = PublishBatchRequest.builder()
+        .topicArn(topicArn)
+        .publishBatchRequestEntries(entries)
+        .build();
+
+    PublishBatchResponse response;
+
+    try {
+      response = snsClient.publishBatch(request);
+    } catch (SdkException e) {
+      log.warn("Failed to broadcast {} event(s) to SNS topic '{}'.", batch.size(), topicArn, e);
+      return batch;
+    }
+
+    log.debug("Broadcast {} event(s) sent to SNS topic '{}'.", response.successful().size(),
+        topicArn);
+
+    if (response.failed().isEmpty()) {
+      return List.of();
+    }
+
+    Map<Integer, BatchResultErrorEntry> failures = response.failed().stream()
+        .collect(Collectors.toMap(failure -> Integer.valueOf(failure.id()), Function.identity()));
+    List<PendingEvent> retryable = new ArrayList<>();
+
+    for (int i = 0; i < batch.size(); i++) {
+      BatchResultErrorEntry failure = failures.get(i);
+
+      if (failure != null) {
+        if (Boolean.TRUE.equals(failure.senderFault())) {
+          log.error("Failed to broadcast event {} to SNS topic '{}': {} - {}",
+              batch.get(i).entry().id(), topicArn, failure.code(), failure.message());
+          failedCounter.increment();
+        } else {
+          retryable.add(batch.get(i));
+        }
+      }
+    }
+
+    return retryable;
+  }
+
+  /**
+   * An event waiting to be published.
+   *
+   * @param topicArn The ARN of the topic to publish to.
+   * @param entry    The event to publish.
+   */
+  private record PendingEvent(String topicArn, PublishBatchRequestEntry entry) {
+
+  }
+}
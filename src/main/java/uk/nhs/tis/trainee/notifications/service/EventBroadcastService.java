@@ -21,26 +21,38 @@
 
 package uk.nhs.tis.trainee.notifications.service;
 
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.HISTORY;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.STATUS;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.DELETED;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
 import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
-import software.amazon.awssdk.services.sns.model.PublishRequest;
-import software.amazon.awssdk.services.sns.model.PublishRequest.Builder;
-import software.amazon.awssdk.services.sns.model.SnsException;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
 import uk.nhs.tis.trainee.notifications.config.EventNotificationProperties;
 import uk.nhs.tis.trainee.notifications.config.EventNotificationProperties.SnsRoute;
-import uk.nhs.tis.trainee.notifications.config.ObjectIdSerializerModule;
+import uk.nhs.tis.trainee.notifications.mapper.HistoryMapper;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
 import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.HistoryEventType;
+import uk.nhs.tis.trainee.notifications.model.HistoryStatusEvent;
 
 /**
  * A service for broadcasting form events to SNS.
@@ -50,48 +62,131 @@ import uk.nhs.tis.trainee.notifications.model.History;
 public class EventBroadcastService {
 
   public static final String MESSAGE_GROUP_ID_PREFIX = "notifications_event";
+  public static final String HISTORY_EVENT_TYPE_ATTRIBUTE = "history_event_type";
+
+  private final EventBroadcastBuffer broadcastBuffer;
+
+  private final EventOutbox eventOutbox;
 
   private final SnsClient snsClient;
 
+  private final EventSerializer eventSerializer;
+
   private final EventNotificationProperties eventNotificationProperties;
 
-  EventBroadcastService(SnsClient snsClient,
-      EventNotificationProperties eventNotificationProperties) {
+  private final HistoryMapper historyMapper;
+
+  private final boolean deltaStatusEvents;
+
+  private final boolean changeStreamEnabled;
+
+  /**
+   * Create a service for broadcasting notification events.
+   *
+   * @param broadcastBuffer             The buffer used when the event outbox is disabled.
+   * @param eventOutbox                 The outbox events are written to when enabled.
+   * @param snsClient                   The SNS client used to relay outbox events.
+   * @param eventSerializer             The serializer for event payloads.
+   * @param eventNotificationProperties The SNS routes for notification events.
+   * @param historyMapper               The mapper used to build status change events.
+   * @param deltaStatusEvents           Whether status changes are broadcast as compact status
+   *                                    events, or as the full notification history.
+   * @param changeStreamEnabled         Whether events are broadcast from the History change
+   *                                    stream, instead of when published by the caller.
+   */
+  EventBroadcastService(EventBroadcastBuffer broadcastBuffer, EventOutbox eventOutbox,
+      SnsClient snsClient, EventSerializer eventSerializer,
+      EventNotificationProperties eventNotificationProperties, HistoryMapper historyMapper,
+      @Value("${application.sns.delta-status-events:false}") boolean deltaStatusEvents,
+      @Value("${application.sns.change-stream.enabled:false}") boolean changeStreamEnabled) {
+    this.broadcastBuffer = broadcastBuffer;
+    this.eventOutbox = eventOutbox;
     this.snsClient = snsClient;
+    this.eventSerializer = eventSerializer;
     this.eventNotificationProperties = eventNotificationProperties;
+    this.historyMapper = historyMapper;
+    this.deltaStatusEvents = deltaStatusEvents;
+    this.changeStreamEnabled = changeStreamEnabled;
   }
 
   /**
-   * Publish a notification history event to SNS.
+   * Publish a notification history event to SNS. When the event outbox is enabled the event is
+   * appended to the outbox, as part of any current transaction, and relayed to SNS later.
+   * Otherwise, the event is buffered and published asynchronously.
    *
    * @param history The history event to publish.
    */
   public void publishNotificationsEvent(History history) {
+    if (history != null) {
+      publishEvent(history.id(), history);
+    }
+  }
 
-    ObjectMapper objectMapper = new ObjectMapper()
-        .registerModule(new JavaTimeModule())
-        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
-        .registerModule(new ObjectIdSerializerModule());
+  /**
+   * Publish a notification status change event to SNS. Unless full status events are configured,
+   * only the status fields are published rather than the full notification history.
+   *
+   * @param history The updated history to publish the status of.
+   */
+  public void publishNotificationsStatusEvent(History history) {
+    if (history != null) {
+      publishEvent(history.id(), toStatusEvent(history));
+    }
+  }
 
-    PublishRequest request = null;
+  /**
+   * Publish status change events for multiple notifications. When the event outbox is enabled
+   * the events are appended in a single insert, otherwise they are buffered and published
+   * together in batches.
+   *
+   * @param histories The updated histories to publish the status of.
+   */
+  public void publishNotificationsStatusEvents(Collection<History> histories) {
     SnsRoute snsTopic = eventNotificationProperties.notificationsEvent();
 
-    if (snsTopic != null && history != null) {
-      JsonNode eventJson = objectMapper.valueToTree(history);
-      request = buildSnsRequest(eventJson, snsTopic, history.id());
+    if (histories.isEmpty() || snsTopic == null || changeStreamEnabled) {
+      return;
     }
 
-    if (request != null) {
-      try {
-        snsClient.publish(request);
-        log.info("Broadcast event sent to SNS for notification event {}.", history.id());
-      } catch (SnsException e) {
-        String message = String.format(
-            "Failed to broadcast event to SNS topic '%s' for notification event '%s'",
-            snsTopic, history.id());
-        log.error(message, e);
-      }
+    Map<ObjectId, String> payloads = new LinkedHashMap<>();
+    histories.forEach(
+        history -> payloads.put(history.id(), eventSerializer.serialize(toStatusEvent(history))));
+
+    HistoryEventType eventType = deltaStatusEvents ? STATUS : HISTORY;
+
+    if (eventOutbox.isEnabled()) {
+      eventOutbox.appendAll(eventType, payloads);
+      log.info("{} broadcast status events added to outbox.", payloads.size());
+      return;
     }
+
+    payloads.forEach((id, eventJson) -> {
+      PublishBatchRequestEntry entry = buildSnsEntry(String.valueOf(id), eventJson, eventType,
+          snsTopic, id);
+      broadcastBuffer.offer(snsTopic.arn(), entry);
+    });
+    log.info("{} broadcast status events queued for SNS.", payloads.size());
+  }
+
+  /**
+   * Get the status change event for a notification, either the compact status event or the full
+   * notification history depending on configuration.
+   *
+   * @param history The updated history.
+   * @return The event to publish.
+   */
+  private Object toStatusEvent(History history) {
+    return deltaStatusEvents ? historyMapper.toStatusEvent(history) : history;
+  }
+
+  /**
+   * Get the type of a broadcast event.
+   *
+   * @param event The event to get the type of.
+   * @return The type of the event.
+   */
+  private static HistoryEventType getEventType(Object event) {
+    return event instanceof HistoryStatusEvent ? STATUS : HISTORY;
   }
 
   /**
@@ -110,33 +205,142 @@ public class EventBroadcastService {
   }
 
   /**
-   * Build an SNS publish request.
+   * Publish blank records with NotificationStatus DELETED for multiple deleted history items, the
+   * buffered events are published together in batches.
    *
+   * @param ids The History ids.
+   */
+  public void publishNotificationsDeleteEvents(Collection<ObjectId> ids) {
+    ids.forEach(this::publishNotificationsDeleteEvent);
+  }
+
+  /**
+   * Publish an event to SNS, via the outbox when enabled. Nothing is published when events are
+   * broadcast from the change stream, as the stream will include the change.
+   *
+   * @param id    The ID of the notification the event is for.
+   * @param event The event to publish.
+   */
+  private void publishEvent(ObjectId id, Object event) {
+    SnsRoute snsTopic = eventNotificationProperties.notificationsEvent();
+
+    if (snsTopic == null || changeStreamEnabled) {
+      return;
+    }
+
+    String eventJson = eventSerializer.serialize(event);
+    HistoryEventType eventType = getEventType(event);
+
+    if (eventOutbox.isEnabled()) {
+      eventOutbox.append(id, eventType, eventJson);
+      log.info("Broadcast event added to outbox for notification event {}.", id);
+      return;
+    }
+
+    PublishBatchRequestEntry entry = buildSnsEntry(String.valueOf(id), eventJson, eventType,
+        snsTopic, id);
+
+    if (broadcastBuffer.offer(snsTopic.arn(), entry)) {
+      log.info("Broadcast event queued for SNS for notification event {}.", id);
+    }
+  }
+
+  /**
+   * Publish a batch of outbox events to SNS and wait for the result. The events should be for
+   * distinct notifications, so that FIFO ordering is kept if part of the batch fails.
+   *
+   * @param events The outbox events to publish, at most ten.
+   * @return The IDs of the outbox entries which are complete, either delivered or rejected by SNS
+   *     as invalid. Entries which failed and can be retried are not included.
+   */
+  public Set<ObjectId> publishOutboxEvents(List<EventOutboxEntry> events) {
+    SnsRoute snsTopic = eventNotificationProperties.notificationsEvent();
+
+    if (snsTopic == null) {
+      log.warn("No SNS topic configured, discarding {} outbox event(s).", events.size());
+      return events.stream().map(EventOutboxEntry::id).collect(Collectors.toSet());
+    }
+
+    // Entry IDs only need to be unique within the batch, so the batch index is used.
+    List<PublishBatchRequestEntry> entries = IntStream.range(0, events.size())
+        .mapToObj(i -> buildSnsEntry(String.valueOf(i), events.get(i).payload(),
+            events.get(i).eventType(), snsTopic, events.get(i).eventId()))
+        .toList();
+    PublishBatchRequest request = PublishBatchRequest.builder()
+        .topicArn(snsTopic.arn())
+        .publishBatchRequestEntries(entries)
+        .build();
+
+    PublishBatchResponse response;
+
+    try {
+      response = snsClient.publishBatch(request);
+    } catch (SdkException e) {
+      log.warn("Failed to broadcast {} outbox event(s) to SNS topic '{}'.", events.size(),
+          snsTopic.arn(), e);
+      return Set.of();
+    }
+
+    Set<ObjectId> completed = response.successful().stream()
+        .map(success -> events.get(Integer.parseInt(success.id())).id())
+        .collect(Collectors.toCollection(HashSet::new));
+
+    for (BatchResultErrorEntry failure : response.failed()) {
+      EventOutboxEntry event = events.get(Integer.parseInt(failure.id()));
+
+      if (Boolean.TRUE.equals(failure.senderFault())) {
+        // The event will never be accepted, so it must not block the events behind it.
+        log.error("Rejected outbox event {} for notification event {}: {} - {}", event.id(),
+            event.eventId(), failure.code(), failure.message());
+        completed.add(event.id());
+      } else {
+        log.warn("Failed to broadcast outbox event {} for notification event {}: {} - {}",
+            event.id(), event.eventId(), failure.code(), failure.message());
+      }
+    }
+
+    return completed;
+  }
+
+  /**
+   * Build an SNS publish entry.
+   *
+   * @param entryId   The ID of the entry, unique within a batch.
    * @param eventJson The SNS message contents.
-   * @param snsTopic  The SNS topic to send the message to.
+   * @param eventType The type of event, full history events are assumed if null.
+   * @param snsTopic  The SNS topic the message will be sent to.
    * @param id        The event id.
-   * @return the built request.
+   * @return the built entry.
    */
-  private PublishRequest buildSnsRequest(JsonNode eventJson, SnsRoute snsTopic,
-      ObjectId id) {
-    Builder request = PublishRequest.builder()
-        .message(eventJson.toString())
-        .topicArn(snsTopic.arn());
+  private PublishBatchRequestEntry buildSnsEntry(String entryId, String eventJson,
+      HistoryEventType eventType, SnsRoute snsTopic, ObjectId id) {
+    PublishBatchRequestEntry.Builder entry = PublishBatchRequestEntry.builder()
+        .id(entryId)
+        .message(eventJson);
+
+    // Consumers must be able to tell a partial status update from a full notification history.
+    Map<String, MessageAttributeValue> messageAttributes = new HashMap<>();
+    messageAttributes.put(HISTORY_EVENT_TYPE_ATTRIBUTE, MessageAttributeValue.builder()
+        .dataType("String")
+        .stringValue((eventType == null ? HISTORY : eventType).name())
+        .build());
 
     if (snsTopic.messageAttribute() != null) {
       MessageAttributeValue messageAttributeValue = MessageAttributeValue.builder()
           .dataType("String")
           .stringValue(snsTopic.messageAttribute())
           .build();
-      request.messageAttributes(Map.of("event_type", messageAttributeValue));
+      messageAttributes.put("event_type", messageAttributeValue);
     }
 
+    entry.messageAttributes(messageAttributes);
+
     if (snsTopic.arn().endsWith(".fifo")) {
       // Create a message group to ensure FIFO per unique object.
       String messageGroup = String.format("%s_%s", MESSAGE_GROUP_ID_PREFIX, id);
-      request.messageGroupId(messageGroup);
+      entry.messageGroupId(messageGroup);
     }
 
-    return request.build();
+    return entry.build();
   }
 }
@@ -0,0 +1,233 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import uk.nhs.tis.trainee.notifications.model.TisReferenceType;
+
+/**
+ * A service which coalesces bursts of update events for the same TIS entity. Each event is first
+ * deferred for the coalescing window and recorded as the latest event for its entity, when it is
+ * received again only the latest event is processed and any superseded events are discarded.
+ *
+ * <p>Deferring an event uses one of the receives allowed by the queue's redrive policy, the
+ * listeners pass the receive count so that an event is never deferred more than once.
+ */
+@Slf4j
+@Service
+public class EventCoalescingService {
+
+  private static final String KEY_SEPARATOR = ":";
+  private static final String LATEST_PREFIX = "CoalesceLatest";
+  private static final String SEEN_PREFIX = "CoalesceSeen";
+  private static final String ENTITY_TAG = "entity";
+
+  /**
+   * Record an event as seen and as the latest for its entity, only if it has not been seen before.
+   * Both keys are written together, so a concurrent receive can not observe one without the other.
+   */
+  private static final RedisScript<Boolean> RECORD_FIRST_SEEN = new DefaultRedisScript<>("""
+      if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[3]) then
+        redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+        return 1
+      end
+      return 0
+      """, Boolean.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final MeterRegistry meterRegistry;
+  private final String keyPrefix;
+  private final Duration window;
+  private final Duration ttl;
+  private final Map<TisReferenceType, CoalescingMetrics> metrics = new ConcurrentHashMap<>();
+
+  /**
+   * Create an event coalescing service.
+   *
+   * @param redisTemplate The Redis template used to store the latest event for each entity.
+   * @param meterRegistry The registry to publish the coalescing metrics to.
+   * @param keyPrefix     The prefix to apply to stored keys.
+   * @param window        How long to defer events for, zero to disable coalescing.
+   * @param ttl           How long the latest event for an entity should be retained.
+   */
+  EventCoalescingService(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+      @Value("${application.cache.key-prefix}") String keyPrefix,
+      @Value("${application.event-coalescing.window:PT0S}") Duration window,
+      @Value("${application.event-coalescing.time-to-live:PT15M}") Duration ttl) {
+    this.redisTemplate = redisTemplate;
+    this.meterRegistry = meterRegistry;
+    this.keyPrefix = keyPrefix;
+    this.window = window;
+    this.ttl = ttl;
+  }
+
+  /**
+   * Get the number of seconds that a deferred event should be hidden for.
+   *
+   * @return The coalescing window in whole seconds, rounded up.
+   */
+  public int getWindowSeconds() {
+    long seconds = window.getSeconds() + (window.getNano() > 0 ? 1 : 0);
+    return (int) Math.max(1, seconds);
+  }
+
+  /**
+   * Decide how an update event for a TIS entity should be handled. An event received for the first
+   * time is deferred and recorded as the latest for the entity. When received again it is processed
+   * if it is still the latest, otherwise it has been superseded and can be discarded. If coalescing
+   * is disabled or the latest event can not be checked then the event is processed, so that
+   * updates are not lost. Redelivered events are never deferred, so an event whose seen record
+   * has been lost is not deferred again on every receive until it is dead-lettered.
+   *
+   * @param entityType   The type of TIS entity the event is for.
+   * @param tisId        The TIS ID of the entity.
+   * @param messageId    The unique ID of the event message.
+   * @param receiveCount The number of times the event message has been received.
+   * @return The coalescing decision for the event.
+   */
+  public CoalescingDecision coalesce(TisReferenceType entityType, String tisId, UUID messageId,
+      int receiveCount) {
+    if (window.isZero() || window.isNegative() || tisId == null || messageId == null) {
+      return CoalescingDecision.PROCESS;
+    }
+
+    String eventId = messageId.toString();
+    // The entity hash tag keeps both keys in the same slot, as the script requires in a cluster.
+    String entityTag = "{" + entityType.name() + KEY_SEPARATOR + tisId + "}";
+    String latestKey = getStoredKey(LATEST_PREFIX, entityTag);
+
+    try {
+      if (receiveCount <= 1) {
+        Boolean firstSeen = redisTemplate.execute(RECORD_FIRST_SEEN,
+            List.of(getStoredKey(SEEN_PREFIX, entityTag, eventId), latestKey), tisId, eventId,
+            String.valueOf(ttl.toMillis()));
+
+        if (Boolean.TRUE.equals(firstSeen)) {
+          log.debug("Deferring {} '{}' event {} for coalescing.", entityType, tisId, eventId);
+          return CoalescingDecision.DEFER;
+        }
+      }
+
+      String latestId = redisTemplate.opsForValue().get(latestKey);
+
+      if (latestId != null && !latestId.equals(eventId)) {
+        log.info("Coalescing {} '{}' event {}, superseded by event {}.", entityType, tisId,
+            eventId, latestId);
+        getMetrics(entityType).coalesced().increment();
+        return CoalescingDecision.COALESCED;
+      }
+    } catch (RuntimeException e) {
+      log.error("Unable to coalesce {} '{}' event {}, processing event.", entityType, tisId,
+          eventId, e);
+    }
+
+    getMetrics(entityType).processed().increment();
+    return CoalescingDecision.PROCESS;
+  }
+
+  /**
+   * Get the key used to store coalescing state.
+   *
+   * @param parts The parts of the key.
+   * @return The prefixed key.
+   */
+  private String getStoredKey(String... parts) {
+    return keyPrefix + KEY_SEPARATOR + String.join(KEY_SEPARATOR, parts);
+  }
+
+  /**
+   * Get the coalescing metrics for an entity type, registering them if needed.
+   *
+   * @param entityType The type of TIS entity.
+   * @return The coalescing metrics.
+   */
+  private CoalescingMetrics getMetrics(TisReferenceType entityType) {
+    return metrics.computeIfAbsent(entityType, type -> {
+      String entity = type.name();
+      Counter processed = Counter.builder("notifications.event.coalescing.processed")
+          .description("The number of coalesced update events which were processed.")
+          .tag(ENTITY_TAG, entity)
+          .register(meterRegistry);
+      Counter coalesced = Counter.builder("notifications.event.coalescing.coalesced")
+          .description("The number of update events discarded as superseded.")
+          .tag(ENTITY_TAG, entity)
+          .register(meterRegistry);
+      CoalescingMetrics entityMetrics = new CoalescingMetrics(processed, coalesced);
+      Gauge.builder("notifications.event.coalescing.ratio", entityMetrics,
+              CoalescingMetrics::getRatio)
+          .description("The proportion of update events discarded as superseded.")
+          .tag(ENTITY_TAG, entity)
+          .register(meterRegistry);
+      return entityMetrics;
+    });
+  }
+
+  /**
+   * The possible decisions for handling an update event.
+   */
+  public enum CoalescingDecision {
+    /**
+     * The event has not been seen before and should be retried after the coalescing window.
+     */
+    DEFER,
+    /**
+     * The event is the latest for its entity and should be processed.
+     */
+    PROCESS,
+    /**
+     * The event has been superseded by a later event and should be discarded.
+     */
+    COALESCED
+  }
+
+  /**
+   * The coalescing metrics for a single entity type.
+   *
+   * @param processed The counter of processed events.
+   * @param coalesced The counter of coalesced events.
+   */
+  private record CoalescingMetrics(Counter processed, Counter coalesced) {
+
+    /**
+     * Get the proportion of events which have been coalesced.
+     *
+     * @return The coalescing ratio, zero if no events have been handled.
+     */
+    double getRatio() {
+      double total = processed.count() + coalesced.count();
+      return total == 0 ? 0 : coalesced.count() / total;
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * A service which suppresses repeated upstream events, such as re-deliveries and re-syncs, whose
+ * payload is identical to the last one processed for the same entity. A content hash of the
+ * canonical payload is stored for each queue and entity, so the memory used is bounded by the
+ * number of distinct entities updated within the time-to-live rather than the number of events.
+ *
+ * <p>There is no limit on the number of stored hashes beyond the time-to-live, under memory
+ * pressure this relies on the Redis eviction policy. Every hash has a time-to-live, so a
+ * {@code volatile-*} or {@code allkeys-*} policy may evict them, and an evicted hash only means
+ * that the next event for the entity is processed.
+ */
+@Slf4j
+@Service
+public class EventDeduplicationService {
+
+  private static final String KEY_SEPARATOR = ":";
+  private static final String HASH_PREFIX = "EventHash";
+
+  private final StringRedisTemplate redisTemplate;
+  private final MeterRegistry meterRegistry;
+  private final String keyPrefix;
+  private final Set<String> queues;
+  private final Duration ttl;
+  private final ObjectWriter canonicalWriter;
+  private final Map<String, Counter> suppressedCounters = new ConcurrentHashMap<>();
+
+  /**
+   * Create an event deduplication service.
+   *
+   * @param redisTemplate The Redis template used to store the processed payload hashes.
+   * @param meterRegistry The registry to publish the suppressed event metrics to.
+   * @param keyPrefix     The prefix to apply to stored keys.
+   * @param queues        The queues to deduplicate events for, empty to disable deduplication.
+   * @param ttl           How long a processed payload hash should be retained.
+   */
+  EventDeduplicationService(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+      @Value("${application.cache.key-prefix}") String keyPrefix,
+      @Value("${application.event-deduplication.queues:}") Set<String> queues,
+      @Value("${application.event-deduplication.time-to-live:PT6H}") Duration ttl) {
+    this.redisTemplate = redisTemplate;
+    this.meterRegistry = meterRegistry;
+    this.keyPrefix = keyPrefix;
+    this.queues = queues;
+    this.ttl = ttl;
+    canonicalWriter = JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+        .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+        .build()
+        .writer();
+  }
+
+  /**
+   * Check whether an event payload is identical to the last one processed for the entity. If
+   * deduplication is not enabled for the queue, or the check can not be made, then the event is
+   * not a duplicate, so that processing is not blocked.
+   *
+   * @param queue    The queue the event was received from.
+   * @param entityId The ID of the entity the event is for.
+   * @param payload  The payload to compare, excluding any per-delivery metadata.
+   * @return Whether the event is a duplicate and processing can be skipped.
+   */
+  public boolean isDuplicate(String queue, String entityId, Object payload) {
+    if (!isEnabled(queue, entityId)) {
+      return false;
+    }
+
+    try {
+      String lastHash = redisTemplate.opsForValue().get(getStoredKey(queue, entityId));
+
+      if (lastHash != null && lastHash.equals(hash(payload))) {
+        log.info("Suppressing repeated '{}' event for entity '{}'.", queue, entityId);
+        getSuppressedCounter(queue).increment();
+        return true;
+      }
+    } catch (RuntimeException e) {
+      log.error("Unable to check '{}' event for entity '{}', processing event.", queue, entityId,
+          e);
+    }
+
+    return false;
+  }
+
+  /**
+   * Record an event payload as the last processed for the entity, this should only be done once
+   * the event has been successfully processed so that failures can be retried.
+   *
+   * @param queue    The queue the event was received from.
+   * @param entityId The ID of the entity the event is for.
+   * @param payload  The payload which was processed, excluding any per-delivery metadata.
+   */
+  public void recordProcessed(String queue, String entityId, Object payload) {
+    if (!isEnabled(queue, entityId)) {
+      return;
+    }
+
+    try {
+      redisTemplate.opsForValue().set(getStoredKey(queue, entityId), hash(payload), ttl);
+    } catch (RuntimeException e) {
+      log.error("Unable to record '{}' event for entity '{}'.", queue, entityId, e);
+    }
+  }
+
+  /**
+   * Clear the last processed payload for the entity, so that the next event is always processed.
+   * This should be done when the entity is deleted, as a re-sync with an identical payload must
+   * then rebuild the entity's notifications. Unlike the other operations a failure is not
+   * ignored, so that the delete event is retried rather than leaving a stale payload behind.
+   *
+   * @param queue    The queue the processed payloads were received from.
+   * @param entityId The ID of the entity to clear.
+   */
+  public void clearProcessed(String queue, String entityId) {
+    if (isEnabled(queue, entityId)) {
+      redisTemplate.delete(getStoredKey(queue, entityId));
+    }
+  }
+
+  /**
+   * Check whether deduplication is enabled for an event.
+   *
+   * @param queue    The queue the event was received from.
+   * @param entityId The ID of the entity the event is for.
+   * @return Whether the event can be deduplicated.
+   */
+  private boolean isEnabled(String queue, String entityId) {
+    return entityId != null && queues.contains(queue);
+  }
+
+  /**
+   * Hash the canonical form of a payload, with properties and map entries in a stable order.
+   *
+   * @param payload The payload to hash.
+   * @return The Base64 encoded SHA-256 hash.
+   */
+  private String hash(Object payload) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(canonicalWriter.writeValueAsBytes(payload));
+      return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Unable to serialize the event payload.", e);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+
+  /**
+   * Get the key used to store the last processed payload hash.
+   *
+   * @param queue    The queue the event was received from.
+   * @param entityId The ID of the entity the event is for.
+   * @return The prefixed key.
+   */
+  private String getStoredKey(String queue, String entityId) {
+    return String.join(KEY_SEPARATOR, keyPrefix, HASH_PREFIX, queue, entityId);
+  }
+
+  /**
+   * Get the suppressed event counter for a queue, registering it if needed.
+   *
+   * @param queue The queue to get the counter for.
+   * @return The suppressed event counter.
+   */
+  private Counter getSuppressedCounter(String queue) {
+    return suppressedCounters.computeIfAbsent(queue,
+        q -> Counter.builder("notifications.event.duplicates.suppressed")
+            .description("The number of repeated upstream events suppressed.")
+            .tag("queue", q)
+            .register(meterRegistry));
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
+import uk.nhs.tis.trainee.notifications.model.HistoryEventType;
+
+/**
+ * A Mongo backed outbox of notification change events. Events are appended in the same
+ * transaction as the notification history change they describe, so that writes never wait on SNS
+ * and no event is lost if SNS is unavailable. The appended events are broadcast by a separate
+ * relay.
+ */
+@Component
+public class EventOutbox {
+
+  private static final String ID_FIELD = "_id";
+  private static final String EVENT_ID_FIELD = "eventId";
+  private static final String CREATED_AT_FIELD = "createdAt";
+  private static final String ATTEMPTS_FIELD = "attempts";
+  private static final String RETRY_AT_FIELD = "retryAt";
+  private static final String FAILED_AT_FIELD = "failedAt";
+  private static final String DELIVERED_AT_FIELD = "deliveredAt";
+  private static final String EXPIRES_AT_FIELD = "expiresAt";
+
+  private final MongoTemplate mongoTemplate;
+  private final boolean enabled;
+  private final Duration retention;
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Create an event outbox.
+   *
+   * @param mongoTemplate      The Mongo template used to store the outbox entries.
+   * @param transactionManager The transaction manager, only required when transactional.
+   * @param enabled            Whether events should be written to the outbox, when disabled
+   *                           events are broadcast directly.
+   * @param transactional      Whether history changes and outbox entries are written in a
+   *                           transaction, requires Mongo to be running as a replica set.
+   * @param retention          How long delivered entries are kept before being removed.
+   */
+  EventOutbox(MongoTemplate mongoTemplate,
+      ObjectProvider<MongoTransactionManager> transactionManager,
+      @Value("${application.sns.outbox.enabled:false}") boolean enabled,
+      @Value("${application.sns.outbox.transactional:false}") boolean transactional,
+      @Value("${application.sns.outbox.retention:P7D}") Duration retention) {
+    this.mongoTemplate = mongoTemplate;
+    this.enabled = enabled;
+    this.retention = retention;
+
+    if (enabled && transactional) {
+      transactionTemplate = new TransactionTemplate(transactionManager.getObject());
+    } else {
+      transactionTemplate = null;
+    }
+  }
+
+  /**
+   * Whether events should be written to the outbox.
+   *
+   * @return true if the outbox is enabled, else false.
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Perform a notification history change and any resulting outbox writes as a single unit.
+   *
+   * @param action The action to perform.
+   * @param <T>    The type of the action's result.
+   * @return The result of the action.
+   */
+  public <T> T callInTransaction(Supplier<T> action) {
+    if (transactionTemplate == null) {
+      return action.get();
+    }
+
+    return transactionTemplate.execute(status -> action.get());
+  }
+
+  /**
+   * Perform a notification history change and any resulting outbox writes as a single unit.
+   *
+   * @param action The action to perform.
+   */
+  public void runInTransaction(Runnable action) {
+    callInTransaction(() -> {
+      action.run();
+      return null;
+    });
+  }
+
+  /**
+   * Append an event to the outbox, joining the current transaction if there is one.
+   *
+   * @param eventId   The ID of the notification history the event is for.
+   * @param eventType The type of event.
+   * @param payload   The serialized event.
+   * @return The appended outbox entry.
+   */
+  public EventOutboxEntry append(ObjectId eventId, HistoryEventType eventType, String payload) {
+    EventOutboxEntry entry = new EventOutboxEntry(null, eventId, eventType, payload, Instant.now());
+    return mongoTemplate.insert(entry);
+  }
+
+  /**
+   * Append multiple events to the outbox in a single insert, joining the current transaction if
+   * there is one. The events are relayed in the given order.
+   *
+   * @param eventType The type of the events.
+   * @param payloads  The serialized events, keyed by the ID of the notification history.
+   * @return The appended outbox entries.
+   */
+  public Collection<EventOutboxEntry> appendAll(HistoryEventType eventType,
+      Map<ObjectId, String> payloads) {
+    if (payloads.isEmpty()) {
+      return List.of();
+    }
+
+    Instant createdAt = Instant.now();
+    List<EventOutboxEntry> entries = payloads.entrySet().stream()
+        .map(e -> new EventOutboxEntry(ObjectId.get(), e.getKey(), eventType, e.getValue(),
+            createdAt))
+        .toList();
+    return mongoTemplate.insert(entries, EventOutboxEntry.class);
+  }
+
+  /**
+   * Find the oldest undelivered events which are due to be broadcast, in the order they were
+   * appended. Events waiting to retry a failed broadcast are not due, nor are any later events for
+   * the same notification, so that each notification's events stay in order.
+   *
+   * @param limit The maximum number of events to find.
+   * @return The undelivered events, empty if none found.
+   */
+  public List<EventOutboxEntry> findUndelivered(int limit) {
+    Instant now = Instant.now();
+    Query waitingQuery = Query.query(Criteria.where(DELIVERED_AT_FIELD).is(null)
+        .and(FAILED_AT_FIELD).is(null)
+        .and(RETRY_AT_FIELD).gt(now));
+    List<ObjectId> waitingEventIds = mongoTemplate.findDistinct(waitingQuery, EVENT_ID_FIELD,
+        EventOutboxEntry.class, ObjectId.class);
+
+    Criteria criteria = Criteria.where(DELIVERED_AT_FIELD).is(null)
+        .and(FAILED_AT_FIELD).is(null)
+        .and(EVENT_ID_FIELD).nin(waitingEventIds)
+        .orOperator(
+            Criteria.where(RETRY_AT_FIELD).is(null),
+            Criteria.where(RETRY_AT_FIELD).lte(now));
+    Query query = Query.query(criteria)
+        .with(Sort.by(CREATED_AT_FIELD, ID_FIELD))
+        .limit(limit);
+    return mongoTemplate.find(query, EventOutboxEntry.class);
+  }
+
+  /**
+   * Record a failed attempt to broadcast an event, the event is not due again until the retry
+   * time.
+   *
+   * @param id      The ID of the failed outbox entry.
+   * @param retryAt When the event can next be broadcast.
+   */
+  public void markRetry(ObjectId id, Instant retryAt) {
+    Query query = Query.query(Criteria.where(ID_FIELD).is(id));
+    Update update = new Update().inc(ATTEMPTS_FIELD, 1).set(RETRY_AT_FIELD, retryAt);
+    mongoTemplate.updateFirst(query, update, EventOutboxEntry.class);
+  }
+
+  /**
+   * Dead-letter an event which can not be broadcast. The entry is kept in the outbox, without
+   * expiring, so that it can be investigated and redelivered by clearing the failed timestamp.
+   *
+   * @param id The ID of the failed outbox entry.
+   */
+  public void markFailed(ObjectId id) {
+    Query query = Query.query(Criteria.where(ID_FIELD).is(id));
+    Update update = new Update().inc(ATTEMPTS_FIELD, 1).set(FAILED_AT_FIELD, Instant.now());
+    mongoTemplate.updateFirst(query, update, EventOutboxEntry.class);
+  }
+
+  /**
+   * Mark events as delivered, delivered events expire after the retention period.
+   *
+   * @param ids The IDs of the delivered outbox entries.
+   * @return The number of entries marked as delivered.
+   */
+  public long markDelivered(Collection<ObjectId> ids) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+
+    Instant deliveredAt = Instant.now();
+    Query query = Query.query(Criteria.where(ID_FIELD).in(ids));
+    Update update = Update.update(DELIVERED_AT_FIELD, deliveredAt)
+        .set(EXPIRES_AT_FIELD, deliveredAt.plus(retention));
+    return mongoTemplate.updateMulti(query, update, EventOutboxEntry.class).getModifiedCount();
+  }
+}
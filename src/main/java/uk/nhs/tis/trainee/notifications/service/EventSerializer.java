@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.UncheckedIOException;
+import org.springframework.stereotype.Component;
+import uk.nhs.tis.trainee.notifications.config.ObjectIdSerializerModule;
+
+/**
+ * A serializer for broadcast events, using a single pre-configured writer which is safe to share
+ * between threads. Dates are written as ISO-8601 strings and Mongo ObjectIds as their hex strings.
+ */
+@Component
+public class EventSerializer {
+
+  private final ObjectWriter writer;
+
+  /**
+   * Create an event serializer.
+   */
+  public EventSerializer() {
+    ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .registerModule(new ObjectIdSerializerModule());
+    writer = objectMapper.writer();
+  }
+
+  /**
+   * Serialize an event to a JSON string.
+   *
+   * @param event The event to serialize.
+   * @return The serialized event.
+   * @throws UncheckedIOException If the event could not be serialized.
+   */
+  public String serialize(Object event) {
+    try {
+      return writer.writeValueAsString(event);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Serialize an event to UTF-8 encoded JSON bytes.
+   *
+   * @param event The event to serialize.
+   * @return The serialized event.
+   * @throws UncheckedIOException If the event could not be serialized.
+   */
+  public byte[] serializeToBytes(Object event) {
+    try {
+      return writer.writeValueAsBytes(event);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
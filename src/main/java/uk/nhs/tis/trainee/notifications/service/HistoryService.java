@@ -31,26 +31,36 @@ import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SCHEDULE
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.UNREAD;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.AbstractMap;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import uk.nhs.tis.trainee.notifications.dto.HistoryDto;
@@ -58,12 +68,14 @@ import uk.nhs.tis.trainee.notifications.dto.HistoryMessageDto;
 import uk.nhs.tis.trainee.notifications.mapper.HistoryMapper;
 import uk.nhs.tis.trainee.notifications.model.History;
 import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
+import uk.nhs.tis.trainee.notifications.model.HistoryStatusUpdate;
 import uk.nhs.tis.trainee.notifications.model.MessageType;
 import uk.nhs.tis.trainee.notifications.model.NotificationStatus;
 import uk.nhs.tis.trainee.notifications.model.NotificationType;
 import uk.nhs.tis.trainee.notifications.model.ObjectIdWrapper;
 import uk.nhs.tis.trainee.notifications.model.TisReferenceType;
 import uk.nhs.tis.trainee.notifications.repository.HistoryRepository;
+import uk.nhs.tis.trainee.notifications.service.TemplateService.RenderedMessage;
 
 /**
  * A service providing functionality for notification history.
@@ -92,43 +104,61 @@ public class HistoryService {
   private static final String TYPE_FIELD = "type";
   private static final String RECIPIENT_TYPE_FIELD = "recipient.type";
   private static final String RECIPIENT_ID_FIELD = "recipient.id";
+  private static final String TIS_REFERENCE_TYPE_FIELD = "tisReference.type";
+  private static final String TIS_REFERENCE_ID_FIELD = "tisReference.id";
+  private static final String STATUS_DETAIL_FIELD = "statusDetail";
+  private static final String LATEST_STATUS_EVENT_AT_FIELD = "latestStatusEventAt";
+  private static final String CLAIMED_AT_FIELD = "claimedAt";
+  private static final String ID_FIELD = "_id";
 
-  private static final String SELECTOR_SUBJECT = "subject";
   private static final String SELECTOR_CONTENT = "content";
 
   private final HistoryRepository repository;
   private final TemplateService templateService;
   private final EventBroadcastService eventBroadcastService;
+  private final EventOutbox eventOutbox;
   private final HistoryMapper mapper;
   private final MongoTemplate mongoTemplate;
+  private final RenderedMessageCache messageCache;
+  private final Duration claimLease;
 
   /**
    * Create an instance of the history service.
    *
    * @param repository      The repository to perform all database actions.
    * @param templateService The service providing template handling.
+   * @param eventOutbox     The outbox the history change events are written with.
    * @param mapper          The mapper between History data types.
+   * @param messageCache    The cache of rebuilt notification messages.
+   * @param claimLease      How long a claimed scheduled notification is held before it may be
+   *                        claimed again.
    */
   public HistoryService(HistoryRepository repository, TemplateService templateService,
-      EventBroadcastService eventBroadcastService, HistoryMapper mapper,
-      MongoTemplate mongoTemplate) {
+      EventBroadcastService eventBroadcastService, EventOutbox eventOutbox, HistoryMapper mapper,
+      MongoTemplate mongoTemplate, RenderedMessageCache messageCache,
+      @Value("${application.email.claim-lease:PT15M}") Duration claimLease) {
     this.repository = repository;
     this.templateService = templateService;
     this.eventBroadcastService = eventBroadcastService;
+    this.eventOutbox = eventOutbox;
     this.mapper = mapper;
     this.mongoTemplate = mongoTemplate;
+    this.messageCache = messageCache;
+    this.claimLease = claimLease;
   }
 
   /**
-   * Save a notification history.
+   * Save a notification history, the change event is written in the same transaction.
    *
    * @param history The notification to save in history.
    * @return The saved notification history.
    */
   public History save(History history) {
-    History savedHistory = repository.save(history);
-    eventBroadcastService.publishNotificationsEvent(savedHistory);
-    return savedHistory;
+    return eventOutbox.callInTransaction(() -> {
+      History savedHistory = repository.save(history);
+      eventBroadcastService.publishNotificationsEvent(savedHistory);
+      return savedHistory;
+    });
   }
 
   /**
@@ -173,6 +203,78 @@ public class HistoryService {
     return updateStatus(optionalHistory.get(), status, null, null);
   }
 
+  /**
+   * Apply event-driven status updates to multiple notifications in a single unordered bulk write,
+   * ensuring no retrograde changes. Only the newest update for each notification is applied, and
+   * only if it is not older than the latest status event already applied to the notification.
+   * The status change events for the updated notifications are published together.
+   *
+   * @param updates The status updates to apply, each must have an event timestamp.
+   * @return The updated notification histories, updates which were not applied are excluded.
+   */
+  public List<History> updateStatusesIfNewer(Collection<HistoryStatusUpdate> updates) {
+    // Equal timestamps are applied, so the last received update wins as with single updates.
+    Map<ObjectId, HistoryStatusUpdate> newestUpdates = new LinkedHashMap<>();
+    for (HistoryStatusUpdate update : updates) {
+      newestUpdates.merge(update.id(), update,
+          (current, next) -> next.timestamp().isBefore(current.timestamp()) ? current : next);
+    }
+
+    if (newestUpdates.isEmpty()) {
+      return List.of();
+    }
+
+    return eventOutbox.callInTransaction(() -> {
+      BulkOperations bulkOps = mongoTemplate.bulkOps(BulkMode.UNORDERED, History.class);
+
+      for (HistoryStatusUpdate update : newestUpdates.values()) {
+        // Only update notifications of a type the status is valid for.
+        List<MessageType> validTypes = VALID_STATUSES.entrySet().stream()
+            .filter(e -> e.getValue().contains(update.status()))
+            .map(Map.Entry::getKey)
+            .toList();
+
+        Query query = Query.query(Criteria.where(ID_FIELD).is(update.id())
+            .and(RECIPIENT_TYPE_FIELD).in(validTypes)
+            .orOperator(
+                Criteria.where(LATEST_STATUS_EVENT_AT_FIELD).is(null),
+                Criteria.where(LATEST_STATUS_EVENT_AT_FIELD).lte(update.timestamp())));
+        Update statusUpdate = Update.update(STATUS_FIELD, update.status())
+            .set(STATUS_DETAIL_FIELD, update.detail())
+            .set(LATEST_STATUS_EVENT_AT_FIELD, update.timestamp());
+        bulkOps.updateOne(query, statusUpdate);
+      }
+
+      int matched = bulkOps.execute().getMatchedCount();
+
+      // The bulk result does not identify the matched documents, so check which were applied.
+      Query updatedQuery = Query.query(Criteria.where(ID_FIELD).in(newestUpdates.keySet()));
+      List<History> updated = mongoTemplate.find(updatedQuery, History.class).stream()
+          .filter(history -> isApplied(history, newestUpdates.get(history.id())))
+          .toList();
+      eventBroadcastService.publishNotificationsStatusEvents(updated);
+
+      log.info("Applied {} of {} status updates, {} were not found or not newer.", matched,
+          newestUpdates.size(), newestUpdates.size() - matched);
+      return updated;
+    });
+  }
+
+  /**
+   * Check whether a status update is reflected in the current notification history.
+   *
+   * @param history The current notification history.
+   * @param update  The status update.
+   * @return true if the history has the status, detail and timestamp of the update.
+   */
+  private static boolean isApplied(History history, HistoryStatusUpdate update) {
+    // Mongo stores timestamps with millisecond precision.
+    Instant timestamp = update.timestamp().truncatedTo(ChronoUnit.MILLIS);
+    return history.status() == update.status()
+        && Objects.equals(history.statusDetail(), update.detail())
+        && timestamp.equals(history.latestStatusEventAt());
+  }
+
   /**
    * Update the status of a notification, ensuring no retrograde event-driven changes.
    *
@@ -198,34 +300,51 @@ public class HistoryService {
 
     if (timestamp != null) {
       //only update the status if the event timestamp is after the existing latestStatusEventAt
-      int updatedHistoryCount
-          = repository.updateStatusIfNewer(history.id(), timestamp, status, detail);
-
-      Optional<History> updatedHistory = repository.findById(history.id());
-      if (updatedHistoryCount > 0) {
-        eventBroadcastService.publishNotificationsEvent(updatedHistory.orElse(null));
-      } else {
-        log.info("Notification {} was not updated as the event timestamp {} was not newer than {}.",
-            history.id(), timestamp, history.latestStatusEventAt());
-      }
+      Optional<History> updatedHistory = eventOutbox.callInTransaction(() -> {
+        int updatedHistoryCount
+            = repository.updateStatusIfNewer(history.id(), timestamp, status, detail);
+
+        Optional<History> updated = repository.findById(history.id());
+        if (updatedHistoryCount > 0) {
+          eventBroadcastService.publishNotificationsStatusEvent(updated.orElse(null));
+        } else {
+          log.info(
+              "Notification {} was not updated as the event timestamp {} was not newer than {}.",
+              history.id(), timestamp, history.latestStatusEventAt());
+        }
+        return updated;
+      });
       return updatedHistory.map(this::toDto);
-    } else {
-      //without an event timestamp, we simply update the notification status
-      history = mapper.updateStatus(history, status, detail);
-      history = repository.save(history);
-      eventBroadcastService.publishNotificationsEvent(history);
     }
-    return Optional.of(toDto(history));
+
+    //without an event timestamp, we simply update the notification status
+    History updatedHistory = eventOutbox.callInTransaction(() -> {
+      History savedHistory = repository.save(mapper.updateStatus(history, status, detail));
+      eventBroadcastService.publishNotificationsStatusEvent(savedHistory);
+      return savedHistory;
+    });
+    return Optional.of(toDto(updatedHistory));
   }
 
   /**
-   * List the IDs of all scheduled notifications which are overdue being sent.
+   * List the IDs of all scheduled notifications which are overdue being sent. This includes
+   * notifications whose claim has expired, as the claiming send did not complete.
    *
    * @return A list of overdue notification IDs, empty if none found.
    */
   public List<ObjectIdWrapper> findAllOverdue() {
     log.debug("Finding all overdue notifications IDs.");
-    return repository.findIdByStatusAndSentAtLessThanEqualOrderById(SCHEDULED, Instant.now());
+    Instant now = Instant.now();
+    Query query = Query.query(new Criteria().orOperator(
+            Criteria.where(STATUS_FIELD).is(SCHEDULED).and(SENT_AT_FIELD).lte(now),
+            Criteria.where(STATUS_FIELD).is(PENDING).and(CLAIMED_AT_FIELD)
+                .lt(now.minus(claimLease))))
+        .with(Sort.by(ID_FIELD));
+    query.fields().include(ID_FIELD);
+
+    return mongoTemplate.find(query, History.class).stream()
+        .map(history -> new ObjectIdWrapper(history.id()))
+        .toList();
   }
 
   /**
@@ -418,44 +537,141 @@ public class HistoryService {
   }
 
   /**
-   * Find scheduled email notification for the given Trainee by reference and type from DB.
+   * Claim the latest scheduled email notification for the given Trainee by reference and type, so
+   * that its ID can be taken over by the notification being sent. The claimed notification is
+   * atomically moved to PENDING so that it can not be claimed twice, and any other matching
+   * scheduled notifications are deleted as duplicates.
    *
-   * @param traineeId        The ID of the trainee to get notifications for.
+   * <p>The claim is a lease, if the notification is not recorded as sent within the lease then it
+   * may be claimed again. This ensures a claim left by a send which never completed, such as when
+   * the instance is stopped mid-send, does not prevent the notification being sent.
+   *
+   * @param traineeId        The ID of the trainee to claim the notification for.
    * @param tisReferenceType The reference type of the object.
    * @param refId            The reference ID of the TisReferenceType.
    * @param notificationType The notification Type of the notification.
-   * @return The found notifications, empty if none found.
+   * @return The claimed notification, empty if none found.
    */
-  public List<History> findAllScheduledEmailForTraineeByRefAndType(String traineeId,
+  public Optional<History> claimScheduledEmail(String traineeId,
       TisReferenceType tisReferenceType, String refId, NotificationType notificationType) {
-    List<History> history = repository.findAllByRecipient_IdOrderBySentAtDesc(traineeId);
+    Instant now = Instant.now();
+    Criteria claimable = new Criteria().orOperator(
+        Criteria.where(STATUS_FIELD).is(SCHEDULED),
+        Criteria.where(STATUS_FIELD).is(PENDING).and(CLAIMED_AT_FIELD).lt(now.minus(claimLease)));
+    Query query = Query.query(
+            buildEmailCriteria(traineeId, tisReferenceType, refId, notificationType)
+                .andOperator(claimable))
+        .with(Sort.by(SENT_AT_FIELD).descending());
+    Update update = Update.update(STATUS_FIELD, PENDING).set(CLAIMED_AT_FIELD, now);
+
+    History claimed = eventOutbox.callInTransaction(() -> {
+      History updated = mongoTemplate.findAndModify(query, update,
+          FindAndModifyOptions.options().returnNew(true), History.class);
+
+      if (updated != null) {
+        eventBroadcastService.publishNotificationsStatusEvent(updated);
+      }
+      return updated;
+    });
 
-    return history.stream()
-        .filter(h -> h.recipient().type().equals(EMAIL))
-        .filter(h -> h.status().equals(SCHEDULED))
-        .filter(h -> h.tisReference().id().equals(refId)
-            && h.tisReference().type().equals(tisReferenceType))
-        .filter(h -> h.type().equals(notificationType))
-        .toList();
+    if (claimed != null) {
+      log.info("Claimed scheduled notification {} for trainee {}.", claimed.id(), traineeId);
+      deleteScheduledEmails(traineeId, tisReferenceType, refId, notificationType);
+    }
+
+    return Optional.ofNullable(claimed);
   }
 
   /**
-   * Find latest scheduled email notification for the given Trainee by reference and type from DB.
+   * Release a claimed scheduled email notification which could not be sent, so that it can be
+   * claimed again when retried.
    *
-   * @param traineeId        The ID of the trainee to get notifications for.
+   * @param id The ID of the claimed notification.
+   */
+  public void releaseScheduledEmail(ObjectId id) {
+    Query query = Query.query(Criteria.where(ID_FIELD).is(id)
+        .and(STATUS_FIELD).is(PENDING)
+        .and(CLAIMED_AT_FIELD).exists(true));
+    Update update = Update.update(STATUS_FIELD, SCHEDULED).unset(CLAIMED_AT_FIELD);
+
+    History released = eventOutbox.callInTransaction(() -> {
+      History updated = mongoTemplate.findAndModify(query, update,
+          FindAndModifyOptions.options().returnNew(true), History.class);
+
+      if (updated != null) {
+        eventBroadcastService.publishNotificationsStatusEvent(updated);
+      }
+      return updated;
+    });
+
+    if (released != null) {
+      log.info("Released claimed scheduled notification {}.", id);
+    }
+  }
+
+  /**
+   * Delete all scheduled email notifications for the given Trainee by reference and type, with a
+   * single bulk delete and batched broadcast of the delete events.
+   *
+   * @param traineeId        The ID of the trainee to delete notifications for.
    * @param tisReferenceType The reference type of the object.
    * @param refId            The reference ID of the TisReferenceType.
    * @param notificationType The notification Type of the notification.
-   * @return The found notifications, empty if none found.
+   * @return The deleted notifications, empty if none found.
    */
-  public History findScheduledEmailForTraineeByRefAndType(String traineeId,
-      TisReferenceType tisReferenceType, String refId, NotificationType notificationType) {
-    List<History> history = findAllScheduledEmailForTraineeByRefAndType(traineeId,
-        tisReferenceType, refId, notificationType);
+  public List<History> deleteScheduledEmails(String traineeId, TisReferenceType tisReferenceType,
+      String refId, NotificationType notificationType) {
+    Query query = buildScheduledEmailQuery(traineeId, tisReferenceType, refId, notificationType);
+    List<History> deleted = eventOutbox.callInTransaction(() -> {
+      List<History> removed = mongoTemplate.findAllAndRemove(query, History.class);
+
+      if (!removed.isEmpty()) {
+        eventBroadcastService.publishNotificationsDeleteEvents(
+            removed.stream().map(History::id).toList());
+      }
+      return removed;
+    });
 
-    return history.stream()
-        .findFirst()
-        .orElse(null);
+    if (!deleted.isEmpty()) {
+      List<ObjectId> deletedIds = deleted.stream().map(History::id).toList();
+      log.info("Removed scheduled notification history {} for {}", deletedIds, traineeId);
+    }
+
+    return deleted;
+  }
+
+  /**
+   * Build a query matching scheduled email notifications for a trainee by reference and type.
+   *
+   * @param traineeId        The ID of the trainee.
+   * @param tisReferenceType The reference type of the object.
+   * @param refId            The reference ID of the TisReferenceType.
+   * @param notificationType The notification Type of the notification.
+   * @return The built query.
+   */
+  private Query buildScheduledEmailQuery(String traineeId, TisReferenceType tisReferenceType,
+      String refId, NotificationType notificationType) {
+    return Query.query(buildEmailCriteria(traineeId, tisReferenceType, refId, notificationType)
+        .and(STATUS_FIELD).is(SCHEDULED));
+  }
+
+  /**
+   * Build criteria matching email notifications for a trainee by reference and type, in any
+   * status.
+   *
+   * @param traineeId        The ID of the trainee.
+   * @param tisReferenceType The reference type of the object.
+   * @param refId            The reference ID of the TisReferenceType.
+   * @param notificationType The notification Type of the notification.
+   * @return The built criteria.
+   */
+  private Criteria buildEmailCriteria(String traineeId, TisReferenceType tisReferenceType,
+      String refId, NotificationType notificationType) {
+    return Criteria.where(RECIPIENT_ID_FIELD).is(traineeId)
+        .and(RECIPIENT_TYPE_FIELD).is(EMAIL)
+        .and(TIS_REFERENCE_TYPE_FIELD).is(tisReferenceType)
+        .and(TIS_REFERENCE_ID_FIELD).is(refId)
+        .and(TYPE_FIELD).is(notificationType);
   }
 
   /**
@@ -465,8 +681,10 @@ public class HistoryService {
    * @param traineeId The ID of the trainee to get notifications for.
    */
   public void deleteHistoryForTrainee(ObjectId id, String traineeId) {
-    repository.deleteByIdAndRecipient_Id(id, traineeId);
-    eventBroadcastService.publishNotificationsDeleteEvent(id);
+    eventOutbox.runInTransaction(() -> {
+      repository.deleteByIdAndRecipient_Id(id, traineeId);
+      eventBroadcastService.publishNotificationsDeleteEvent(id);
+    });
     log.info("Removed notification history {} for {}", id, traineeId);
   }
 
@@ -508,17 +726,24 @@ public class HistoryService {
     }
 
     History history = optionalHistory.get();
-    Optional<String> subject = rebuildMessage(history, Set.of(SELECTOR_SUBJECT));
-    Optional<String> content = rebuildMessage(history, Set.of(SELECTOR_CONTENT));
-
-    if (subject.orElse("").isBlank() || content.orElse("").isBlank()) {
+    TemplateInfo templateInfo = history.template();
+    String templatePath = templateService.getTemplatePath(history.recipient().type(),
+        templateInfo.name(), templateInfo.version());
+    Supplier<RenderedMessage> renderer =
+        () -> templateService.processMessage(templatePath, templateInfo.variables());
+    RenderedMessage message = isOutputCached(history)
+        ? renderer.get()
+        : messageCache.getMessage(history, renderer);
+
+    if (message.subject().isBlank() || message.content().isBlank()) {
       log.warn(
           "Subject and/or Content not found for notification {}, will return empty result.",
           notificationId);
       return Optional.empty();
     }
 
-    return Optional.of(new HistoryMessageDto(subject.get(), content.get(), history.sentAt()));
+    return Optional.of(
+        new HistoryMessageDto(message.subject(), message.content(), history.sentAt()));
   }
 
   /**
@@ -573,10 +798,26 @@ public class HistoryService {
 
     String templatePath = templateService.getTemplatePath(messageType, templateInfo.name(),
         templateInfo.version());
-    String message = templateService.process(templatePath, selectors, templateInfo.variables());
+    Supplier<String> renderer =
+        () -> templateService.process(templatePath, selectors, templateInfo.variables());
+    String message = isOutputCached(history)
+        ? renderer.get()
+        : messageCache.get(history, selectors, renderer);
     return Optional.of(message);
   }
 
+  /**
+   * Whether the template output for the notification is already cached by the template service.
+   * In-app output is cached by content, so is shared by every trainee sent the same message and
+   * does not also need caching per notification.
+   *
+   * @param history The historical notification.
+   * @return true if the template output is cached by the template service, else false.
+   */
+  private boolean isOutputCached(History history) {
+    return history.recipient().type() == IN_APP;
+  }
+
   /**
    * Move all notifications from one trainee to another. Assumes that fromTraineeId and toTraineeId
    * are valid. The updated notifications are broadcast as events.
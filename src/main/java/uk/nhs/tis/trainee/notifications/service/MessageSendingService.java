@@ -23,33 +23,47 @@ package uk.nhs.tis.trainee.notifications.service;
 
 import static io.awspring.cloud.sqs.listener.SqsHeaders.MessageSystemAttributes.SQS_AWS_TRACE_HEADER;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.PENDING;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SCHEDULED;
+import static uk.nhs.tis.trainee.notifications.service.NotificationService.PERSON_ID_FIELD;
 
 import com.amazonaws.xray.AWSXRay;
 import com.amazonaws.xray.entities.TraceHeader;
 import com.amazonaws.xray.spring.aop.XRayEnabled;
+import jakarta.annotation.PreDestroy;
 import io.awspring.cloud.sqs.operations.SendResult;
 import io.awspring.cloud.sqs.operations.SendResult.Batch;
 import io.awspring.cloud.sqs.operations.SendResult.Failed;
 import io.awspring.cloud.sqs.operations.SqsTemplate;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessagingException;
 import org.springframework.messaging.support.GenericMessage;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import uk.nhs.tis.trainee.notifications.model.History;
 import uk.nhs.tis.trainee.notifications.model.NotificationStatus;
 import uk.nhs.tis.trainee.notifications.model.ObjectIdWrapper;
 import uk.nhs.tis.trainee.notifications.repository.HistoryRepository;
+import uk.nhs.tis.trainee.notifications.service.NotificationService.TraineeLookup;
 
 /**
  * A service for sending SQS and SNS messages.
@@ -68,23 +82,56 @@ public class MessageSendingService {
 
   private final String outboxQueue;
 
+  private final ExecutorService sendExecutor;
+
+  private final Duration claimLease;
+
   /**
    * Construct a message sending service.
    *
-   * @param sqsTemplate The SQS template to use for sending SQS messages.
-   * @param outboxQueue The queue name/url of the outbox queue.
+   * @param sqsTemplate     The SQS template to use for sending SQS messages.
+   * @param bulkEmailSender The bulk email sender, if enabled.
+   * @param outboxQueue     The queue name/url of the outbox queue.
+   * @param sendConcurrency The number of trainees to send scheduled notifications to concurrently,
+   *                        raised to the bulk email batch size when bulk email is enabled.
+   * @param claimLease      How long a claimed scheduled notification is held before it may be
+   *                        claimed again.
    */
   public MessageSendingService(HistoryRepository historyRepository,
       NotificationService notificationService, SqsTemplate sqsTemplate,
-      @Value("${application.queues.outbox}") String outboxQueue) {
+      ObjectProvider<BulkEmailSender> bulkEmailSender,
+      @Value("${application.queues.outbox}") String outboxQueue,
+      @Value("${application.outbox.send-concurrency:1}") int sendConcurrency,
+      @Value("${application.email.claim-lease:PT15M}") Duration claimLease) {
     this.historyRepository = historyRepository;
     this.notificationService = notificationService;
     this.sqsTemplate = sqsTemplate;
     this.outboxQueue = outboxQueue;
+
+    // Each send waits for its email, so a bulk batch can only fill with a send per destination.
+    BulkEmailSender bulkSender = bulkEmailSender.getIfAvailable();
+    if (bulkSender != null && sendConcurrency < bulkSender.getBatchSize()) {
+      log.info("Raising outbox send concurrency from {} to the bulk email batch size of {}.",
+          sendConcurrency, bulkSender.getBatchSize());
+      sendConcurrency = bulkSender.getBatchSize();
+    }
+
+    this.sendExecutor = Executors.newFixedThreadPool(sendConcurrency,
+        new CustomizableThreadFactory("outbox-send-"));
+    this.claimLease = claimLease;
+  }
+
+  /**
+   * Stop the scheduled notification send threads.
+   */
+  @PreDestroy
+  void shutdown() {
+    sendExecutor.shutdown();
   }
 
   /**
    * Send the given scheduled notification instantly, will fail if not a scheduled notification.
+   * A notification whose claim has expired is sent again, as the claiming send did not complete.
    *
    * <p>Prefer sending via {@link #sendToOutbox(List)} to allow for better load balancing, retries
    * and throttling.
@@ -103,9 +150,14 @@ public class MessageSendingService {
     }
 
     History history = found.get();
-    NotificationStatus status = history.status();
+    Instant now = Instant.now();
+
+    if (isClaimHeld(history, now)) {
+      String message = "Notification '%s' is claimed by another send.".formatted(notificationId);
+      throw new MessagingException(message);
+    }
 
-    if (status != SCHEDULED) {
+    if (!isSendable(history, now)) {
       log.error("Ignoring attempt to send non-scheduled notification '{}'.", notificationId);
       return;
     }
@@ -113,6 +165,130 @@ public class MessageSendingService {
     String jobKey = "OUTBOX_" + notificationId;
     Map<String, String> result = notificationService.executeNow(jobKey,
         history.template().variables());
+    verifySent(notificationId, result);
+  }
+
+  /**
+   * Send the given scheduled notifications instantly, any non-scheduled notifications are skipped.
+   * Notifications held by an unexpired claim are neither sent nor handled, so that they are
+   * retried if the claiming send does not complete. Notifications which no longer exist are
+   * handled, as retrying them can never send anything.
+   * All notifications are retrieved with a single query and then grouped by trainee, so that the
+   * trainee details are only looked up once per trainee. Trainees are sent to concurrently, so
+   * that their sends can share bulk email batches.
+   *
+   * @param notificationIdWrappers The wrapped IDs of the notifications to send.
+   * @return The IDs of the notifications which were handled, either sent, skipped or not found.
+   *     Any notifications which are claimed or failed to send are excluded.
+   */
+  public Set<ObjectId> sendScheduled(Collection<ObjectIdWrapper> notificationIdWrappers) {
+    Set<ObjectId> notificationIds = notificationIdWrappers.stream()
+        .map(ObjectIdWrapper::id)
+        .collect(toSet());
+    log.debug("Attempting to send {} scheduled notification(s).", notificationIds.size());
+
+    Set<ObjectId> handled = ConcurrentHashMap.newKeySet();
+    Map<String, List<History>> scheduledByTrainee = new HashMap<>();
+    Set<ObjectId> notFound = new HashSet<>(notificationIds);
+    Instant now = Instant.now();
+
+    for (History history : historyRepository.findAllById(notificationIds)) {
+      notFound.remove(history.id());
+
+      if (isClaimHeld(history, now)) {
+        log.info("Notification '{}' is claimed by another send, it will be retried.",
+            history.id());
+      } else if (isSendable(history, now)) {
+        String personId = (String) history.template().variables().get(PERSON_ID_FIELD);
+        scheduledByTrainee.computeIfAbsent(personId, k -> new ArrayList<>()).add(history);
+      } else {
+        log.error("Ignoring attempt to send non-scheduled notification '{}'.", history.id());
+        handled.add(history.id());
+      }
+    }
+
+    CompletableFuture<?>[] traineeSends = scheduledByTrainee.entrySet().stream()
+        .map(entry -> CompletableFuture.runAsync(
+            () -> sendScheduled(entry.getKey(), entry.getValue(), handled), sendExecutor))
+        .toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(traineeSends).join();
+
+    if (!notFound.isEmpty()) {
+      log.error("No notification found for id(s) {}, they will not be retried.", notFound);
+      handled.addAll(notFound);
+    }
+
+    log.debug("Handled {} of {} scheduled notification(s).", handled.size(),
+        notificationIds.size());
+    return handled;
+  }
+
+  /**
+   * Whether the notification is held by a claim which has not yet expired, in which case it may
+   * still be being sent.
+   *
+   * @param history The notification to check.
+   * @param now     The current time.
+   * @return Whether the notification's claim is held.
+   */
+  private boolean isClaimHeld(History history, Instant now) {
+    return history.status() == PENDING && history.claimedAt() != null
+        && history.claimedAt().isAfter(now.minus(claimLease));
+  }
+
+  /**
+   * Whether the notification can be sent, either because it is scheduled or because it was
+   * claimed by a send which did not complete within the claim lease.
+   *
+   * @param history The notification to check.
+   * @param now     The current time.
+   * @return Whether the notification can be sent.
+   */
+  private boolean isSendable(History history, Instant now) {
+    NotificationStatus status = history.status();
+    return status == SCHEDULED
+        || (status == PENDING && history.claimedAt() != null && !isClaimHeld(history, now));
+  }
+
+  /**
+   * Send the given scheduled notifications for a single trainee, in order.
+   *
+   * @param personId  The ID of the trainee.
+   * @param histories The scheduled notifications to send.
+   * @param handled   The set to add the IDs of handled notifications to.
+   */
+  private void sendScheduled(String personId, List<History> histories, Set<ObjectId> handled) {
+    try {
+      TraineeLookup trainee = notificationService.lookupTrainee(personId);
+
+      for (History history : histories) {
+        ObjectId notificationId = history.id();
+
+        try {
+          String jobKey = "OUTBOX_" + notificationId;
+          Map<String, String> result = notificationService.executeNow(jobKey,
+              history.template().variables(), trainee);
+          verifySent(notificationId, result);
+          handled.add(notificationId);
+        } catch (RuntimeException e) {
+          log.error("Failed sending scheduled notification '{}'.", notificationId, e);
+        }
+      }
+    } catch (RuntimeException e) {
+      log.error("Failed to look up trainee '{}' for {} scheduled notification(s).", personId,
+          histories.size(), e);
+    }
+  }
+
+  /**
+   * Verify the result of executing a scheduled notification shows it was sent.
+   *
+   * @param notificationId The ID of the notification.
+   * @param result         The result of executing the notification.
+   * @throws MessagingException If the result does not show the notification as sent.
+   */
+  private void verifySent(ObjectId notificationId, Map<String, String> result)
+      throws MessagingException {
     String resultStatus = result.get("status");
 
     if (resultStatus != null && resultStatus.startsWith("sent ")) {
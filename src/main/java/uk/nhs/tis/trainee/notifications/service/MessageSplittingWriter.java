@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A writer which captures rendered output up to a boundary as the message subject, then streams
+ * everything after the boundary straight through to the content writer.
+ */
+class MessageSplittingWriter extends Writer {
+
+  private final String boundary;
+  private final Writer contentWriter;
+  private final StringBuilder subject = new StringBuilder();
+
+  private boolean boundaryFound = false;
+
+  /**
+   * Create a writer which splits the subject from the content at the given boundary.
+   *
+   * @param boundary      The boundary between the subject and content.
+   * @param contentWriter The writer to stream the content to.
+   */
+  MessageSplittingWriter(String boundary, Writer contentWriter) {
+    this.boundary = boundary;
+    this.contentWriter = contentWriter;
+  }
+
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    if (boundaryFound) {
+      contentWriter.write(cbuf, off, len);
+    } else {
+      subject.append(cbuf, off, len);
+      splitOnBoundary(len);
+    }
+  }
+
+  @Override
+  public void write(String str, int off, int len) throws IOException {
+    if (boundaryFound) {
+      contentWriter.write(str, off, len);
+    } else {
+      subject.append(str, off, off + len);
+      splitOnBoundary(len);
+    }
+  }
+
+  /**
+   * Check the newly appended output for the boundary, moving anything after it to the content.
+   *
+   * @param appended The number of characters just appended to the subject.
+   * @throws IOException If the content could not be written.
+   */
+  private void splitOnBoundary(int appended) throws IOException {
+    // Only search the new output, plus enough overlap to catch a boundary split across writes.
+    int searchFrom = Math.max(0, subject.length() - appended - boundary.length() + 1);
+    int index = subject.indexOf(boundary, searchFrom);
+
+    if (index >= 0) {
+      boundaryFound = true;
+      contentWriter.append(subject, index + boundary.length(), subject.length());
+      subject.setLength(index);
+    }
+  }
+
+  /**
+   * Whether the boundary has been found in the written output.
+   *
+   * @return true if the boundary was found, else false.
+   */
+  boolean isBoundaryFound() {
+    return boundaryFound;
+  }
+
+  /**
+   * Get the captured subject, this will be all written output if the boundary was not found.
+   *
+   * @return The rendered subject.
+   */
+  String getSubject() {
+    return subject.toString();
+  }
+
+  @Override
+  public void flush() throws IOException {
+    contentWriter.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    contentWriter.close();
+  }
+}
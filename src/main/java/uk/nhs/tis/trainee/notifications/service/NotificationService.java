@@ -52,7 +52,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.stream.Collectors;
@@ -122,6 +121,7 @@ public class NotificationService {
 
   private final EmailService emailService;
   private final HistoryService historyService;
+  private final ScheduleSlotAllocator slotAllocator;
   private final ProgrammeMembershipActionsService programmeMembershipActionService;
   private final RestTemplate restTemplate;
   private final TemplateVersionsProperties templateVersions;
@@ -132,12 +132,11 @@ public class NotificationService {
   private final String timezone;
   protected final Integer immediateNotificationDelayMinutes;
 
-  private final Random random;
-
   /**
    * Initialise the Notification Service.
    *
    * @param emailService               The Email Service to use.
+   * @param slotAllocator              The allocator used to level scheduled send times.
    * @param restTemplate               The REST template.
    * @param messagingControllerService The messaging controller service to control whether to
    *                                   dispatch messages.
@@ -149,6 +148,7 @@ public class NotificationService {
    * @param notificationsWhitelist     The whitelist of (tester) trainee TIS IDs.
    */
   public NotificationService(EmailService emailService, HistoryService historyService,
+      ScheduleSlotAllocator slotAllocator,
       ProgrammeMembershipActionsService programmeMembershipActionService,
       RestTemplate restTemplate, MessagingControllerService messagingControllerService,
       TemplateVersionsProperties templateVersions,
@@ -159,6 +159,7 @@ public class NotificationService {
       @Value("${application.timezone}") String timezone) {
     this.emailService = emailService;
     this.historyService = historyService;
+    this.slotAllocator = slotAllocator;
     this.programmeMembershipActionService = programmeMembershipActionService;
     this.restTemplate = restTemplate;
     this.templateVersions = templateVersions;
@@ -168,7 +169,6 @@ public class NotificationService {
     this.immediateNotificationDelayMinutes = notificationDelay;
     this.notificationsWhitelist = notificationsWhitelist;
     this.timezone = timezone;
-    this.random = new Random();
   }
 
   /**
@@ -179,18 +179,39 @@ public class NotificationService {
    * @return The result map with status details if successful.
    */
   public Map<String, String> executeNow(String jobKey, Map<String, Object> jobDetails) {
-    Map<String, String> result = new HashMap<>();
-    NotificationSummary notificationSummary = NotificationSummary.builder().build();
-
-    // get job details according to notification type
     String personId = (String) jobDetails.get(PERSON_ID_FIELD);
+    return executeNow(jobKey, jobDetails, lookupTrainee(personId));
+  }
 
-    // Enrich User Account and Local Office details to jobDetails
-    // TODO: refactor to avoid the duplicate calls to getTraineeDetails and getCognitoAccountDetails
-    enrichJobDetails(jobDetails);
+  /**
+   * Process a job immediately, sending the notification if appropriate. The trainee's details are
+   * provided so that the lookups can be shared across multiple jobs for the same trainee.
+   *
+   * @param jobKey     The descriptive job identifier.
+   * @param jobDetails The job details.
+   * @param trainee    The pre-fetched trainee details, see {@link #lookupTrainee(String)}.
+   * @return The result map with status details if successful.
+   */
+  public Map<String, String> executeNow(String jobKey, Map<String, Object> jobDetails,
+      TraineeLookup trainee) {
+    enrichJobDetails(jobDetails, trainee);
+    return execute(jobKey, jobDetails, trainee.traineeDetails(), trainee.accountDetails());
+  }
 
-    UserDetails userTraineeDetails = getTraineeDetails(personId);
-    UserDetails userCognitoAccountDetails = getCognitoAccountDetails(userTraineeDetails.email());
+  /**
+   * Process an enriched job, sending the notification if appropriate.
+   *
+   * @param jobKey                    The descriptive job identifier.
+   * @param jobDetails                The enriched job details.
+   * @param userTraineeDetails        The user details from the trainee profile.
+   * @param userCognitoAccountDetails The user account details from Cognito, may be null.
+   * @return The result map with status details if successful.
+   */
+  private Map<String, String> execute(String jobKey, Map<String, Object> jobDetails,
+      UserDetails userTraineeDetails, UserDetails userCognitoAccountDetails) {
+    Map<String, String> result = new HashMap<>();
+    NotificationSummary notificationSummary = NotificationSummary.builder().build();
+    String personId = (String) jobDetails.get(PERSON_ID_FIELD);
     UserDetails userAccountDetails = mapUserDetails(userCognitoAccountDetails, userTraineeDetails);
 
     NotificationType notificationType =
@@ -273,19 +294,23 @@ public class NotificationService {
   }
 
   /**
-   * Schedule a notification with a randomised offset.
+   * Schedule a notification in the least-loaded slot within a window.
    *
    * @param jobId           The job id. This must be unique for programme membership / placement and
    *                        notification milestone.
    * @param jobDataMap      The map of job data.
    * @param when            The date to schedule the notification to be sent.
-   * @param windowInSeconds The randomised window in seconds.
+   * @param windowInSeconds The window in seconds to level the notification across.
    */
   public void scheduleNotification(String jobId, Map<String, Object> jobDataMap, Date when,
       long windowInSeconds) {
-    long randomOffset = random.nextLong(windowInSeconds + 1);
-    Date randomisedWhen = Date.from(when.toInstant().plusSeconds(randomOffset));
-    scheduleNotification(jobId, jobDataMap, randomisedWhen);
+    Instant allocatedWhen = slotAllocator.allocate(when.toInstant(), windowInSeconds);
+
+    try {
+      scheduleNotification(jobId, jobDataMap, Date.from(allocatedWhen));
+    } finally {
+      slotAllocator.complete(allocatedWhen);
+    }
   }
 
   /**
@@ -375,7 +400,20 @@ public class NotificationService {
    */
   protected Map<String, Object> enrichJobDetails(Map<String, Object> jobDetails) {
     String personId = (String) jobDetails.get(PERSON_ID_FIELD);
-    UserDetails userTraineeDetails = getTraineeDetails(personId);
+    return enrichJobDetails(jobDetails, lookupTrainee(personId));
+  }
+
+  /**
+   * Build notification details for sending message and DB history, using pre-fetched trainee
+   * details.
+   *
+   * @param jobDetails The job details.
+   * @param trainee    The pre-fetched trainee details.
+   */
+  protected Map<String, Object> enrichJobDetails(Map<String, Object> jobDetails,
+      TraineeLookup trainee) {
+    String personId = (String) jobDetails.get(PERSON_ID_FIELD);
+    UserDetails userTraineeDetails = trainee.traineeDetails();
 
     if (userTraineeDetails == null) {
       String message = String.format(
@@ -407,9 +445,7 @@ public class NotificationService {
       jobDetails.putIfAbsent(TEMPLATE_POG_HREF_FIELD, getHrefTypeForContact(pogContact));
     }
 
-    UserDetails userCognitoAccountDetails = getCognitoAccountDetails(userTraineeDetails.email());
-
-    UserDetails userAccountDetails = mapUserDetails(userCognitoAccountDetails, userTraineeDetails);
+    UserDetails userAccountDetails = mapUserDetails(trainee.accountDetails(), userTraineeDetails);
     if (userAccountDetails != null) {
       jobDetails.putIfAbsent("isRegistered", userAccountDetails.isRegistered());
       jobDetails.putIfAbsent("title", userAccountDetails.title());
@@ -608,6 +644,20 @@ public class NotificationService {
     }
   }
 
+  /**
+   * Look up the trainee profile and user account details of a trainee, the result can be shared
+   * across multiple notifications for the same trainee.
+   *
+   * @param personId The person ID to look up.
+   * @return The trainee's details, the profile and account details may be null if not found.
+   */
+  public TraineeLookup lookupTrainee(String personId) {
+    UserDetails userTraineeDetails = getTraineeDetails(personId);
+    UserDetails userCognitoAccountDetails = userTraineeDetails == null ? null
+        : getCognitoAccountDetails(userTraineeDetails.email());
+    return new TraineeLookup(userTraineeDetails, userCognitoAccountDetails);
+  }
+
   /**
    * Get the user account details from Cognito if they have signed-up to TIS Self-Service.
    *
@@ -980,4 +1030,14 @@ public class NotificationService {
       }
     }
   }
+
+  /**
+   * The looked up details of a trainee.
+   *
+   * @param traineeDetails The user details from the trainee profile, null if not found.
+   * @param accountDetails The user account details from Cognito, null if not registered.
+   */
+  public record TraineeLookup(UserDetails traineeDetails, UserDetails accountDetails) {
+
+  }
 }
@@ -0,0 +1,175 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import jakarta.activation.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A data source for rendered HTML content, the content is written once through a UTF-8 writer and
+ * may then be read any number of times without copying the underlying buffer.
+ *
+ * <p>Buffers are taken from a bounded pool when available. A buffer is only returned to the pool
+ * when explicitly released, which must only be done once nothing will read the content again.
+ */
+class RenderedContentDataSource implements DataSource {
+
+  private static final String CONTENT_TYPE = "text/html;charset=UTF-8";
+  private static final String NAME = "content";
+  private static final int INITIAL_CAPACITY = 16 * 1024;
+  private static final int MAX_POOLED_CAPACITY = 256 * 1024;
+  private static final int POOL_SIZE = 64;
+
+  private static final BlockingQueue<byte[]> BUFFER_POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+  private final ContentBuffer buffer;
+
+  /**
+   * Create a rendered content data source, reusing a pooled buffer if one is available.
+   */
+  RenderedContentDataSource() {
+    byte[] pooled = BUFFER_POOL.poll();
+    buffer = new ContentBuffer(pooled == null ? new byte[INITIAL_CAPACITY] : pooled);
+  }
+
+  /**
+   * Get a writer for the content, the writer must be closed before the content is read.
+   *
+   * @return The UTF-8 content writer.
+   */
+  Writer getWriter() {
+    return new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Get the content as a string, for transports which do not accept a data source.
+   *
+   * @return The rendered content.
+   */
+  String getContent() {
+    return buffer.toString(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Release the content buffer for reuse, the content can not be read once released. Buffers
+   * which have grown beyond the pooled capacity are left for garbage collection.
+   */
+  void release() {
+    byte[] released = buffer.release();
+
+    if (released != null && released.length <= MAX_POOLED_CAPACITY) {
+      BUFFER_POOL.offer(released);
+    }
+  }
+
+  @Override
+  public InputStream getInputStream() {
+    return buffer.toInputStream();
+  }
+
+  @Override
+  public OutputStream getOutputStream() throws IOException {
+    throw new IOException("Rendered content is read-only.");
+  }
+
+  @Override
+  public String getContentType() {
+    return CONTENT_TYPE;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  /**
+   * A byte buffer which can be read without copying its contents.
+   */
+  private static class ContentBuffer extends ByteArrayOutputStream {
+
+    private boolean released;
+
+    /**
+     * Create a content buffer which writes in to the given array.
+     *
+     * @param initial The array to write in to, it is replaced if the content outgrows it.
+     */
+    ContentBuffer(byte[] initial) {
+      super(0);
+      buf = initial;
+    }
+
+    /**
+     * Get an input stream over the written bytes, sharing the underlying buffer.
+     *
+     * @return The input stream.
+     */
+    synchronized InputStream toInputStream() {
+      checkNotReleased();
+      return new ByteArrayInputStream(buf, 0, count);
+    }
+
+    @Override
+    public synchronized String toString(Charset charset) {
+      checkNotReleased();
+      return super.toString(charset);
+    }
+
+    /**
+     * Release the underlying buffer, the buffer can then no longer be read.
+     *
+     * @return The released buffer, or null if it was already released.
+     */
+    synchronized byte[] release() {
+      if (released) {
+        return null;
+      }
+
+      released = true;
+      byte[] releasedBuffer = buf;
+      buf = new byte[0];
+      count = 0;
+      return releasedBuffer;
+    }
+
+    /**
+     * Check the buffer has not been released.
+     *
+     * @throws IllegalStateException If the buffer has been released.
+     */
+    private void checkNotReleased() {
+      if (released) {
+        throw new IllegalStateException("Rendered content has been released.");
+      }
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.service.TemplateService.RenderedMessage;
+
+/**
+ * A bounded cache of rebuilt notification messages, with an optional shared Redis tier. Entries
+ * are keyed by the notification ID, a fingerprint of the message type and template info and the
+ * selectors used, so a change to the template info will never be served a stale message. Entries
+ * are therefore never evicted explicitly, those no longer requested are removed by the size limit
+ * or the shared cache's time to live. In-app messages are not cached here, as their output is
+ * already cached by content in the {@link TemplateOutputCache}.
+ */
+@Slf4j
+@Component
+public class RenderedMessageCache {
+
+  static final String CACHE_NAME = "RenderedMessage";
+
+  private static final String KEY_SEPARATOR = ":";
+  private static final String SELECTOR_SUBJECT = "subject";
+  private static final String SELECTOR_CONTENT = "content";
+
+  private final Cache<String, String> localCache;
+  private final org.springframework.cache.Cache sharedCache;
+
+  /**
+   * Create a rendered message cache.
+   *
+   * @param cacheManager  The cache manager providing the shared cache.
+   * @param meterRegistry The registry to publish the local cache metrics to.
+   * @param maxSize       The approximate maximum size of the local cache.
+   * @param redisEnabled  Whether the shared Redis cache should be used.
+   */
+  RenderedMessageCache(CacheManager cacheManager, MeterRegistry meterRegistry,
+      @Value("${application.history.message-cache.max-size:32MB}") DataSize maxSize,
+      @Value("${application.history.message-cache.redis.enabled:false}") boolean redisEnabled) {
+    localCache = Caffeine.newBuilder()
+        .maximumWeight(maxSize.toBytes())
+        .weigher((String key, String value) -> (key.length() + value.length()) * Character.BYTES)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, localCache, CACHE_NAME);
+
+    sharedCache = redisEnabled ? cacheManager.getCache(CACHE_NAME) : null;
+  }
+
+  /**
+   * Get the rendered message for the given notification and selectors, rendering it on a miss.
+   *
+   * @param history   The historical notification.
+   * @param selectors The template selectors used.
+   * @param renderer  The renderer to use when the message is not cached.
+   * @return The cached or rendered message.
+   */
+  public String get(History history, Set<String> selectors, Supplier<String> renderer) {
+    if (history.id() == null) {
+      return renderer.get();
+    }
+
+    String key = buildKey(history, selectors);
+    String message = getCached(key);
+
+    if (message == null) {
+      message = renderer.get();
+      put(key, message);
+    }
+
+    return message;
+  }
+
+  /**
+   * Get the rendered subject and content for the given notification, rendering them on a miss.
+   *
+   * @param history  The historical notification.
+   * @param renderer The renderer to use when the subject or content is not cached.
+   * @return The cached or rendered subject and content.
+   */
+  public RenderedMessage getMessage(History history, Supplier<RenderedMessage> renderer) {
+    if (history.id() == null) {
+      return renderer.get();
+    }
+
+    String subjectKey = buildKey(history, Set.of(SELECTOR_SUBJECT));
+    String contentKey = buildKey(history, Set.of(SELECTOR_CONTENT));
+    String subject = getCached(subjectKey);
+    String content = getCached(contentKey);
+
+    if (subject != null && content != null) {
+      return new RenderedMessage(subject, content);
+    }
+
+    RenderedMessage message = renderer.get();
+    put(subjectKey, message.subject());
+    put(contentKey, message.content());
+    return message;
+  }
+
+  /**
+   * Build the cache key for a notification and set of selectors.
+   *
+   * @param history   The historical notification.
+   * @param selectors The template selectors used.
+   * @return The built cache key.
+   */
+  static String buildKey(History history, Set<String> selectors) {
+    String templateInfo = history.recipient().type() + KEY_SEPARATOR + history.template();
+    String fingerprint = DigestUtils.md5DigestAsHex(
+        templateInfo.getBytes(StandardCharsets.UTF_8));
+    String selectorKey = String.join(",", new TreeSet<>(selectors));
+    return String.join(KEY_SEPARATOR, history.id().toString(), fingerprint, selectorKey);
+  }
+
+  /**
+   * Get a cached message from the local cache, falling back to the shared cache if enabled.
+   *
+   * @param key The cache key.
+   * @return The cached message, or null if not cached.
+   */
+  private String getCached(String key) {
+    String message = localCache.getIfPresent(key);
+
+    if (message == null && sharedCache != null) {
+      try {
+        message = sharedCache.get(key, String.class);
+
+        if (message != null) {
+          localCache.put(key, message);
+        }
+      } catch (RuntimeException e) {
+        log.warn("Unable to read rendered message '{}' from the shared cache.", key, e);
+      }
+    }
+
+    return message;
+  }
+
+  /**
+   * Put a rendered message in the local cache and the shared cache if enabled.
+   *
+   * @param key     The cache key.
+   * @param message The rendered message.
+   */
+  private void put(String key, String message) {
+    localCache.put(key, message);
+
+    if (sharedCache != null) {
+      try {
+        sharedCache.put(key, message);
+      } catch (RuntimeException e) {
+        log.warn("Unable to write rendered message '{}' to the shared cache.", key, e);
+      }
+    }
+  }
+}
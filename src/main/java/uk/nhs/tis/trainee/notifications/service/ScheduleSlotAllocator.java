@@ -0,0 +1,239 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SCHEDULED;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.ScheduleSlot;
+
+/**
+ * A service which allocates scheduled notifications to the least-loaded minute within a window,
+ * levelling the send load across the window.
+ *
+ * <p>The load of a slot is the number of email notifications currently scheduled within it, so
+ * that sent, deleted and rescheduled notifications no longer count, plus any allocations which
+ * have not yet been scheduled. The loads are read a day at a time and held in memory, so that a
+ * rebuild scheduling many notifications into the same days allocates from memory and only writes
+ * the claim of each chosen slot. Allocations made by other instances are included once the loads
+ * are reloaded, so levelling across instances is approximate within the view time-to-live.
+ */
+@Slf4j
+@Service
+public class ScheduleSlotAllocator {
+
+  private static final Duration SLOT_SIZE = Duration.ofMinutes(1);
+  private static final Duration SLOT_RETENTION = Duration.ofDays(1);
+  private static final int SLOTS_PER_DAY = (int) (Duration.ofDays(1).toMinutes());
+
+  private static final String ID_FIELD = "_id";
+  private static final String COUNT_FIELD = "count";
+  private static final String PENDING_FIELD = "pending";
+  private static final String EXPIRES_AT_FIELD = "expiresAt";
+  private static final String RECIPIENT_TYPE_FIELD = "recipient.type";
+  private static final String STATUS_FIELD = "status";
+  private static final String SENT_AT_FIELD = "sentAt";
+
+  private final MongoTemplate mongoTemplate;
+  private final Duration viewTimeToLive;
+
+  private final Map<Instant, DayLoads> dayLoads = new HashMap<>();
+
+  /**
+   * Create a schedule slot allocator.
+   *
+   * @param mongoTemplate  The mongo template used to track slot allocations.
+   * @param viewTimeToLive How long loaded slot loads are allocated from before being reloaded.
+   */
+  public ScheduleSlotAllocator(MongoTemplate mongoTemplate,
+      @Value("${application.schedule-slots.view-time-to-live:PT1M}") Duration viewTimeToLive) {
+    this.mongoTemplate = mongoTemplate;
+    this.viewTimeToLive = viewTimeToLive;
+  }
+
+  /**
+   * Allocate a send time within the given window, choosing the earliest of the least-loaded
+   * slots. Once the notification has been scheduled, or was not scheduled, the allocation must be
+   * completed with {@link #complete(Instant)}.
+   *
+   * @param from            The start of the window.
+   * @param windowInSeconds The length of the window in seconds.
+   * @return The allocated send time, or the start of the window if it contains no slots.
+   */
+  public Instant allocate(Instant from, long windowInSeconds) {
+    Instant firstSlot = from.truncatedTo(ChronoUnit.MINUTES);
+    if (firstSlot.isBefore(from)) {
+      firstSlot = firstSlot.plus(SLOT_SIZE);
+    }
+
+    Instant windowEnd = from.plusSeconds(Math.max(0, windowInSeconds));
+    if (firstSlot.isAfter(windowEnd)) {
+      return from;
+    }
+
+    Instant allocated = firstSlot;
+    long allocatedLoad = Long.MAX_VALUE;
+
+    synchronized (dayLoads) {
+      Instant now = Instant.now();
+      dayLoads.values().removeIf(loads -> !now.isBefore(loads.loadedAt().plus(viewTimeToLive)));
+
+      for (Instant slot = firstSlot; !slot.isAfter(windowEnd); slot = slot.plus(SLOT_SIZE)) {
+        long load = getDayLoads(slot, now).loads()[getSlotIndex(slot)];
+
+        if (load < allocatedLoad) {
+          allocated = slot;
+          allocatedLoad = load;
+
+          if (load == 0) {
+            break;
+          }
+        }
+      }
+
+      getDayLoads(allocated, now).loads()[getSlotIndex(allocated)]++;
+    }
+
+    claim(allocated);
+    log.debug("Allocated slot {} with load {}.", allocated, allocatedLoad);
+    return allocated;
+  }
+
+  /**
+   * Complete an allocation, once the notification has been scheduled it is included in the slot
+   * load and is no longer counted as pending.
+   *
+   * @param allocated The allocated send time.
+   */
+  public void complete(Instant allocated) {
+    mongoTemplate.updateFirst(
+        query(where(ID_FIELD).is(allocated).and(PENDING_FIELD).gt(0)),
+        new Update().inc(PENDING_FIELD, -1), ScheduleSlot.class);
+  }
+
+  /**
+   * Get the loads of the day containing a slot, loading them if they are not held.
+   *
+   * @param slot The slot to get the day loads for.
+   * @param now  The time the loads are being read.
+   * @return The loads of the day containing the slot.
+   */
+  private DayLoads getDayLoads(Instant slot, Instant now) {
+    return dayLoads.computeIfAbsent(slot.truncatedTo(ChronoUnit.DAYS),
+        dayStart -> loadDay(dayStart, now));
+  }
+
+  /**
+   * Load the load of each slot within a day, counting both the scheduled email notifications and
+   * any pending allocations.
+   *
+   * @param dayStart The start of the day.
+   * @param now      The time the loads are being read.
+   * @return The loaded day loads.
+   */
+  private DayLoads loadDay(Instant dayStart, Instant now) {
+    Instant dayEnd = dayStart.plus(Duration.ofDays(1));
+    long[] loads = new long[SLOTS_PER_DAY];
+
+    Query slotQuery = query(where(ID_FIELD).gte(dayStart).lt(dayEnd));
+    slotQuery.fields().include(PENDING_FIELD);
+
+    for (ScheduleSlot slot : mongoTemplate.find(slotQuery, ScheduleSlot.class)) {
+      loads[getSlotIndex(slot.slot())] += slot.pending();
+    }
+
+    Aggregation aggregation = newAggregation(
+        match(where(RECIPIENT_TYPE_FIELD).is(EMAIL)
+            .and(STATUS_FIELD).is(SCHEDULED)
+            .and(SENT_AT_FIELD).gte(dayStart).lt(dayEnd)),
+        group(SENT_AT_FIELD).count().as(COUNT_FIELD));
+
+    for (Document result : mongoTemplate.aggregate(aggregation, History.class, Document.class)) {
+      Instant sentAt = result.getDate(ID_FIELD).toInstant();
+      loads[getSlotIndex(sentAt)] += result.get(COUNT_FIELD, Number.class).longValue();
+    }
+
+    log.debug("Loaded schedule slot loads for {}.", dayStart);
+    return new DayLoads(now, loads);
+  }
+
+  /**
+   * Get the index of the slot containing a time within its day.
+   *
+   * @param time The time to get the slot index for.
+   * @return The slot index.
+   */
+  private static int getSlotIndex(Instant time) {
+    return (int) Duration.between(time.truncatedTo(ChronoUnit.DAYS), time).toMinutes();
+  }
+
+  /**
+   * Claim a slot for a pending allocation, only the chosen slot is written.
+   *
+   * @param slot The slot to claim.
+   */
+  private void claim(Instant slot) {
+    Query slotQuery = query(where(ID_FIELD).is(slot));
+    Update update = new Update()
+        .inc(PENDING_FIELD, 1)
+        .setOnInsert(EXPIRES_AT_FIELD, slot.plus(SLOT_RETENTION));
+    FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+    try {
+      mongoTemplate.findAndModify(slotQuery, update, options, ScheduleSlot.class);
+    } catch (DuplicateKeyException e) {
+      // A concurrent upsert inserted the slot first, it now exists so the claim is an update.
+      mongoTemplate.findAndModify(slotQuery, update, options, ScheduleSlot.class);
+    }
+  }
+
+  /**
+   * The loads of each slot within a day.
+   *
+   * @param loadedAt When the loads were read.
+   * @param loads    The load of each slot, indexed by minute of the day.
+   */
+  private record DayLoads(Instant loadedAt, long[] loads) {
+
+  }
+}
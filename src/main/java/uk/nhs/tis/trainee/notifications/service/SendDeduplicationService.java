@@ -0,0 +1,226 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
+import uk.nhs.tis.trainee.notifications.model.NotificationType;
+
+/**
+ * A service which claims idempotency keys for notification sends, so that a redelivered or
+ * retried send can be suppressed before the message is rendered and sent again. Keys are the
+ * notification ID when a scheduled notification is sent, otherwise the TIS reference, type and
+ * recipient. A claim is held for the claim time-to-live until the send is marked as sent, at which
+ * point it is retained for the full time-to-live. The claim time-to-live must be shorter than the
+ * scheduled email claim lease, so that a claim abandoned by a failed worker has expired by the
+ * time the scheduled email can be claimed again.
+ */
+@Slf4j
+@Service
+public class SendDeduplicationService {
+
+  private static final String KEY_SEPARATOR = ":";
+  private static final String CLAIM_PREFIX = "SendClaim";
+  private static final String CLAIMED_MARKER = "CLAIMED";
+  private static final String SENT_MARKER = "SENT";
+
+  private final StringRedisTemplate redisTemplate;
+  private final String keyPrefix;
+  private final Duration ttl;
+  private final Duration claimTtl;
+  private final Counter suppressedCounter;
+
+  /**
+   * Create a send deduplication service.
+   *
+   * @param redisTemplate The Redis template used to store claimed keys.
+   * @param meterRegistry The registry to publish the suppressed duplicate metric to.
+   * @param keyPrefix     The prefix to apply to stored keys.
+   * @param ttl           How long a sent key should be retained.
+   * @param claimTtl      How long a claimed key should be retained before it is marked as sent.
+   * @param claimLease    How long a scheduled email claim is leased for.
+   */
+  SendDeduplicationService(StringRedisTemplate redisTemplate, MeterRegistry meterRegistry,
+      @Value("${application.cache.key-prefix}") String keyPrefix,
+      @Value("${application.email.deduplication.time-to-live:PT24H}") Duration ttl,
+      @Value("${application.email.deduplication.claim-time-to-live:PT10M}") Duration claimTtl,
+      @Value("${application.email.claim-lease:PT15M}") Duration claimLease) {
+    if (claimTtl.compareTo(claimLease) >= 0) {
+      throw new IllegalArgumentException(
+          "The send claim time-to-live must be shorter than the claim lease.");
+    }
+
+    this.redisTemplate = redisTemplate;
+    this.keyPrefix = keyPrefix;
+    this.ttl = ttl;
+    this.claimTtl = claimTtl;
+    suppressedCounter = Counter.builder("notifications.email.duplicates.suppressed")
+        .description("The number of duplicate email sends suppressed.")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Get the send key for a scheduled notification.
+   *
+   * @param notificationId The ID of the scheduled notification.
+   * @return The send key.
+   */
+  public static String getSendKey(ObjectId notificationId) {
+    return notificationId.toHexString();
+  }
+
+  /**
+   * Get the send key for a notification without a scheduled notification ID. The recipient is
+   * hashed, so that contact details are not stored in the key.
+   *
+   * @param tisReferenceInfo The TIS reference of the notification.
+   * @param notificationType The type of notification.
+   * @param recipient        Where the notification is sent.
+   * @return The send key.
+   */
+  public static String getSendKey(TisReferenceInfo tisReferenceInfo,
+      NotificationType notificationType, String recipient) {
+    String key = String.join(KEY_SEPARATOR, tisReferenceInfo.type().name(), tisReferenceInfo.id(),
+        notificationType.name(), recipient);
+
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+
+  /**
+   * Claim the idempotency key for a send, a key can only be claimed once until it is released or
+   * expires. If the claim can not be checked then it is granted, so that sending is not blocked.
+   *
+   * @param sendKey The send key to claim.
+   * @return The status of the claim, only a {@link ClaimStatus#SENT} send should be suppressed.
+   */
+  public ClaimStatus claim(String sendKey) {
+    try {
+      String storedKey = getStoredKey(sendKey);
+      Boolean claimed = redisTemplate.opsForValue()
+          .setIfAbsent(storedKey, getMarker(CLAIMED_MARKER), claimTtl);
+
+      if (Boolean.FALSE.equals(claimed)) {
+        String marker = redisTemplate.opsForValue().get(storedKey);
+
+        if (marker != null && marker.startsWith(SENT_MARKER + KEY_SEPARATOR)) {
+          log.warn("Suppressing duplicate send for key '{}'.", sendKey);
+          suppressedCounter.increment();
+          return ClaimStatus.SENT;
+        }
+
+        log.warn("Send for key '{}' is claimed by another attempt.", sendKey);
+        return ClaimStatus.HELD;
+      }
+    } catch (RuntimeException e) {
+      log.error("Unable to claim idempotency key '{}', allowing send.", sendKey, e);
+    }
+
+    return ClaimStatus.CLAIMED;
+  }
+
+  /**
+   * Mark a claimed send as sent, so that its key is retained for the full time-to-live and any
+   * later send with the same key is suppressed.
+   *
+   * @param sendKey The send key of the sent notification.
+   */
+  public void markSent(String sendKey) {
+    try {
+      redisTemplate.opsForValue().set(getStoredKey(sendKey), getMarker(SENT_MARKER), ttl);
+    } catch (RuntimeException e) {
+      log.error("Unable to mark send key '{}' as sent.", sendKey, e);
+    }
+  }
+
+  /**
+   * Release the claimed idempotency key for a send, so that a failed send may be retried.
+   *
+   * @param sendKey The send key to release.
+   */
+  public void release(String sendKey) {
+    try {
+      redisTemplate.delete(getStoredKey(sendKey));
+    } catch (RuntimeException e) {
+      log.error("Unable to release idempotency key '{}'.", sendKey, e);
+    }
+  }
+
+  /**
+   * Get the key used to store the idempotency key for a send.
+   *
+   * @param sendKey The send key.
+   * @return The prefixed key.
+   */
+  private String getStoredKey(String sendKey) {
+    return String.join(KEY_SEPARATOR, keyPrefix, CLAIM_PREFIX, sendKey);
+  }
+
+  /**
+   * Get the stored value for a claim state, with the time it was reached.
+   *
+   * @param marker The claim state marker.
+   * @return The value to store.
+   */
+  private String getMarker(String marker) {
+    return marker + KEY_SEPARATOR + Instant.now();
+  }
+
+  /**
+   * The possible outcomes of claiming a send.
+   */
+  public enum ClaimStatus {
+
+    /**
+     * The send was claimed and should go ahead.
+     */
+    CLAIMED,
+
+    /**
+     * The send has already been made and should be suppressed.
+     */
+    SENT,
+
+    /**
+     * The send is claimed by another attempt, which may still be sending, so it should be retried
+     * later.
+     */
+    HELD
+  }
+}
@@ -0,0 +1,485 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import uk.nhs.tis.trainee.notifications.model.NotificationPriority;
+
+/**
+ * A token-bucket governor for the SES send rate, the rate adapts to throttling using additive
+ * increase on success and multiplicative decrease when throttled.
+ *
+ * <p>Sends are split into priority lanes, each with its own concurrency limit. The bulk lane is
+ * limited to a share of the overall rate so that the transactional lane always has a minimum
+ * throughput.
+ *
+ * <p>A lane's SQS listeners are paused when a send must wait longer than the pause threshold, and
+ * resumed by a scheduled check once the lane's tokens have been repaid. Short waits are absorbed by
+ * the sending thread, so the listeners are not repeatedly stopped and started under normal load.
+ */
+@Slf4j
+@Component
+public class SendRateGovernor {
+
+  private static final String THROTTLING_ERROR_CODE = "Throttling";
+  private static final String RATE_EXCEEDED_MESSAGE = "Maximum sending rate exceeded";
+  private static final String LANE_TAG = "lane";
+  private static final String PAUSE_HOLDER_PREFIX = "email-rate-";
+
+  private final SqsListenerCoordinator listenerCoordinator;
+  private final ScheduledExecutorService containerExecutor;
+  private final Map<NotificationPriority, Semaphore> laneSemaphores;
+  private final Map<NotificationPriority, Timer> laneLatencyTimers;
+  private final Map<NotificationPriority, Timer> waitTimers;
+
+  private final double minRate;
+  private final double maxRate;
+  private final double increment;
+  private final double decreaseFactor;
+  private final double transactionalShare;
+  private final long pauseThresholdNanos;
+  private final Set<String> transactionalListenerIds;
+  private final Set<String> bulkListenerIds;
+
+  private final TokenBucket sharedBucket;
+  private final TokenBucket bulkBucket;
+  private final Set<NotificationPriority> pausedLanes;
+
+  private double rate;
+
+  /**
+   * Create a send rate governor.
+   *
+   * @param listenerCoordinator      The coordinator used to pause the SQS listeners.
+   * @param meterRegistry            The registry to publish rate, wait and lane metrics to.
+   * @param initialRate              The initial number of sends permitted per second.
+   * @param minRate                  The minimum number of sends permitted per second.
+   * @param maxRate                  The maximum number of sends permitted per second.
+   * @param increment                The rate increase applied after each successful send.
+   * @param decreaseFactor           The factor applied to the rate after a throttled send.
+   * @param pauseThreshold           The token wait after which SQS listeners are paused.
+   * @param transactionalShare       The share of the rate reserved for the transactional lane.
+   * @param transactionalThreads     The number of concurrent transactional notification sends.
+   * @param bulkThreads              The number of concurrent bulk notification sends.
+   * @param transactionalListenerIds The IDs of the SQS listeners which send transactional
+   *                                 notifications.
+   * @param bulkListenerIds          The IDs of the SQS listeners which receive bulk notifications.
+   */
+  SendRateGovernor(SqsListenerCoordinator listenerCoordinator, MeterRegistry meterRegistry,
+      @Value("${application.email.rate.initial:14}") double initialRate,
+      @Value("${application.email.rate.min:1}") double minRate,
+      @Value("${application.email.rate.max:14}") double maxRate,
+      @Value("${application.email.rate.increment:0.1}") double increment,
+      @Value("${application.email.rate.decrease-factor:0.5}") double decreaseFactor,
+      @Value("${application.email.rate.pause-threshold:PT1S}") Duration pauseThreshold,
+      @Value("${application.email.lanes.transactional.share:0.2}") double transactionalShare,
+      @Value("${application.email.lanes.transactional.threads:4}") int transactionalThreads,
+      @Value("${application.email.lanes.bulk.threads:4}") int bulkThreads,
+      @Value("${application.email.lanes.transactional.listener-ids:}")
+      Set<String> transactionalListenerIds,
+      @Value("${application.email.lanes.bulk.listener-ids:outbox}") Set<String> bulkListenerIds) {
+    if (minRate <= 0 || minRate > maxRate) {
+      throw new IllegalArgumentException("The minimum send rate must be between 0 and the max.");
+    }
+
+    if (decreaseFactor <= 0 || decreaseFactor >= 1) {
+      throw new IllegalArgumentException("The send rate decrease factor must be between 0 and 1.");
+    }
+
+    if (transactionalShare <= 0 || transactionalShare >= 1) {
+      throw new IllegalArgumentException("The transactional share must be between 0 and 1.");
+    }
+
+    this.listenerCoordinator = listenerCoordinator;
+    this.containerExecutor = Executors.newSingleThreadScheduledExecutor(
+        new CustomizableThreadFactory("email-rate-"));
+    this.minRate = minRate;
+    this.maxRate = maxRate;
+    this.increment = increment;
+    this.decreaseFactor = decreaseFactor;
+    this.transactionalShare = transactionalShare;
+    this.pauseThresholdNanos = pauseThreshold.toNanos();
+    this.transactionalListenerIds = Set.copyOf(transactionalListenerIds);
+    this.bulkListenerIds = Set.copyOf(bulkListenerIds);
+
+    rate = Math.min(maxRate, Math.max(minRate, initialRate));
+    sharedBucket = new TokenBucket(rate);
+    bulkBucket = new TokenBucket(getBulkRate());
+    pausedLanes = EnumSet.noneOf(NotificationPriority.class);
+
+    Gauge.builder("notifications.email.send.rate", this, SendRateGovernor::getRate)
+        .description("The current permitted email sends per second.")
+        .register(meterRegistry);
+
+    laneSemaphores = new EnumMap<>(NotificationPriority.class);
+    laneLatencyTimers = new EnumMap<>(NotificationPriority.class);
+    waitTimers = new EnumMap<>(NotificationPriority.class);
+
+    for (NotificationPriority lane : NotificationPriority.values()) {
+      int threads = lane == NotificationPriority.BULK ? bulkThreads : transactionalThreads;
+      Semaphore semaphore = new Semaphore(threads, true);
+      laneSemaphores.put(lane, semaphore);
+
+      Gauge.builder("notifications.email.lane.queue.depth", semaphore,
+              Semaphore::getQueueLength)
+          .description("The number of email sends waiting for a lane slot.")
+          .tag(LANE_TAG, lane.getLaneName())
+          .register(meterRegistry);
+      laneLatencyTimers.put(lane, Timer.builder("notifications.email.lane.latency")
+          .description("The time from an email send being queued to it completing.")
+          .tag(LANE_TAG, lane.getLaneName())
+          .register(meterRegistry));
+      waitTimers.put(lane, Timer.builder("notifications.email.send.wait")
+          .description("The time spent waiting for an email send token.")
+          .tag(LANE_TAG, lane.getLaneName())
+          .register(meterRegistry));
+    }
+  }
+
+  /**
+   * Perform a send in the given priority lane once permitted by the current rate, adjusting the
+   * rate based on the outcome. The send is performed on the caller's thread once a lane slot is
+   * available.
+   *
+   * @param priority The priority lane to send in.
+   * @param send     The send to perform.
+   */
+  public void execute(NotificationPriority priority, Runnable send) {
+    execute(priority, 1, send);
+  }
+
+  /**
+   * Perform a send of multiple emails in the given priority lane once permitted by the current
+   * rate, adjusting the rate based on the outcome. The send is performed on the caller's thread
+   * once a lane slot is available.
+   *
+   * @param priority The priority lane to send in.
+   * @param permits  The number of emails included in the send.
+   * @param send     The send to perform.
+   */
+  public void execute(NotificationPriority priority, int permits, Runnable send) {
+    if (permits < 1) {
+      throw new IllegalArgumentException("A send must include at least one email.");
+    }
+
+    long queuedAt = System.nanoTime();
+    Semaphore semaphore = laneSemaphores.get(priority);
+
+    try {
+      semaphore.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for an email send.", e);
+    }
+
+    try {
+      governedSend(priority, permits, send);
+    } finally {
+      semaphore.release();
+      laneLatencyTimers.get(priority).record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Stop the listener container executor.
+   */
+  @PreDestroy
+  void shutdown() {
+    containerExecutor.shutdownNow();
+  }
+
+  /**
+   * Get the current permitted send rate.
+   *
+   * @return The number of sends permitted per second.
+   */
+  public synchronized double getRate() {
+    return rate;
+  }
+
+  /**
+   * Perform a send once tokens are available for the lane.
+   *
+   * @param priority The priority lane to send in.
+   * @param permits  The number of tokens needed for the send.
+   * @param send     The send to perform.
+   */
+  private void governedSend(NotificationPriority priority, int permits, Runnable send) {
+    long waitNanos = 0;
+
+    // Bulk sends are limited to the bulk share first, so cannot use the transactional share.
+    if (priority == NotificationPriority.BULK) {
+      waitNanos += acquire(bulkBucket, NotificationPriority.BULK, permits);
+    }
+    waitNanos += acquire(sharedBucket, NotificationPriority.TRANSACTIONAL, permits);
+    waitTimers.get(priority).record(waitNanos, TimeUnit.NANOSECONDS);
+
+    try {
+      send.run();
+    } catch (RuntimeException e) {
+      if (isThrottled(e)) {
+        onThrottled();
+      }
+      throw e;
+    }
+
+    onSuccess(permits);
+  }
+
+  /**
+   * Reserve tokens from the bucket, waiting until they are available. The lane's SQS listeners are
+   * paused if the wait exceeds the pause threshold, so that further messages are not received
+   * until the bucket has refilled.
+   *
+   * @param bucket  The bucket to take tokens from.
+   * @param lane    The lane to pause while waiting.
+   * @param permits The number of tokens to take.
+   * @return The time spent waiting, in nanoseconds.
+   */
+  private long acquire(TokenBucket bucket, NotificationPriority lane, int permits) {
+    long waitNanos;
+
+    synchronized (this) {
+      waitNanos = bucket.reserve(getBucketRate(bucket), permits);
+
+      if (waitNanos > pauseThresholdNanos && pausedLanes.add(lane)) {
+        log.info("Email send tokens exhausted for {} lane at {} per second, pausing SQS listeners.",
+            lane.getLaneName(), getBucketRate(bucket));
+        Predicate<String> containers = getLaneContainers(lane);
+        containerExecutor.execute(
+            () -> listenerCoordinator.pause(PAUSE_HOLDER_PREFIX + lane.getLaneName(), containers));
+        containerExecutor.schedule(() -> resumeWhenAvailable(bucket, lane), waitNanos,
+            TimeUnit.NANOSECONDS);
+      }
+    }
+
+    if (waitNanos > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for an email send token.", e);
+      }
+    }
+
+    return waitNanos;
+  }
+
+  /**
+   * Resume a paused lane's SQS listeners if its reservation debt has been repaid, otherwise check
+   * again once the outstanding debt is expected to be repaid.
+   *
+   * @param bucket The bucket the lane is waiting on.
+   * @param lane   The paused lane.
+   */
+  private void resumeWhenAvailable(TokenBucket bucket, NotificationPriority lane) {
+    synchronized (this) {
+      long remainingNanos = bucket.getWaitNanos(getBucketRate(bucket));
+
+      if (remainingNanos > 0) {
+        containerExecutor.schedule(() -> resumeWhenAvailable(bucket, lane), remainingNanos,
+            TimeUnit.NANOSECONDS);
+        return;
+      }
+
+      if (!pausedLanes.remove(lane)) {
+        return;
+      }
+
+      log.info("Email send tokens available for {} lane, resuming SQS listeners.",
+          lane.getLaneName());
+    }
+
+    // Listeners shared with another paused lane stay paused until that lane also resumes.
+    listenerCoordinator.resume(PAUSE_HOLDER_PREFIX + lane.getLaneName(), getLaneContainers(lane));
+  }
+
+  /**
+   * Get the rate which applies to the given bucket.
+   *
+   * @param bucket The bucket to get the rate for.
+   * @return The number of tokens added per second.
+   */
+  private double getBucketRate(TokenBucket bucket) {
+    return bucket == bulkBucket ? getBulkRate() : rate;
+  }
+
+  /**
+   * Get the rate available to the bulk lane.
+   *
+   * @return The number of bulk sends permitted per second.
+   */
+  private double getBulkRate() {
+    return rate * (1 - transactionalShare);
+  }
+
+  /**
+   * Get the listener containers which should be paused when a lane is exhausted. Bulk sends also
+   * use the shared bucket, so the bulk listeners are included for the transactional lane. Listeners
+   * which do not send emails are never paused.
+   *
+   * @param lane The lane to get the containers for.
+   * @return A predicate matching the IDs of the lane's containers.
+   */
+  private Predicate<String> getLaneContainers(NotificationPriority lane) {
+    return lane == NotificationPriority.BULK
+        ? id -> id != null && bulkListenerIds.contains(id)
+        : id -> id != null
+            && (transactionalListenerIds.contains(id) || bulkListenerIds.contains(id));
+  }
+
+  /**
+   * Additively increase the send rate after a successful send.
+   *
+   * @param permits The number of emails included in the send.
+   */
+  private synchronized void onSuccess(int permits) {
+    rate = Math.min(maxRate, rate + increment * permits);
+  }
+
+  /**
+   * Multiplicatively decrease the send rate after a throttled send, and drain any unused tokens.
+   */
+  private synchronized void onThrottled() {
+    rate = Math.max(minRate, rate * decreaseFactor);
+    sharedBucket.drain();
+    bulkBucket.drain();
+    log.warn("Email send throttled, reducing rate to {} per second.", rate);
+  }
+
+  /**
+   * Check whether an exception was caused by SES throttling.
+   *
+   * @param exception The exception to check.
+   * @return Whether the exception indicates throttling.
+   */
+  private boolean isThrottled(Throwable exception) {
+    Throwable cause = exception;
+
+    while (cause != null) {
+      if (cause instanceof AwsServiceException awsException
+          && (awsException.isThrottlingException()
+          || (awsException.awsErrorDetails() != null
+          && THROTTLING_ERROR_CODE.equals(awsException.awsErrorDetails().errorCode())))) {
+        return true;
+      }
+
+      if (cause.getMessage() != null && cause.getMessage().contains(RATE_EXCEEDED_MESSAGE)) {
+        return true;
+      }
+
+      // The SES mail sender records the cause for each message rather than chaining it.
+      if (cause instanceof MailSendException mailException) {
+        for (Map.Entry<Object, Exception> failure : mailException.getFailedMessages().entrySet()) {
+          if (isThrottled(failure.getValue())) {
+            return true;
+          }
+        }
+      }
+
+      cause = cause.getCause();
+    }
+
+    return false;
+  }
+
+  /**
+   * A token bucket holding at most one second of tokens, guarded by the governor's lock.
+   */
+  private static class TokenBucket {
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Create a full token bucket.
+     *
+     * @param rate The initial number of tokens added per second.
+     */
+    TokenBucket(double rate) {
+      tokens = rate;
+      lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Reserve tokens, the bucket may go into debt to queue reservations.
+     *
+     * @param rate    The number of tokens added per second.
+     * @param permits The number of tokens to reserve.
+     * @return How long to wait until the reserved tokens are available, in nanoseconds.
+     */
+    long reserve(double rate, int permits) {
+      refill(rate);
+      tokens -= permits;
+      return tokens >= 0 ? 0 : (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Get how long until the bucket has repaid any reservation debt.
+     *
+     * @param rate The number of tokens added per second.
+     * @return The time until tokens are available, in nanoseconds.
+     */
+    long getWaitNanos(double rate) {
+      refill(rate);
+      return tokens >= 0 ? 0 : (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Drain any unused tokens from the bucket.
+     */
+    void drain() {
+      tokens = Math.min(tokens, 0);
+    }
+
+    /**
+     * Refill the bucket based on the time elapsed since the last refill.
+     *
+     * @param rate The number of tokens added per second.
+     */
+    private void refill(double rate) {
+      long now = System.nanoTime();
+      double elapsedSeconds = (double) (now - lastRefill) / TimeUnit.SECONDS.toNanos(1);
+      tokens = Math.min(rate, tokens + elapsedSeconds * rate);
+      lastRefill = now;
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import io.awspring.cloud.sqs.listener.MessageListenerContainer;
+import io.awspring.cloud.sqs.listener.MessageListenerContainerRegistry;
+import io.awspring.cloud.sqs.listener.SqsContainerOptionsBuilder;
+import io.awspring.cloud.sqs.listener.SqsMessageListenerContainer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * A coordinator for stopping, starting and reconfiguring SQS listener containers at runtime. All
+ * changes are serialised, and a container paused by one or more holders is only restarted once
+ * every holder has resumed it, so that independent callers do not undo each other's changes.
+ */
+@Slf4j
+@Component
+public class SqsListenerCoordinator {
+
+  private final ObjectProvider<MessageListenerContainerRegistry> containerRegistry;
+  private final Map<String, Set<String>> pauseHolders = new HashMap<>();
+
+  /**
+   * Create an SQS listener coordinator.
+   *
+   * @param containerRegistry The SQS listener container registry, if available.
+   */
+  public SqsListenerCoordinator(
+      ObjectProvider<MessageListenerContainerRegistry> containerRegistry) {
+    this.containerRegistry = containerRegistry;
+  }
+
+  /**
+   * Get all registered SQS listener containers.
+   *
+   * @return The registered containers, empty if the registry is not available.
+   */
+  public List<SqsMessageListenerContainer<?>> getContainers() {
+    List<SqsMessageListenerContainer<?>> containers = new ArrayList<>();
+
+    for (MessageListenerContainer<?> container : getRegisteredContainers()) {
+      if (container instanceof SqsMessageListenerContainer<?> sqsContainer) {
+        containers.add(sqsContainer);
+      }
+    }
+
+    return containers;
+  }
+
+  /**
+   * Get the SQS listener container with the given ID.
+   *
+   * @param id The ID of the listener.
+   * @return The found container, or null if not found.
+   */
+  public SqsMessageListenerContainer<?> getContainer(String id) {
+    MessageListenerContainerRegistry registry = containerRegistry.getIfAvailable();
+
+    if (registry != null
+        && registry.getContainerById(id) instanceof SqsMessageListenerContainer<?> container) {
+      return container;
+    }
+
+    return null;
+  }
+
+  /**
+   * Check whether an SQS listener container is paused by any holder.
+   *
+   * @param id The ID of the listener.
+   * @return Whether the container is paused.
+   */
+  public synchronized boolean isPaused(String id) {
+    return pauseHolders.containsKey(id);
+  }
+
+  /**
+   * Pause the matching SQS listener containers on behalf of the holder, a container is stopped
+   * when its first holder pauses it.
+   *
+   * @param holder       The name of the caller holding the pause.
+   * @param containerIds A predicate matching the IDs of the containers to pause.
+   */
+  public synchronized void pause(String holder, Predicate<String> containerIds) {
+    for (MessageListenerContainer<?> container : getRegisteredContainers()) {
+      String id = container.getId();
+
+      if (containerIds.test(id)) {
+        Set<String> holders = pauseHolders.computeIfAbsent(id, key -> new HashSet<>());
+
+        if (holders.add(holder) && holders.size() == 1) {
+          log.info("Pausing SQS listener '{}' for {}.", id, holder);
+          update(container, false);
+        }
+      }
+    }
+  }
+
+  /**
+   * Resume the matching SQS listener containers on behalf of the holder, a container is started
+   * when its last holder resumes it.
+   *
+   * @param holder       The name of the caller holding the pause.
+   * @param containerIds A predicate matching the IDs of the containers to resume.
+   */
+  public synchronized void resume(String holder, Predicate<String> containerIds) {
+    for (MessageListenerContainer<?> container : getRegisteredContainers()) {
+      String id = container.getId();
+      Set<String> holders = pauseHolders.get(id);
+
+      if (containerIds.test(id) && holders != null && holders.remove(holder)
+          && holders.isEmpty()) {
+        pauseHolders.remove(id);
+        log.info("Resuming SQS listener '{}' for {}.", id, holder);
+        update(container, true);
+      }
+    }
+  }
+
+  /**
+   * Reconfigure an SQS listener container. A running container is stopped, waiting for in-flight
+   * messages, and restarted with the new options, a paused container stays paused.
+   *
+   * @param id      The ID of the listener.
+   * @param options The options to apply to the container.
+   * @return The reconfigured container, or null if the listener was not found.
+   */
+  public synchronized SqsMessageListenerContainer<?> reconfigure(String id,
+      Consumer<SqsContainerOptionsBuilder> options) {
+    SqsMessageListenerContainer<?> container = getContainer(id);
+
+    if (container == null) {
+      return null;
+    }
+
+    boolean running = container.isRunning();
+
+    if (running) {
+      container.stop();
+    }
+
+    container.configure(options);
+
+    if (running && !pauseHolders.containsKey(id)) {
+      container.start();
+    }
+
+    return container;
+  }
+
+  /**
+   * Get all registered listener containers.
+   *
+   * @return The registered containers, empty if the registry is not available.
+   */
+  private Collection<MessageListenerContainer<?>> getRegisteredContainers() {
+    MessageListenerContainerRegistry registry = containerRegistry.getIfAvailable();
+    return registry == null ? List.of() : registry.getListenerContainers();
+  }
+
+  /**
+   * Start or stop an SQS listener container.
+   *
+   * @param container The container to update.
+   * @param start     Whether to start the container, otherwise it is stopped.
+   */
+  private void update(MessageListenerContainer<?> container, boolean start) {
+    try {
+      if (start) {
+        container.start();
+      } else {
+        container.stop();
+      }
+    } catch (RuntimeException e) {
+      log.error("Unable to update SQS listener container {}.", container.getId(), e);
+    }
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.thymeleaf.context.Context;
+import uk.nhs.tis.trainee.notifications.service.TemplateService.RenderedMessage;
+
+/**
+ * A content-addressed cache of template output, so that identical messages shared by many
+ * recipients are only rendered once. Entries are keyed by the template, the selectors and a
+ * canonical hash of the built context variables, so variables which only differ before
+ * timestamp localization or trainee type coercion share an entry.
+ */
+@Component
+public class TemplateOutputCache {
+
+  static final String CACHE_NAME = "TemplateOutput";
+
+  private static final String KEY_SEPARATOR = ":";
+  private static final String SELECTOR_SUBJECT = "subject";
+  private static final String SELECTOR_CONTENT = "content";
+
+  private final Cache<String, String> cache;
+
+  /**
+   * Create a template output cache.
+   *
+   * @param meterRegistry The registry to publish the cache metrics to.
+   * @param maxSize       The approximate maximum size of the cache.
+   */
+  TemplateOutputCache(MeterRegistry meterRegistry,
+      @Value("${application.template.output-cache.max-size:16MB}") DataSize maxSize) {
+    cache = Caffeine.newBuilder()
+        .maximumWeight(maxSize.toBytes())
+        .weigher((String key, String value) -> (key.length() + value.length()) * Character.BYTES)
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * Get the output for the given template, selectors and context, rendering it on a miss.
+   * Concurrent requests for the same output will only render it once.
+   *
+   * @param template  The name of the template.
+   * @param selectors The selectors within the template.
+   * @param context   The built template context.
+   * @param renderer  The renderer to use when the output is not cached.
+   * @return The cached or rendered output.
+   */
+  public String get(String template, Set<String> selectors, Context context,
+      Supplier<String> renderer) {
+    Optional<String> key = buildKey(template, selectors, context);
+    return key.map(k -> cache.get(k, ignored -> renderer.get())).orElseGet(renderer);
+  }
+
+  /**
+   * Get the subject and content for the given template and context, rendering them on a miss.
+   *
+   * @param template The name of the template.
+   * @param context  The built template context.
+   * @param renderer The renderer to use when the subject or content is not cached.
+   * @return The cached or rendered subject and content.
+   */
+  public RenderedMessage getMessage(String template, Context context,
+      Supplier<RenderedMessage> renderer) {
+    Optional<String> subjectKey = buildKey(template, Set.of(SELECTOR_SUBJECT), context);
+    Optional<String> contentKey = buildKey(template, Set.of(SELECTOR_CONTENT), context);
+
+    if (subjectKey.isEmpty() || contentKey.isEmpty()) {
+      return renderer.get();
+    }
+
+    String subject = cache.getIfPresent(subjectKey.get());
+    String content = cache.getIfPresent(contentKey.get());
+
+    if (subject != null && content != null) {
+      return new RenderedMessage(subject, content);
+    }
+
+    RenderedMessage message = renderer.get();
+    cache.put(subjectKey.get(), message.subject());
+    cache.put(contentKey.get(), message.content());
+    return message;
+  }
+
+  /**
+   * Build the content-addressed key for the given template, selectors and context.
+   *
+   * @param template  The name of the template.
+   * @param selectors The selectors within the template.
+   * @param context   The built template context.
+   * @return The built key, or empty if the context contains values which can not be
+   *     canonicalized.
+   */
+  static Optional<String> buildKey(String template, Set<String> selectors, Context context) {
+    StringBuilder canonical = new StringBuilder();
+
+    for (String name : new TreeSet<>(context.getVariableNames())) {
+      appendCanonical(canonical, name);
+
+      if (!appendCanonical(canonical, context.getVariable(name))) {
+        return Optional.empty();
+      }
+    }
+
+    String selectorKey = selectors == null ? "" : String.join(",", new TreeSet<>(selectors));
+    return Optional.of(String.join(KEY_SEPARATOR, template, selectorKey, hash(canonical)));
+  }
+
+  /**
+   * Append the canonical form of a value, maps are sorted by key and scalars are tagged with their
+   * type and length so that different values can not share a canonical form.
+   *
+   * @param canonical The canonical form being built.
+   * @param value     The value to append.
+   * @return Whether the value could be canonicalized.
+   */
+  private static boolean appendCanonical(StringBuilder canonical, Object value) {
+    if (value == null) {
+      canonical.append('~');
+    } else if (value instanceof Map<?, ?> map) {
+      Map<String, Object> sorted = new TreeMap<>();
+      map.forEach((k, v) -> sorted.put(String.valueOf(k), v));
+      canonical.append('{');
+
+      for (Entry<String, Object> entry : sorted.entrySet()) {
+        appendCanonical(canonical, entry.getKey());
+
+        if (!appendCanonical(canonical, entry.getValue())) {
+          return false;
+        }
+      }
+
+      canonical.append('}');
+    } else if (value instanceof Collection<?> collection) {
+      canonical.append('[');
+
+      for (Object element : collection) {
+        if (!appendCanonical(canonical, element)) {
+          return false;
+        }
+      }
+
+      canonical.append(']');
+    } else if (value instanceof Object[] array) {
+      return appendCanonical(canonical, Arrays.asList(array));
+    } else if (value instanceof Date date) {
+      appendScalar(canonical, Date.class, String.valueOf(date.getTime()));
+    } else if (value instanceof Enum<?> enumValue) {
+      appendScalar(canonical, enumValue.getDeclaringClass(), enumValue.name());
+    } else if (value instanceof CharSequence || value instanceof Number
+        || value instanceof Boolean || value instanceof Character
+        || value instanceof TemporalAccessor || value instanceof ObjectId
+        || value instanceof UUID || value instanceof URI) {
+      appendScalar(canonical, value.getClass(), value.toString());
+    } else {
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Append a scalar value tagged with its type and length.
+   *
+   * @param canonical The canonical form being built.
+   * @param type      The type of the value.
+   * @param value     The string form of the value.
+   */
+  private static void appendScalar(StringBuilder canonical, Class<?> type, String value) {
+    canonical.append(type.getName()).append('#').append(value.length()).append('#').append(value);
+  }
+
+  /**
+   * Hash the canonical form using SHA-256.
+   *
+   * @param canonical The canonical form to hash.
+   * @return The hex encoded hash.
+   */
+  private static String hash(CharSequence canonical) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  }
+}
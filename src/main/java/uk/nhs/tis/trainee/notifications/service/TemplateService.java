@@ -21,6 +21,8 @@
 
 package uk.nhs.tis.trainee.notifications.service;
 
+import java.io.StringWriter;
+import java.io.Writer;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -29,6 +31,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
@@ -43,13 +46,31 @@ import uk.nhs.tis.trainee.notifications.model.TraineeType;
 @Service
 public class TemplateService {
 
+  private static final String MESSAGE_TEMPLATE = "fragments/message/v1.0.0";
+  private static final String MESSAGE_SELECTOR = "message";
+  private static final String MESSAGE_TEMPLATE_VARIABLE = "renderedMessageTemplate";
+  private static final String MESSAGE_BOUNDARY_VARIABLE = "renderedMessageBoundary";
+
+  private static final String IN_APP_TEMPLATE_PREFIX = MessageType.IN_APP.getTemplatePath() + "/";
+
   private final TemplateEngine templateEngine;
+  private final TemplateOutputCache outputCache;
   private final String timezone;
+  private final String messageBoundary;
 
-  public TemplateService(TemplateEngine templateEngine,
+  /**
+   * Create a service providing consistent template functionality.
+   *
+   * @param templateEngine The engine to process templates with.
+   * @param outputCache    The cache of in-app template output.
+   * @param timezone       The timezone to localize timestamps to.
+   */
+  public TemplateService(TemplateEngine templateEngine, TemplateOutputCache outputCache,
       @Value("${application.timezone}") String timezone) {
     this.templateEngine = templateEngine;
+    this.outputCache = outputCache;
     this.timezone = timezone;
+    messageBoundary = UUID.randomUUID().toString();
   }
 
   /**
@@ -128,7 +149,8 @@ public class TemplateService {
   }
 
   /**
-   * Process the given template, applying the selector and variables provided.
+   * Process the given template, applying the selector and variables provided. In-app output is
+   * cached, as the same message is often shared by many trainees.
    *
    * @param template  The name of the template to use.
    * @param selectors The selectors within the template.
@@ -136,7 +158,14 @@ public class TemplateService {
    * @return The processed template.
    */
   public String process(String template, Set<String> selectors, Map<String, Object> variables) {
-    return process(template, selectors, buildContext(variables));
+    Context context = buildContext(variables);
+
+    if (isInAppTemplate(template)) {
+      return outputCache.get(template, selectors, context,
+          () -> process(template, selectors, context));
+    }
+
+    return process(template, selectors, context);
   }
 
   /**
@@ -150,4 +179,82 @@ public class TemplateService {
   public String process(String template, Set<String> selectors, Context context) {
     return templateEngine.process(template, selectors, context);
   }
+
+  /**
+   * Process the subject and content of the given template in a single pass. In-app output is
+   * cached, as the same message is often shared by many trainees.
+   *
+   * @param template  The name of the template to use.
+   * @param variables The variables for placeholder replacement.
+   * @return The processed subject and content.
+   */
+  public RenderedMessage processMessage(String template, Map<String, Object> variables) {
+    Context context = buildContext(variables);
+
+    if (isInAppTemplate(template)) {
+      return outputCache.getMessage(template, context, () -> processMessage(template, context));
+    }
+
+    return processMessage(template, context);
+  }
+
+  /**
+   * Process the subject and content of the given template in a single pass.
+   *
+   * @param template The name of the template to use.
+   * @param context  The context to apply to the template.
+   * @return The processed subject and content.
+   */
+  public RenderedMessage processMessage(String template, Context context) {
+    StringWriter contentWriter = new StringWriter();
+    String subject = processMessage(template, context, contentWriter);
+    return new RenderedMessage(subject, contentWriter.toString());
+  }
+
+  /**
+   * Process the subject and content of the given template in a single pass, the fragments are
+   * rendered together through a wrapper template and split on a boundary unique to this service.
+   * The content is streamed to the given writer, rather than being built as a string.
+   *
+   * @param template      The name of the template to use.
+   * @param context       The context to apply to the template.
+   * @param contentWriter The writer to stream the processed content to.
+   * @return The processed subject.
+   */
+  public String processMessage(String template, Context context, Writer contentWriter) {
+    Context messageContext = new Context(context.getLocale());
+    context.getVariableNames().forEach(
+        name -> messageContext.setVariable(name, context.getVariable(name)));
+    messageContext.setVariable(MESSAGE_TEMPLATE_VARIABLE, template);
+    messageContext.setVariable(MESSAGE_BOUNDARY_VARIABLE, messageBoundary);
+
+    MessageSplittingWriter writer = new MessageSplittingWriter(messageBoundary, contentWriter);
+    templateEngine.process(MESSAGE_TEMPLATE, Set.of(MESSAGE_SELECTOR), messageContext, writer);
+
+    if (!writer.isBoundaryFound()) {
+      throw new IllegalStateException("Unable to split rendered message for " + template);
+    }
+
+    return writer.getSubject();
+  }
+
+  /**
+   * Whether the given template is an in-app template.
+   *
+   * @param template The name of the template.
+   * @return true if the template is for in-app notifications, else false.
+   */
+  private boolean isInAppTemplate(String template) {
+    return template != null && template.startsWith(IN_APP_TEMPLATE_PREFIX);
+  }
+
+  /**
+   * The subject and content of a processed template.
+   *
+   * @param subject The processed subject fragment.
+   * @param content The processed content fragment.
+   */
+  public record RenderedMessage(String subject, String content) {
+
+  }
 }
@@ -0,0 +1,174 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+import static uk.nhs.tis.trainee.notifications.model.MessageType.IN_APP;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+import org.thymeleaf.templateresolver.TemplateResolution;
+import uk.nhs.tis.trainee.notifications.config.TemplateVersionsProperties;
+import uk.nhs.tis.trainee.notifications.config.TemplateVersionsProperties.MessageTypeVersions;
+import uk.nhs.tis.trainee.notifications.model.NotificationType;
+
+/**
+ * A startup runner which resolves, parses and renders every configured template version, so that
+ * the first real render does not pay the parsing and cache-fill cost. Application runners complete
+ * before the application is marked as ready, so readiness stays down until warm-up completes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.template.warm-up.enabled", matchIfMissing = true)
+public class TemplateWarmer implements ApplicationRunner {
+
+  private final TemplateEngine templateEngine;
+  private final TemplateService templateService;
+  private final TemplateVersionsProperties templateVersions;
+  private final URI appDomain;
+  private final Timer warmUpTimer;
+
+  /**
+   * Create a template warmer.
+   *
+   * @param templateEngine   The template engine to resolve templates with.
+   * @param templateService  The template service to render templates with.
+   * @param templateVersions The configured template versions.
+   * @param appDomain        The application domain, used in the synthetic variables.
+   * @param meterRegistry    The registry to publish the warm-up duration to.
+   */
+  TemplateWarmer(TemplateEngine templateEngine, TemplateService templateService,
+      TemplateVersionsProperties templateVersions,
+      @Value("${application.domain}") URI appDomain, MeterRegistry meterRegistry) {
+    this.templateEngine = templateEngine;
+    this.templateService = templateService;
+    this.templateVersions = templateVersions;
+    this.appDomain = appDomain;
+    warmUpTimer = Timer.builder("notifications.template.warm-up")
+        .description("The time taken to warm up all configured templates.")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    long start = System.nanoTime();
+    List<String> templates = getConfiguredTemplates();
+
+    List<String> missing = templates.stream()
+        .filter(template -> !exists(template))
+        .toList();
+
+    if (!missing.isEmpty()) {
+      throw new IllegalStateException("Configured templates not found: " + missing);
+    }
+
+    Map<String, Object> variables = getSyntheticVariables();
+    int rendered = 0;
+
+    for (String template : templates) {
+      try {
+        templateService.process(template, null, variables);
+        rendered++;
+      } catch (RuntimeException e) {
+        // The template has been parsed and cached, the synthetic variables may not suit it.
+        log.warn("Unable to render template {} with synthetic variables.", template, e);
+      }
+    }
+
+    long duration = System.nanoTime() - start;
+    warmUpTimer.record(duration, TimeUnit.NANOSECONDS);
+    log.info("Warmed up {} templates ({} rendered) in {}ms.", templates.size(), rendered,
+        TimeUnit.NANOSECONDS.toMillis(duration));
+  }
+
+  /**
+   * Get the paths of every configured template version.
+   *
+   * @return The configured template paths.
+   */
+  private List<String> getConfiguredTemplates() {
+    List<String> templates = new ArrayList<>();
+
+    for (Map.Entry<NotificationType, MessageTypeVersions> entry :
+        templateVersions.getTemplateVersions().entrySet()) {
+      NotificationType notificationType = entry.getKey();
+      MessageTypeVersions versions = entry.getValue();
+
+      if (versions.email() != null) {
+        templates.add(templateService.getTemplatePath(EMAIL, notificationType, versions.email()));
+      }
+
+      if (versions.inApp() != null) {
+        templates.add(templateService.getTemplatePath(IN_APP, notificationType, versions.inApp()));
+      }
+    }
+
+    return templates;
+  }
+
+  /**
+   * Check whether a template can be resolved by any of the engine's resolvers.
+   *
+   * @param template The template to check.
+   * @return Whether the template exists.
+   */
+  private boolean exists(String template) {
+    for (ITemplateResolver resolver : templateEngine.getConfiguration().getTemplateResolvers()) {
+      TemplateResolution resolution = resolver.resolveTemplate(templateEngine.getConfiguration(),
+          null, template, null);
+
+      if (resolution != null && resolution.getTemplateResource().exists()) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /**
+   * Get a synthetic set of variables, covering the variables common to most templates.
+   *
+   * @return The synthetic template variables.
+   */
+  private Map<String, Object> getSyntheticVariables() {
+    return Map.of(
+        "domain", appDomain,
+        "familyName", "Warm-Up",
+        "givenName", "Template",
+        "hashedEmail", "00000000000000000000000000000000",
+        "originallySentOn", Instant.now());
+  }
+}
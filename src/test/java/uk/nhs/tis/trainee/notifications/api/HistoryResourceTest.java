@@ -25,8 +25,10 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static uk.nhs.tis.trainee.notifications.api.util.CacheHeaderUtil.createStrongEtag;
 import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.FAILED;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
@@ -43,6 +45,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -158,4 +161,23 @@ class HistoryResourceTest {
         .andExpect(content().contentType(MediaType.TEXT_HTML))
         .andExpect(content().string(message));
   }
+
+  @Test
+  void shouldReturnCacheHeadersWhenNotificationFound() throws Exception {
+    when(service.rebuildMessage(NOTIFICATION_ID)).thenReturn(Optional.of("<p>Message</p>"));
+
+    mockMvc.perform(get("/api/history/message/{notificationId}", NOTIFICATION_ID))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, createStrongEtag("<p>Message</p>")))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, immutable"));
+  }
+
+  @Test
+  void shouldReturnNotModifiedWhenEtagMatches() throws Exception {
+    when(service.rebuildMessage(NOTIFICATION_ID)).thenReturn(Optional.of("<p>Message</p>"));
+
+    mockMvc.perform(get("/api/history/message/{notificationId}", NOTIFICATION_ID)
+            .header(HttpHeaders.IF_NONE_MATCH, createStrongEtag("<p>Message</p>")))
+        .andExpect(status().isNotModified());
+  }
 }
@@ -0,0 +1,205 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.api;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.awspring.cloud.sqs.listener.MessageListenerContainerRegistry;
+import io.awspring.cloud.sqs.listener.SqsContainerOptions;
+import io.awspring.cloud.sqs.listener.SqsContainerOptionsBuilder;
+import io.awspring.cloud.sqs.listener.SqsMessageListenerContainer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import uk.nhs.tis.trainee.notifications.api.SqsListenerEndpoint.ListenerState;
+import uk.nhs.tis.trainee.notifications.service.SqsListenerCoordinator;
+
+class SqsListenerEndpointTest {
+
+  private static final String LISTENER_ID = "email-event";
+
+  private SqsListenerEndpoint endpoint;
+  private SqsListenerCoordinator coordinator;
+  private MessageListenerContainerRegistry registry;
+  private SqsMessageListenerContainer<?> container;
+
+  @BeforeEach
+  void setUp() {
+    registry = mock(MessageListenerContainerRegistry.class);
+    ObjectProvider<MessageListenerContainerRegistry> registryProvider = mock(ObjectProvider.class);
+    when(registryProvider.getIfAvailable()).thenReturn(registry);
+
+    container = mock(SqsMessageListenerContainer.class);
+    when(container.getId()).thenReturn(LISTENER_ID);
+    when(container.isRunning()).thenReturn(true);
+    when(container.getContainerOptions()).thenReturn(SqsContainerOptions.builder()
+        .maxConcurrentMessages(10)
+        .maxMessagesPerPoll(10)
+        .pollTimeout(Duration.ofSeconds(10))
+        .build());
+    doReturn(container).when(registry).getContainerById(LISTENER_ID);
+
+    coordinator = new SqsListenerCoordinator(registryProvider);
+    endpoint = new SqsListenerEndpoint(coordinator);
+  }
+
+  @Test
+  void shouldReturnEmptyListenersWhenRegistryNotAvailable() {
+    ObjectProvider<MessageListenerContainerRegistry> registryProvider = mock(ObjectProvider.class);
+    endpoint = new SqsListenerEndpoint(new SqsListenerCoordinator(registryProvider));
+
+    Map<String, ListenerState> listeners = endpoint.listeners();
+
+    assertThat("Unexpected listeners.", listeners, aMapWithSize(0));
+  }
+
+  @Test
+  void shouldReturnListenerStates() {
+    when(registry.getListenerContainers()).thenReturn(List.of(container));
+
+    Map<String, ListenerState> listeners = endpoint.listeners();
+
+    assertThat("Unexpected listeners.", listeners, aMapWithSize(1));
+    ListenerState state = listeners.get(LISTENER_ID);
+    assertThat("Unexpected running state.", state.running(), is(true));
+    assertThat("Unexpected paused state.", state.paused(), is(false));
+    assertThat("Unexpected max concurrent messages.", state.maxConcurrentMessages(), is(10));
+    assertThat("Unexpected max messages per poll.", state.maxMessagesPerPoll(), is(10));
+    assertThat("Unexpected poll timeout.", state.pollTimeout(), is(Duration.ofSeconds(10)));
+  }
+
+  @Test
+  void shouldReturnNullListenerStateWhenListenerNotFound() {
+    ListenerState state = endpoint.listener("unknown");
+
+    assertThat("Unexpected listener state.", state, nullValue());
+  }
+
+  @Test
+  void shouldReturnListenerStateWhenListenerFound() {
+    ListenerState state = endpoint.listener(LISTENER_ID);
+
+    assertThat("Unexpected max concurrent messages.", state.maxConcurrentMessages(), is(10));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenConcurrencyNotPositive() {
+    assertThrows(InvalidEndpointRequestException.class,
+        () -> endpoint.updateConcurrency(LISTENER_ID, 0));
+
+    verify(container, never()).configure(any());
+  }
+
+  @Test
+  void shouldReturnNullWhenUpdatingUnknownListener() {
+    ListenerState state = endpoint.updateConcurrency("unknown", 5);
+
+    assertThat("Unexpected listener state.", state, nullValue());
+  }
+
+  @Test
+  void shouldRestartRunningContainerWhenConcurrencyUpdated() {
+    endpoint.updateConcurrency(LISTENER_ID, 20);
+
+    InOrder inOrder = inOrder(container);
+    inOrder.verify(container).stop();
+    inOrder.verify(container).configure(any());
+    inOrder.verify(container).start();
+  }
+
+  @Test
+  void shouldNotStartStoppedContainerWhenConcurrencyUpdated() {
+    when(container.isRunning()).thenReturn(false);
+
+    endpoint.updateConcurrency(LISTENER_ID, 20);
+
+    verify(container).configure(any());
+    verify(container, never()).stop();
+    verify(container, never()).start();
+  }
+
+  @Test
+  void shouldNotStartPausedContainerWhenConcurrencyUpdated() {
+    when(registry.getListenerContainers()).thenReturn(List.of(container));
+    coordinator.pause("test", LISTENER_ID::equals);
+    when(container.isRunning()).thenReturn(false);
+
+    ListenerState state = endpoint.updateConcurrency(LISTENER_ID, 20);
+
+    verify(container).configure(any());
+    verify(container, never()).start();
+    assertThat("Unexpected paused state.", state.paused(), is(true));
+  }
+
+  @Test
+  void shouldUpdateMaxConcurrentMessages() {
+    endpoint.updateConcurrency(LISTENER_ID, 20);
+
+    SqsContainerOptions options = captureOptions();
+    assertThat("Unexpected max concurrent messages.", options.getMaxConcurrentMessages(),
+        is(20));
+    assertThat("Unexpected max messages per poll.", options.getMaxMessagesPerPoll(), is(10));
+  }
+
+  @Test
+  void shouldLimitMaxMessagesPerPollWhenConcurrencyReduced() {
+    endpoint.updateConcurrency(LISTENER_ID, 4);
+
+    SqsContainerOptions options = captureOptions();
+    assertThat("Unexpected max concurrent messages.", options.getMaxConcurrentMessages(), is(4));
+    assertThat("Unexpected max messages per poll.", options.getMaxMessagesPerPoll(), is(4));
+  }
+
+  /**
+   * Capture the container configuration and apply it to the original container options.
+   *
+   * @return The configured container options.
+   */
+  private SqsContainerOptions captureOptions() {
+    ArgumentCaptor<Consumer<SqsContainerOptionsBuilder>> captor = ArgumentCaptor.captor();
+    verify(container).configure(captor.capture());
+
+    SqsContainerOptionsBuilder builder = SqsContainerOptions.builder()
+        .maxConcurrentMessages(10)
+        .maxMessagesPerPoll(10);
+    captor.getValue().accept(builder);
+    return builder.build();
+  }
+}
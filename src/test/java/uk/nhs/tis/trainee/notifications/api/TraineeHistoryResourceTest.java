@@ -34,8 +34,10 @@ import static org.springframework.http.MediaType.TEXT_HTML;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static uk.nhs.tis.trainee.notifications.api.util.CacheHeaderUtil.createStrongEtag;
 import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
 import static uk.nhs.tis.trainee.notifications.model.MessageType.IN_APP;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.FAILED;
@@ -276,6 +278,47 @@ class TraineeHistoryResourceTest {
     verify(service).rebuildMessageFull(any(), any());
   }
 
+  @ParameterizedTest
+  @ValueSource(strings = "text/html")
+  @EmptySource
+  void shouldReturnCacheHeadersWhenMessageHtmlFound(String accept) throws Exception {
+    when(service.rebuildMessageContent(TRAINEE_ID, NOTIFICATION_ID)).thenReturn(
+        Optional.of("<p>Message</p>"));
+
+    mockMvc.perform(get("/api/history/trainee/message/{notificationId}", NOTIFICATION_ID)
+            .header(HttpHeaders.AUTHORIZATION, TestJwtUtil.generateTokenForTisId(TRAINEE_ID))
+            .header(HttpHeaders.ACCEPT, accept))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, createStrongEtag("<p>Message</p>")))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, immutable"));
+  }
+
+  @Test
+  void shouldReturnCacheHeadersWhenMessageJsonFound() throws Exception {
+    Instant sentAt = Instant.now().minusSeconds(60);
+    HistoryMessageDto message = new HistoryMessageDto("Subject", "<p>Message</p>", sentAt);
+    when(service.rebuildMessageFull(TRAINEE_ID, NOTIFICATION_ID)).thenReturn(Optional.of(message));
+
+    mockMvc.perform(get("/api/history/trainee/message/{notificationId}", NOTIFICATION_ID)
+            .header(HttpHeaders.AUTHORIZATION, TestJwtUtil.generateTokenForTisId(TRAINEE_ID))
+            .header(HttpHeaders.ACCEPT, APPLICATION_JSON_VALUE))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG,
+            createStrongEtag("Subject", "<p>Message</p>", sentAt)))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, immutable"));
+  }
+
+  @Test
+  void shouldReturnNotModifiedWhenMessageEtagMatches() throws Exception {
+    when(service.rebuildMessageContent(TRAINEE_ID, NOTIFICATION_ID)).thenReturn(
+        Optional.of("<p>Message</p>"));
+
+    mockMvc.perform(get("/api/history/trainee/message/{notificationId}", NOTIFICATION_ID)
+            .header(HttpHeaders.AUTHORIZATION, TestJwtUtil.generateTokenForTisId(TRAINEE_ID))
+            .header(HttpHeaders.IF_NONE_MATCH, createStrongEtag("<p>Message</p>")))
+        .andExpect(status().isNotModified());
+  }
+
   @ParameterizedTest
   @ValueSource(strings = {"archive", "mark-read", "mark-unread"})
   void shouldReturnBadRequestWhenUpdatingStatusWithoutToken(String path) throws Exception {
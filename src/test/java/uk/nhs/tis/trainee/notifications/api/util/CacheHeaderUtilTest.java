@@ -0,0 +1,64 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.api.util;
+
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CacheHeaderUtilTest {
+
+  @Test
+  void createStrongEtagShouldReturnQuotedTag() {
+    String etag = CacheHeaderUtil.createStrongEtag("message");
+
+    assertThat("Unexpected ETag prefix.", etag, startsWith("\""));
+    assertThat("Unexpected ETag suffix.", etag, endsWith("\""));
+  }
+
+  @Test
+  void createStrongEtagShouldReturnSameTagWhenPartsEqual() {
+    String etag1 = CacheHeaderUtil.createStrongEtag("subject", "content");
+    String etag2 = CacheHeaderUtil.createStrongEtag("subject", "content");
+
+    assertThat("Unexpected ETag.", etag1, is(etag2));
+  }
+
+  @Test
+  void createStrongEtagShouldReturnDifferentTagWhenPartsSplitDifferently() {
+    String etag1 = CacheHeaderUtil.createStrongEtag("sub", "jectcontent");
+    String etag2 = CacheHeaderUtil.createStrongEtag("subject", "content");
+
+    assertThat("Unexpected ETag.", etag1, not(etag2));
+  }
+
+  @Test
+  void privateImmutableShouldBuildPrivateImmutableCacheControl() {
+    String header = CacheHeaderUtil.privateImmutable().getHeaderValue();
+
+    assertThat("Unexpected cache control.", header, is("private, immutable"));
+  }
+}
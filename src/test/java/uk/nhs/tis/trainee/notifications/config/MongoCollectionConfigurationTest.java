@@ -24,8 +24,11 @@ package uk.nhs.tis.trainee.notifications.config;
 import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,7 +39,10 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.index.IndexDefinition;
 import org.springframework.data.mongodb.core.index.IndexOperations;
+import uk.nhs.tis.trainee.notifications.model.BulkEmailMessage;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
 import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.ScheduleSlot;
 
 class MongoCollectionConfigurationTest {
 
@@ -47,6 +53,7 @@ class MongoCollectionConfigurationTest {
   @BeforeEach
   void setUp() {
     template = mock(MongoTemplate.class);
+    when(template.indexOps(any(Class.class))).thenReturn(mock(IndexOperations.class));
     configuration = new MongoCollectionConfiguration(template);
   }
 
@@ -61,12 +68,65 @@ class MongoCollectionConfigurationTest {
     verify(indexOperations, atLeastOnce()).createIndex(indexCaptor.capture());
 
     List<IndexDefinition> indexes = indexCaptor.getAllValues();
-    assertThat("Unexpected number of indexes.", indexes.size(), is(1));
+    assertThat("Unexpected number of indexes.", indexes.size(), is(2));
 
     List<String> indexKeys = indexes.stream()
         .flatMap(i -> i.getIndexKeys().keySet().stream())
             .toList();
-    assertThat("Unexpected number of index keys.", indexKeys.size(), is(1));
-    assertThat("Unexpected index.", indexKeys, hasItems("recipient.id"));
+    assertThat("Unexpected number of index keys.", indexKeys.size(), is(3));
+    assertThat("Unexpected index.", indexKeys, hasItems("recipient.id", "status", "sentAt"));
+  }
+
+  @Test
+  void shouldInitExpiryIndexForScheduleSlotCollection() {
+    IndexOperations indexOperations = mock(IndexOperations.class);
+    when(template.indexOps(ScheduleSlot.class)).thenReturn(indexOperations);
+
+    configuration.initIndexes();
+
+    ArgumentCaptor<IndexDefinition> indexCaptor = ArgumentCaptor.captor();
+    verify(indexOperations).createIndex(indexCaptor.capture());
+
+    IndexDefinition index = indexCaptor.getValue();
+    assertThat("Unexpected index.", index.getIndexKeys().keySet(), hasItems("expiresAt"));
+    assertThat("Unexpected index expiry.", index.getIndexOptions().get("expireAfterSeconds"),
+        is(0L));
+  }
+
+  @Test
+  void shouldInitExpiryIndexForBulkEmailMessageCollection() {
+    IndexOperations indexOperations = mock(IndexOperations.class);
+    when(template.indexOps(BulkEmailMessage.class)).thenReturn(indexOperations);
+
+    configuration.initIndexes();
+
+    ArgumentCaptor<IndexDefinition> indexCaptor = ArgumentCaptor.captor();
+    verify(indexOperations).createIndex(indexCaptor.capture());
+
+    IndexDefinition index = indexCaptor.getValue();
+    assertThat("Unexpected index.", index.getIndexKeys().keySet(), hasItems("expiresAt"));
+    assertThat("Unexpected index expiry.", index.getIndexOptions().get("expireAfterSeconds"),
+        is(0L));
+  }
+
+  @Test
+  void shouldInitIndexesForEventOutboxCollection() {
+    IndexOperations indexOperations = mock(IndexOperations.class);
+    when(template.indexOps(EventOutboxEntry.class)).thenReturn(indexOperations);
+
+    configuration.initIndexes();
+
+    ArgumentCaptor<IndexDefinition> indexCaptor = ArgumentCaptor.captor();
+    verify(indexOperations, times(2)).createIndex(indexCaptor.capture());
+
+    List<IndexDefinition> indexes = indexCaptor.getAllValues();
+    assertThat("Unexpected undelivered index.", indexes.get(0).getIndexKeys().keySet(),
+        contains("deliveredAt", "createdAt"));
+
+    IndexDefinition expiryIndex = indexes.get(1);
+    assertThat("Unexpected expiry index.", expiryIndex.getIndexKeys().keySet(),
+        hasItems("expiresAt"));
+    assertThat("Unexpected index expiry.",
+        expiryIndex.getIndexOptions().get("expireAfterSeconds"), is(0L));
   }
 }
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.config;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContainingInAnyOrder;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.mockito.Mockito.mock;
+
+import io.awspring.cloud.sqs.config.SqsMessageListenerContainerFactory;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import uk.nhs.tis.trainee.notifications.config.SqsListenerProperties.ListenerProperties;
+
+class SqsListenerContainerFactoryRegistrarTest {
+
+  private MockEnvironment environment;
+  private DefaultListableBeanFactory beanFactory;
+
+  @BeforeEach
+  void setUp() {
+    environment = new MockEnvironment()
+        .withProperty("application.sqs.defaults.max-concurrent-messages", "10")
+        .withProperty("application.sqs.listeners.email-event.max-concurrent-messages", "20")
+        .withProperty("application.sqs.listeners.placement-updated.max-concurrent-messages", "5")
+        .withProperty("application.sqs.listeners.placement-updated.max-messages-per-poll", "5");
+    beanFactory = new DefaultListableBeanFactory();
+    beanFactory.registerSingleton("sqsAsyncClient", mock(SqsAsyncClient.class));
+  }
+
+  @Test
+  void shouldNameFactoryByListenerId() {
+    String name = SqsListenerContainerFactoryRegistrar.getFactoryName("email-event");
+
+    assertThat("Unexpected factory name.", name, is("email-event-container-factory"));
+  }
+
+  @Test
+  void shouldRegisterFactoryForEachListener() {
+    SqsListenerContainerFactoryRegistrar registrar
+        = new SqsListenerContainerFactoryRegistrar(environment);
+
+    registrar.postProcessBeanDefinitionRegistry(beanFactory);
+    registrar.postProcessBeanFactory(beanFactory);
+
+    assertThat("Unexpected factories.",
+        beanFactory.getBeanNamesForType(SqsMessageListenerContainerFactory.class),
+        arrayContainingInAnyOrder("email-event-container-factory",
+            "placement-updated-container-factory"));
+    assertThat("Unexpected factory.", beanFactory.getBean("email-event-container-factory"),
+        instanceOf(SqsMessageListenerContainerFactory.class));
+  }
+
+  @Test
+  void shouldNotRegisterFactoriesWhenNoListenersConfigured() {
+    SqsListenerContainerFactoryRegistrar registrar
+        = new SqsListenerContainerFactoryRegistrar(new MockEnvironment());
+
+    registrar.postProcessBeanDefinitionRegistry(beanFactory);
+
+    assertThat("Unexpected factories.",
+        beanFactory.getBeanNamesForType(SqsMessageListenerContainerFactory.class), emptyArray());
+  }
+
+  @Test
+  void shouldCreateFactoryWithListenerProperties() {
+    ListenerProperties listener = new ListenerProperties(5, 5, Duration.ofSeconds(20),
+        Duration.ofMinutes(5), null);
+
+    SqsMessageListenerContainerFactory<Object> factory
+        = SqsListenerContainerFactoryRegistrar.createFactory(mock(SqsAsyncClient.class),
+        listener);
+
+    assertThat("Unexpected factory.", factory, notNullValue());
+  }
+}
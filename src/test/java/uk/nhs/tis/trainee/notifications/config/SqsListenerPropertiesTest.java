@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.config;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.awspring.cloud.sqs.listener.acknowledgement.handler.AcknowledgementMode;
+import java.time.Duration;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import uk.nhs.tis.trainee.notifications.config.SqsListenerProperties.ListenerProperties;
+
+class SqsListenerPropertiesTest {
+
+  @Test
+  void shouldUseListenerPropertiesWhenSet() {
+    ListenerProperties defaults = new ListenerProperties(10, 10, Duration.ofSeconds(10),
+        Duration.ofSeconds(30), AcknowledgementMode.ON_SUCCESS);
+    ListenerProperties listener = new ListenerProperties(5, 5, Duration.ofSeconds(20),
+        Duration.ofMinutes(5), AcknowledgementMode.ALWAYS);
+    SqsListenerProperties properties = new SqsListenerProperties(defaults,
+        Map.of("placement-updated", listener));
+
+    ListenerProperties resolved = properties.getListener("placement-updated");
+
+    assertThat("Unexpected resolved properties.", resolved, is(listener));
+  }
+
+  @Test
+  void shouldUseDefaultPropertiesWhenListenerPropertiesNotSet() {
+    ListenerProperties defaults = new ListenerProperties(10, 10, Duration.ofSeconds(10),
+        Duration.ofSeconds(30), AcknowledgementMode.ON_SUCCESS);
+    ListenerProperties listener = new ListenerProperties(20, null, null, null, null);
+    SqsListenerProperties properties = new SqsListenerProperties(defaults,
+        Map.of("email-event", listener));
+
+    ListenerProperties resolved = properties.getListener("email-event");
+
+    assertThat("Unexpected max concurrent messages.", resolved.maxConcurrentMessages(), is(20));
+    assertThat("Unexpected max messages per poll.", resolved.maxMessagesPerPoll(), is(10));
+    assertThat("Unexpected poll timeout.", resolved.pollTimeout(), is(Duration.ofSeconds(10)));
+    assertThat("Unexpected message visibility.", resolved.messageVisibility(),
+        is(Duration.ofSeconds(30)));
+    assertThat("Unexpected acknowledgement mode.", resolved.acknowledgementMode(),
+        is(AcknowledgementMode.ON_SUCCESS));
+  }
+
+  @Test
+  void shouldUseDefaultPropertiesWhenListenerNotConfigured() {
+    ListenerProperties defaults = new ListenerProperties(10, 10, null, null, null);
+    SqsListenerProperties properties = new SqsListenerProperties(defaults, null);
+
+    ListenerProperties resolved = properties.getListener("email-event");
+
+    assertThat("Unexpected resolved properties.", resolved, is(defaults));
+  }
+
+  @Test
+  void shouldLeaveUnsetWhenNeitherListenerNorDefaultSet() {
+    SqsListenerProperties properties = new SqsListenerProperties(null, null);
+
+    ListenerProperties resolved = properties.getListener("email-event");
+
+    assertThat("Unexpected max concurrent messages.", resolved.maxConcurrentMessages(),
+        nullValue());
+    assertThat("Unexpected poll timeout.", resolved.pollTimeout(), nullValue());
+  }
+}
@@ -52,4 +52,18 @@ class TemplateVersionPropertiesTest {
     assertEquals("1.1.0", "1.1.0", inAppVersion.get());
 
   }
+
+  @Test
+  void testGetTemplateVersions() {
+    TemplateVersionsProperties.MessageTypeVersions versions =
+        new TemplateVersionsProperties.MessageTypeVersions("1.0.0", "1.1.0");
+    TemplateVersionsProperties properties = new TemplateVersionsProperties(
+        Map.of("programme-created", versions));
+
+    Map<NotificationType, TemplateVersionsProperties.MessageTypeVersions> allVersions =
+        properties.getTemplateVersions();
+    assertEquals("Unexpected template version count.", 1, allVersions.size());
+    assertEquals("Unexpected template versions.", versions,
+        allVersions.get(NotificationType.PROGRAMME_CREATED));
+  }
 }
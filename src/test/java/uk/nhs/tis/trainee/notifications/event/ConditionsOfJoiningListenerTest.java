@@ -21,13 +21,13 @@
 
 package uk.nhs.tis.trainee.notifications.event;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -40,6 +40,8 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -72,13 +74,14 @@ class ConditionsOfJoiningListenerTest {
   void setUp() {
     historyService = mock(HistoryService.class);
     emailService = mock(EmailService.class);
+    when(emailService.sendMessageToExistingUserAsync(any(), any(), any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
     listener = new ConditionsOfJoiningListener(historyService, emailService, VERSION);
   }
 
   @ParameterizedTest
   @EnumSource(MessageType.class)
-  void shouldSkipCojPublishedWhenCojConfirmationSent(MessageType messageType)
-      throws MessagingException {
+  void shouldSkipCojPublishedWhenCojConfirmationSent(MessageType messageType) {
     StoredFile pdf = new StoredFile("my-bucket", "my-key.pdf");
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), pdf);
@@ -96,8 +99,7 @@ class ConditionsOfJoiningListenerTest {
 
   @ParameterizedTest
   @EnumSource(value = NotificationType.class, mode = Mode.EXCLUDE, names = "COJ_CONFIRMATION")
-  void shouldNotSkipCojPublishedWhenNoPreviousCojConfirmation(NotificationType notificationType)
-      throws MessagingException {
+  void shouldNotSkipCojPublishedWhenNoPreviousCojConfirmation(NotificationType notificationType) {
     StoredFile pdf = new StoredFile("my-bucket", "my-key.pdf");
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), pdf);
@@ -110,13 +112,13 @@ class ConditionsOfJoiningListenerTest {
 
     listener.handleConditionsOfJoiningPublished(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(), any(), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(), any(), any(), any());
   }
 
   @ParameterizedTest
   @EnumSource(value = NotificationType.class, mode = Mode.EXCLUDE, names = "COJ_CONFIRMATION")
   void shouldNotSkipCojPublishedWhenPreviousCojConfirmationHasNoTisReference(
-      NotificationType notificationType) throws MessagingException {
+      NotificationType notificationType) {
     StoredFile pdf = new StoredFile("my-bucket", "my-key.pdf");
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), pdf);
@@ -132,13 +134,13 @@ class ConditionsOfJoiningListenerTest {
 
     listener.handleConditionsOfJoiningPublished(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(), any(), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(), any(), any(), any());
   }
 
   @ParameterizedTest
   @EnumSource(value = NotificationType.class, mode = Mode.EXCLUDE, names = "COJ_CONFIRMATION")
   void shouldNotSkipCojPublishedWhenPreviousCojConfirmationIsDifferentPm(
-      NotificationType notificationType) throws MessagingException {
+      NotificationType notificationType) {
     StoredFile pdf = new StoredFile("my-bucket", "my-key.pdf");
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), pdf);
@@ -156,55 +158,58 @@ class ConditionsOfJoiningListenerTest {
 
     listener.handleConditionsOfJoiningPublished(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(), any(), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(), any(), any(), any());
   }
 
   @Test
-  void shouldThrowExceptionWhenCojPublishedAndSendingFails() throws MessagingException {
-    doThrow(MessagingException.class).when(emailService)
-        .sendMessageToExistingUser(any(), any(), any(), any(), any(), any());
+  void shouldFailWhenCojPublishedAndSendingFails() {
+    when(emailService.sendMessageToExistingUserAsync(any(), any(), any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.failedFuture(new MessagingException()));
 
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), null);
 
-    assertThrows(MessagingException.class,
-        () -> listener.handleConditionsOfJoiningPublished(event));
+    CompletableFuture<Void> future = listener.handleConditionsOfJoiningPublished(event);
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertThat("Unexpected cause.", exception.getCause(), instanceOf(MessagingException.class));
   }
 
   @Test
-  void shouldSetTraineeIdWhenCojPublished() throws MessagingException {
+  void shouldSetTraineeIdWhenCojPublished() {
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), null);
 
     listener.handleConditionsOfJoiningPublished(event);
 
-    verify(emailService).sendMessageToExistingUser(eq(PERSON_ID), any(), any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(eq(PERSON_ID), any(), any(), any(), any(),
         any());
   }
 
   @Test
-  void shouldSetNotificationTypeWhenCojPublished() throws MessagingException {
+  void shouldSetNotificationTypeWhenCojPublished() {
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), null);
 
     listener.handleConditionsOfJoiningPublished(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), eq(COJ_CONFIRMATION), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), eq(COJ_CONFIRMATION), any(), any(),
         any(), any());
   }
 
   @Test
-  void shouldSetNotificationVersionWhenCojPublished() throws MessagingException {
+  void shouldSetNotificationVersionWhenCojPublished() {
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), null);
 
     listener.handleConditionsOfJoiningPublished(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), any(), eq(VERSION), any(), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), eq(VERSION), any(), any(),
+        any());
   }
 
   @Test
-  void shouldSetTisReferenceWhenCojPublished() throws MessagingException {
+  void shouldSetTisReferenceWhenCojPublished() {
     StoredFile pdf = new StoredFile("my-bucket", "my-key.pdf");
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), pdf);
@@ -212,7 +217,7 @@ class ConditionsOfJoiningListenerTest {
     listener.handleConditionsOfJoiningPublished(event);
 
     ArgumentCaptor<TisReferenceInfo> referenceCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(), any(),
         referenceCaptor.capture(), any());
 
     TisReferenceInfo tisReference = referenceCaptor.getValue();
@@ -222,24 +227,24 @@ class ConditionsOfJoiningListenerTest {
   }
 
   @Test
-  void shouldSetPdfWhenCojPublished() throws MessagingException {
+  void shouldSetPdfWhenCojPublished() {
     StoredFile pdf = new StoredFile("my-bucket", "my-key.pdf");
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), pdf);
 
     listener.handleConditionsOfJoiningPublished(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(), any(), any(), eq(pdf));
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(), any(), any(), eq(pdf));
   }
 
   @Test
-  void shouldNotIncludeSyncedAtWhenNullCojPublished() throws MessagingException {
+  void shouldNotIncludeSyncedAtWhenNullCojPublished() {
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID, null, null);
 
     listener.handleConditionsOfJoiningPublished(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -247,14 +252,14 @@ class ConditionsOfJoiningListenerTest {
   }
 
   @Test
-  void shouldNotIncludeSyncedAtWhenCojPublishedWithNullSyncedAt() throws MessagingException {
+  void shouldNotIncludeSyncedAtWhenCojPublishedWithNullSyncedAt() {
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(null), null);
 
     listener.handleConditionsOfJoiningPublished(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -262,14 +267,14 @@ class ConditionsOfJoiningListenerTest {
   }
 
   @Test
-  void shouldIncludeSyncedAtWhenCojPublishedWithValidSyncedAt() throws MessagingException {
+  void shouldIncludeSyncedAtWhenCojPublishedWithValidSyncedAt() {
     CojPublishedEvent event = new CojPublishedEvent(PERSON_ID, PROGRAMME_MEMBERSHIP_ID,
         new ConditionsOfJoining(SYNCED_AT), null);
 
     listener.handleConditionsOfJoiningPublished(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -24,7 +24,9 @@ package uk.nhs.tis.trainee.notifications.event;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -34,6 +36,7 @@ import uk.nhs.tis.trainee.notifications.dto.ContactDetailsEvent;
 import uk.nhs.tis.trainee.notifications.dto.RecordDto;
 import uk.nhs.tis.trainee.notifications.mapper.ContactDetailsMapper;
 import uk.nhs.tis.trainee.notifications.service.ContactDetailsService;
+import uk.nhs.tis.trainee.notifications.service.EventDeduplicationService;
 
 class ContactDetailsListenerTest {
 
@@ -43,12 +46,14 @@ class ContactDetailsListenerTest {
   private ContactDetailsListener listener;
   private ContactDetailsService contactDetailsService;
   private ContactDetailsMapper mapper;
+  private EventDeduplicationService deduplicationService;
 
   @BeforeEach
   void setUp() {
     contactDetailsService = mock(ContactDetailsService.class);
     mapper = mock(ContactDetailsMapper.class);
-    listener = new ContactDetailsListener(contactDetailsService, mapper);
+    deduplicationService = mock(EventDeduplicationService.class);
+    listener = new ContactDetailsListener(contactDetailsService, mapper, deduplicationService);
   }
 
   @Test
@@ -75,6 +80,20 @@ class ContactDetailsListenerTest {
     listener.handleUpdate(event);
 
     verify(contactDetailsService).updateContactDetails(any());
+    verify(deduplicationService).recordProcessed("contact-details-updated", TIS_ID,
+        event.recrd().getData());
+  }
+
+  @Test
+  void shouldNotUpdateContactDetailsWhenDuplicate() {
+    ContactDetailsEvent event = buildContactDetailsEvent();
+    when(deduplicationService.isDuplicate("contact-details-updated", TIS_ID,
+        event.recrd().getData())).thenReturn(true);
+
+    listener.handleUpdate(event);
+
+    verify(contactDetailsService, never()).updateContactDetails(any());
+    verify(deduplicationService, never()).recordProcessed(any(), any(), any());
   }
 
   /**
@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.event;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.FAILED;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
+
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
+import uk.nhs.tis.trainee.notifications.dto.EmailEvent;
+import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Bounce;
+import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Mail;
+import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Mail.MailHeader;
+import uk.nhs.tis.trainee.notifications.model.BulkEmailMessage;
+import uk.nhs.tis.trainee.notifications.model.HistoryStatusUpdate;
+import uk.nhs.tis.trainee.notifications.repository.BulkEmailMessageRepository;
+import uk.nhs.tis.trainee.notifications.service.HistoryService;
+
+class EmailBatchListenerTest {
+
+  private static final ObjectId NOTIFICATION_ID_1 = ObjectId.get();
+  private static final ObjectId NOTIFICATION_ID_2 = ObjectId.get();
+  private static final String MESSAGE_ID = "message-id";
+  private static final Instant TIMESTAMP = Instant.now();
+
+  private EmailBatchListener listener;
+  private HistoryService historyService;
+  private BulkEmailMessageRepository bulkEmailMessageRepository;
+  private BatchAcknowledgement<EmailEvent> acknowledgement;
+
+  @BeforeEach
+  void setUp() {
+    historyService = mock(HistoryService.class);
+    bulkEmailMessageRepository = mock(BulkEmailMessageRepository.class);
+    acknowledgement = mock(BatchAcknowledgement.class);
+    listener = new EmailBatchListener(historyService, bulkEmailMessageRepository);
+  }
+
+  @Test
+  void shouldUpdateStatusesTogetherWhenNotificationIdHeaders() {
+    Message<EmailEvent> message1 = createMessage(NOTIFICATION_ID_1, null, null);
+    Message<EmailEvent> message2 = createMessage(NOTIFICATION_ID_2, null,
+        new Bounce("type1", "type2"));
+
+    listener.handleEmailEvents(List.of(message1, message2), acknowledgement);
+
+    ArgumentCaptor<List<HistoryStatusUpdate>> updatesCaptor = ArgumentCaptor.captor();
+    verify(historyService).updateStatusesIfNewer(updatesCaptor.capture());
+    assertThat("Unexpected updates.", updatesCaptor.getValue(), containsInAnyOrder(
+        new HistoryStatusUpdate(NOTIFICATION_ID_1, SENT, null, TIMESTAMP),
+        new HistoryStatusUpdate(NOTIFICATION_ID_2, FAILED, "Bounce: type1 - type2", TIMESTAMP)));
+
+    verify(bulkEmailMessageRepository, never()).findAllById(any());
+    verify(acknowledgement).acknowledge(List.of(message1, message2));
+  }
+
+  @Test
+  void shouldFindBulkNotificationIdsTogetherWhenNoNotificationIdHeader() {
+    when(bulkEmailMessageRepository.findAllById(Set.of(MESSAGE_ID))).thenReturn(
+        List.of(new BulkEmailMessage(MESSAGE_ID, NOTIFICATION_ID_2, TIMESTAMP)));
+
+    Message<EmailEvent> message1 = createMessage(NOTIFICATION_ID_1, MESSAGE_ID + "-other", null);
+    Message<EmailEvent> message2 = createMessage(null, MESSAGE_ID, null);
+
+    listener.handleEmailEvents(List.of(message1, message2), acknowledgement);
+
+    ArgumentCaptor<List<HistoryStatusUpdate>> updatesCaptor = ArgumentCaptor.captor();
+    verify(historyService).updateStatusesIfNewer(updatesCaptor.capture());
+    assertThat("Unexpected updates.", updatesCaptor.getValue(), containsInAnyOrder(
+        new HistoryStatusUpdate(NOTIFICATION_ID_1, SENT, null, TIMESTAMP),
+        new HistoryStatusUpdate(NOTIFICATION_ID_2, SENT, null, TIMESTAMP)));
+
+    verify(acknowledgement).acknowledge(List.of(message1, message2));
+  }
+
+  @Test
+  void shouldNotAcknowledgeEventsWithoutNotificationId() {
+    when(bulkEmailMessageRepository.findAllById(Set.of(MESSAGE_ID))).thenReturn(List.of());
+
+    Message<EmailEvent> message1 = createMessage(NOTIFICATION_ID_1, null, null);
+    Message<EmailEvent> message2 = createMessage(null, MESSAGE_ID, null);
+
+    listener.handleEmailEvents(List.of(message1, message2), acknowledgement);
+
+    verify(historyService).updateStatusesIfNewer(
+        List.of(new HistoryStatusUpdate(NOTIFICATION_ID_1, SENT, null, TIMESTAMP)));
+    verify(acknowledgement).acknowledge(List.of(message1));
+  }
+
+  @Test
+  void shouldUpdateStatusIndividuallyWhenTimestampMissing() {
+    Mail mail = new Mail(null, null,
+        List.of(new MailHeader("NotificationId", NOTIFICATION_ID_1.toString())));
+    Message<EmailEvent> message = new GenericMessage<>(
+        new EmailEvent("Delivery", mail, null, null));
+
+    listener.handleEmailEvents(List.of(message), acknowledgement);
+
+    verify(historyService).updateStatus(NOTIFICATION_ID_1.toString(), SENT, null, null);
+    verify(historyService).updateStatusesIfNewer(List.of());
+    verify(acknowledgement).acknowledge(List.of(message));
+  }
+
+  /**
+   * Create an email event message.
+   *
+   * @param notificationId The notification ID header value, or null to omit the header.
+   * @param messageId      The SES message ID.
+   * @param bounce         The bounce details, or null for a delivery event.
+   * @return The created message.
+   */
+  private Message<EmailEvent> createMessage(ObjectId notificationId, String messageId,
+      Bounce bounce) {
+    List<MailHeader> headers = notificationId == null ? List.of()
+        : List.of(new MailHeader("NotificationId", notificationId.toString()));
+    Mail mail = new Mail(TIMESTAMP, messageId, headers);
+    String eventType = bounce == null ? "Delivery" : "Bounce";
+    return new GenericMessage<>(new EmailEvent(eventType, mail, bounce, null));
+  }
+}
@@ -24,11 +24,15 @@ package uk.nhs.tis.trainee.notifications.event;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.FAILED;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -38,25 +42,30 @@ import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Bounce;
 import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Complaint;
 import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Mail;
 import uk.nhs.tis.trainee.notifications.dto.EmailEvent.Mail.MailHeader;
+import uk.nhs.tis.trainee.notifications.model.BulkEmailMessage;
+import uk.nhs.tis.trainee.notifications.repository.BulkEmailMessageRepository;
 import uk.nhs.tis.trainee.notifications.service.HistoryService;
 
 class EmailListenerTest {
 
   private static final String NOTIFICATION_ID = "40";
+  private static final String MESSAGE_ID = "message-id";
   private static final Instant TIMESTAMP = Instant.now();
 
   private EmailListener listener;
   private HistoryService historyService;
+  private BulkEmailMessageRepository bulkEmailMessageRepository;
 
   @BeforeEach
   void setUp() {
     historyService = mock(HistoryService.class);
-    listener = new EmailListener(historyService);
+    bulkEmailMessageRepository = mock(BulkEmailMessageRepository.class);
+    listener = new EmailListener(historyService, bulkEmailMessageRepository);
   }
 
   @Test
   void shouldThrowExceptionHandlingFailureWhenNoNotificationId() {
-    Mail mail = new Mail(null, List.of());
+    Mail mail = new Mail(null, null, List.of());
     EmailEvent event = new EmailEvent("bounce", mail, null, null);
 
     assertThrows(IllegalArgumentException.class, () -> listener.handleEmailEvent(event));
@@ -64,7 +73,7 @@ class EmailListenerTest {
 
   @Test
   void shouldHandleEmailEventWhenBounceEvent() {
-    Mail mail = new Mail(null, List.of(new MailHeader("NotificationId", NOTIFICATION_ID)));
+    Mail mail = new Mail(null, null, List.of(new MailHeader("NotificationId", NOTIFICATION_ID)));
     Bounce bounce = new Bounce("type1", "type2");
     EmailEvent event = new EmailEvent("Bounce", mail, bounce, null);
 
@@ -81,7 +90,8 @@ class EmailListenerTest {
       """)
   void shouldHandleEmailEventWhenComplaintEvent(String subType, String feedbackType,
       String message) {
-    Mail mail = new Mail(TIMESTAMP, List.of(new MailHeader("NotificationId", NOTIFICATION_ID)));
+    Mail mail = new Mail(TIMESTAMP, null,
+        List.of(new MailHeader("NotificationId", NOTIFICATION_ID)));
     Complaint complaint = new Complaint(subType, feedbackType);
     EmailEvent event = new EmailEvent("Complaint", mail, null, complaint);
 
@@ -92,7 +102,8 @@ class EmailListenerTest {
 
   @Test
   void shouldHandleEmailEventWhenDeliveryEvent() {
-    Mail mail = new Mail(TIMESTAMP, List.of(new MailHeader("NotificationId", NOTIFICATION_ID)));
+    Mail mail = new Mail(TIMESTAMP, null,
+        List.of(new MailHeader("NotificationId", NOTIFICATION_ID)));
     EmailEvent event = new EmailEvent("Delivery", mail, null, null);
 
     listener.handleEmailEvent(event);
@@ -102,11 +113,47 @@ class EmailListenerTest {
 
   @Test
   void shouldHandleEmailEventWhenTimestampMissing() {
-    Mail mail = new Mail(null, List.of(new MailHeader("NotificationId", NOTIFICATION_ID)));
+    Mail mail = new Mail(null, null, List.of(new MailHeader("NotificationId", NOTIFICATION_ID)));
     EmailEvent event = new EmailEvent("Delivery", mail, null, null);
 
     listener.handleEmailEvent(event);
 
     verify(historyService).updateStatus(NOTIFICATION_ID, SENT, null, null);
   }
+
+  @Test
+  void shouldHandleEmailEventUsingBulkMessageIdWhenNoNotificationIdHeader() {
+    ObjectId notificationId = ObjectId.get();
+    when(bulkEmailMessageRepository.findById(MESSAGE_ID)).thenReturn(
+        Optional.of(new BulkEmailMessage(MESSAGE_ID, notificationId, TIMESTAMP)));
+
+    Mail mail = new Mail(TIMESTAMP, MESSAGE_ID, List.of());
+    EmailEvent event = new EmailEvent("Delivery", mail, null, null);
+
+    listener.handleEmailEvent(event);
+
+    verify(historyService).updateStatus(notificationId.toString(), SENT, null, TIMESTAMP);
+  }
+
+  @Test
+  void shouldPreferNotificationIdHeaderOverBulkMessageId() {
+    Mail mail = new Mail(TIMESTAMP, MESSAGE_ID,
+        List.of(new MailHeader("NotificationId", NOTIFICATION_ID)));
+    EmailEvent event = new EmailEvent("Delivery", mail, null, null);
+
+    listener.handleEmailEvent(event);
+
+    verify(historyService).updateStatus(NOTIFICATION_ID, SENT, null, TIMESTAMP);
+    verifyNoInteractions(bulkEmailMessageRepository);
+  }
+
+  @Test
+  void shouldThrowExceptionHandlingEventWhenBulkMessageIdNotFound() {
+    when(bulkEmailMessageRepository.findById(MESSAGE_ID)).thenReturn(Optional.empty());
+
+    Mail mail = new Mail(TIMESTAMP, MESSAGE_ID, List.of());
+    EmailEvent event = new EmailEvent("Delivery", mail, null, null);
+
+    assertThrows(IllegalArgumentException.class, () -> listener.handleEmailEvent(event));
+  }
 }
@@ -28,7 +28,6 @@ import static org.hamcrest.CoreMatchers.startsWith;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -39,13 +38,13 @@ import static org.springframework.http.MediaType.MULTIPART_RELATED_VALUE;
 import static org.springframework.http.MediaType.TEXT_HTML_VALUE;
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.FORM_UPDATED;
 
-import io.awspring.cloud.s3.S3Resource;
-import io.awspring.cloud.s3.S3Template;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.activation.DataHandler;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Session;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.MimeMultipart;
+import jakarta.mail.util.ByteArrayDataSource;
 import java.io.ByteArrayInputStream;
 import java.net.URI;
 import java.time.Instant;
@@ -81,12 +80,18 @@ import uk.nhs.tis.trainee.notifications.model.History;
 import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
 import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
 import uk.nhs.tis.trainee.notifications.model.MessageType;
+import uk.nhs.tis.trainee.notifications.service.AttachmentCache;
+import uk.nhs.tis.trainee.notifications.service.EmailPipeline;
 import uk.nhs.tis.trainee.notifications.service.EmailService;
 import uk.nhs.tis.trainee.notifications.service.HistoryService;
+import uk.nhs.tis.trainee.notifications.service.SendRateGovernor;
+import uk.nhs.tis.trainee.notifications.service.TemplateOutputCache;
 import uk.nhs.tis.trainee.notifications.service.TemplateService;
 import uk.nhs.tis.trainee.notifications.service.UserAccountService;
 
-@SpringBootTest(classes = {FormListener.class, EmailService.class, TemplateService.class})
+@SpringBootTest(classes = {FormListener.class, EmailService.class, EmailPipeline.class,
+    TemplateService.class, TemplateOutputCache.class, SendRateGovernor.class,
+    SimpleMeterRegistry.class})
 @ActiveProfiles("test")
 @ImportAutoConfiguration(ThymeleafAutoConfiguration.class)
 class FormListenerIntegrationTest {
@@ -133,7 +138,7 @@ class FormListenerIntegrationTest {
   private HistoryService historyService;
 
   @MockitoBean
-  private S3Template s3Template;
+  private AttachmentCache attachmentCache;
 
   @Autowired
   private EmailService emailService;
@@ -219,11 +224,11 @@ class FormListenerIntegrationTest {
   @EnumSource(value = FormType.class)
   void shouldSendMultipartFormSubmittedNotificationWhenPdfAvailable(FormType formType)
       throws Exception {
-    S3Resource s3Resource = mock(S3Resource.class);
-    when(s3Resource.getFilename()).thenReturn("file.pdf");
-    when(s3Resource.contentType()).thenReturn(APPLICATION_PDF_VALUE);
-    when(s3Resource.getContentAsByteArray()).thenReturn("test".getBytes());
-    when(s3Template.download("my-bucket", "my-key.pdf")).thenReturn(s3Resource);
+    ByteArrayDataSource dataSource = new ByteArrayDataSource("test".getBytes(),
+        APPLICATION_PDF_VALUE);
+    dataSource.setName("file.pdf");
+    when(attachmentCache.getDataSource(new StoredFile("my-bucket", "my-key.pdf"))).thenReturn(
+        dataSource);
 
     StoredFile pdf = new StoredFile("my-bucket", "my-key.pdf");
     FormPublishedEvent event = new FormPublishedEvent(PERSON_ID,
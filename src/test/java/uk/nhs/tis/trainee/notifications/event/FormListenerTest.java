@@ -21,14 +21,15 @@
 
 package uk.nhs.tis.trainee.notifications.event;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.FORM_UPDATED;
 
 import jakarta.mail.MessagingException;
@@ -36,6 +37,8 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -65,59 +68,67 @@ class FormListenerTest {
   @BeforeEach
   void setUp() {
     emailService = mock(EmailService.class);
+    when(emailService.sendMessageToExistingUserAsync(any(), any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(emailService.sendMessageToExistingUserAsync(any(), any(), any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
     listener = new FormListener(emailService, VERSION);
   }
 
   @Test
-  void shouldThrowExceptionWhenFormUpdatedAndSendingFails() throws MessagingException {
-    doThrow(MessagingException.class).when(emailService)
-        .sendMessageToExistingUser(any(), any(), any(), any(), any());
+  void shouldFailWhenFormUpdatedAndSendingFails() {
+    when(emailService.sendMessageToExistingUserAsync(any(), any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.failedFuture(new MessagingException()));
 
     FormUpdateEvent event = new FormUpdateEvent(FORM_NAME, FORM_LIFECYCLE_STATE, PERSON_ID,
         FORM_TYPE, FORM_UPDATED_AT, FORM_CONTENT);
 
-    assertThrows(MessagingException.class, () -> listener.handleFormUpdate(event));
+    CompletableFuture<Void> future = listener.handleFormUpdate(event);
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertThat("Unexpected cause.", exception.getCause(), instanceOf(MessagingException.class));
   }
 
   @Test
-  void shouldSetTraineeIdWhenFormUpdated() throws MessagingException {
+  void shouldSetTraineeIdWhenFormUpdated() {
     FormUpdateEvent event = new FormUpdateEvent(FORM_NAME, FORM_LIFECYCLE_STATE, PERSON_ID,
         FORM_TYPE, FORM_UPDATED_AT, FORM_CONTENT);
 
     listener.handleFormUpdate(event);
 
-    verify(emailService).sendMessageToExistingUser(eq(PERSON_ID), any(), any(), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(eq(PERSON_ID), any(), any(), any(), any());
   }
 
   @Test
-  void shouldSetNotificationTypeWhenFormUpdated() throws MessagingException {
+  void shouldSetNotificationTypeWhenFormUpdated() {
     FormUpdateEvent event = new FormUpdateEvent(FORM_NAME, FORM_LIFECYCLE_STATE, PERSON_ID,
         FORM_TYPE, FORM_UPDATED_AT, FORM_CONTENT);
 
     listener.handleFormUpdate(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), eq(FORM_UPDATED), any(), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(any(), eq(FORM_UPDATED), any(), any(),
+        any());
   }
 
   @Test
-  void shouldSetTemplateVersionWhenFormUpdated() throws MessagingException {
+  void shouldSetTemplateVersionWhenFormUpdated() {
     FormUpdateEvent event = new FormUpdateEvent(FORM_NAME, FORM_LIFECYCLE_STATE, PERSON_ID,
         FORM_TYPE, FORM_UPDATED_AT, FORM_CONTENT);
 
     listener.handleFormUpdate(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), any(), eq(VERSION), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), eq(VERSION), any(), any());
   }
 
   @Test
-  void shouldIncludeFormNameWhenFormUpdated() throws MessagingException {
+  void shouldIncludeFormNameWhenFormUpdated() {
     FormUpdateEvent event = new FormUpdateEvent(FORM_NAME, FORM_LIFECYCLE_STATE, PERSON_ID,
         FORM_TYPE, FORM_UPDATED_AT, FORM_CONTENT);
 
     listener.handleFormUpdate(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -125,14 +136,14 @@ class FormListenerTest {
   }
 
   @Test
-  void shouldIncludeLifecycleStateWhenFormUpdated() throws MessagingException {
+  void shouldIncludeLifecycleStateWhenFormUpdated() {
     FormUpdateEvent event = new FormUpdateEvent(FORM_NAME, FORM_LIFECYCLE_STATE, PERSON_ID,
         FORM_TYPE, FORM_UPDATED_AT, FORM_CONTENT);
 
     listener.handleFormUpdate(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -141,14 +152,14 @@ class FormListenerTest {
   }
 
   @Test
-  void shouldIncludeFormTypeWhenFormUpdated() throws MessagingException {
+  void shouldIncludeFormTypeWhenFormUpdated() {
     FormUpdateEvent event = new FormUpdateEvent(FORM_NAME, FORM_LIFECYCLE_STATE, PERSON_ID,
         FORM_TYPE, FORM_UPDATED_AT, FORM_CONTENT);
 
     listener.handleFormUpdate(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -156,14 +167,14 @@ class FormListenerTest {
   }
 
   @Test
-  void shouldIncludeUpdateDateWhenFormUpdated() throws MessagingException {
+  void shouldIncludeUpdateDateWhenFormUpdated() {
     FormUpdateEvent event = new FormUpdateEvent(FORM_NAME, FORM_LIFECYCLE_STATE, PERSON_ID,
         FORM_TYPE, FORM_UPDATED_AT, FORM_CONTENT);
 
     listener.handleFormUpdate(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -173,7 +184,7 @@ class FormListenerTest {
 
   @ParameterizedTest
   @EnumSource(value = FormType.class)
-  void shouldIncludePdfWhenSubmittedFormPdfPublished(FormType formType) throws MessagingException {
+  void shouldIncludePdfWhenSubmittedFormPdfPublished(FormType formType) {
     StoredFile pdf = new StoredFile("bucket", "test.pdf");
     FormPublishedEvent event = new FormPublishedEvent(PERSON_ID, "abc",
         new FormPublishedEvent.FormR("abc", "SUBMITTED", LocalDateTime.MIN), pdf);
@@ -181,7 +192,7 @@ class FormListenerTest {
     listener.handleFormPublished(event, formType);
 
     ArgumentCaptor<StoredFile> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         any(), any(), templateVarsCaptor.capture());
 
     StoredFile templateVariables = templateVarsCaptor.getValue();
@@ -28,6 +28,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static uk.nhs.tis.trainee.notifications.event.GmcListener.FAMILY_NAME_FIELD;
@@ -40,6 +41,7 @@ import static uk.nhs.tis.trainee.notifications.event.GmcListener.TRAINEE_ID_FIEL
 import static uk.nhs.tis.trainee.notifications.model.LocalOfficeContactType.GMC_UPDATE;
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.GMC_REJECTED_LO;
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.GMC_REJECTED_TRAINEE;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.GMC_UPDATED;
 import static uk.nhs.tis.trainee.notifications.service.NotificationService.CC_OF_FIELD;
 
 import jakarta.mail.MessagingException;
@@ -56,6 +58,7 @@ import uk.nhs.tis.trainee.notifications.model.GmcRejectedEvent;
 import uk.nhs.tis.trainee.notifications.model.GmcRejectedEvent.Update;
 import uk.nhs.tis.trainee.notifications.model.GmcUpdateEvent;
 import uk.nhs.tis.trainee.notifications.model.NotificationType;
+import uk.nhs.tis.trainee.notifications.service.EventDeduplicationService;
 import uk.nhs.tis.trainee.notifications.service.NotificationService;
 
 class GmcListenerTest {
@@ -71,12 +74,14 @@ class GmcListenerTest {
 
   private GmcListener listener;
   private NotificationService notificationService;
+  private EventDeduplicationService deduplicationService;
 
   @BeforeEach
   void setUp() {
     notificationService = mock(NotificationService.class);
+    deduplicationService = mock(EventDeduplicationService.class);
     listener = new GmcListener(notificationService, UPDATE_VERSION, REJECT_LO_VERSION,
-        REJECT_TRAINEE_VERSION);
+        REJECT_TRAINEE_VERSION, deduplicationService);
   }
 
   @Test
@@ -90,6 +95,29 @@ class GmcListenerTest {
     assertThrows(MessagingException.class, () -> listener.handleGmcUpdate(event));
   }
 
+  @Test
+  void shouldRecordGmcUpdateWhenSent() throws MessagingException {
+    GmcUpdateEvent event = new GmcUpdateEvent(TRAINEE_ID, new GmcDetails(GMC_NO, GMC_STATUS));
+
+    listener.handleGmcUpdate(event);
+
+    verify(notificationService).sendLocalOfficeMail(any(), eq(TRAINEE_ID), eq(GMC_UPDATE), any(),
+        eq(UPDATE_VERSION), eq(GMC_UPDATED));
+    verify(deduplicationService).recordProcessed("gmc-updated", TRAINEE_ID, event);
+  }
+
+  @Test
+  void shouldNotSendGmcUpdateWhenDuplicate() throws MessagingException {
+    GmcUpdateEvent event = new GmcUpdateEvent(TRAINEE_ID, new GmcDetails(GMC_NO, GMC_STATUS));
+    when(deduplicationService.isDuplicate("gmc-updated", TRAINEE_ID, event)).thenReturn(true);
+
+    listener.handleGmcUpdate(event);
+
+    verify(notificationService, never()).sendLocalOfficeMail(any(), any(), any(), any(), any(),
+        any());
+    verify(deduplicationService, never()).recordProcessed(any(), any(), any());
+  }
+
   @Test
   void shouldThrowExceptionWhenGmcRejectedAndSendingFails() throws MessagingException {
     doThrow(MessagingException.class).when(notificationService)
@@ -21,6 +21,7 @@
 
 package uk.nhs.tis.trainee.notifications.event;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -29,7 +30,6 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -49,6 +49,8 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -96,6 +98,10 @@ class LtftListenerTest {
   void setUp() {
     notificationService = mock(NotificationService.class);
     emailService = mock(EmailService.class);
+    when(emailService.sendMessageToExistingUserAsync(any(), any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.completedFuture(null));
+    when(emailService.sendMessageAsync(any(), any(), any(), any(), any(), any(), any(),
+        anyBoolean())).thenReturn(CompletableFuture.completedFuture(null));
     ltftEventMapper = mock(LtftEventMapper.class);
     when(ltftEventMapper.map(any())).thenAnswer(i -> i.getArguments()[0]);
     TemplateVersionsProperties templateVersions = new TemplateVersionsProperties(Map.of(
@@ -145,17 +151,20 @@ class LtftListenerTest {
   @ParameterizedTest
   @ValueSource(strings = {"APPROVED", "REJECTED", "SUBMITTED", "UNSUBMITTED", "WITHDRAWN",
       "Other-Status"})
-  void shouldThrowExceptionWhenLtftUpdatedAndSendingFails(String state) throws MessagingException {
-    doThrow(MessagingException.class).when(emailService)
-        .sendMessageToExistingUser(any(), any(), any(), any(), any());
+  void shouldFailWhenLtftUpdatedAndSendingFails(String state) {
+    when(emailService.sendMessageToExistingUserAsync(any(), any(), any(), any(), any()))
+        .thenReturn(CompletableFuture.failedFuture(new MessagingException()));
 
     LtftUpdateEvent event = LtftUpdateEvent.builder().state(state).build();
 
-    assertThrows(MessagingException.class, () -> listener.handleLtftUpdate(event));
+    CompletableFuture<Void> future = listener.handleLtftUpdate(event);
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertThat("Unexpected cause.", exception.getCause(), instanceOf(MessagingException.class));
   }
 
   @Test
-  void shouldSetTraineeIdWhenLtftUpdated() throws MessagingException {
+  void shouldSetTraineeIdWhenLtftUpdated() {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .traineeId(TRAINEE_ID)
         .state("")
@@ -163,11 +172,11 @@ class LtftListenerTest {
 
     listener.handleLtftUpdate(event);
 
-    verify(emailService).sendMessageToExistingUser(eq(TRAINEE_ID), any(), any(), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(eq(TRAINEE_ID), any(), any(), any(), any());
   }
 
   @Test
-  void shouldSetTisReferenceInfoWhenLtftUpdated() throws MessagingException {
+  void shouldSetTisReferenceInfoWhenLtftUpdated() {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .formId("123")
         .state("")
@@ -176,7 +185,8 @@ class LtftListenerTest {
     listener.handleLtftUpdate(event);
 
     ArgumentCaptor<History.TisReferenceInfo> captor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(), any(), captor.capture());
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(), any(),
+        captor.capture());
 
     assertThat("Unexpected TIS reference type.", captor.getValue().type(),
         is(TisReferenceType.LTFT));
@@ -193,8 +203,7 @@ class LtftListenerTest {
       WITHDRAWN    | LTFT_WITHDRAWN
       Other-Status | LTFT_UPDATED
       """)
-  void shouldSetNotificationTypeWhenLtftUpdated(String state, NotificationType type)
-      throws MessagingException {
+  void shouldSetNotificationTypeWhenLtftUpdated(String state, NotificationType type) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .state(state)
         .modifiedBy(LtftUpdateEvent.LtftStatusModifiedByDto.builder()
@@ -205,7 +214,7 @@ class LtftListenerTest {
 
     listener.handleLtftUpdate(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), eq(type), any(), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(any(), eq(type), any(), any(), any());
   }
 
   @ParameterizedTest
@@ -218,8 +227,8 @@ class LtftListenerTest {
       UNSUBMITTED  | LTFT_ADMIN_UNSUBMITTED | v6.7.8
       WITHDRAWN    | LTFT_WITHDRAWN         | v7.8.9
       """)
-  void shouldSetTemplateVersionWhenLtftUpdated(String state, NotificationType type, String version)
-      throws MessagingException {
+  void shouldSetTemplateVersionWhenLtftUpdated(String state, NotificationType type,
+      String version) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .state(state)
         .modifiedBy(LtftUpdateEvent.LtftStatusModifiedByDto.builder()
@@ -236,14 +245,13 @@ class LtftListenerTest {
 
     listener.handleLtftUpdate(event);
 
-    verify(emailService).sendMessageToExistingUser(any(), any(), eq(version), any(), any());
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), eq(version), any(), any());
   }
 
   @ParameterizedTest
   @ValueSource(strings = {"APPROVED", "REJECTED", "SUBMITTED", "UNSUBMITTED", "WITHDRAWN",
       "Other-Status"})
-  void shouldPopulateTemplateVariablesWithContactsWhenLtftUpdated(String state)
-      throws MessagingException {
+  void shouldPopulateTemplateVariablesWithContactsWhenLtftUpdated(String state) {
     Set<LocalOfficeContactType> expectedContacts = Set.of(
         LTFT, LTFT_SUPPORT, SUPPORTED_RETURN_TO_TRAINING, TSS_SUPPORT);
     when(notificationService.getOwnerContactList("Test Deanery", SPECIALTY)).thenReturn(
@@ -271,7 +279,7 @@ class LtftListenerTest {
     listener.handleLtftUpdate(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -289,14 +297,13 @@ class LtftListenerTest {
   @ParameterizedTest
   @ValueSource(strings = {"APPROVED", "REJECTED", "SUBMITTED", "UNSUBMITTED", "WITHDRAWN",
       "Other-Status"})
-  void shouldPopulateTemplateVariablesWithEventWhenLtftUpdated(String state)
-      throws MessagingException {
+  void shouldPopulateTemplateVariablesWithEventWhenLtftUpdated(String state) {
     LtftUpdateEvent event = LtftUpdateEvent.builder().state(state).build();
 
     listener.handleLtftUpdate(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -304,7 +311,7 @@ class LtftListenerTest {
   }
 
   @Test
-  void shouldIncludeEventPropertiesWhenLtftUpdated() throws MessagingException {
+  void shouldIncludeEventPropertiesWhenLtftUpdated() {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .traineeId(TRAINEE_ID)
         .formRef(FORM_REFERENCE)
@@ -316,7 +323,7 @@ class LtftListenerTest {
     listener.handleLtftUpdate(event);
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(),
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(),
         templateVarsCaptor.capture(), any());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
@@ -330,8 +337,7 @@ class LtftListenerTest {
 
   @ParameterizedTest
   @ValueSource(strings = {"", "Other-status"})
-  void shouldIgnoreNonMatchedNotificationTypesWhenLtftUpdatedForTpd(String state)
-      throws MessagingException {
+  void shouldIgnoreNonMatchedNotificationTypesWhenLtftUpdatedForTpd(String state) {
     LtftUpdateEvent event = LtftUpdateEvent.builder().state(state).build();
     listener.handleLtftUpdateTpd(event);
     verifyNoInteractions(emailService);
@@ -357,21 +363,23 @@ class LtftListenerTest {
 
   @ParameterizedTest
   @ValueSource(strings = {"APPROVED", "REJECTED", "SUBMITTED"})
-  void shouldThrowExceptionWhenLtftUpdatedAndSendingTpdFails(String state)
-      throws MessagingException {
-    doThrow(MessagingException.class).when(emailService)
-        .sendMessage(any(), any(), any(), any(), any(), any(), anyBoolean());
+  void shouldFailWhenLtftUpdatedAndSendingTpdFails(String state) {
+    when(emailService.sendMessageAsync(any(), any(), any(), any(), any(), any(), any(),
+        anyBoolean())).thenReturn(CompletableFuture.failedFuture(new MessagingException()));
 
     when(emailService.getRecipientAccount(any())).thenReturn(USER_DETAILS);
 
     LtftUpdateEvent event = LtftUpdateEvent.builder().state(state).build();
 
-    assertThrows(MessagingException.class, () -> listener.handleLtftUpdateTpd(event));
+    CompletableFuture<Void> future = listener.handleLtftUpdateTpd(event);
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertThat("Unexpected cause.", exception.getCause(), instanceOf(MessagingException.class));
   }
 
   @ParameterizedTest
   @ValueSource(strings = {"APPROVED", "REJECTED", "SUBMITTED"})
-  void shouldSetTraineeIdWhenLtftUpdatedForTpd(String state) throws MessagingException {
+  void shouldSetTraineeIdWhenLtftUpdatedForTpd(String state) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .traineeId(TRAINEE_ID)
         .state(state)
@@ -382,12 +390,12 @@ class LtftListenerTest {
     listener.handleLtftUpdateTpd(event);
 
     verify(emailService)
-        .sendMessage(eq(TRAINEE_ID), any(), any(), any(), any(), any(), anyBoolean());
+        .sendMessageAsync(eq(TRAINEE_ID), any(), any(), any(), any(), any(), any(), anyBoolean());
   }
 
   @ParameterizedTest
   @ValueSource(strings = {"APPROVED", "REJECTED", "SUBMITTED"})
-  void shouldSetTisReferenceInfoWhenLtftUpdatedForTpd(String state) throws MessagingException {
+  void shouldSetTisReferenceInfoWhenLtftUpdatedForTpd(String state) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .formId("123")
         .state(state)
@@ -398,7 +406,8 @@ class LtftListenerTest {
     listener.handleLtftUpdate(event);
 
     ArgumentCaptor<History.TisReferenceInfo> captor = ArgumentCaptor.captor();
-    verify(emailService).sendMessageToExistingUser(any(), any(), any(), any(), captor.capture());
+    verify(emailService).sendMessageToExistingUserAsync(any(), any(), any(), any(),
+        captor.capture());
 
     assertThat("Unexpected TIS reference type.", captor.getValue().type(),
         is(TisReferenceType.LTFT));
@@ -407,7 +416,7 @@ class LtftListenerTest {
 
   @ParameterizedTest
   @ValueSource(strings = {"APPROVED", "REJECTED", "SUBMITTED"})
-  void shouldSetTpdEmailWhenLtftUpdatedForTpd(String state) throws MessagingException {
+  void shouldSetTpdEmailWhenLtftUpdatedForTpd(String state) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .traineeId(TRAINEE_ID)
         .state(state)
@@ -422,13 +431,12 @@ class LtftListenerTest {
     listener.handleLtftUpdateTpd(event);
 
     verify(emailService)
-        .sendMessage(any(), eq(TPD_EMAIL), any(), any(), any(), any(), anyBoolean());
+        .sendMessageAsync(any(), eq(TPD_EMAIL), any(), any(), any(), any(), any(), anyBoolean());
   }
 
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
-  void shouldSetSendOrLogFlagWhenLtftApprovedForTpd(boolean emailNotificationsEnabled)
-      throws MessagingException {
+  void shouldSetSendOrLogFlagWhenLtftApprovedForTpd(boolean emailNotificationsEnabled) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .traineeId(TRAINEE_ID)
         .state("APPROVED")
@@ -445,13 +453,13 @@ class LtftListenerTest {
     listener.handleLtftUpdateTpd(event);
 
     verify(emailService)
-        .sendMessage(any(), any(), any(), any(), any(), any(), eq(!emailNotificationsEnabled));
+        .sendMessageAsync(any(), any(), any(), any(), any(), any(),
+            any(), eq(!emailNotificationsEnabled));
   }
 
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
-  void shouldSetSendOrLogFlagWhenLtftRejectedForTpd(boolean emailNotificationsEnabled)
-      throws MessagingException {
+  void shouldSetSendOrLogFlagWhenLtftRejectedForTpd(boolean emailNotificationsEnabled) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .traineeId(TRAINEE_ID)
         .state("REJECTED")
@@ -468,13 +476,13 @@ class LtftListenerTest {
     listener.handleLtftUpdateTpd(event);
 
     verify(emailService)
-        .sendMessage(any(), any(), any(), any(), any(), any(), eq(!emailNotificationsEnabled));
+        .sendMessageAsync(any(), any(), any(), any(), any(), any(),
+            any(), eq(!emailNotificationsEnabled));
   }
 
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
-  void shouldSetSendOrLogFlagWhenLtftSubmittedForTpd(boolean emailNotificationsEnabled)
-      throws MessagingException {
+  void shouldSetSendOrLogFlagWhenLtftSubmittedForTpd(boolean emailNotificationsEnabled) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .traineeId(TRAINEE_ID)
         .state("SUBMITTED")
@@ -491,7 +499,8 @@ class LtftListenerTest {
     listener.handleLtftUpdateTpd(event);
 
     verify(emailService)
-        .sendMessage(any(), any(), any(), any(), any(), any(), eq(!emailNotificationsEnabled));
+        .sendMessageAsync(any(), any(), any(), any(), any(), any(),
+            any(), eq(!emailNotificationsEnabled));
   }
 
   @ParameterizedTest
@@ -500,8 +509,7 @@ class LtftListenerTest {
       REJECTED    | LTFT_REJECTED_TPD
       SUBMITTED   | LTFT_SUBMITTED_TPD
       """)
-  void shouldSetNotificationTypeWhenLtftUpdatedForTpd(String state, NotificationType type)
-      throws MessagingException {
+  void shouldSetNotificationTypeWhenLtftUpdatedForTpd(String state, NotificationType type) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .state(state)
         .build();
@@ -511,7 +519,7 @@ class LtftListenerTest {
     listener.handleLtftUpdateTpd(event);
 
     verify(emailService)
-        .sendMessage(any(), any(), eq(type), any(), any(), any(), anyBoolean());
+        .sendMessageAsync(any(), any(), eq(type), any(), any(), any(), any(), anyBoolean());
   }
 
   @ParameterizedTest
@@ -521,7 +529,7 @@ class LtftListenerTest {
       SUBMITTED   | LTFT_SUBMITTED_TPD | v3.4.5
       """)
   void shouldSetTemplateVersionWhenLtftUpdatedForTpd(String state, NotificationType type,
-      String version) throws MessagingException {
+      String version) {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .state(state)
         .build();
@@ -537,13 +545,12 @@ class LtftListenerTest {
     listener.handleLtftUpdateTpd(event);
 
     verify(emailService)
-        .sendMessage(any(), any(), any(), eq(version), any(), any(), anyBoolean());
+        .sendMessageAsync(any(), any(), any(), eq(version), any(), any(), any(), anyBoolean());
   }
 
   @ParameterizedTest
   @ValueSource(strings = {"APPROVED", "REJECTED", "SUBMITTED"})
-  void shouldPopulateTemplateVariablesWithContactsWhenLtftUpdatedForTpd(String state)
-      throws MessagingException {
+  void shouldPopulateTemplateVariablesWithContactsWhenLtftUpdatedForTpd(String state) {
     Set<LocalOfficeContactType> expectedContacts = Set.of(
         LTFT, LTFT_SUPPORT, SUPPORTED_RETURN_TO_TRAINING, TSS_SUPPORT);
     when(notificationService.getOwnerContactList("Test Deanery", SPECIALTY)).thenReturn(
@@ -570,7 +577,8 @@ class LtftListenerTest {
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
     verify(emailService)
-        .sendMessage(any(), any(), any(), any(), templateVarsCaptor.capture(), any(), anyBoolean());
+        .sendMessageAsync(any(), any(), any(), any(), templateVarsCaptor.capture(), any(),
+            any(), anyBoolean());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
     Map<String, Contact> contacts = (Map<String, Contact>) templateVariables.get("contacts");
@@ -586,8 +594,7 @@ class LtftListenerTest {
 
   @ParameterizedTest
   @ValueSource(strings = {"APPROVED", "REJECTED", "SUBMITTED"})
-  void shouldPopulateTemplateVariablesWithEventWhenLtftUpdatedForTpd(String state)
-      throws MessagingException {
+  void shouldPopulateTemplateVariablesWithEventWhenLtftUpdatedForTpd(String state) {
     LtftUpdateEvent event = LtftUpdateEvent.builder().state(state).build();
 
     when(emailService.getRecipientAccount(any())).thenReturn(USER_DETAILS);
@@ -596,14 +603,15 @@ class LtftListenerTest {
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
     verify(emailService)
-        .sendMessage(any(), any(), any(), any(), templateVarsCaptor.capture(), any(), anyBoolean());
+        .sendMessageAsync(any(), any(), any(), any(), templateVarsCaptor.capture(), any(),
+            any(), anyBoolean());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
     assertThat("Unexpected event.", templateVariables.get("var"), sameInstance(event));
   }
 
   @Test
-  void shouldIncludeEventPropertiesWhenLtftUpdatedForTpd() throws MessagingException {
+  void shouldIncludeEventPropertiesWhenLtftUpdatedForTpd() {
     LtftUpdateEvent event = LtftUpdateEvent.builder()
         .traineeId(TRAINEE_ID)
         .formRef(FORM_REFERENCE)
@@ -628,7 +636,8 @@ class LtftListenerTest {
 
     ArgumentCaptor<Map<String, Object>> templateVarsCaptor = ArgumentCaptor.captor();
     verify(emailService)
-        .sendMessage(any(), any(), any(), any(), templateVarsCaptor.capture(), any(), anyBoolean());
+        .sendMessageAsync(any(), any(), any(), any(), templateVarsCaptor.capture(), any(),
+            any(), anyBoolean());
 
     Map<String, Object> templateVariables = templateVarsCaptor.getValue();
     LtftUpdateEvent templateEvent = (LtftUpdateEvent) templateVariables.get("var");
@@ -23,7 +23,11 @@ package uk.nhs.tis.trainee.notifications.event;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import java.util.List;
+import java.util.Set;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,24 +38,64 @@ import uk.nhs.tis.trainee.notifications.service.MessageSendingService;
 
 class OutboxListenerTest {
 
-  private static final ObjectId NOTIFICATION_ID = ObjectId.get();
+  private static final ObjectId NOTIFICATION_ID_1 = ObjectId.get();
+  private static final ObjectId NOTIFICATION_ID_2 = ObjectId.get();
 
   private OutboxListener listener;
   private MessageSendingService messageSendingService;
+  private BatchAcknowledgement<ObjectIdWrapper> acknowledgement;
 
   @BeforeEach
   void setUp() {
     messageSendingService = mock(MessageSendingService.class);
+    acknowledgement = mock(BatchAcknowledgement.class);
     listener = new OutboxListener(messageSendingService);
   }
 
   @Test
-  void handleOutboxMessages() {
-    ObjectIdWrapper objectIdWrapper = new ObjectIdWrapper(NOTIFICATION_ID);
-    Message<ObjectIdWrapper> message = new GenericMessage<>(objectIdWrapper);
+  void shouldSendBatchOfOutboxMessages() {
+    ObjectIdWrapper objectIdWrapper1 = new ObjectIdWrapper(NOTIFICATION_ID_1);
+    ObjectIdWrapper objectIdWrapper2 = new ObjectIdWrapper(NOTIFICATION_ID_2);
+    List<Message<ObjectIdWrapper>> messages = List.of(
+        new GenericMessage<>(objectIdWrapper1),
+        new GenericMessage<>(objectIdWrapper2));
 
-    listener.handleOutboxMessages(message);
+    when(messageSendingService.sendScheduled(List.of(objectIdWrapper1, objectIdWrapper2)))
+        .thenReturn(Set.of(NOTIFICATION_ID_1, NOTIFICATION_ID_2));
 
-    verify(messageSendingService).sendScheduled(objectIdWrapper);
+    listener.handleOutboxMessages(messages, acknowledgement);
+
+    verify(messageSendingService).sendScheduled(List.of(objectIdWrapper1, objectIdWrapper2));
+  }
+
+  @Test
+  void shouldAcknowledgeAllHandledOutboxMessages() {
+    ObjectIdWrapper objectIdWrapper1 = new ObjectIdWrapper(NOTIFICATION_ID_1);
+    ObjectIdWrapper objectIdWrapper2 = new ObjectIdWrapper(NOTIFICATION_ID_2);
+    List<Message<ObjectIdWrapper>> messages = List.of(
+        new GenericMessage<>(objectIdWrapper1),
+        new GenericMessage<>(objectIdWrapper2));
+
+    when(messageSendingService.sendScheduled(List.of(objectIdWrapper1, objectIdWrapper2)))
+        .thenReturn(Set.of(NOTIFICATION_ID_1, NOTIFICATION_ID_2));
+
+    listener.handleOutboxMessages(messages, acknowledgement);
+
+    verify(acknowledgement).acknowledge(messages);
+  }
+
+  @Test
+  void shouldOnlyAcknowledgeHandledOutboxMessages() {
+    ObjectIdWrapper objectIdWrapper1 = new ObjectIdWrapper(NOTIFICATION_ID_1);
+    ObjectIdWrapper objectIdWrapper2 = new ObjectIdWrapper(NOTIFICATION_ID_2);
+    Message<ObjectIdWrapper> message1 = new GenericMessage<>(objectIdWrapper1);
+    Message<ObjectIdWrapper> message2 = new GenericMessage<>(objectIdWrapper2);
+
+    when(messageSendingService.sendScheduled(List.of(objectIdWrapper1, objectIdWrapper2)))
+        .thenReturn(Set.of(NOTIFICATION_ID_2));
+
+    listener.handleOutboxMessages(List.of(message1, message2), acknowledgement);
+
+    verify(acknowledgement).acknowledge(List.of(message2));
   }
 }
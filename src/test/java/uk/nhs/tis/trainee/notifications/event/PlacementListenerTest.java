@@ -21,24 +21,35 @@
 
 package uk.nhs.tis.trainee.notifications.event;
 
+import static io.awspring.cloud.sqs.listener.SqsHeaders.MessageSystemAttributes.SQS_APPROXIMATE_RECEIVE_COUNT;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PLACEMENT;
 
+import io.awspring.cloud.sqs.listener.Visibility;
+import io.awspring.cloud.sqs.listener.acknowledgement.Acknowledgement;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
 import uk.nhs.tis.trainee.notifications.dto.PlacementEvent;
 import uk.nhs.tis.trainee.notifications.dto.RecordDto;
 import uk.nhs.tis.trainee.notifications.mapper.PlacementMapper;
 import uk.nhs.tis.trainee.notifications.model.Placement;
+import uk.nhs.tis.trainee.notifications.service.EventCoalescingService;
+import uk.nhs.tis.trainee.notifications.service.EventCoalescingService.CoalescingDecision;
+import uk.nhs.tis.trainee.notifications.service.EventDeduplicationService;
 import uk.nhs.tis.trainee.notifications.service.PlacementService;
 
 class PlacementListenerTest {
@@ -48,14 +59,23 @@ class PlacementListenerTest {
   private static final LocalDate START_DATE = LocalDate.now();
 
   private PlacementListener listener;
+  private EventCoalescingService coalescingService;
+  private EventDeduplicationService deduplicationService;
+  private Visibility visibility;
+  private Acknowledgement acknowledgement;
   private PlacementService placementService;
   private PlacementMapper mapper;
 
   @BeforeEach
   void setUp() {
     placementService = mock(PlacementService.class);
+    coalescingService = mock(EventCoalescingService.class);
+    deduplicationService = mock(EventDeduplicationService.class);
+    visibility = mock(Visibility.class);
+    acknowledgement = mock(Acknowledgement.class);
     mapper = mock(PlacementMapper.class);
-    listener = new PlacementListener(placementService, mapper);
+    listener = new PlacementListener(placementService, mapper, coalescingService,
+        deduplicationService);
   }
 
   @Test
@@ -84,6 +104,79 @@ class PlacementListenerTest {
     verify(placementService).addNotifications(any());
   }
 
+  @Test
+  void shouldNotAddNotificationsWhenDuplicate() {
+    PlacementEvent event = buildPlacementEvent();
+    when(deduplicationService.isDuplicate("placement-updated", TIS_ID,
+        event.recrd().getData())).thenReturn(true);
+
+    listener.handlePlacementUpdate(event);
+
+    verify(placementService, never()).addNotifications(any());
+    verify(deduplicationService, never()).recordProcessed(any(), any(), any());
+  }
+
+  @Test
+  void shouldRecordAddedNotificationsForDeduplication() {
+    PlacementEvent event = buildPlacementEvent();
+
+    listener.handlePlacementUpdate(event);
+
+    verify(deduplicationService).recordProcessed("placement-updated", TIS_ID,
+        event.recrd().getData());
+  }
+
+  @Test
+  void shouldDeferUpdateWhenCoalescing() {
+    Message<PlacementEvent> message = new GenericMessage<>(buildPlacementEvent());
+    when(coalescingService.coalesce(PLACEMENT, TIS_ID, message.getHeaders().getId(), 1))
+        .thenReturn(CoalescingDecision.DEFER);
+    when(coalescingService.getWindowSeconds()).thenReturn(5);
+
+    listener.receivePlacementUpdate(message, visibility, acknowledgement);
+
+    verify(visibility).changeTo(5);
+    verifyNoInteractions(placementService, acknowledgement);
+  }
+
+  @Test
+  void shouldCoalesceWithReceiveCount() {
+    Message<PlacementEvent> message = new GenericMessage<>(buildPlacementEvent(),
+        Map.of(SQS_APPROXIMATE_RECEIVE_COUNT, "3"));
+    when(coalescingService.coalesce(PLACEMENT, TIS_ID, message.getHeaders().getId(), 3))
+        .thenReturn(CoalescingDecision.COALESCED);
+
+    listener.receivePlacementUpdate(message, visibility, acknowledgement);
+
+    verify(acknowledgement).acknowledge();
+  }
+
+  @Test
+  void shouldAcknowledgeWithoutHandlingUpdateWhenCoalesced() {
+    Message<PlacementEvent> message = new GenericMessage<>(buildPlacementEvent());
+    when(coalescingService.coalesce(PLACEMENT, TIS_ID, message.getHeaders().getId(), 1))
+        .thenReturn(CoalescingDecision.COALESCED);
+
+    listener.receivePlacementUpdate(message, visibility, acknowledgement);
+
+    verify(acknowledgement).acknowledge();
+    verifyNoInteractions(placementService, visibility);
+  }
+
+  @Test
+  void shouldHandleAndAcknowledgeUpdateWhenLatest() {
+    Message<PlacementEvent> message = new GenericMessage<>(buildPlacementEvent());
+    when(coalescingService.coalesce(PLACEMENT, TIS_ID, message.getHeaders().getId(), 1))
+        .thenReturn(CoalescingDecision.PROCESS);
+    when(mapper.toEntity(any())).thenReturn(new Placement());
+
+    listener.receivePlacementUpdate(message, visibility, acknowledgement);
+
+    verify(placementService).addNotifications(any());
+    verify(acknowledgement).acknowledge();
+    verifyNoInteractions(visibility);
+  }
+
   @Test
   void shouldDeleteNotifications() {
     PlacementEvent event = buildPlacementEvent();
@@ -101,6 +194,16 @@ class PlacementListenerTest {
     assertThat("Unexpected placement id", placement.getTisId(), is(TIS_ID));
   }
 
+  @Test
+  void shouldClearDeduplicationWhenDeleted() {
+    PlacementEvent event = buildPlacementEvent();
+    when(mapper.toEntity(any())).thenReturn(new Placement());
+
+    listener.handlePlacementDelete(event);
+
+    verify(deduplicationService).clearProcessed("placement-updated", TIS_ID);
+  }
+
   /**
    * Helper function to construct a programme membership event.
    *
@@ -21,21 +21,32 @@
 
 package uk.nhs.tis.trainee.notifications.event;
 
+import static io.awspring.cloud.sqs.listener.SqsHeaders.MessageSystemAttributes.SQS_APPROXIMATE_RECEIVE_COUNT;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PROGRAMME_MEMBERSHIP;
 
+import io.awspring.cloud.sqs.listener.Visibility;
+import io.awspring.cloud.sqs.listener.acknowledgement.Acknowledgement;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.GenericMessage;
 import uk.nhs.tis.trainee.notifications.dto.ProgrammeMembershipEvent;
 import uk.nhs.tis.trainee.notifications.dto.RecordDto;
 import uk.nhs.tis.trainee.notifications.mapper.ProgrammeMembershipMapper;
 import uk.nhs.tis.trainee.notifications.model.ProgrammeMembership;
+import uk.nhs.tis.trainee.notifications.service.EventCoalescingService;
+import uk.nhs.tis.trainee.notifications.service.EventCoalescingService.CoalescingDecision;
+import uk.nhs.tis.trainee.notifications.service.EventDeduplicationService;
 import uk.nhs.tis.trainee.notifications.service.ProgrammeMembershipService;
 
 class ProgrammeMembershipListenerTest {
@@ -45,14 +56,23 @@ class ProgrammeMembershipListenerTest {
   private static final LocalDate START_DATE = LocalDate.now();
 
   private ProgrammeMembershipListener listener;
+  private EventCoalescingService coalescingService;
+  private EventDeduplicationService deduplicationService;
+  private Visibility visibility;
+  private Acknowledgement acknowledgement;
   private ProgrammeMembershipService programmeMembershipService;
   private ProgrammeMembershipMapper mapper;
 
   @BeforeEach
   void setUp() {
     programmeMembershipService = mock(ProgrammeMembershipService.class);
+    coalescingService = mock(EventCoalescingService.class);
+    deduplicationService = mock(EventDeduplicationService.class);
+    visibility = mock(Visibility.class);
+    acknowledgement = mock(Acknowledgement.class);
     mapper = mock(ProgrammeMembershipMapper.class);
-    listener = new ProgrammeMembershipListener(programmeMembershipService, mapper);
+    listener = new ProgrammeMembershipListener(programmeMembershipService, mapper,
+        coalescingService, deduplicationService);
   }
 
   @Test
@@ -83,6 +103,79 @@ class ProgrammeMembershipListenerTest {
     verify(programmeMembershipService).addNotifications(any());
   }
 
+  @Test
+  void shouldNotAddNotificationsWhenDuplicate() {
+    ProgrammeMembershipEvent event = buildPmEvent();
+    when(deduplicationService.isDuplicate("programme-membership-updated", TIS_ID,
+        event.recrd().getData())).thenReturn(true);
+
+    listener.handleProgrammeMembershipUpdate(event);
+
+    verify(programmeMembershipService, never()).addNotifications(any());
+    verify(deduplicationService, never()).recordProcessed(any(), any(), any());
+  }
+
+  @Test
+  void shouldRecordAddedNotificationsForDeduplication() {
+    ProgrammeMembershipEvent event = buildPmEvent();
+
+    listener.handleProgrammeMembershipUpdate(event);
+
+    verify(deduplicationService).recordProcessed("programme-membership-updated", TIS_ID,
+        event.recrd().getData());
+  }
+
+  @Test
+  void shouldDeferUpdateWhenCoalescing() {
+    Message<ProgrammeMembershipEvent> message = new GenericMessage<>(buildPmEvent());
+    when(coalescingService.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID,
+        message.getHeaders().getId(), 1)).thenReturn(CoalescingDecision.DEFER);
+    when(coalescingService.getWindowSeconds()).thenReturn(5);
+
+    listener.receiveProgrammeMembershipUpdate(message, visibility, acknowledgement);
+
+    verify(visibility).changeTo(5);
+    verifyNoInteractions(programmeMembershipService, acknowledgement);
+  }
+
+  @Test
+  void shouldCoalesceWithReceiveCount() {
+    Message<ProgrammeMembershipEvent> message = new GenericMessage<>(buildPmEvent(),
+        Map.of(SQS_APPROXIMATE_RECEIVE_COUNT, "3"));
+    when(coalescingService.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID,
+        message.getHeaders().getId(), 3)).thenReturn(CoalescingDecision.COALESCED);
+
+    listener.receiveProgrammeMembershipUpdate(message, visibility, acknowledgement);
+
+    verify(acknowledgement).acknowledge();
+  }
+
+  @Test
+  void shouldAcknowledgeWithoutHandlingUpdateWhenCoalesced() {
+    Message<ProgrammeMembershipEvent> message = new GenericMessage<>(buildPmEvent());
+    when(coalescingService.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID,
+        message.getHeaders().getId(), 1)).thenReturn(CoalescingDecision.COALESCED);
+
+    listener.receiveProgrammeMembershipUpdate(message, visibility, acknowledgement);
+
+    verify(acknowledgement).acknowledge();
+    verifyNoInteractions(programmeMembershipService, visibility);
+  }
+
+  @Test
+  void shouldHandleAndAcknowledgeUpdateWhenLatest() {
+    Message<ProgrammeMembershipEvent> message = new GenericMessage<>(buildPmEvent());
+    when(coalescingService.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID,
+        message.getHeaders().getId(), 1)).thenReturn(CoalescingDecision.PROCESS);
+    when(mapper.toEntity(any())).thenReturn(new ProgrammeMembership());
+
+    listener.receiveProgrammeMembershipUpdate(message, visibility, acknowledgement);
+
+    verify(programmeMembershipService).addNotifications(any());
+    verify(acknowledgement).acknowledge();
+    verifyNoInteractions(visibility);
+  }
+
   @Test
   void shouldDeleteNotifications() {
     Map<String, String> dataMap = new HashMap<>();
@@ -104,6 +197,16 @@ class ProgrammeMembershipListenerTest {
         expectedProgrammeMembership);
   }
 
+  @Test
+  void shouldClearDeduplicationWhenDeleted() {
+    ProgrammeMembershipEvent event = buildPmEvent();
+    when(mapper.toEntity(any())).thenReturn(new ProgrammeMembership());
+
+    listener.handleProgrammeMembershipDelete(event);
+
+    verify(deduplicationService).clearProcessed("programme-membership-updated", TIS_ID);
+  }
+
   /**
    * Helper function to construct a programme membership event.
    *
@@ -21,13 +21,13 @@
 
 package uk.nhs.tis.trainee.notifications.event;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,6 +39,8 @@ import jakarta.mail.MessagingException;
 import java.net.URI;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -74,6 +76,8 @@ class UserAccountListenerTest {
     emailService = mock(EmailService.class);
     inAppService = mock(InAppService.class);
     userAccountService = mock(UserAccountService.class);
+    when(emailService.sendMessageAsync(any(), any(), any(), any(), any(), any(), any(),
+        anyBoolean())).thenReturn(CompletableFuture.completedFuture(null));
     listener = new UserAccountListener(emailService, inAppService, userAccountService, APP_DOMAIN,
         UPDATED_EMAIL_VERSION_NEW, UPDATED_EMAIL_VERSION_OLD, WELCOME_VERSION);
   }
@@ -89,20 +93,22 @@ class UserAccountListenerTest {
 
   @ParameterizedTest
   @ValueSource(strings = {"EMAIL_UPDATED_OLD", "EMAIL_UPDATED_NEW"})
-  void shouldThrowExceptionWhenEmailUpdateNotificationFails(NotificationType notificationType)
-      throws MessagingException {
+  void shouldFailWhenEmailUpdateNotificationFails(NotificationType notificationType) {
     when(userAccountService.getUserDetailsById(USER_ID.toString())).thenReturn(
         UserDetails.builder().build());
 
-    doThrow(MessagingException.class).when(emailService)
-        .sendMessage(any(), any(), eq(notificationType), any(), any(), any(), anyBoolean());
+    when(emailService.sendMessageAsync(any(), any(), eq(notificationType), any(), any(), any(),
+        any(), anyBoolean())).thenReturn(CompletableFuture.failedFuture(new MessagingException()));
 
     AccountUpdatedEvent event = new AccountUpdatedEvent(USER_ID, TRAINEE_ID, EMAIL_OLD, EMAIL);
-    assertThrows(MessagingException.class, () -> listener.handleAccountUpdate(event));
+    CompletableFuture<Void> future = listener.handleAccountUpdate(event);
+
+    CompletionException exception = assertThrows(CompletionException.class, future::join);
+    assertThat("Unexpected cause.", exception.getCause(), instanceOf(MessagingException.class));
   }
 
   @Test
-  void shouldSendEmailToPreviousEmailWhenAccountUpdated() throws MessagingException {
+  void shouldSendEmailToPreviousEmailWhenAccountUpdated() {
     UserDetails userDetails = UserDetails.builder()
         .familyName(FAMILY_NAME)
         .build();
@@ -112,8 +118,8 @@ class UserAccountListenerTest {
     listener.handleAccountUpdate(event);
 
     ArgumentCaptor<Map<String, Object>> variableCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessage(eq(TRAINEE_ID), eq(EMAIL_OLD), eq(EMAIL_UPDATED_OLD),
-        eq(UPDATED_EMAIL_VERSION_OLD), variableCaptor.capture(), eq(null), eq(false));
+    verify(emailService).sendMessageAsync(eq(TRAINEE_ID), eq(EMAIL_OLD), eq(EMAIL_UPDATED_OLD),
+        eq(UPDATED_EMAIL_VERSION_OLD), variableCaptor.capture(), eq(null), eq(null), eq(false));
 
     Map<String, Object> variables = variableCaptor.getValue();
     assertThat("Unexpected variable count.", variables.size(), is(4));
@@ -124,7 +130,7 @@ class UserAccountListenerTest {
   }
 
   @Test
-  void shouldSendEmailToNewEmailWhenAccountUpdated() throws MessagingException {
+  void shouldSendEmailToNewEmailWhenAccountUpdated() {
     UserDetails userDetails = UserDetails.builder()
         .familyName(FAMILY_NAME)
         .build();
@@ -134,8 +140,8 @@ class UserAccountListenerTest {
     listener.handleAccountUpdate(event);
 
     ArgumentCaptor<Map<String, Object>> variableCaptor = ArgumentCaptor.captor();
-    verify(emailService).sendMessage(eq(TRAINEE_ID), eq(EMAIL), eq(EMAIL_UPDATED_NEW),
-        eq(UPDATED_EMAIL_VERSION_NEW), variableCaptor.capture(), eq(null), eq(false));
+    verify(emailService).sendMessageAsync(eq(TRAINEE_ID), eq(EMAIL), eq(EMAIL_UPDATED_NEW),
+        eq(UPDATED_EMAIL_VERSION_NEW), variableCaptor.capture(), eq(null), eq(null), eq(false));
 
     Map<String, Object> variables = variableCaptor.getValue();
     assertThat("Unexpected variable count.", variables.size(), is(3));
@@ -0,0 +1,237 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.job;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static uk.nhs.tis.trainee.notifications.TestContainerConfiguration.MONGODB;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.HISTORY;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.STATUS;
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.DELETED;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.FAILED;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SCHEDULED;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.FORM_UPDATED;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.awspring.cloud.sqs.operations.SqsTemplate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import uk.nhs.tis.trainee.notifications.model.ChangeStreamToken;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
+import uk.nhs.tis.trainee.notifications.model.HistoryEventType;
+import uk.nhs.tis.trainee.notifications.service.EventBroadcastService;
+
+@SpringBootTest(properties = {
+    "application.sns.change-stream.enabled=true",
+    "application.sns.change-stream.interval=PT0.1S",
+    "application.sns.change-stream.retry-backoff=PT0.1S",
+    "application.sns.change-stream.run-time=PT2S",
+    "application.sns.delta-status-events=true"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class ChangeStreamBroadcasterIntegrationTest {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+  @Container
+  @ServiceConnection
+  private static final MongoDBContainer MONGODB_CONTAINER = new MongoDBContainer(MONGODB);
+
+  @MockitoBean
+  private SqsTemplate sqsTemplate;
+
+  @MockitoBean
+  private EventBroadcastService eventBroadcastService;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final List<EventOutboxEntry> published = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    published.clear();
+    doAnswer(inv -> {
+      List<EventOutboxEntry> events = inv.getArgument(0);
+      published.addAll(events);
+      return events.stream().map(EventOutboxEntry::id).collect(Collectors.toSet());
+    }).when(eventBroadcastService).publishOutboxEvents(any());
+
+    // Changes are only seen once the stream has started.
+    await()
+        .atMost(TIMEOUT)
+        .until(() -> mongoTemplate.findById(ChangeStreamBroadcaster.STREAM_ID,
+            ChangeStreamToken.class) != null);
+  }
+
+  @Test
+  void shouldBroadcastFullHistoryWhenInserted() {
+    History history = mongoTemplate.insert(buildHistory());
+
+    List<Map<String, Object>> events = awaitEvents(history.id(), 1);
+
+    Map<String, Object> event = events.get(0);
+    assertThat("Unexpected id.", event.get("id"), is(history.id().toString()));
+    assertThat("Unexpected type.", event.get("type"), is(FORM_UPDATED.toString()));
+    assertThat("Unexpected status.", event.get("status"), is(SCHEDULED.toString()));
+    assertThat("Unexpected event types.", getEventTypes(history.id()), is(List.of(HISTORY)));
+  }
+
+  @Test
+  void shouldBroadcastStatusEventsForBulkStatusUpdates() {
+    History history1 = mongoTemplate.insert(buildHistory());
+    History history2 = mongoTemplate.insert(buildHistory());
+    awaitEvents(history1.id(), 1);
+    awaitEvents(history2.id(), 1);
+
+    Query query = Query.query(Criteria.where("_id").in(history1.id(), history2.id()));
+    Update update = Update.update("status", FAILED).set("statusDetail", "Missed Schedule");
+    mongoTemplate.updateMulti(query, update, History.class);
+
+    for (History history : List.of(history1, history2)) {
+      Map<String, Object> event = awaitEvents(history.id(), 2).get(1);
+      assertThat("Unexpected fields.", event.keySet(),
+          is(Set.of("id", "status", "statusDetail", "latestStatusEventAt", "readAt")));
+      assertThat("Unexpected status.", event.get("status"), is(FAILED.toString()));
+      assertThat("Unexpected status detail.", event.get("statusDetail"), is("Missed Schedule"));
+      assertThat("Unexpected event types.", getEventTypes(history.id()),
+          is(List.of(HISTORY, STATUS)));
+    }
+  }
+
+  @Test
+  void shouldBroadcastDeleteEventWhenRemoved() {
+    History history = mongoTemplate.insert(buildHistory());
+    awaitEvents(history.id(), 1);
+
+    mongoTemplate.remove(history);
+
+    Map<String, Object> event = awaitEvents(history.id(), 2).get(1);
+    assertThat("Unexpected id.", event.get("id"), is(history.id().toString()));
+    assertThat("Unexpected status.", event.get("status"), is(DELETED.toString()));
+  }
+
+  @Test
+  void shouldSaveResumeTokenAfterBroadcast() {
+    ChangeStreamToken before = mongoTemplate.findById(ChangeStreamBroadcaster.STREAM_ID,
+        ChangeStreamToken.class);
+
+    History history = mongoTemplate.insert(buildHistory());
+    awaitEvents(history.id(), 1);
+
+    await()
+        .atMost(TIMEOUT)
+        .untilAsserted(() -> {
+          ChangeStreamToken after = mongoTemplate.findById(ChangeStreamBroadcaster.STREAM_ID,
+              ChangeStreamToken.class);
+          assertThat("Unexpected resume token.", after.resumeToken(), notNullValue());
+          assertThat("Unexpected token update.", after.updatedAt().isAfter(before.updatedAt()),
+              is(true));
+        });
+  }
+
+  /**
+   * Wait for the expected number of events to be published for a notification.
+   *
+   * @param id    The ID of the notification.
+   * @param count The number of events expected.
+   * @return The published events, in order.
+   */
+  private List<Map<String, Object>> awaitEvents(ObjectId id, int count) {
+    await()
+        .atMost(TIMEOUT)
+        .until(() -> published.stream().filter(e -> e.eventId().equals(id)).count() >= count);
+
+    List<Map<String, Object>> events = published.stream()
+        .filter(e -> e.eventId().equals(id))
+        .map(e -> {
+          try {
+            return objectMapper.readValue(e.payload(), new TypeReference<Map<String, Object>>() {
+            });
+          } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+          }
+        })
+        .toList();
+    assertThat("Unexpected event count.", events, hasSize(count));
+    return events;
+  }
+
+  /**
+   * Get the types of the events published for a notification.
+   *
+   * @param id The ID of the notification.
+   * @return The published event types, in order.
+   */
+  private List<HistoryEventType> getEventTypes(ObjectId id) {
+    return published.stream()
+        .filter(e -> e.eventId().equals(id))
+        .map(EventOutboxEntry::eventType)
+        .toList();
+  }
+
+  /**
+   * Build a scheduled notification history for test purposes.
+   *
+   * @return the built history.
+   */
+  private History buildHistory() {
+    return History.builder()
+        .type(FORM_UPDATED)
+        .recipient(new RecipientInfo("40", EMAIL, "test@tis.nhs.uk"))
+        .sentAt(Instant.now())
+        .status(SCHEDULED)
+        .build();
+  }
+}
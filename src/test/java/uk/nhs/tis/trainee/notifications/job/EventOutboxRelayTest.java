@@ -0,0 +1,296 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.HISTORY;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
+import uk.nhs.tis.trainee.notifications.service.EventBroadcastService;
+import uk.nhs.tis.trainee.notifications.service.EventOutbox;
+
+class EventOutboxRelayTest {
+
+  private static final int FETCH_SIZE = 100;
+  private static final int MAX_ATTEMPTS = 3;
+  private static final Duration RETRY_BACKOFF = Duration.ofSeconds(1);
+  private static final Duration MAX_RETRY_BACKOFF = Duration.ofSeconds(3);
+
+  private EventOutboxRelay job;
+
+  private EventOutbox eventOutbox;
+  private EventBroadcastService eventBroadcastService;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    eventOutbox = mock(EventOutbox.class);
+    when(eventOutbox.isEnabled()).thenReturn(true);
+    eventBroadcastService = mock(EventBroadcastService.class);
+    when(eventBroadcastService.publishOutboxEvents(any())).then(
+        inv -> toIds(inv.getArgument(0)));
+    meterRegistry = new SimpleMeterRegistry();
+
+    job = new EventOutboxRelay(eventOutbox, eventBroadcastService, meterRegistry, FETCH_SIZE,
+        MAX_ATTEMPTS, RETRY_BACKOFF, MAX_RETRY_BACKOFF);
+  }
+
+  @Test
+  void shouldNotRelayWhenOutboxDisabled() {
+    when(eventOutbox.isEnabled()).thenReturn(false);
+
+    job.execute();
+
+    verify(eventOutbox, never()).findUndelivered(anyInt());
+    verifyNoInteractions(eventBroadcastService);
+  }
+
+  @Test
+  void shouldNotPublishWhenNoUndeliveredEvents() {
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(List.of());
+
+    job.execute();
+
+    verifyNoInteractions(eventBroadcastService);
+  }
+
+  @Test
+  void shouldPublishUndeliveredEventsInBatchesOfTen() {
+    List<EventOutboxEntry> events = buildEvents(25);
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(events);
+
+    job.execute();
+
+    ArgumentCaptor<List<EventOutboxEntry>> batchCaptor = ArgumentCaptor.captor();
+    verify(eventBroadcastService, times(3)).publishOutboxEvents(batchCaptor.capture());
+
+    List<List<EventOutboxEntry>> batches = batchCaptor.getAllValues();
+    assertThat("Unexpected batch size.", batches.get(0), hasSize(10));
+    assertThat("Unexpected batch size.", batches.get(1), hasSize(10));
+    assertThat("Unexpected batch size.", batches.get(2), hasSize(5));
+    assertThat("Unexpected batch order.", batches.stream().flatMap(List::stream).toList(),
+        is(events));
+
+    verify(eventOutbox).markDelivered(toIds(events.subList(0, 10)));
+    verify(eventOutbox).markDelivered(toIds(events.subList(10, 20)));
+    verify(eventOutbox).markDelivered(toIds(events.subList(20, 25)));
+  }
+
+  @Test
+  void shouldNotBatchEventsForTheSameNotificationTogether() {
+    ObjectId eventId = ObjectId.get();
+    EventOutboxEntry created = buildEvent(eventId);
+    EventOutboxEntry other = buildEvent(ObjectId.get());
+    EventOutboxEntry updated = buildEvent(eventId);
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(List.of(created, other, updated));
+
+    job.execute();
+
+    ArgumentCaptor<List<EventOutboxEntry>> batchCaptor = ArgumentCaptor.captor();
+    verify(eventBroadcastService, times(2)).publishOutboxEvents(batchCaptor.capture());
+
+    List<List<EventOutboxEntry>> batches = batchCaptor.getAllValues();
+    assertThat("Unexpected first batch.", batches.get(0), contains(created, other));
+    assertThat("Unexpected second batch.", batches.get(1), contains(updated));
+  }
+
+  @Test
+  void shouldStopRelayingWhenBatchPartiallyFails() {
+    List<EventOutboxEntry> events = buildEvents(15);
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(events);
+    Set<ObjectId> completed = toIds(events.subList(0, 9));
+    doReturn(completed).when(eventBroadcastService).publishOutboxEvents(any());
+
+    job.execute();
+
+    verify(eventBroadcastService).publishOutboxEvents(any());
+    verify(eventOutbox).markDelivered(completed);
+    verify(eventOutbox).findUndelivered(FETCH_SIZE);
+
+    assertThat("Unexpected relayed count.",
+        meterRegistry.get("notifications.event.outbox.relayed").counter().count(), is(9.0));
+    assertThat("Unexpected failed count.",
+        meterRegistry.get("notifications.event.outbox.failed").counter().count(), is(1.0));
+  }
+
+  @Test
+  void shouldRetryFailedEventWithBackoff() {
+    EventOutboxEntry event = buildEvent(ObjectId.get());
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(List.of(event));
+    doReturn(Set.of()).when(eventBroadcastService).publishOutboxEvents(any());
+    Instant before = Instant.now();
+
+    job.execute();
+
+    ArgumentCaptor<Instant> retryAtCaptor = ArgumentCaptor.captor();
+    verify(eventOutbox).markRetry(eq(event.id()), retryAtCaptor.capture());
+    verify(eventOutbox, never()).markFailed(any());
+
+    Instant retryAt = retryAtCaptor.getValue();
+    assertThat("Unexpected retry at.", retryAt.isBefore(before.plus(RETRY_BACKOFF)), is(false));
+    assertThat("Unexpected retry at.", retryAt.isAfter(Instant.now().plus(RETRY_BACKOFF)),
+        is(false));
+  }
+
+  @Test
+  void shouldDoubleBackoffForEachFailedAttempt() {
+    EventOutboxEntry event = new EventOutboxEntry(ObjectId.get(), ObjectId.get(), HISTORY, "{}",
+        Instant.now(), 1, Instant.now(), null, null, null);
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(List.of(event));
+    doReturn(Set.of()).when(eventBroadcastService).publishOutboxEvents(any());
+    Instant before = Instant.now();
+
+    job.execute();
+
+    ArgumentCaptor<Instant> retryAtCaptor = ArgumentCaptor.captor();
+    verify(eventOutbox).markRetry(eq(event.id()), retryAtCaptor.capture());
+
+    Duration backoff = RETRY_BACKOFF.multipliedBy(2);
+    Instant retryAt = retryAtCaptor.getValue();
+    assertThat("Unexpected retry at.", retryAt.isBefore(before.plus(backoff)), is(false));
+    assertThat("Unexpected retry at.", retryAt.isAfter(Instant.now().plus(backoff)), is(false));
+  }
+
+  @Test
+  void shouldCapBackoffAtMaximum() {
+    EventOutboxEntry event = new EventOutboxEntry(ObjectId.get(), ObjectId.get(), HISTORY, "{}",
+        Instant.now(), 50, Instant.now(), null, null, null);
+    job = new EventOutboxRelay(eventOutbox, eventBroadcastService, meterRegistry, FETCH_SIZE,
+        100, RETRY_BACKOFF, MAX_RETRY_BACKOFF);
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(List.of(event));
+    doReturn(Set.of()).when(eventBroadcastService).publishOutboxEvents(any());
+    Instant before = Instant.now();
+
+    job.execute();
+
+    ArgumentCaptor<Instant> retryAtCaptor = ArgumentCaptor.captor();
+    verify(eventOutbox).markRetry(eq(event.id()), retryAtCaptor.capture());
+
+    Instant retryAt = retryAtCaptor.getValue();
+    assertThat("Unexpected retry at.", retryAt.isBefore(before.plus(MAX_RETRY_BACKOFF)),
+        is(false));
+    assertThat("Unexpected retry at.", retryAt.isAfter(Instant.now().plus(MAX_RETRY_BACKOFF)),
+        is(false));
+  }
+
+  @Test
+  void shouldDeadLetterEventWhenMaxAttemptsReached() {
+    EventOutboxEntry event = new EventOutboxEntry(ObjectId.get(), ObjectId.get(), HISTORY, "{}",
+        Instant.now(), MAX_ATTEMPTS - 1, Instant.now(), null, null, null);
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(List.of(event));
+    doReturn(Set.of()).when(eventBroadcastService).publishOutboxEvents(any());
+
+    job.execute();
+
+    verify(eventOutbox).markFailed(event.id());
+    verify(eventOutbox, never()).markRetry(any(), any());
+    assertThat("Unexpected dead-lettered count.",
+        meterRegistry.get("notifications.event.outbox.dead-lettered").counter().count(),
+        is(1.0));
+  }
+
+  @Test
+  void shouldOnlyRetryFailedEventsWhenBatchPartiallyFails() {
+    List<EventOutboxEntry> events = buildEvents(3);
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(events);
+    Set<ObjectId> completed = toIds(List.of(events.get(0), events.get(2)));
+    doReturn(completed).when(eventBroadcastService).publishOutboxEvents(any());
+
+    job.execute();
+
+    verify(eventOutbox).markDelivered(completed);
+    verify(eventOutbox).markRetry(eq(events.get(1).id()), any());
+    verify(eventOutbox, never()).markRetry(eq(events.get(0).id()), any());
+    verify(eventOutbox, never()).markRetry(eq(events.get(2).id()), any());
+  }
+
+  @Test
+  void shouldContinueRelayingWhenFetchLimitReached() {
+    List<EventOutboxEntry> firstPage = buildEvents(FETCH_SIZE);
+    List<EventOutboxEntry> secondPage = buildEvents(1);
+    when(eventOutbox.findUndelivered(FETCH_SIZE)).thenReturn(firstPage, secondPage);
+
+    job.execute();
+
+    verify(eventOutbox, times(2)).findUndelivered(FETCH_SIZE);
+    verify(eventBroadcastService, times(11)).publishOutboxEvents(any());
+    assertThat("Unexpected relayed count.",
+        meterRegistry.get("notifications.event.outbox.relayed").counter().count(),
+        is((double) FETCH_SIZE + 1));
+  }
+
+  /**
+   * Build undelivered outbox events, each for a different notification.
+   *
+   * @param count The number of events to build.
+   * @return The built events.
+   */
+  private List<EventOutboxEntry> buildEvents(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> buildEvent(ObjectId.get()))
+        .toList();
+  }
+
+  /**
+   * Build an undelivered outbox event.
+   *
+   * @param eventId The ID of the notification the event is for.
+   * @return The built event.
+   */
+  private EventOutboxEntry buildEvent(ObjectId eventId) {
+    return new EventOutboxEntry(ObjectId.get(), eventId, HISTORY, "{}", Instant.now());
+  }
+
+  /**
+   * Get the outbox entry IDs of the given events.
+   *
+   * @param events The events to get the IDs of.
+   * @return The outbox entry IDs.
+   */
+  private Set<ObjectId> toIds(List<EventOutboxEntry> events) {
+    return Set.copyOf(events.stream().map(EventOutboxEntry::id).toList());
+  }
+}
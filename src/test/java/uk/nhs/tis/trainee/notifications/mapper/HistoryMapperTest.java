@@ -29,13 +29,16 @@ import static org.hamcrest.Matchers.lessThan;
 
 import java.time.Duration;
 import java.time.Instant;
+import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.EnumSource.Mode;
 import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.HistoryStatusEvent;
 import uk.nhs.tis.trainee.notifications.model.NotificationStatus;
+import uk.nhs.tis.trainee.notifications.model.NotificationType;
 
 class HistoryMapperTest {
 
@@ -77,4 +80,28 @@ class HistoryMapperTest {
     long diffSeconds = Instant.now().getEpochSecond() - readAt.getEpochSecond();
     assertThat("Unexpected readAt timestamp drift.", diffSeconds, lessThan(10L));
   }
+
+  @Test
+  void shouldMapStatusFieldsToStatusEvent() {
+    ObjectId id = ObjectId.get();
+    Instant latestStatusEventAt = Instant.now().minus(Duration.ofHours(1));
+    Instant readAt = Instant.now();
+    History entity = History.builder()
+        .id(id)
+        .type(NotificationType.LTFT_SUBMITTED)
+        .status(NotificationStatus.READ)
+        .statusDetail("some detail")
+        .latestStatusEventAt(latestStatusEventAt)
+        .readAt(readAt)
+        .build();
+
+    HistoryStatusEvent event = mapper.toStatusEvent(entity);
+
+    assertThat("Unexpected id.", event.id(), is(id));
+    assertThat("Unexpected status.", event.status(), is(NotificationStatus.READ));
+    assertThat("Unexpected status detail.", event.statusDetail(), is("some detail"));
+    assertThat("Unexpected latest status event at.", event.latestStatusEventAt(),
+        is(latestStatusEventAt));
+    assertThat("Unexpected read at.", event.readAt(), is(readAt));
+  }
 }
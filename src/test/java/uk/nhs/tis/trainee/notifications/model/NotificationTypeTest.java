@@ -24,6 +24,9 @@ package uk.nhs.tis.trainee.notifications.model;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static uk.nhs.tis.trainee.notifications.model.NotificationPriority.BULK;
+import static uk.nhs.tis.trainee.notifications.model.NotificationPriority.TRANSACTIONAL;
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_CREATED;
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_DAY_ONE;
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_UPDATED_WEEK_12;
@@ -34,6 +37,8 @@ import static uk.nhs.tis.trainee.notifications.model.NotificationType.getActiveP
 
 import java.util.Set;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 class NotificationTypeTest {
 
@@ -59,4 +64,22 @@ class NotificationTypeTest {
     assertThat("Unexpected active types.", activeTypes,
         hasItems(PROGRAMME_CREATED, PROGRAMME_DAY_ONE));
   }
+
+  @ParameterizedTest
+  @EnumSource(value = NotificationType.class, names = {"PLACEMENT_ROLLOUT_2024_CORRECTION",
+      "PLACEMENT_UPDATED_WEEK_12", "PLACEMENT_UPDATED_WEEK_12_FOUNDATION", "PROGRAMME_DAY_ONE",
+      "PROGRAMME_UPDATED_WEEK_12", "PROGRAMME_UPDATED_WEEK_8", "PROGRAMME_UPDATED_WEEK_4",
+      "PROGRAMME_UPDATED_WEEK_2", "PROGRAMME_UPDATED_WEEK_1", "PROGRAMME_UPDATED_WEEK_0",
+      "PROGRAMME_CREATED", "PROGRAMME_POG_MONTH_12", "PROGRAMME_POG_MONTH_6"})
+  void shouldGetBulkPriorityForReminderTypes(NotificationType notificationType) {
+    assertThat("Unexpected priority.", notificationType.getPriority(), is(BULK));
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = NotificationType.class, names = {"COJ_CONFIRMATION", "EMAIL_UPDATED_NEW",
+      "EMAIL_UPDATED_OLD", "FORM_SUBMITTED", "FORM_UPDATED", "GMC_UPDATED", "LTFT_APPROVED",
+      "LTFT_SUBMITTED"})
+  void shouldGetTransactionalPriorityForNonReminderTypes(NotificationType notificationType) {
+    assertThat("Unexpected priority.", notificationType.getPriority(), is(TRANSACTIONAL));
+  }
 }
@@ -0,0 +1,241 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_PDF_VALUE;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.activation.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import uk.nhs.tis.trainee.notifications.dto.StoredFile;
+
+class AttachmentCacheTest {
+
+  private static final String BUCKET = "my-bucket";
+  private static final String KEY = "key/file.pdf";
+  private static final StoredFile STORED_FILE = new StoredFile(BUCKET, KEY);
+  private static final String ETAG_1 = "\"etag-1\"";
+  private static final String ETAG_2 = "\"etag-2\"";
+
+  @TempDir
+  Path tempDir;
+
+  private AttachmentCache cache;
+  private S3Client s3Client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    s3Client = mock(S3Client.class);
+    cache = new AttachmentCache(s3Client, new SimpleMeterRegistry(), tempDir.toString(),
+        DataSize.ofMegabytes(1));
+  }
+
+  @AfterEach
+  void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  void shouldStreamDownloadedAttachment() throws IOException {
+    stubObject(ETAG_1, "test content");
+
+    DataSource dataSource = cache.getDataSource(STORED_FILE);
+
+    assertThat("Unexpected name.", dataSource.getName(), is("file.pdf"));
+    assertThat("Unexpected content type.", dataSource.getContentType(),
+        is(APPLICATION_PDF_VALUE));
+    assertThat("Unexpected content.", read(dataSource), is("test content"));
+  }
+
+  @Test
+  void shouldDownloadMatchingVersion() throws IOException {
+    stubObject(ETAG_1, "test content");
+
+    cache.getDataSource(STORED_FILE);
+
+    ArgumentCaptor<GetObjectRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(s3Client).getObject(requestCaptor.capture());
+
+    GetObjectRequest request = requestCaptor.getValue();
+    assertThat("Unexpected bucket.", request.bucket(), is(BUCKET));
+    assertThat("Unexpected key.", request.key(), is(KEY));
+    assertThat("Unexpected if-match.", request.ifMatch(), is(ETAG_1));
+  }
+
+  @Test
+  void shouldNotDownloadAgainWhenVersionCached() throws IOException {
+    stubObject(ETAG_1, "test content");
+
+    cache.getDataSource(STORED_FILE);
+    DataSource dataSource = cache.getDataSource(STORED_FILE);
+
+    assertThat("Unexpected content.", read(dataSource), is("test content"));
+    verify(s3Client, times(2)).headObject(any(HeadObjectRequest.class));
+    verify(s3Client).getObject(any(GetObjectRequest.class));
+  }
+
+  @Test
+  void shouldDownloadAgainWhenVersionChanged() throws IOException {
+    stubObject(ETAG_1, "test content");
+    cache.getDataSource(STORED_FILE);
+
+    stubObject(ETAG_2, "updated content");
+    DataSource dataSource = cache.getDataSource(STORED_FILE);
+
+    assertThat("Unexpected content.", read(dataSource), is("updated content"));
+    verify(s3Client, times(2)).getObject(any(GetObjectRequest.class));
+  }
+
+  @Test
+  void shouldDownloadAgainWhenCachedFileRemoved() throws IOException {
+    stubObject(ETAG_1, "test content");
+    DataSource dataSource = cache.getDataSource(STORED_FILE);
+
+    deleteCachedFiles();
+
+    assertThat("Unexpected content.", read(dataSource), is("test content"));
+    verify(s3Client, times(2)).getObject(any(GetObjectRequest.class));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenFileNotFound() {
+    when(s3Client.headObject(any(HeadObjectRequest.class))).thenThrow(
+        NoSuchKeyException.builder().build());
+
+    IOException exception = assertThrows(IOException.class,
+        () -> cache.getDataSource(STORED_FILE));
+
+    assertThat("Unexpected message.", exception.getMessage(),
+        is("Unable to find file 'my-bucket:key/file.pdf'."));
+    verify(s3Client, never()).getObject(any(GetObjectRequest.class));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenDownloadFails() throws IOException {
+    when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(
+        HeadObjectResponse.builder().eTag(ETAG_1).build());
+    when(s3Client.getObject(any(GetObjectRequest.class))).thenThrow(
+        NoSuchKeyException.builder().build());
+
+    IOException exception = assertThrows(IOException.class,
+        () -> cache.getDataSource(STORED_FILE));
+
+    assertThat("Unexpected message.", exception.getMessage(),
+        is("Unable to read file 'my-bucket:key/file.pdf'."));
+
+    try (Stream<Path> files = Files.walk(tempDir)) {
+      List<Path> cachedFiles = files.filter(Files::isRegularFile).toList();
+      assertThat("Unexpected cached file count.", cachedFiles.size(), is(0));
+    }
+  }
+
+  @Test
+  void shouldRemoveCacheDirectoryWhenClosed() throws IOException {
+    stubObject(ETAG_1, "test content");
+    cache.getDataSource(STORED_FILE);
+
+    cache.close();
+
+    try (Stream<Path> files = Files.list(tempDir)) {
+      assertThat("Unexpected file count.", files.count(), is(0L));
+    }
+  }
+
+  @Test
+  void shouldBuildKeyFromBucketKeyAndETag() {
+    String key = AttachmentCache.buildKey(STORED_FILE, ETAG_1);
+
+    assertThat("Unexpected key.", key, is("my-bucket:key/file.pdf:\"etag-1\""));
+  }
+
+  /**
+   * Stub the S3 client to return an object with the given version and content.
+   *
+   * @param eTag    The ETag of the object.
+   * @param content The content of the object.
+   */
+  private void stubObject(String eTag, String content) {
+    when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(
+        HeadObjectResponse.builder().eTag(eTag).contentType(APPLICATION_PDF_VALUE).build());
+    when(s3Client.getObject(any(GetObjectRequest.class))).thenAnswer(
+        inv -> new ResponseInputStream<>(
+            GetObjectResponse.builder().eTag(eTag).contentType(APPLICATION_PDF_VALUE).build(),
+            AbortableInputStream.create(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))));
+  }
+
+  /**
+   * Read the content of a data source.
+   *
+   * @param dataSource The data source to read.
+   * @return The content of the data source.
+   * @throws IOException If the data source could not be read.
+   */
+  private static String read(DataSource dataSource) throws IOException {
+    try (InputStream inputStream = dataSource.getInputStream()) {
+      return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  /**
+   * Delete any cached attachment files.
+   *
+   * @throws IOException If the files could not be deleted.
+   */
+  private void deleteCachedFiles() throws IOException {
+    try (Stream<Path> files = Files.walk(tempDir)) {
+      for (Path file : files.filter(Files::isRegularFile).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+}
@@ -0,0 +1,398 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.NotificationPriority.BULK;
+import static uk.nhs.tis.trainee.notifications.service.BulkEmailSender.MAX_BATCH_SIZE;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.EnumSource.Mode;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import software.amazon.awssdk.services.sesv2.SesV2Client;
+import software.amazon.awssdk.services.sesv2.model.AlreadyExistsException;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailEntry;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailEntryResult;
+import software.amazon.awssdk.services.sesv2.model.BulkEmailStatus;
+import software.amazon.awssdk.services.sesv2.model.CreateEmailTemplateRequest;
+import software.amazon.awssdk.services.sesv2.model.SendBulkEmailRequest;
+import software.amazon.awssdk.services.sesv2.model.SendBulkEmailResponse;
+import software.amazon.awssdk.services.sesv2.model.SesV2Exception;
+import uk.nhs.tis.trainee.notifications.model.BulkEmailMessage;
+import uk.nhs.tis.trainee.notifications.model.NotificationType;
+import uk.nhs.tis.trainee.notifications.repository.BulkEmailMessageRepository;
+
+class BulkEmailSenderTest {
+
+  private static final String SENDER = "sender@test.email";
+  private static final String SES_TEMPLATE = "bulk-template";
+  private static final String TEMPLATE_1 = "email/programme-updated-week-12/v1.0.0";
+  private static final String TEMPLATE_2 = "email/programme-updated-week-4/v1.0.0";
+  private static final Duration RETENTION = Duration.ofDays(14);
+
+  private BulkEmailSender sender;
+  private SesV2Client sesClient;
+  private SendRateGovernor sendRateGovernor;
+  private BulkEmailMessageRepository messageRepository;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    sesClient = mock(SesV2Client.class);
+    when(sesClient.sendBulkEmail(any(SendBulkEmailRequest.class))).thenAnswer(inv -> {
+      SendBulkEmailRequest request = inv.getArgument(0);
+      List<BulkEmailEntryResult> results = request.bulkEmailEntries().stream()
+          .map(entry -> BulkEmailEntryResult.builder()
+              .status(BulkEmailStatus.SUCCESS)
+              .messageId("message-" + entry.destination().toAddresses().get(0))
+              .build())
+          .toList();
+      return SendBulkEmailResponse.builder().bulkEmailEntryResults(results).build();
+    });
+
+    sendRateGovernor = mock(SendRateGovernor.class);
+    doAnswer(inv -> {
+      inv.getArgument(2, Runnable.class).run();
+      return null;
+    }).when(sendRateGovernor).execute(any(), anyInt(), any());
+
+    messageRepository = mock(BulkEmailMessageRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+    sender = createSender(2, Duration.ofMinutes(1), "");
+  }
+
+  @AfterEach
+  void tearDown() {
+    sender.shutdown();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 51})
+  void shouldThrowExceptionWhenBatchSizeOutOfRange(int batchSize) {
+    assertThrows(IllegalArgumentException.class,
+        () -> createSender(batchSize, Duration.ofMinutes(1), ""));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenOutboxConcurrencyLessThanBatchSize() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new BulkEmailSender(sesClient, sendRateGovernor, messageRepository, meterRegistry,
+            SENDER, SES_TEMPLATE, "", 10, Duration.ofMinutes(1), RETENTION, 1, 9));
+  }
+
+  @Test
+  void shouldReturnBatchSize() {
+    int batchSize = sender.getBatchSize();
+
+    assertThat("Unexpected batch size.", batchSize, is(2));
+  }
+
+  @ParameterizedTest
+  @EnumSource(NotificationType.class)
+  void shouldSupportOnlyBulkPriorityNotificationTypes(NotificationType notificationType) {
+    boolean supported = sender.supports(notificationType);
+
+    assertThat("Unexpected support.", supported, is(notificationType.getPriority() == BULK));
+  }
+
+  @Test
+  void shouldNotSendBatchBeforeFullOrLingered() {
+    CompletableFuture<String> result = submit(TEMPLATE_1, "one@example.com");
+
+    assertThat("Unexpected completion.", result.isDone(), is(false));
+    verify(sesClient, never()).sendBulkEmail(any(SendBulkEmailRequest.class));
+  }
+
+  @Test
+  void shouldSendBatchWhenFull() throws Exception {
+    CompletableFuture<String> result1 = submit(TEMPLATE_1, "one@example.com");
+    CompletableFuture<String> result2 = submit(TEMPLATE_1, "two@example.com");
+
+    assertThat("Unexpected message ID.", result1.get(5, TimeUnit.SECONDS),
+        is("message-one@example.com"));
+    assertThat("Unexpected message ID.", result2.get(5, TimeUnit.SECONDS),
+        is("message-two@example.com"));
+
+    ArgumentCaptor<SendBulkEmailRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(sesClient).sendBulkEmail(requestCaptor.capture());
+
+    SendBulkEmailRequest request = requestCaptor.getValue();
+    assertThat("Unexpected sender.", request.fromEmailAddress(), is(SENDER));
+    assertThat("Unexpected template.", request.defaultContent().template().templateName(),
+        is(SES_TEMPLATE));
+    assertThat("Unexpected configuration set.", request.configurationSetName(), nullValue());
+    assertThat("Unexpected entry count.", request.bulkEmailEntries(), hasSize(2));
+  }
+
+  @Test
+  void shouldSendBatchWhenLingered() throws Exception {
+    sender = createSender(50, Duration.ofMillis(50), "");
+
+    CompletableFuture<String> result = submit(TEMPLATE_1, "one@example.com");
+
+    assertThat("Unexpected message ID.", result.get(5, TimeUnit.SECONDS),
+        is("message-one@example.com"));
+  }
+
+  @Test
+  void shouldBatchByTemplate() throws Exception {
+    CompletableFuture<String> result1 = submit(TEMPLATE_1, "one@example.com");
+    CompletableFuture<String> result2 = submit(TEMPLATE_2, "two@example.com");
+
+    assertThat("Unexpected completion.", result1.isDone(), is(false));
+    assertThat("Unexpected completion.", result2.isDone(), is(false));
+
+    sender.shutdown();
+
+    assertThat("Unexpected message ID.", result1.get(5, TimeUnit.SECONDS),
+        is("message-one@example.com"));
+    assertThat("Unexpected message ID.", result2.get(5, TimeUnit.SECONDS),
+        is("message-two@example.com"));
+    verify(sesClient, times(2)).sendBulkEmail(any(SendBulkEmailRequest.class));
+  }
+
+  @Test
+  void shouldIncludeRenderedContentAsTemplateData() throws Exception {
+    ObjectId notificationId = ObjectId.get();
+    sender.submit(TEMPLATE_1, BULK, notificationId, "one@example.com", "Subject \"1\"",
+        "<p>Content</p>");
+    submit(TEMPLATE_1, "two@example.com").get(5, TimeUnit.SECONDS);
+
+    ArgumentCaptor<SendBulkEmailRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(sesClient).sendBulkEmail(requestCaptor.capture());
+
+    BulkEmailEntry entry = requestCaptor.getValue().bulkEmailEntries().get(0);
+    assertThat("Unexpected recipient.", entry.destination().toAddresses(),
+        is(List.of("one@example.com")));
+
+    String templateData = entry.replacementEmailContent().replacementTemplate()
+        .replacementTemplateData();
+    JsonNode data = new ObjectMapper().readTree(templateData);
+    assertThat("Unexpected subject.", data.get(BulkEmailSender.SUBJECT_FIELD).asText(),
+        is("Subject \"1\""));
+    assertThat("Unexpected content.", data.get(BulkEmailSender.CONTENT_FIELD).asText(),
+        is("<p>Content</p>"));
+  }
+
+  @Test
+  void shouldSetConfigurationSetWhenProvided() throws Exception {
+    sender = createSender(1, Duration.ofMinutes(1), "bulk-events");
+
+    submit(TEMPLATE_1, "one@example.com").get(5, TimeUnit.SECONDS);
+
+    ArgumentCaptor<SendBulkEmailRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(sesClient).sendBulkEmail(requestCaptor.capture());
+    assertThat("Unexpected configuration set.", requestCaptor.getValue().configurationSetName(),
+        is("bulk-events"));
+  }
+
+  @Test
+  void shouldReservePermitForEachEmail() throws Exception {
+    submit(TEMPLATE_1, "one@example.com");
+    submit(TEMPLATE_1, "two@example.com").get(5, TimeUnit.SECONDS);
+
+    verify(sendRateGovernor).execute(eq(BULK), eq(2), any());
+  }
+
+  @Test
+  void shouldCreateSesTemplateOnce() throws Exception {
+    sender = createSender(1, Duration.ofMinutes(1), "");
+
+    submit(TEMPLATE_1, "one@example.com").get(5, TimeUnit.SECONDS);
+    submit(TEMPLATE_2, "two@example.com").get(5, TimeUnit.SECONDS);
+
+    ArgumentCaptor<CreateEmailTemplateRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(sesClient).createEmailTemplate(requestCaptor.capture());
+
+    CreateEmailTemplateRequest request = requestCaptor.getValue();
+    assertThat("Unexpected template name.", request.templateName(), is(SES_TEMPLATE));
+    assertThat("Unexpected subject.", request.templateContent().subject(),
+        is("{{{subject}}}"));
+    assertThat("Unexpected html.", request.templateContent().html(), is("{{{content}}}"));
+  }
+
+  @Test
+  void shouldSendWhenSesTemplateAlreadyExists() throws Exception {
+    when(sesClient.createEmailTemplate(any(CreateEmailTemplateRequest.class))).thenThrow(
+        AlreadyExistsException.builder().message("exists").build());
+    sender = createSender(1, Duration.ofMinutes(1), "");
+
+    CompletableFuture<String> result = submit(TEMPLATE_1, "one@example.com");
+
+    assertThat("Unexpected message ID.", result.get(5, TimeUnit.SECONDS),
+        is("message-one@example.com"));
+  }
+
+  @Test
+  void shouldStoreMessageIdMappingsForSentEmails() throws Exception {
+    ObjectId notificationId1 = ObjectId.get();
+    ObjectId notificationId2 = ObjectId.get();
+
+    sender.submit(TEMPLATE_1, BULK, notificationId1, "one@example.com", "", "");
+    sender.submit(TEMPLATE_1, BULK, notificationId2, "two@example.com", "", "")
+        .get(5, TimeUnit.SECONDS);
+
+    ArgumentCaptor<List<BulkEmailMessage>> messagesCaptor = ArgumentCaptor.captor();
+    verify(messageRepository).saveAll(messagesCaptor.capture());
+
+    List<BulkEmailMessage> messages = messagesCaptor.getValue();
+    assertThat("Unexpected message count.", messages, hasSize(2));
+    assertThat("Unexpected message ID.", messages.get(0).messageId(),
+        is("message-one@example.com"));
+    assertThat("Unexpected notification ID.", messages.get(0).notificationId(),
+        is(notificationId1));
+    assertThat("Unexpected message ID.", messages.get(1).messageId(),
+        is("message-two@example.com"));
+    assertThat("Unexpected notification ID.", messages.get(1).notificationId(),
+        is(notificationId2));
+    assertThat("Unexpected expiry.",
+        messages.get(0).expiresAt().isAfter(Instant.now().plus(RETENTION).minusSeconds(60)),
+        is(true));
+  }
+
+  @Test
+  void shouldCompleteSentEmailsWhenMessageIdMappingsNotStored() throws Exception {
+    when(messageRepository.saveAll(any())).thenThrow(new RuntimeException("expected"));
+    sender = createSender(1, Duration.ofMinutes(1), "");
+
+    CompletableFuture<String> result = submit(TEMPLATE_1, "one@example.com");
+
+    assertThat("Unexpected message ID.", result.get(5, TimeUnit.SECONDS),
+        is("message-one@example.com"));
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = BulkEmailStatus.class, mode = Mode.EXCLUDE, names = "SUCCESS")
+  void shouldFailOnlyUnsuccessfulEmails(BulkEmailStatus status) throws Exception {
+    when(sesClient.sendBulkEmail(any(SendBulkEmailRequest.class))).thenReturn(
+        SendBulkEmailResponse.builder().bulkEmailEntryResults(
+            BulkEmailEntryResult.builder().status(BulkEmailStatus.SUCCESS).messageId("1").build(),
+            BulkEmailEntryResult.builder().status(status).error("error").build()
+        ).build());
+
+    CompletableFuture<String> result1 = submit(TEMPLATE_1, "one@example.com");
+    CompletableFuture<String> result2 = submit(TEMPLATE_1, "two@example.com");
+
+    assertThat("Unexpected message ID.", result1.get(5, TimeUnit.SECONDS), is("1"));
+    ExecutionException exception = assertThrows(ExecutionException.class,
+        () -> result2.get(5, TimeUnit.SECONDS));
+    assertThat("Unexpected cause.", exception.getCause(), instanceOf(MailSendException.class));
+    assertThat("Unexpected message.", exception.getCause().getMessage(),
+        containsString("error"));
+
+    ArgumentCaptor<List<BulkEmailMessage>> messagesCaptor = ArgumentCaptor.captor();
+    verify(messageRepository).saveAll(messagesCaptor.capture());
+    assertThat("Unexpected message count.", messagesCaptor.getValue(), hasSize(1));
+
+    double failed = meterRegistry.get("notifications.email.bulk.failed").counter().count();
+    assertThat("Unexpected failed count.", failed, is(1.0));
+  }
+
+  @Test
+  void shouldFailAllEmailsWhenBulkSendFails() {
+    SesV2Exception sendException = (SesV2Exception) SesV2Exception.builder()
+        .message("expected").build();
+    when(sesClient.sendBulkEmail(any(SendBulkEmailRequest.class))).thenThrow(sendException);
+
+    CompletableFuture<String> result1 = submit(TEMPLATE_1, "one@example.com");
+    CompletableFuture<String> result2 = submit(TEMPLATE_1, "two@example.com");
+
+    ExecutionException exception1 = assertThrows(ExecutionException.class,
+        () -> result1.get(5, TimeUnit.SECONDS));
+    assertThat("Unexpected cause.", exception1.getCause(), is(sendException));
+    ExecutionException exception2 = assertThrows(ExecutionException.class,
+        () -> result2.get(5, TimeUnit.SECONDS));
+    assertThat("Unexpected cause.", exception2.getCause(), is(sendException));
+    verify(messageRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void shouldRecordBatchSizeMetric() throws Exception {
+    submit(TEMPLATE_1, "one@example.com");
+    submit(TEMPLATE_1, "two@example.com").get(5, TimeUnit.SECONDS);
+
+    double batchSize = meterRegistry.get("notifications.email.bulk.batch.size").summary()
+        .totalAmount();
+    assertThat("Unexpected batch size.", batchSize, is(2.0));
+  }
+
+  /**
+   * Submit an email with a new notification ID.
+   *
+   * @param templateName The template name to submit with.
+   * @param recipient    The recipient to submit with.
+   * @return The future result of the send.
+   */
+  private CompletableFuture<String> submit(String templateName, String recipient) {
+    return sender.submit(templateName, BULK, ObjectId.get(), recipient, "Subject", "Content");
+  }
+
+  /**
+   * Create a bulk email sender, shutting down the current sender.
+   *
+   * @param batchSize        The batch size to use.
+   * @param linger           The linger time to use.
+   * @param configurationSet The configuration set to use.
+   * @return The created sender.
+   */
+  private BulkEmailSender createSender(int batchSize, Duration linger, String configurationSet) {
+    if (sender != null) {
+      sender.shutdown();
+    }
+
+    return new BulkEmailSender(sesClient, sendRateGovernor, messageRepository, meterRegistry,
+        SENDER, SES_TEMPLATE, configurationSet, batchSize, linger, RETENTION, 1,
+        MAX_BATCH_SIZE);
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import uk.nhs.tis.trainee.notifications.service.EmailPipeline.Stage;
+
+class EmailPipelineTest {
+
+  private EmailPipeline pipeline;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    pipeline = new EmailPipeline(meterRegistry, 1, 1, 1, 1, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pipeline.shutdown();
+  }
+
+  @ParameterizedTest
+  @EnumSource(Stage.class)
+  void shouldRunStageOnStageThread(Stage stage) throws MessagingException {
+    CompletableFuture<String> result = pipeline.start(stage,
+        () -> Thread.currentThread().getName());
+
+    pipeline.await(result);
+    assertThat("Unexpected thread.", result.join(),
+        startsWith("email-" + stage.getStageName() + "-"));
+  }
+
+  @Test
+  void shouldPassOutputToNextStage() throws MessagingException {
+    CompletableFuture<Integer> rendered = pipeline.start(Stage.RENDER, () -> 1);
+    CompletableFuture<Integer> assembled = pipeline.then(rendered, Stage.ASSEMBLE, i -> i + 1);
+    CompletableFuture<Integer> submitted = pipeline.then(assembled, Stage.SUBMIT, i -> i * 10);
+
+    pipeline.await(submitted);
+    assertThat("Unexpected output.", submitted.join(), is(20));
+  }
+
+  @Test
+  void shouldRethrowMessagingExceptionWhenAwaiting() {
+    MessagingException cause = new MessagingException("error");
+    CompletableFuture<Object> rendered = pipeline.start(Stage.RENDER, () -> {
+      throw cause;
+    });
+    CompletableFuture<Object> recorded = pipeline.then(rendered, Stage.RECORD, o -> o);
+
+    MessagingException exception = assertThrows(MessagingException.class,
+        () -> pipeline.await(recorded));
+    assertThat("Unexpected exception.", exception, sameInstance(cause));
+  }
+
+  @Test
+  void shouldRethrowRuntimeExceptionWhenAwaiting() {
+    IllegalArgumentException cause = new IllegalArgumentException("error");
+    CompletableFuture<Object> submitted = pipeline.start(Stage.SUBMIT, () -> {
+      throw cause;
+    });
+
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> pipeline.await(submitted));
+    assertThat("Unexpected exception.", exception, sameInstance(cause));
+  }
+
+  @Test
+  void shouldNotRunLaterStagesWhenStageFails() {
+    CountDownLatch recorded = new CountDownLatch(1);
+    CompletableFuture<Object> submitted = pipeline.start(Stage.SUBMIT, () -> {
+      throw new IllegalStateException("error");
+    });
+    CompletableFuture<Object> record = pipeline.then(submitted, Stage.RECORD, o -> {
+      recorded.countDown();
+      return o;
+    });
+
+    assertThrows(IllegalStateException.class, () -> pipeline.await(record));
+    assertThat("Unexpected record count.", recorded.getCount(), is(1L));
+  }
+
+  @Test
+  void shouldBlockWhenStageQueueFull() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    pipeline.start(Stage.SUBMIT, () -> release.await(5, TimeUnit.SECONDS));
+    pipeline.start(Stage.SUBMIT, () -> true);
+
+    CompletableFuture<Boolean> blocked = CompletableFuture.supplyAsync(
+        () -> pipeline.start(Stage.SUBMIT, () -> true).join());
+
+    Thread.sleep(100);
+    assertThat("Unexpected blocked state.", blocked.isDone(), is(false));
+
+    double depth = meterRegistry.get("notifications.email.pipeline.queue.depth")
+        .tag("stage", "submit").gauge().value();
+    assertThat("Unexpected queue depth.", depth, is(1.0));
+
+    release.countDown();
+    assertThat("Unexpected result.", blocked.get(5, TimeUnit.SECONDS), is(true));
+  }
+
+  @Test
+  void shouldRecordStageTimings() throws MessagingException {
+    CompletableFuture<Integer> rendered = pipeline.start(Stage.RENDER, () -> 1);
+    pipeline.await(pipeline.then(rendered, Stage.RECORD, i -> i));
+
+    long renderCount = meterRegistry.get("notifications.email.pipeline.stage")
+        .tag("stage", "render").timer().count();
+    assertThat("Unexpected render count.", renderCount, is(1L));
+
+    long recordCount = meterRegistry.get("notifications.email.pipeline.stage")
+        .tag("stage", "record").timer().count();
+    assertThat("Unexpected record count.", recordCount, is(1L));
+  }
+
+  @Test
+  void shouldRejectSendsAfterShutdown() {
+    pipeline.shutdown();
+
+    assertThrows(RejectedExecutionException.class, () -> pipeline.start(Stage.RENDER, () -> 1));
+  }
+}
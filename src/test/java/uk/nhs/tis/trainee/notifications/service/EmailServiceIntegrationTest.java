@@ -50,7 +50,7 @@ import static uk.nhs.tis.trainee.notifications.service.PlacementService.START_DA
 import static uk.nhs.tis.trainee.notifications.service.ProgrammeMembershipService.GMC_NUMBER_FIELD;
 import static uk.nhs.tis.trainee.notifications.service.ProgrammeMembershipService.PROGRAMME_NUMBER_FIELD;
 
-import io.awspring.cloud.s3.S3Template;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.mail.Session;
 import jakarta.mail.internet.MimeMessage;
 import java.time.Instant;
@@ -83,7 +83,8 @@ import org.springframework.web.client.RestTemplate;
 import uk.nhs.tis.trainee.notifications.dto.UserDetails;
 import uk.nhs.tis.trainee.notifications.model.NotificationType;
 
-@SpringBootTest(classes = {EmailService.class, TemplateService.class})
+@SpringBootTest(classes = {EmailService.class, EmailPipeline.class, TemplateService.class,
+    TemplateOutputCache.class, SendRateGovernor.class, SimpleMeterRegistry.class})
 @ImportAutoConfiguration(ThymeleafAutoConfiguration.class)
 class EmailServiceIntegrationTest {
 
@@ -108,7 +109,7 @@ class EmailServiceIntegrationTest {
   private RestTemplate restTemplate;
 
   @MockitoBean
-  private S3Template s3Template;
+  private AttachmentCache attachmentCache;
 
   @Autowired
   private EmailService service;
@@ -31,10 +31,11 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -49,8 +50,7 @@ import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SCHEDULE
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_CREATED;
 import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PLACEMENT;
 
-import io.awspring.cloud.s3.S3Resource;
-import io.awspring.cloud.s3.S3Template;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.activation.DataHandler;
 import jakarta.mail.Address;
 import jakarta.mail.MessagingException;
@@ -58,18 +58,23 @@ import jakarta.mail.Session;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.MimeMessage.RecipientType;
 import jakarta.mail.internet.MimeMultipart;
+import jakarta.mail.util.ByteArrayDataSource;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.Writer;
 import java.net.URI;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -77,8 +82,11 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.EnumSource.Mode;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.thymeleaf.context.Context;
 import software.amazon.awssdk.services.cognitoidentityprovider.model.UserNotFoundException;
@@ -91,6 +99,7 @@ import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
 import uk.nhs.tis.trainee.notifications.model.MessageType;
 import uk.nhs.tis.trainee.notifications.model.NotificationType;
 import uk.nhs.tis.trainee.notifications.model.TisReferenceType;
+import uk.nhs.tis.trainee.notifications.service.SendDeduplicationService.ClaimStatus;
 
 class EmailServiceTest {
 
@@ -109,8 +118,13 @@ class EmailServiceTest {
   private UserAccountService userAccountService;
   private HistoryService historyService;
   private JavaMailSender mailSender;
+  private SendRateGovernor sendRateGovernor;
   private TemplateService templateService;
-  private S3Template s3Template;
+  private AttachmentCache attachmentCache;
+  private EmailPipeline emailPipeline;
+  private ObjectProvider<BulkEmailSender> bulkEmailSenderProvider;
+  private BulkEmailSender bulkEmailSender;
+  private SendDeduplicationService deduplicationService;
 
   @BeforeEach
   void setUp() {
@@ -123,15 +137,32 @@ class EmailServiceTest {
     mailSender = mock(JavaMailSender.class);
     when(mailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
 
+    sendRateGovernor = mock(SendRateGovernor.class);
+    doAnswer(inv -> {
+      inv.getArgument(1, Runnable.class).run();
+      return null;
+    }).when(sendRateGovernor).execute(any(), any());
+
     templateService = mock(TemplateService.class);
     when(templateService.buildContext(any())).thenAnswer(
         inv -> new Context(null, (Map<String, Object>) inv.getArguments()[0]));
-    when(templateService.process(any(), any(), (Context) any())).thenReturn("");
-
-    s3Template = mock(S3Template.class);
+    stubRenderedMessage("", "");
+
+    attachmentCache = mock(AttachmentCache.class);
+    emailPipeline = new EmailPipeline(new SimpleMeterRegistry(), 1, 1, 1, 1, 10);
+    bulkEmailSender = mock(BulkEmailSender.class);
+    bulkEmailSenderProvider = mock(ObjectProvider.class);
+    deduplicationService = mock(SendDeduplicationService.class);
+    when(deduplicationService.claim(any())).thenReturn(ClaimStatus.CLAIMED);
+
+    service = new EmailService(userAccountService, historyService, mailSender, sendRateGovernor,
+        templateService, attachmentCache, emailPipeline, bulkEmailSenderProvider,
+        deduplicationService, SENDER, APP_DOMAIN);
+  }
 
-    service = new EmailService(userAccountService, historyService, mailSender, templateService,
-        s3Template, SENDER, APP_DOMAIN);
+  @AfterEach
+  void tearDown() {
+    emailPipeline.shutdown();
   }
 
   @Test
@@ -201,7 +232,7 @@ class EmailServiceTest {
         null);
 
     ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.captor();
-    verify(templateService, atLeastOnce()).process(any(), any(), contextCaptor.capture());
+    verify(templateService).processMessage(any(), contextCaptor.capture(), any());
 
     Context context = contextCaptor.getValue();
     assertThat("Unexpected family name variable.", context.getVariable("familyName"),
@@ -217,7 +248,7 @@ class EmailServiceTest {
         Map.of("familyName", "Maillig"), null);
 
     ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.captor();
-    verify(templateService, atLeastOnce()).process(any(), any(), contextCaptor.capture());
+    verify(templateService).processMessage(any(), contextCaptor.capture(), any());
 
     Context context = contextCaptor.getValue();
     assertThat("Unexpected family name variable.", context.getVariable("familyName"),
@@ -230,7 +261,7 @@ class EmailServiceTest {
         Map.of(), null);
 
     ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.captor();
-    verify(templateService, atLeastOnce()).process(any(), any(), contextCaptor.capture());
+    verify(templateService).processMessage(any(), contextCaptor.capture(), any());
 
     Context context = contextCaptor.getValue();
     assertThat("Unexpected domain variable.", context.getVariable("domain"),
@@ -245,7 +276,7 @@ class EmailServiceTest {
         Map.of("domain", domain), null);
 
     ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.captor();
-    verify(templateService, atLeastOnce()).process(any(), any(), contextCaptor.capture());
+    verify(templateService).processMessage(any(), contextCaptor.capture(), any());
 
     Context context = contextCaptor.getValue();
     assertThat("Unexpected domain variable.", context.getVariable("domain"), is(domain));
@@ -257,7 +288,7 @@ class EmailServiceTest {
         Map.of(), null);
 
     ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.captor();
-    verify(templateService, atLeastOnce()).process(any(), any(), contextCaptor.capture());
+    verify(templateService).processMessage(any(), contextCaptor.capture(), any());
 
     String expectedHashedEmail = service.createMd5Hash(RECIPIENT);
 
@@ -304,8 +335,7 @@ class EmailServiceTest {
   @Test
   void shouldSendMessageWithSubject() throws MessagingException {
     String template = "Test subject";
-    when(templateService.process(any(), eq(Set.of("subject")), (Context) any())).thenReturn(
-        template);
+    stubRenderedMessage(template, "");
 
     service.sendMessageToExistingUser(TRAINEE_ID, NOTIFICATION_TYPE, "",
         Map.of(), null);
@@ -320,8 +350,7 @@ class EmailServiceTest {
   @Test
   void shouldSendMessageWithContent() throws MessagingException, IOException {
     String template = "<div>Test message body</div>";
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
+    stubRenderedMessage("", template);
 
     service.sendMessageToExistingUser(TRAINEE_ID, NOTIFICATION_TYPE, "",
         Map.of(), null);
@@ -340,8 +369,7 @@ class EmailServiceTest {
   @Test
   void shouldSendMessageWithNoAttachment() throws MessagingException, IOException {
     String template = "<div>Test message body</div>";
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
+    stubRenderedMessage("", template);
 
     service.sendMessageToExistingUser(TRAINEE_ID, NOTIFICATION_TYPE, "",
         Map.of(), null, null);
@@ -360,14 +388,10 @@ class EmailServiceTest {
   @Test
   void shouldThrowMessageExceptionWhenAttachmentInvalid() throws IOException {
     String template = "<div>Test message body</div>";
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
+    stubRenderedMessage("", template);
 
-    S3Resource s3Resource = mock(S3Resource.class);
-    when(s3Resource.getFilename()).thenReturn("file.pdf");
-    when(s3Resource.contentType()).thenReturn(APPLICATION_PDF_VALUE);
-    when(s3Resource.getContentAsByteArray()).thenThrow(IOException.class);
-    when(s3Template.download("my-bucket", "key/file.pdf")).thenReturn(s3Resource);
+    when(attachmentCache.getDataSource(new StoredFile("my-bucket", "key/file.pdf"))).thenThrow(
+        IOException.class);
 
     MessagingException exception = assertThrows(MessagingException.class,
         () -> service.sendMessageToExistingUser(TRAINEE_ID, NOTIFICATION_TYPE, "", Map.of(), null,
@@ -380,14 +404,13 @@ class EmailServiceTest {
   @Test
   void shouldSendMessageWithAttachment() throws MessagingException, IOException {
     String template = "<div>Test message body</div>";
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
+    stubRenderedMessage("", template);
 
-    S3Resource s3Resource = mock(S3Resource.class);
-    when(s3Resource.getFilename()).thenReturn("file.pdf");
-    when(s3Resource.contentType()).thenReturn(APPLICATION_PDF_VALUE);
-    when(s3Resource.getContentAsByteArray()).thenReturn("test".getBytes());
-    when(s3Template.download("my-bucket", "key/file.pdf")).thenReturn(s3Resource);
+    ByteArrayDataSource dataSource = new ByteArrayDataSource("test".getBytes(),
+        APPLICATION_PDF_VALUE);
+    dataSource.setName("file.pdf");
+    when(attachmentCache.getDataSource(new StoredFile("my-bucket", "key/file.pdf"))).thenReturn(
+        dataSource);
 
     service.sendMessageToExistingUser(TRAINEE_ID, NOTIFICATION_TYPE, "",
         Map.of(), null, new StoredFile("my-bucket", "key/file.pdf"));
@@ -427,8 +450,7 @@ class EmailServiceTest {
   @Test
   void shouldSendMessageWithNotificationIdHeader() throws MessagingException {
     String template = "<div>Test message body</div>";
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
+    stubRenderedMessage("", template);
 
     service.sendMessageToExistingUser(TRAINEE_ID, NOTIFICATION_TYPE, "",
         Map.of(), null);
@@ -449,8 +471,7 @@ class EmailServiceTest {
         .thenReturn("template/name");
 
     String template = "<div>Test message body</div>";
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
+    stubRenderedMessage("", template);
 
     service.sendMessageToExistingUser(TRAINEE_ID, NOTIFICATION_TYPE, "",
         Map.of(), null);
@@ -473,24 +494,12 @@ class EmailServiceTest {
     service.sendMessageToExistingUser(TRAINEE_ID, notificationType, "v1.2.3",
         Map.of("key1", "value1"), null);
 
-    verify(templateService, times(2)).process(eq("template/path"),
-        any(), (Context) any());
-
-    ArgumentCaptor<Set<String>> selectorCaptor = ArgumentCaptor.captor();
     ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.captor();
-    verify(templateService, times(2)).process(any(), selectorCaptor.capture(),
-        contextCaptor.capture());
-
-    List<Set<String>> selectors = selectorCaptor.getAllValues();
-    assertThat("Unexpected selector.", selectors.get(0), is(Set.of("subject")));
-    assertThat("Unexpected selector.", selectors.get(1), is(Set.of("content")));
+    verify(templateService).processMessage(eq("template/path"), contextCaptor.capture(), any());
+    verify(templateService, never()).process(any(), any(), (Context) any());
+    verify(templateService, never()).processMessage(any(), (Context) any());
 
-    List<Context> contexts = contextCaptor.getAllValues();
-    Context context = contexts.get(0);
-    assertThat("Unexpected template variable.", context.getVariable("key1"),
-        is("value1"));
-
-    context = contexts.get(1);
+    Context context = contextCaptor.getValue();
     assertThat("Unexpected template variable.", context.getVariable("key1"),
         is("value1"));
   }
@@ -499,8 +508,8 @@ class EmailServiceTest {
   @EnumSource(NotificationType.class)
   void shouldStoreHistoryWhenMessageSent(NotificationType notificationType)
       throws MessagingException {
-    when(historyService.findScheduledEmailForTraineeByRefAndType(any(), any(), any(), any()))
-        .thenReturn(null);
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.empty());
     when(userAccountService.getUserDetailsById(USER_ID)).thenReturn(
         new UserDetails(true, RECIPIENT, "Mr", "Gilliam",
             "Anthony", GMC));
@@ -544,21 +553,16 @@ class EmailServiceTest {
 
   @ParameterizedTest
   @EnumSource(NotificationType.class)
-  void shouldUpdateAndDeleteOrphanHistoryWhenScheduledHistoryFound(
-      NotificationType notificationType)
+  void shouldUpdateClaimedHistoryWhenScheduledHistoryFound(NotificationType notificationType)
       throws MessagingException {
     ObjectId notificationId = ObjectId.get();
     History latestScheduledHistory = new History(notificationId, null, notificationType,
         null, null, null, null, null, SCHEDULED, null, null);
-    History redundantScheduledHistory = new History(notificationId, null, notificationType,
-        null, null, null, null, null, SCHEDULED, null, null);
-    when(historyService.findScheduledEmailForTraineeByRefAndType(any(), any(), any(), any()))
-        .thenReturn(latestScheduledHistory);
+    when(historyService.claimScheduledEmail(TRAINEE_ID, REFERENCE_TABLE, REFERENCE_KEY,
+        notificationType)).thenReturn(Optional.of(latestScheduledHistory));
     when(userAccountService.getUserDetailsById(USER_ID)).thenReturn(
         new UserDetails(true, RECIPIENT, "Mr", "Gilliam",
             "Anthony", GMC));
-    when(historyService.findAllScheduledEmailForTraineeByRefAndType(any(), any(), any(), any()))
-        .thenReturn(List.of(redundantScheduledHistory));
     String templateVersion = "v1.2.3";
     TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
 
@@ -597,7 +601,187 @@ class EmailServiceTest {
         is("Gilliam"));
     assertThat("Unexpected template variable.", storedVariables.get("domain"), is(APP_DOMAIN));
 
-    verify(historyService).deleteHistoryForTrainee(redundantScheduledHistory.id(), TRAINEE_ID);
+    verify(historyService, never()).releaseScheduledEmail(any());
+  }
+
+  @Test
+  void shouldReleaseClaimedHistoryWhenSendFails() {
+    ObjectId notificationId = ObjectId.get();
+    History scheduledHistory = new History(notificationId, null, NOTIFICATION_TYPE,
+        null, null, null, null, null, SCHEDULED, null, null);
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.of(scheduledHistory));
+    stubRenderedMessage("", "<div>Test message body</div>");
+    doThrow(new MailSendException("error")).when(mailSender).send((MimeMessage) any());
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
+
+    assertThrows(MailSendException.class,
+        () -> service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
+            tisReferenceInfo, false));
+
+    verify(historyService, never()).save(any());
+    verify(historyService).releaseScheduledEmail(notificationId);
+  }
+
+  @Test
+  void shouldMarkClaimedSendSentWhenScheduledEmailSent() throws MessagingException {
+    ObjectId notificationId = ObjectId.get();
+    History scheduledHistory = new History(notificationId, null, NOTIFICATION_TYPE,
+        null, null, null, null, null, SCHEDULED, null, null);
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.of(scheduledHistory));
+    stubRenderedMessage("", "<div>Test message body</div>");
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
+
+    service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
+        tisReferenceInfo, false);
+
+    InOrder inOrder = inOrder(deduplicationService, mailSender);
+    inOrder.verify(deduplicationService).claim(notificationId.toHexString());
+    inOrder.verify(mailSender).send((MimeMessage) any());
+    inOrder.verify(deduplicationService).markSent(notificationId.toHexString());
+    verify(deduplicationService, never()).release(any());
+  }
+
+  @Test
+  void shouldReleaseClaimedSendWhenSendFails() {
+    ObjectId notificationId = ObjectId.get();
+    History scheduledHistory = new History(notificationId, null, NOTIFICATION_TYPE,
+        null, null, null, null, null, SCHEDULED, null, null);
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.of(scheduledHistory));
+    stubRenderedMessage("", "<div>Test message body</div>");
+    doThrow(new MailSendException("error")).when(mailSender).send((MimeMessage) any());
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
+
+    assertThrows(MailSendException.class,
+        () -> service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
+            tisReferenceInfo, false));
+
+    verify(deduplicationService).release(notificationId.toHexString());
+    verify(deduplicationService, never()).markSent(any());
+  }
+
+  @Test
+  void shouldNotReleaseClaimedSendWhenRecordFailsAfterSend() {
+    ObjectId notificationId = ObjectId.get();
+    History scheduledHistory = new History(notificationId, null, NOTIFICATION_TYPE,
+        null, null, null, null, null, SCHEDULED, null, null);
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.of(scheduledHistory));
+    when(historyService.save(any())).thenThrow(new IllegalStateException("expected"));
+    stubRenderedMessage("", "<div>Test message body</div>");
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
+
+    assertThrows(IllegalStateException.class,
+        () -> service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
+            tisReferenceInfo, false));
+
+    verify(deduplicationService).markSent(notificationId.toHexString());
+    verify(deduplicationService, never()).release(any());
+    verify(historyService).releaseScheduledEmail(notificationId);
+  }
+
+  @Test
+  void shouldRecordWithoutSendingWhenScheduledEmailAlreadySent() throws MessagingException {
+    ObjectId notificationId = ObjectId.get();
+    History scheduledHistory = new History(notificationId, null, NOTIFICATION_TYPE,
+        null, null, null, null, null, SCHEDULED, null, null);
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.of(scheduledHistory));
+    when(deduplicationService.claim(notificationId.toHexString())).thenReturn(ClaimStatus.SENT);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
+
+    service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
+        tisReferenceInfo, false);
+
+    verify(mailSender, never()).send((MimeMessage) any());
+    verify(deduplicationService, never()).markSent(any());
+
+    ArgumentCaptor<History> historyCaptor = ArgumentCaptor.captor();
+    verify(historyService).save(historyCaptor.capture());
+    History history = historyCaptor.getValue();
+    assertThat("Unexpected notification id.", history.id(), is(notificationId));
+    assertThat("Unexpected status.", history.status(), is(PENDING));
+  }
+
+  @Test
+  void shouldClaimReferenceSendWhenNoScheduledHistoryClaimed() throws MessagingException {
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.empty());
+    stubRenderedMessage("", "<div>Test message body</div>");
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
+    String sendKey = SendDeduplicationService.getSendKey(tisReferenceInfo, NOTIFICATION_TYPE,
+        RECIPIENT);
+
+    service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
+        tisReferenceInfo, false);
+
+    InOrder inOrder = inOrder(deduplicationService, mailSender);
+    inOrder.verify(deduplicationService).claim(sendKey);
+    inOrder.verify(mailSender).send((MimeMessage) any());
+    inOrder.verify(deduplicationService).markSent(sendKey);
+  }
+
+  @Test
+  void shouldNotSendOrRecordWhenReferenceSendAlreadySent() throws MessagingException {
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.empty());
+    when(deduplicationService.claim(any())).thenReturn(ClaimStatus.SENT);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
+
+    service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
+        tisReferenceInfo, false);
+
+    verify(mailSender, never()).send((MimeMessage) any());
+    verify(historyService, never()).save(any());
+    verify(deduplicationService, never()).markSent(any());
+  }
+
+  @Test
+  void shouldThrowExceptionWithoutSendingWhenSendHeldByAnotherAttempt() {
+    ObjectId notificationId = ObjectId.get();
+    History scheduledHistory = new History(notificationId, null, NOTIFICATION_TYPE,
+        null, null, null, null, null, SCHEDULED, null, null);
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.of(scheduledHistory));
+    when(deduplicationService.claim(any())).thenReturn(ClaimStatus.HELD);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
+
+    assertThrows(IllegalStateException.class,
+        () -> service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
+            tisReferenceInfo, false));
+
+    verify(mailSender, never()).send((MimeMessage) any());
+    verify(historyService, never()).save(any());
+    verify(deduplicationService, never()).release(any());
+    verify(historyService).releaseScheduledEmail(notificationId);
+  }
+
+  @Test
+  void shouldNotClaimSendWhenNoReference() throws MessagingException {
+    stubRenderedMessage("", "<div>Test message body</div>");
+
+    service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(), null,
+        false);
+
+    verifyNoInteractions(deduplicationService);
+    verify(mailSender).send((MimeMessage) any());
+  }
+
+  @Test
+  void shouldNotReleaseHistoryWhenSendFailsAndNoScheduledHistoryClaimed() {
+    when(historyService.claimScheduledEmail(any(), any(), any(), any()))
+        .thenReturn(Optional.empty());
+    stubRenderedMessage("", "<div>Test message body</div>");
+    doThrow(new MailSendException("error")).when(mailSender).send((MimeMessage) any());
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
+
+    assertThrows(MailSendException.class,
+        () -> service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
+            tisReferenceInfo, false));
+
+    verify(historyService, never()).releaseScheduledEmail(any());
   }
 
   @ParameterizedTest
@@ -683,8 +867,7 @@ class EmailServiceTest {
   @Test
   void shouldSendNotificationIdHeaderMatchingHistoryId() throws MessagingException {
     String template = "<div>Test message body</div>";
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
+    stubRenderedMessage("", template);
 
     service.sendMessageToExistingUser(TRAINEE_ID, NOTIFICATION_TYPE, "",
         Map.of(), null);
@@ -707,31 +890,28 @@ class EmailServiceTest {
   void shouldNotActuallySendMessageIfFlagged() throws MessagingException {
     String template = "<div>Test message body</div>";
     TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
-    History scheduledHistory = new History(ObjectId.get(), null, NOTIFICATION_TYPE,
-        null, null, null, null, null, SCHEDULED, null, null);
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
-    when(historyService.findAllScheduledEmailForTraineeByRefAndType(any(), any(), any(), any()))
-        .thenReturn(List.of(scheduledHistory));
+    stubRenderedMessage("", template);
 
     service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", Map.of("key1", "val1"),
         tisReferenceInfo, true);
 
     verify(mailSender, never()).send((MimeMessage) any());
     verify(historyService, never()).save(any());
-    verify(historyService).deleteHistoryForTrainee(scheduledHistory.id(), TRAINEE_ID);
+    verify(historyService, never()).claimScheduledEmail(any(), any(), any(), any());
+    verify(historyService).deleteScheduledEmails(TRAINEE_ID, REFERENCE_TABLE, REFERENCE_KEY,
+        NOTIFICATION_TYPE);
   }
 
   @Test
   void shouldNotActuallySendMessageIfNoRecipient() throws MessagingException {
     String template = "<div>Test message body</div>";
     TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(REFERENCE_TABLE, REFERENCE_KEY);
-    History scheduledHistory = new History(ObjectId.get(), null, NOTIFICATION_TYPE,
+    ObjectId notificationId = ObjectId.get();
+    History scheduledHistory = new History(notificationId, null, NOTIFICATION_TYPE,
         null, null, null, null, null, SCHEDULED, null, null);
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
-    when(historyService.findAllScheduledEmailForTraineeByRefAndType(any(), any(), any(), any()))
-        .thenReturn(List.of(scheduledHistory));
+    stubRenderedMessage("", template);
+    when(historyService.claimScheduledEmail(TRAINEE_ID, REFERENCE_TABLE, REFERENCE_KEY,
+        NOTIFICATION_TYPE)).thenReturn(Optional.of(scheduledHistory));
 
     service.sendMessage(TRAINEE_ID, null, NOTIFICATION_TYPE, "", new HashMap<>(),
         tisReferenceInfo, false);
@@ -742,19 +922,17 @@ class EmailServiceTest {
     verify(historyService).save(historyCaptor.capture());
 
     History history = historyCaptor.getValue();
+    assertThat("Unexpected notification id.", history.id(), is(notificationId));
     assertThat("Unexpected recipient contact.", history.recipient().contact(), nullValue());
     assertThat("Unexpected status.", history.status(), is(FAILED));
     assertThat("Unexpected status detail.", history.statusDetail(),
         is("No email address available."));
-
-    verify(historyService).deleteHistoryForTrainee(scheduledHistory.id(), TRAINEE_ID);
   }
 
   @Test
   void shouldSendMessageIfNotFlagged() throws MessagingException {
     String template = "<div>Test message body</div>";
-    when(templateService.process(any(), eq(Set.of("content")), (Context) any())).thenReturn(
-        template);
+    stubRenderedMessage("", template);
 
     service.sendMessage(TRAINEE_ID, RECIPIENT, NOTIFICATION_TYPE, "", new HashMap<>(),
         null, false);
@@ -763,6 +941,125 @@ class EmailServiceTest {
     verify(historyService).save(any());
   }
 
+  @Test
+  void shouldCompleteAsyncSendOnceHistoryRecorded() {
+    stubRenderedMessage("", "<div>Test message body</div>");
+
+    CompletableFuture<Void> send = service.sendMessageAsync(TRAINEE_ID, RECIPIENT,
+        NOTIFICATION_TYPE, "", new HashMap<>(), null, null, false);
+    send.join();
+
+    verify(mailSender).send((MimeMessage) any());
+    verify(historyService).save(any());
+  }
+
+  @Test
+  void shouldCompleteAsyncSendToExistingUserOnceHistoryRecorded() {
+    when(userAccountService.getUserDetailsById(USER_ID)).thenReturn(
+        new UserDetails(true, RECIPIENT, "Mr", "Gilliam", "Anthony", GMC));
+    stubRenderedMessage("", "<div>Test message body</div>");
+
+    CompletableFuture<Void> send = service.sendMessageToExistingUserAsync(TRAINEE_ID,
+        NOTIFICATION_TYPE, "", new HashMap<>(), null);
+    send.join();
+
+    verify(mailSender).send((MimeMessage) any());
+    verify(historyService).save(any());
+  }
+
+  @Test
+  void shouldNotRecordAsyncSendWhenSubmissionFails() {
+    doThrow(new MailSendException("error")).when(mailSender).send((MimeMessage) any());
+
+    CompletableFuture<Void> send = service.sendMessageAsync(TRAINEE_ID, RECIPIENT,
+        NOTIFICATION_TYPE, "", new HashMap<>(), null, null, false);
+
+    CompletionException exception = assertThrows(CompletionException.class, send::join);
+    assertThat("Unexpected cause.", exception.getCause(), instanceOf(MailSendException.class));
+    verify(historyService, never()).save(any());
+  }
+
+  @Test
+  void shouldSendSupportedNotificationWithBulkSenderWhenAvailable() throws MessagingException {
+    stubRenderedMessage("Test subject", "<div>Test message body</div>");
+    when(bulkEmailSenderProvider.getIfAvailable()).thenReturn(bulkEmailSender);
+    when(bulkEmailSender.supports(PROGRAMME_CREATED)).thenReturn(true);
+    when(bulkEmailSender.submit(any(), any(), any(), any(), any(), any())).thenReturn(
+        CompletableFuture.completedFuture("message-id"));
+
+    service.sendMessage(TRAINEE_ID, RECIPIENT, PROGRAMME_CREATED, "", new HashMap<>(), null,
+        false);
+
+    ArgumentCaptor<ObjectId> notificationIdCaptor = ArgumentCaptor.captor();
+    verify(bulkEmailSender).submit(any(), eq(PROGRAMME_CREATED.getPriority()),
+        notificationIdCaptor.capture(), eq(RECIPIENT), eq("Test subject"),
+        eq("<div>Test message body</div>"));
+    verify(mailSender, never()).send((MimeMessage) any());
+
+    ArgumentCaptor<History> historyCaptor = ArgumentCaptor.captor();
+    verify(historyService).save(historyCaptor.capture());
+
+    History history = historyCaptor.getValue();
+    assertThat("Unexpected notification id.", history.id(), is(notificationIdCaptor.getValue()));
+    assertThat("Unexpected status.", history.status(), is(PENDING));
+  }
+
+  @Test
+  void shouldSendUnsupportedNotificationWithMailSenderWhenBulkSenderAvailable()
+      throws MessagingException {
+    when(bulkEmailSenderProvider.getIfAvailable()).thenReturn(bulkEmailSender);
+    when(bulkEmailSender.supports(PROGRAMME_CREATED)).thenReturn(false);
+
+    service.sendMessage(TRAINEE_ID, RECIPIENT, PROGRAMME_CREATED, "", new HashMap<>(), null,
+        false);
+
+    verify(bulkEmailSender, never()).submit(any(), any(), any(), any(), any(), any());
+    verify(mailSender).send((MimeMessage) any());
+  }
+
+  @Test
+  void shouldSendNotificationWithAttachmentWithMailSenderWhenBulkSenderAvailable()
+      throws Exception {
+    when(bulkEmailSenderProvider.getIfAvailable()).thenReturn(bulkEmailSender);
+    when(bulkEmailSender.supports(PROGRAMME_CREATED)).thenReturn(true);
+    ByteArrayDataSource dataSource = new ByteArrayDataSource("test".getBytes(),
+        APPLICATION_PDF_VALUE);
+    dataSource.setName("file.pdf");
+    when(attachmentCache.getDataSource(any())).thenReturn(dataSource);
+    StoredFile attachment = new StoredFile("my-bucket", "key/file.pdf");
+
+    service.sendMessage(TRAINEE_ID, RECIPIENT, PROGRAMME_CREATED, "", new HashMap<>(), null,
+        attachment, false);
+
+    verify(bulkEmailSender, never()).submit(any(), any(), any(), any(), any(), any());
+    verify(mailSender).send((MimeMessage) any());
+  }
+
+  @Test
+  void shouldNotRecordBulkSendWhenBulkSendFails() {
+    when(bulkEmailSenderProvider.getIfAvailable()).thenReturn(bulkEmailSender);
+    when(bulkEmailSender.supports(PROGRAMME_CREATED)).thenReturn(true);
+    when(bulkEmailSender.submit(any(), any(), any(), any(), any(), any())).thenReturn(
+        CompletableFuture.failedFuture(new MailSendException("error")));
+
+    assertThrows(MailSendException.class,
+        () -> service.sendMessage(TRAINEE_ID, RECIPIENT, PROGRAMME_CREATED, "", new HashMap<>(),
+            null, false));
+
+    verify(historyService, never()).save(any());
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = NotificationType.class, names = {"EMAIL_UPDATED_NEW",
+      "PROGRAMME_UPDATED_WEEK_12"})
+  void shouldSendMessageInNotificationTypePriorityLane(NotificationType notificationType)
+      throws MessagingException {
+    service.sendMessage(TRAINEE_ID, RECIPIENT, notificationType, "", new HashMap<>(), null,
+        false);
+
+    verify(sendRateGovernor).execute(eq(notificationType.getPriority()), any());
+  }
+
   @Test
   void shouldNotThrowExceptionFromUnexpectedContent() throws IOException, MessagingException {
     MimeMessage mimeMessage = mock(MimeMessage.class);
@@ -824,4 +1121,17 @@ class EmailServiceTest {
     String hash = service.createMd5Hash(null);
     assertThat("Unexpected default hash.", hash, is(DEFAULT_EMAIL_HASH));
   }
+
+  /**
+   * Stub the template service to render the given subject and content.
+   *
+   * @param subject The rendered subject.
+   * @param content The rendered content.
+   */
+  private void stubRenderedMessage(String subject, String content) {
+    doAnswer(inv -> {
+      inv.getArgument(2, Writer.class).write(content);
+      return subject;
+    }).when(templateService).processMessage(any(), (Context) any(), any(Writer.class));
+  }
 }
@@ -0,0 +1,310 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.SnsException;
+
+class EventBroadcastBufferTest {
+
+  private static final String TOPIC_ARN = "the-arn";
+  private static final long TIMEOUT = 5000;
+
+  private EventBroadcastBuffer buffer;
+  private SnsClient snsClient;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    snsClient = mock(SnsClient.class);
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenReturn(
+        PublishBatchResponse.builder().build());
+    meterRegistry = new SimpleMeterRegistry();
+    buffer = createBuffer(100, 10, Duration.ofMillis(500), 3);
+  }
+
+  @AfterEach
+  void tearDown() {
+    buffer.shutdown();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 11})
+  void shouldThrowExceptionWhenBatchSizeOutOfRange(int batchSize) {
+    assertThrows(IllegalArgumentException.class,
+        () -> createBuffer(100, batchSize, Duration.ofMillis(50), 3));
+  }
+
+  @Test
+  void shouldPublishBufferedEventsTogether() {
+    buffer.offer(TOPIC_ARN, entry("event1", null));
+    buffer.offer(TOPIC_ARN, entry("event2", null));
+    buffer.offer(TOPIC_ARN, entry("event3", null));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(snsClient, timeout(TIMEOUT)).publishBatch(requestCaptor.capture());
+
+    PublishBatchRequest request = requestCaptor.getValue();
+    assertThat("Unexpected topic ARN.", request.topicArn(), is(TOPIC_ARN));
+
+    List<PublishBatchRequestEntry> entries = request.publishBatchRequestEntries();
+    assertThat("Unexpected entry count.", entries.size(), is(3));
+    assertThat("Unexpected entry message.", entries.get(0).message(), is("event1"));
+    assertThat("Unexpected entry id.", entries.get(0).id(), is("0"));
+    assertThat("Unexpected entry message.", entries.get(1).message(), is("event2"));
+    assertThat("Unexpected entry id.", entries.get(1).id(), is("1"));
+    assertThat("Unexpected entry message.", entries.get(2).message(), is("event3"));
+    assertThat("Unexpected entry id.", entries.get(2).id(), is("2"));
+  }
+
+  @Test
+  void shouldPublishWhenBatchFull() {
+    buffer = createBuffer(100, 2, Duration.ofMinutes(1), 3);
+
+    buffer.offer(TOPIC_ARN, entry("event1", null));
+    buffer.offer(TOPIC_ARN, entry("event2", null));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(snsClient, timeout(TIMEOUT)).publishBatch(requestCaptor.capture());
+    assertThat("Unexpected entry count.",
+        requestCaptor.getValue().publishBatchRequestEntries().size(), is(2));
+  }
+
+  @Test
+  void shouldPublishSeparateBatchesForEachTopic() {
+    buffer.offer(TOPIC_ARN, entry("event1", null));
+    buffer.offer("other-arn", entry("event2", null));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(snsClient, timeout(TIMEOUT).times(2)).publishBatch(requestCaptor.capture());
+
+    List<PublishBatchRequest> requests = requestCaptor.getAllValues();
+    assertThat("Unexpected topic ARN.", requests.get(0).topicArn(), is(TOPIC_ARN));
+    assertThat("Unexpected topic ARN.", requests.get(1).topicArn(), is("other-arn"));
+  }
+
+  @Test
+  void shouldPublishSameMessageGroupInSeparateBatchesInOrder() {
+    buffer.offer(TOPIC_ARN, entry("event1", "group1"));
+    buffer.offer(TOPIC_ARN, entry("event2", "group2"));
+    buffer.offer(TOPIC_ARN, entry("event3", "group1"));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(snsClient, timeout(TIMEOUT).times(2)).publishBatch(requestCaptor.capture());
+
+    List<PublishBatchRequest> requests = requestCaptor.getAllValues();
+    List<PublishBatchRequestEntry> entries1 = requests.get(0).publishBatchRequestEntries();
+    assertThat("Unexpected entry count.", entries1.size(), is(2));
+    assertThat("Unexpected entry message.", entries1.get(0).message(), is("event1"));
+    assertThat("Unexpected entry message.", entries1.get(1).message(), is("event2"));
+
+    List<PublishBatchRequestEntry> entries2 = requests.get(1).publishBatchRequestEntries();
+    assertThat("Unexpected entry count.", entries2.size(), is(1));
+    assertThat("Unexpected entry message.", entries2.get(0).message(), is("event3"));
+    assertThat("Unexpected message group.", entries2.get(0).messageGroupId(), is("group1"));
+  }
+
+  @Test
+  void shouldRetryRetryableFailedEntries() {
+    when(snsClient.publishBatch(any(PublishBatchRequest.class)))
+        .thenReturn(PublishBatchResponse.builder()
+            .failed(BatchResultErrorEntry.builder().id("1").senderFault(false).build())
+            .build())
+        .thenReturn(PublishBatchResponse.builder().build());
+
+    buffer.offer(TOPIC_ARN, entry("event1", null));
+    buffer.offer(TOPIC_ARN, entry("event2", null));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(snsClient, timeout(TIMEOUT).times(2)).publishBatch(requestCaptor.capture());
+
+    List<PublishBatchRequestEntry> retried = requestCaptor.getAllValues().get(1)
+        .publishBatchRequestEntries();
+    assertThat("Unexpected retried count.", retried.size(), is(1));
+    assertThat("Unexpected retried message.", retried.get(0).message(), is("event2"));
+  }
+
+  @Test
+  void shouldNotRetrySenderFaultFailedEntries() {
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenReturn(
+        PublishBatchResponse.builder()
+            .failed(BatchResultErrorEntry.builder().id("0").senderFault(true).build())
+            .build());
+
+    buffer.offer(TOPIC_ARN, entry("event1", null));
+    buffer.shutdown();
+
+    verify(snsClient, times(1)).publishBatch(any(PublishBatchRequest.class));
+    assertThat("Unexpected dropped count.", getDroppedCount("failed"), is(1.0));
+  }
+
+  @Test
+  void shouldDropEventsWhenPublishFailsAfterMaxAttempts() {
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenThrow(
+        SnsException.builder().message("expected").build());
+    buffer = createBuffer(100, 10, Duration.ofMillis(500), 2);
+
+    buffer.offer(TOPIC_ARN, entry("event1", null));
+    buffer.offer(TOPIC_ARN, entry("event2", null));
+    buffer.shutdown();
+
+    verify(snsClient, times(2)).publishBatch(any(PublishBatchRequest.class));
+    assertThat("Unexpected dropped count.", getDroppedCount("failed"), is(2.0));
+  }
+
+  @Test
+  void shouldDropEventsWhenBufferFull() throws InterruptedException {
+    CountDownLatch publishing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenAnswer(inv -> {
+      publishing.countDown();
+      release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+      return PublishBatchResponse.builder().build();
+    });
+    buffer = createBuffer(1, 1, Duration.ofMillis(50), 3);
+
+    boolean accepted1 = buffer.offer(TOPIC_ARN, entry("event1", null));
+    publishing.await(TIMEOUT, TimeUnit.MILLISECONDS);
+    boolean accepted2 = buffer.offer(TOPIC_ARN, entry("event2", null));
+    boolean accepted3 = buffer.offer(TOPIC_ARN, entry("event3", null));
+    release.countDown();
+
+    assertThat("Unexpected acceptance.", accepted1, is(true));
+    assertThat("Unexpected acceptance.", accepted2, is(true));
+    assertThat("Unexpected acceptance.", accepted3, is(false));
+    assertThat("Unexpected dropped count.", getDroppedCount("overflow"), is(1.0));
+
+    verify(snsClient, timeout(TIMEOUT).times(2)).publishBatch(any(PublishBatchRequest.class));
+  }
+
+  @Test
+  void shouldPublishBufferedEventsOnShutdown() {
+    buffer = createBuffer(100, 10, Duration.ofMinutes(1), 3);
+
+    buffer.offer(TOPIC_ARN, entry("event1", null));
+    buffer.offer(TOPIC_ARN, entry("event2", null));
+    buffer.shutdown();
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(snsClient).publishBatch(requestCaptor.capture());
+    assertThat("Unexpected entry count.",
+        requestCaptor.getValue().publishBatchRequestEntries().size(), is(2));
+  }
+
+  @Test
+  void shouldNotAcceptEventsAfterShutdown() {
+    buffer.shutdown();
+
+    boolean accepted = buffer.offer(TOPIC_ARN, entry("event1", null));
+
+    assertThat("Unexpected acceptance.", accepted, is(false));
+    assertThat("Unexpected dropped count.", getDroppedCount("overflow"), is(1.0));
+  }
+
+  @Test
+  void shouldRecordFlushLatency() {
+    buffer.offer(TOPIC_ARN, entry("event1", null));
+    buffer.shutdown();
+
+    long flushCount = meterRegistry.get("notifications.event.broadcast.flush").timer().count();
+    assertThat("Unexpected flush count.", flushCount, is(1L));
+  }
+
+  @Test
+  void shouldRecordBufferDepth() {
+    double depth = meterRegistry.get("notifications.event.broadcast.buffer.depth").gauge()
+        .value();
+
+    assertThat("Unexpected buffer depth.", depth, is(0.0));
+  }
+
+  /**
+   * Build a batch entry for an event.
+   *
+   * @param message      The event message.
+   * @param messageGroup The message group, may be null.
+   * @return The built entry.
+   */
+  private PublishBatchRequestEntry entry(String message, String messageGroup) {
+    return PublishBatchRequestEntry.builder()
+        .id(message)
+        .message(message)
+        .messageGroupId(messageGroup)
+        .build();
+  }
+
+  /**
+   * Get the number of dropped events for a reason.
+   *
+   * @param reason The reason the events were dropped.
+   * @return The dropped count.
+   */
+  private double getDroppedCount(String reason) {
+    return meterRegistry.get("notifications.event.broadcast.dropped").tag("reason", reason)
+        .counter().count();
+  }
+
+  /**
+   * Create an event broadcast buffer, shutting down the current buffer.
+   *
+   * @param capacity    The capacity to use.
+   * @param batchSize   The batch size to use.
+   * @param linger      The linger time to use.
+   * @param maxAttempts The maximum attempts to use.
+   * @return The created buffer.
+   */
+  private EventBroadcastBuffer createBuffer(int capacity, int batchSize, Duration linger,
+      int maxAttempts) {
+    if (buffer != null) {
+      buffer.shutdown();
+    }
+
+    return new EventBroadcastBuffer(snsClient, meterRegistry, capacity, batchSize, linger,
+        maxAttempts, Duration.ofMillis(10));
+  }
+}
@@ -28,15 +28,21 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.HISTORY;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.STATUS;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.DELETED;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_CREATED;
 import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PLACEMENT;
+import static uk.nhs.tis.trainee.notifications.service.EventBroadcastService.HISTORY_EVENT_TYPE_ATTRIBUTE;
 import static uk.nhs.tis.trainee.notifications.service.EventBroadcastService.MESSAGE_GROUP_ID_PREFIX;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -45,18 +51,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import org.bson.types.ObjectId;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.BatchResultErrorEntry;
 import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
-import software.amazon.awssdk.services.sns.model.PublishRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequest;
+import software.amazon.awssdk.services.sns.model.PublishBatchRequestEntry;
+import software.amazon.awssdk.services.sns.model.PublishBatchResponse;
+import software.amazon.awssdk.services.sns.model.PublishBatchResultEntry;
 import software.amazon.awssdk.services.sns.model.SnsException;
 import uk.nhs.tis.trainee.notifications.config.EventNotificationProperties;
 import uk.nhs.tis.trainee.notifications.config.EventNotificationProperties.SnsRoute;
+import uk.nhs.tis.trainee.notifications.mapper.HistoryMapper;
+import uk.nhs.tis.trainee.notifications.mapper.HistoryMapperImpl;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
 import uk.nhs.tis.trainee.notifications.model.History;
 import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
 import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
@@ -95,16 +110,25 @@ class EventBroadcastServiceTest {
   private EventBroadcastService service;
 
   private ObjectMapper objectMapper;
+  private EventBroadcastBuffer broadcastBuffer;
+  private EventOutbox eventOutbox;
   private SnsClient snsClient;
+  private EventSerializer eventSerializer;
   private EventNotificationProperties eventNotificationProperties;
+  private final HistoryMapper historyMapper = new HistoryMapperImpl();
 
   @BeforeEach
   void setUp() {
+    broadcastBuffer = mock(EventBroadcastBuffer.class);
+    when(broadcastBuffer.offer(any(), any())).thenReturn(true);
+    eventOutbox = mock(EventOutbox.class);
     snsClient = mock(SnsClient.class);
+    eventSerializer = new EventSerializer();
     SnsRoute snsRoute = new SnsRoute(MESSAGE_ARN, MESSAGE_ATTRIBUTE);
     eventNotificationProperties = new EventNotificationProperties(snsRoute);
     objectMapper = new ObjectMapper();
-    service = new EventBroadcastService(snsClient, eventNotificationProperties);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, false);
   }
 
   @Test
@@ -112,25 +136,26 @@ class EventBroadcastServiceTest {
     History history = buildDummyHistory();
 
     eventNotificationProperties = new EventNotificationProperties(null);
-    service = new EventBroadcastService(snsClient, eventNotificationProperties);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, false);
 
     service.publishNotificationsEvent(history);
 
-    verifyNoInteractions(snsClient);
+    verifyNoInteractions(broadcastBuffer);
   }
 
   @Test
   void shouldNotPublishNotificationEventIfEventDtoIsNull() {
     service.publishNotificationsEvent(null);
 
-    verifyNoInteractions(snsClient);
+    verifyNoInteractions(broadcastBuffer);
   }
 
   @Test
-  void shouldNotThrowSnsExceptionsWhenBroadcastingEvent() {
+  void shouldNotThrowExceptionWhenBroadcastBufferFull() {
     History history = buildDummyHistory();
 
-    when(snsClient.publish(any(PublishRequest.class))).thenThrow(SnsException.builder().build());
+    when(broadcastBuffer.offer(any(), any())).thenReturn(false);
 
     assertDoesNotThrow(() -> service.publishNotificationsEvent(history));
   }
@@ -141,18 +166,19 @@ class EventBroadcastServiceTest {
 
     SnsRoute fifoSns = new SnsRoute(MESSAGE_ARN + ".fifo", MESSAGE_ATTRIBUTE);
     eventNotificationProperties = new EventNotificationProperties(fifoSns);
-    service = new EventBroadcastService(snsClient, eventNotificationProperties);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, false);
 
     service.publishNotificationsEvent(history);
 
-    ArgumentCaptor<PublishRequest> requestCaptor = ArgumentCaptor.forClass(PublishRequest.class);
-    verify(snsClient).publish(requestCaptor.capture());
+    ArgumentCaptor<PublishBatchRequestEntry> requestCaptor = ArgumentCaptor.captor();
+    verify(broadcastBuffer).offer(eq(MESSAGE_ARN + ".fifo"), requestCaptor.capture());
 
-    PublishRequest request = requestCaptor.getValue();
+    PublishBatchRequestEntry request = requestCaptor.getValue();
     assertThat("Unexpected message group id.", request.messageGroupId(),
         is(MESSAGE_GROUP_ID_PREFIX + "_" + HISTORY_ID));
 
-    verifyNoMoreInteractions(snsClient);
+    verifyNoMoreInteractions(broadcastBuffer);
   }
 
   @Test
@@ -161,19 +187,20 @@ class EventBroadcastServiceTest {
 
     eventNotificationProperties
         = new EventNotificationProperties(new SnsRoute(MESSAGE_ARN, null));
-    service = new EventBroadcastService(snsClient, eventNotificationProperties);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, false);
 
     service.publishNotificationsEvent(history);
 
-    ArgumentCaptor<PublishRequest> requestCaptor = ArgumentCaptor.forClass(PublishRequest.class);
-    verify(snsClient).publish(requestCaptor.capture());
+    ArgumentCaptor<PublishBatchRequestEntry> requestCaptor = ArgumentCaptor.captor();
+    verify(broadcastBuffer).offer(eq(MESSAGE_ARN), requestCaptor.capture());
 
-    PublishRequest request = requestCaptor.getValue();
+    PublishBatchRequestEntry request = requestCaptor.getValue();
 
     Map<String, MessageAttributeValue> messageAttributes = request.messageAttributes();
     assertNull(messageAttributes.get("event_type"), "Unexpected message attribute value.");
 
-    verifyNoMoreInteractions(snsClient);
+    verifyNoMoreInteractions(broadcastBuffer);
   }
 
   @Test
@@ -188,11 +215,12 @@ class EventBroadcastServiceTest {
 
     service.publishNotificationsEvent(history);
 
-    ArgumentCaptor<PublishRequest> requestCaptor = ArgumentCaptor.forClass(PublishRequest.class);
-    verify(snsClient).publish(requestCaptor.capture());
+    ArgumentCaptor<String> topicCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<PublishBatchRequestEntry> requestCaptor = ArgumentCaptor.captor();
+    verify(broadcastBuffer).offer(topicCaptor.capture(), requestCaptor.capture());
 
-    PublishRequest request = requestCaptor.getValue();
-    assertThat("Unexpected topic ARN.", request.topicArn(), is(MESSAGE_ARN));
+    PublishBatchRequestEntry request = requestCaptor.getValue();
+    assertThat("Unexpected topic ARN.", topicCaptor.getValue(), is(MESSAGE_ARN));
 
     Map<String, Object> message = objectMapper.readValue(request.message(),
         new TypeReference<>() {
@@ -249,19 +277,22 @@ class EventBroadcastServiceTest {
         messageAttributes.get("event_type").stringValue(), is(MESSAGE_ATTRIBUTE));
     assertThat("Unexpected message attribute data type.",
         messageAttributes.get("event_type").dataType(), is("String"));
+    assertThat("Unexpected event type attribute.",
+        messageAttributes.get(HISTORY_EVENT_TYPE_ATTRIBUTE).stringValue(), is(HISTORY.name()));
 
-    verifyNoMoreInteractions(snsClient);
+    verifyNoMoreInteractions(broadcastBuffer);
   }
 
   @Test
   void shouldPublishDeleteNotificationEvent() throws JsonProcessingException {
     service.publishNotificationsDeleteEvent(HISTORY_ID);
 
-    ArgumentCaptor<PublishRequest> requestCaptor = ArgumentCaptor.forClass(PublishRequest.class);
-    verify(snsClient).publish(requestCaptor.capture());
+    ArgumentCaptor<String> topicCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<PublishBatchRequestEntry> requestCaptor = ArgumentCaptor.captor();
+    verify(broadcastBuffer).offer(topicCaptor.capture(), requestCaptor.capture());
 
-    PublishRequest request = requestCaptor.getValue();
-    assertThat("Unexpected topic ARN.", request.topicArn(), is(MESSAGE_ARN));
+    PublishBatchRequestEntry request = requestCaptor.getValue();
+    assertThat("Unexpected topic ARN.", topicCaptor.getValue(), is(MESSAGE_ARN));
 
     Map<String, Object> message = objectMapper.readValue(request.message(),
         new TypeReference<>() {
@@ -289,6 +320,363 @@ class EventBroadcastServiceTest {
         is(nullValue()));
   }
 
+  @Test
+  void shouldSetMessageGroupIdOnIssuedEventWhenFifoTopic() {
+    SnsRoute fifoSns = new SnsRoute(MESSAGE_ARN + ".fifo", MESSAGE_ATTRIBUTE);
+    eventNotificationProperties = new EventNotificationProperties(fifoSns);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, false);
+
+    service.publishNotificationsDeleteEvent(HISTORY_ID);
+
+    ArgumentCaptor<PublishBatchRequestEntry> requestCaptor = ArgumentCaptor.captor();
+    verify(broadcastBuffer).offer(eq(MESSAGE_ARN + ".fifo"), requestCaptor.capture());
+
+    PublishBatchRequestEntry request = requestCaptor.getValue();
+    assertThat("Unexpected entry id.", request.id(), is(HISTORY_ID.toString()));
+    assertThat("Unexpected message group id.", request.messageGroupId(),
+        is(MESSAGE_GROUP_ID_PREFIX + "_" + HISTORY_ID));
+  }
+
+  @Test
+  void shouldNotPublishDeleteNotificationEventsIfSnsIsNull() {
+    eventNotificationProperties = new EventNotificationProperties(null);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, false);
+
+    service.publishNotificationsDeleteEvents(List.of(HISTORY_ID));
+
+    verifyNoInteractions(broadcastBuffer);
+  }
+
+  @Test
+  void shouldNotPublishStatusEventIfHistoryIsNull() {
+    service.publishNotificationsStatusEvent(null);
+
+    verifyNoInteractions(broadcastBuffer);
+  }
+
+  @Test
+  void shouldPublishOnlyStatusFieldsForStatusEventWhenDeltaEnabled()
+      throws JsonProcessingException {
+    Instant latestStatusEventAt = Instant.parse("2026-01-01T00:00:00Z");
+    History history = History.builder()
+        .id(HISTORY_ID)
+        .type(NOTIFICATION_TYPE)
+        .sentAt(SENT_AT)
+        .readAt(READ_AT)
+        .status(NOTIFICATION_STATUS)
+        .statusDetail(NOTIFICATION_STATUS_DETAIL)
+        .latestStatusEventAt(latestStatusEventAt)
+        .build();
+
+    service.publishNotificationsStatusEvent(history);
+
+    ArgumentCaptor<PublishBatchRequestEntry> requestCaptor = ArgumentCaptor.captor();
+    verify(broadcastBuffer).offer(eq(MESSAGE_ARN), requestCaptor.capture());
+
+    PublishBatchRequestEntry request = requestCaptor.getValue();
+    assertThat("Unexpected entry id.", request.id(), is(HISTORY_ID.toString()));
+
+    Map<String, Object> message = objectMapper.readValue(request.message(),
+        new TypeReference<>() {
+        });
+    assertThat("Unexpected message fields.", message.keySet(),
+        is(Set.of("id", "status", "statusDetail", "latestStatusEventAt", "readAt")));
+    assertThat("Unexpected message id.", message.get("id"), is(HISTORY_ID.toString()));
+    assertThat("Unexpected message status.", message.get("status"),
+        is(NOTIFICATION_STATUS.toString()));
+    assertThat("Unexpected message status detail.", message.get("statusDetail"),
+        is(NOTIFICATION_STATUS_DETAIL));
+    assertThat("Unexpected message latest status event at.", message.get("latestStatusEventAt"),
+        is(latestStatusEventAt.toString()));
+    assertThat("Unexpected message read at.", message.get("readAt"), is(READ_AT.toString()));
+
+    MessageAttributeValue eventType = request.messageAttributes()
+        .get(HISTORY_EVENT_TYPE_ATTRIBUTE);
+    assertThat("Unexpected event type attribute.", eventType.stringValue(), is(STATUS.name()));
+    assertThat("Unexpected event type data type.", eventType.dataType(), is("String"));
+  }
+
+  @Test
+  void shouldPublishFullHistoryForStatusEventWhenDeltaDisabled() {
+    History history = buildDummyHistory();
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, false, false);
+
+    service.publishNotificationsStatusEvent(history);
+
+    ArgumentCaptor<PublishBatchRequestEntry> requestCaptor = ArgumentCaptor.captor();
+    verify(broadcastBuffer).offer(eq(MESSAGE_ARN), requestCaptor.capture());
+
+    PublishBatchRequestEntry request = requestCaptor.getValue();
+    assertThat("Unexpected message.", request.message(), is(eventSerializer.serialize(history)));
+
+    MessageAttributeValue eventType = request.messageAttributes()
+        .get(HISTORY_EVENT_TYPE_ATTRIBUTE);
+    assertThat("Unexpected event type attribute.", eventType.stringValue(), is(HISTORY.name()));
+  }
+
+  @Test
+  void shouldAppendStatusEventToOutboxWhenEnabled() {
+    History history = buildDummyHistory();
+    when(eventOutbox.isEnabled()).thenReturn(true);
+
+    service.publishNotificationsStatusEvent(history);
+
+    String expectedJson = eventSerializer.serialize(historyMapper.toStatusEvent(history));
+    verify(eventOutbox).append(HISTORY_ID, STATUS, expectedJson);
+    verifyNoInteractions(broadcastBuffer);
+  }
+
+  @Test
+  void shouldQueueStatusEventForEachHistory() {
+    History history1 = buildDummyHistory();
+    History history2 = History.builder().id(ObjectId.get()).status(NOTIFICATION_STATUS).build();
+
+    service.publishNotificationsStatusEvents(List.of(history1, history2));
+
+    ArgumentCaptor<PublishBatchRequestEntry> requestCaptor = ArgumentCaptor.captor();
+    verify(broadcastBuffer, times(2)).offer(eq(MESSAGE_ARN), requestCaptor.capture());
+
+    List<PublishBatchRequestEntry> requests = requestCaptor.getAllValues();
+    assertThat("Unexpected entry id.", requests.get(0).id(), is(history1.id().toString()));
+    assertThat("Unexpected entry id.", requests.get(1).id(), is(history2.id().toString()));
+  }
+
+  @Test
+  void shouldAppendAllStatusEventsToOutboxWhenEnabled() {
+    History history1 = buildDummyHistory();
+    History history2 = History.builder().id(ObjectId.get()).status(NOTIFICATION_STATUS).build();
+    when(eventOutbox.isEnabled()).thenReturn(true);
+
+    service.publishNotificationsStatusEvents(List.of(history1, history2));
+
+    ArgumentCaptor<Map<ObjectId, String>> payloadsCaptor = ArgumentCaptor.captor();
+    verify(eventOutbox).appendAll(eq(STATUS), payloadsCaptor.capture());
+
+    Map<ObjectId, String> payloads = payloadsCaptor.getValue();
+    assertThat("Unexpected payload count.", payloads.size(), is(2));
+    assertThat("Unexpected payload.", payloads.get(history1.id()),
+        is(eventSerializer.serialize(historyMapper.toStatusEvent(history1))));
+    verifyNoInteractions(broadcastBuffer);
+  }
+
+  @Test
+  void shouldAppendAllFullHistoryEventsToOutboxWhenDeltaDisabled() {
+    History history = buildDummyHistory();
+    when(eventOutbox.isEnabled()).thenReturn(true);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, false, false);
+
+    service.publishNotificationsStatusEvents(List.of(history));
+
+    verify(eventOutbox).appendAll(HISTORY, Map.of(HISTORY_ID, eventSerializer.serialize(history)));
+    verifyNoInteractions(broadcastBuffer);
+  }
+
+  @Test
+  void shouldNotPublishStatusEventsWhenNoHistories() {
+    service.publishNotificationsStatusEvents(List.of());
+
+    verifyNoInteractions(broadcastBuffer, eventOutbox);
+  }
+
+  @Test
+  void shouldNotPublishEventsWhenChangeStreamEnabled() {
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, true);
+
+    service.publishNotificationsEvent(buildDummyHistory());
+    service.publishNotificationsStatusEvent(buildDummyHistory());
+    service.publishNotificationsDeleteEvent(HISTORY_ID);
+
+    verifyNoInteractions(broadcastBuffer, eventOutbox);
+  }
+
+  @Test
+  void shouldPublishDeleteNotificationEventForEachId() throws JsonProcessingException {
+    List<ObjectId> ids = List.of(ObjectId.get(), ObjectId.get(), ObjectId.get());
+
+    service.publishNotificationsDeleteEvents(ids);
+
+    ArgumentCaptor<PublishBatchRequestEntry> requestCaptor = ArgumentCaptor.captor();
+    verify(broadcastBuffer, times(3)).offer(eq(MESSAGE_ARN), requestCaptor.capture());
+
+    List<PublishBatchRequestEntry> requests = requestCaptor.getAllValues();
+
+    for (int i = 0; i < ids.size(); i++) {
+      Map<String, Object> message = objectMapper.readValue(requests.get(i).message(),
+          new TypeReference<>() {
+          });
+      assertThat("Unexpected message id.", message.get("id"), is(ids.get(i).toString()));
+      assertThat("Unexpected message notification status.", message.get("status"),
+          is(DELETED.toString()));
+    }
+  }
+
+  @Test
+  void shouldAppendNotificationEventToOutboxWhenEnabled() {
+    History history = buildDummyHistory();
+    when(eventOutbox.isEnabled()).thenReturn(true);
+
+    service.publishNotificationsEvent(history);
+
+    verify(eventOutbox).append(HISTORY_ID, HISTORY, eventSerializer.serialize(history));
+    verifyNoInteractions(broadcastBuffer);
+  }
+
+  @Test
+  void shouldNotAppendNotificationEventToOutboxIfSnsIsNull() {
+    History history = buildDummyHistory();
+    when(eventOutbox.isEnabled()).thenReturn(true);
+
+    eventNotificationProperties = new EventNotificationProperties(null);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, false);
+
+    service.publishNotificationsEvent(history);
+
+    verify(eventOutbox, never()).append(any(), any(), any());
+  }
+
+  @Test
+  void shouldPublishOutboxEventsAsBatch() {
+    EventOutboxEntry event1 = buildOutboxEntry("event1");
+    EventOutboxEntry event2 = buildOutboxEntry("event2");
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenReturn(
+        PublishBatchResponse.builder()
+            .successful(successEntry("0"), successEntry("1"))
+            .build());
+
+    Set<ObjectId> completed = service.publishOutboxEvents(List.of(event1, event2));
+
+    assertThat("Unexpected completed events.", completed, is(Set.of(event1.id(), event2.id())));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(snsClient).publishBatch(requestCaptor.capture());
+
+    PublishBatchRequest request = requestCaptor.getValue();
+    assertThat("Unexpected topic ARN.", request.topicArn(), is(MESSAGE_ARN));
+
+    List<PublishBatchRequestEntry> entries = request.publishBatchRequestEntries();
+    assertThat("Unexpected entry count.", entries.size(), is(2));
+    assertThat("Unexpected entry id.", entries.get(0).id(), is("0"));
+    assertThat("Unexpected message.", entries.get(0).message(), is("event1"));
+    assertThat("Unexpected entry id.", entries.get(1).id(), is("1"));
+    assertThat("Unexpected message.", entries.get(1).message(), is("event2"));
+
+    MessageAttributeValue eventType = entries.get(0).messageAttributes().get("event_type");
+    assertThat("Unexpected message attribute.", eventType.stringValue(), is(MESSAGE_ATTRIBUTE));
+  }
+
+  @Test
+  void shouldSetEventTypeAttributeOnOutboxEvents() {
+    EventOutboxEntry statusEvent = new EventOutboxEntry(ObjectId.get(), HISTORY_ID, STATUS,
+        "event1", Instant.now());
+    EventOutboxEntry untypedEvent = new EventOutboxEntry(ObjectId.get(), ObjectId.get(), null,
+        "event2", Instant.now());
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenReturn(
+        PublishBatchResponse.builder()
+            .successful(successEntry("0"), successEntry("1"))
+            .build());
+
+    service.publishOutboxEvents(List.of(statusEvent, untypedEvent));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(snsClient).publishBatch(requestCaptor.capture());
+
+    List<PublishBatchRequestEntry> entries = requestCaptor.getValue().publishBatchRequestEntries();
+    assertThat("Unexpected event type attribute.",
+        entries.get(0).messageAttributes().get(HISTORY_EVENT_TYPE_ATTRIBUTE).stringValue(),
+        is(STATUS.name()));
+    assertThat("Unexpected event type attribute.",
+        entries.get(1).messageAttributes().get(HISTORY_EVENT_TYPE_ATTRIBUTE).stringValue(),
+        is(HISTORY.name()));
+  }
+
+  @Test
+  void shouldSetMessageGroupIdOnOutboxEventsWhenFifoTopic() {
+    SnsRoute fifoSns = new SnsRoute(MESSAGE_ARN + ".fifo", MESSAGE_ATTRIBUTE);
+    eventNotificationProperties = new EventNotificationProperties(fifoSns);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, false);
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenReturn(
+        PublishBatchResponse.builder().successful(successEntry("0")).build());
+
+    service.publishOutboxEvents(List.of(buildOutboxEntry("event")));
+
+    ArgumentCaptor<PublishBatchRequest> requestCaptor = ArgumentCaptor.captor();
+    verify(snsClient).publishBatch(requestCaptor.capture());
+
+    PublishBatchRequestEntry entry = requestCaptor.getValue().publishBatchRequestEntries().get(0);
+    assertThat("Unexpected message group id.", entry.messageGroupId(),
+        is(MESSAGE_GROUP_ID_PREFIX + "_" + HISTORY_ID));
+  }
+
+  @Test
+  void shouldNotCompleteOutboxEventsWhenPublishFails() {
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenThrow(
+        SnsException.builder().message("expected").build());
+
+    Set<ObjectId> completed = service.publishOutboxEvents(List.of(buildOutboxEntry("event")));
+
+    assertThat("Unexpected completed events.", completed, is(Set.of()));
+  }
+
+  @Test
+  void shouldCompleteRejectedOutboxEventsButNotRetryableFailures() {
+    EventOutboxEntry delivered = buildOutboxEntry("delivered");
+    EventOutboxEntry rejected = buildOutboxEntry("rejected");
+    EventOutboxEntry retryable = buildOutboxEntry("retryable");
+    when(snsClient.publishBatch(any(PublishBatchRequest.class))).thenReturn(
+        PublishBatchResponse.builder()
+            .successful(successEntry("0"))
+            .failed(
+                BatchResultErrorEntry.builder().id("1").code("Invalid").senderFault(true).build(),
+                BatchResultErrorEntry.builder().id("2").code("Error").senderFault(false).build())
+            .build());
+
+    Set<ObjectId> completed = service.publishOutboxEvents(
+        List.of(delivered, rejected, retryable));
+
+    assertThat("Unexpected completed events.", completed,
+        is(Set.of(delivered.id(), rejected.id())));
+  }
+
+  @Test
+  void shouldCompleteOutboxEventsWithoutPublishingIfSnsIsNull() {
+    eventNotificationProperties = new EventNotificationProperties(null);
+    service = new EventBroadcastService(broadcastBuffer, eventOutbox, snsClient, eventSerializer,
+        eventNotificationProperties, historyMapper, true, false);
+    EventOutboxEntry event = buildOutboxEntry("event");
+
+    Set<ObjectId> completed = service.publishOutboxEvents(List.of(event));
+
+    assertThat("Unexpected completed events.", completed, is(Set.of(event.id())));
+    verifyNoInteractions(snsClient);
+  }
+
+  /**
+   * Build an undelivered outbox entry for the dummy history.
+   *
+   * @param payload The event payload.
+   * @return the outbox entry.
+   */
+  private EventOutboxEntry buildOutboxEntry(String payload) {
+    return new EventOutboxEntry(ObjectId.get(), HISTORY_ID, HISTORY, payload, Instant.now());
+  }
+
+  /**
+   * Build a successful batch publish result.
+   *
+   * @param id The batch entry ID.
+   * @return the result entry.
+   */
+  private PublishBatchResultEntry successEntry(String id) {
+    return PublishBatchResultEntry.builder().id(id).messageId(UUID.randomUUID().toString()).build();
+  }
+
   /**
    * Return a largely empty history for test purposes.
    *
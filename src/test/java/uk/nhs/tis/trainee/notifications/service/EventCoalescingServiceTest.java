@@ -0,0 +1,244 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PLACEMENT;
+import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PROGRAMME_MEMBERSHIP;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import uk.nhs.tis.trainee.notifications.service.EventCoalescingService.CoalescingDecision;
+
+class EventCoalescingServiceTest {
+
+  private static final String KEY_PREFIX = "Notifications";
+  private static final Duration WINDOW = Duration.ofSeconds(5);
+  private static final Duration TTL = Duration.ofMinutes(15);
+  private static final String TIS_ID = "123";
+  private static final UUID MESSAGE_ID = UUID.randomUUID();
+  private static final String SEEN_KEY = KEY_PREFIX + ":CoalesceSeen:{PROGRAMME_MEMBERSHIP:"
+      + TIS_ID + "}:" + MESSAGE_ID;
+  private static final String LATEST_KEY = KEY_PREFIX + ":CoalesceLatest:{PROGRAMME_MEMBERSHIP:"
+      + TIS_ID + "}";
+
+  private EventCoalescingService service;
+  private StringRedisTemplate redisTemplate;
+  private ValueOperations<String, String> valueOperations;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    valueOperations = mock(ValueOperations.class);
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+    meterRegistry = new SimpleMeterRegistry();
+    service = new EventCoalescingService(redisTemplate, meterRegistry, KEY_PREFIX, WINDOW, TTL);
+  }
+
+  @Test
+  void shouldProcessEventsWhenCoalescingDisabled() {
+    service = new EventCoalescingService(redisTemplate, meterRegistry, KEY_PREFIX, Duration.ZERO,
+        TTL);
+
+    CoalescingDecision decision = service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 1);
+
+    assertThat("Unexpected decision.", decision, is(CoalescingDecision.PROCESS));
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  void shouldProcessEventsWithoutTisId() {
+    CoalescingDecision decision = service.coalesce(PROGRAMME_MEMBERSHIP, null, MESSAGE_ID, 1);
+
+    assertThat("Unexpected decision.", decision, is(CoalescingDecision.PROCESS));
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  void shouldDeferEventAsLatestWhenFirstSeen() {
+    stubFirstSeen(true);
+
+    CoalescingDecision decision = service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 1);
+
+    assertThat("Unexpected decision.", decision, is(CoalescingDecision.DEFER));
+    verifyNoInteractions(valueOperations);
+  }
+
+  @Test
+  void shouldRecordSeenAndLatestEventAtomically() {
+    stubFirstSeen(true);
+
+    service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 1);
+
+    ArgumentCaptor<RedisScript<Boolean>> scriptCaptor = ArgumentCaptor.captor();
+    verify(redisTemplate).execute(scriptCaptor.capture(), eq(List.of(SEEN_KEY, LATEST_KEY)),
+        eq(TIS_ID), eq(MESSAGE_ID.toString()), eq(String.valueOf(TTL.toMillis())));
+
+    String script = scriptCaptor.getValue().getScriptAsString();
+    assertThat("Unexpected seen write.",
+        script.contains("redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[3])"), is(true));
+    assertThat("Unexpected latest write.",
+        script.contains("redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])"), is(true));
+  }
+
+  @Test
+  void shouldProcessEventWhenStillLatest() {
+    stubFirstSeen(false);
+    when(valueOperations.get(LATEST_KEY)).thenReturn(MESSAGE_ID.toString());
+
+    CoalescingDecision decision = service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 1);
+
+    assertThat("Unexpected decision.", decision, is(CoalescingDecision.PROCESS));
+    assertThat("Unexpected processed count.", getCount("processed"), is(1.0));
+  }
+
+  @Test
+  void shouldProcessEventWhenLatestExpired() {
+    stubFirstSeen(false);
+    when(valueOperations.get(LATEST_KEY)).thenReturn(null);
+
+    CoalescingDecision decision = service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 1);
+
+    assertThat("Unexpected decision.", decision, is(CoalescingDecision.PROCESS));
+  }
+
+  @Test
+  void shouldCoalesceEventWhenSuperseded() {
+    stubFirstSeen(false);
+    when(valueOperations.get(LATEST_KEY)).thenReturn(UUID.randomUUID().toString());
+
+    CoalescingDecision decision = service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 1);
+
+    assertThat("Unexpected decision.", decision, is(CoalescingDecision.COALESCED));
+    assertThat("Unexpected coalesced count.", getCount("coalesced"), is(1.0));
+  }
+
+  @Test
+  void shouldNotDeferRedeliveredEvent() {
+    when(valueOperations.get(LATEST_KEY)).thenReturn(null);
+
+    CoalescingDecision decision = service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 2);
+
+    assertThat("Unexpected decision.", decision, is(CoalescingDecision.PROCESS));
+    verify(redisTemplate).opsForValue();
+    verifyNoMoreInteractions(redisTemplate);
+  }
+
+  @Test
+  void shouldCoalesceRedeliveredEventWhenSuperseded() {
+    when(valueOperations.get(LATEST_KEY)).thenReturn(UUID.randomUUID().toString());
+
+    CoalescingDecision decision = service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 3);
+
+    assertThat("Unexpected decision.", decision, is(CoalescingDecision.COALESCED));
+  }
+
+  @Test
+  void shouldProcessEventWhenCoalescingCannotBeChecked() {
+    when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Boolean>>any(), any(List.class),
+        any(), any(), any())).thenThrow(new RedisConnectionFailureException("expected"));
+
+    CoalescingDecision decision = service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 1);
+
+    assertThat("Unexpected decision.", decision, is(CoalescingDecision.PROCESS));
+  }
+
+  @Test
+  void shouldReportCoalescingRatioPerEntityType() {
+    when(valueOperations.get(LATEST_KEY)).thenReturn(UUID.randomUUID().toString());
+
+    service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 2);
+    service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 2);
+    service.coalesce(PROGRAMME_MEMBERSHIP, TIS_ID, MESSAGE_ID, 2);
+    service.coalesce(PLACEMENT, TIS_ID, MESSAGE_ID, 2);
+
+    assertThat("Unexpected programme membership ratio.", getRatio(PROGRAMME_MEMBERSHIP.name()),
+        is(1.0));
+    assertThat("Unexpected placement ratio.", getRatio(PLACEMENT.name()), is(0.0));
+  }
+
+  @Test
+  void shouldRoundWindowUpToWholeSeconds() {
+    service = new EventCoalescingService(redisTemplate, meterRegistry, KEY_PREFIX,
+        Duration.ofMillis(2500), TTL);
+
+    assertThat("Unexpected window seconds.", service.getWindowSeconds(), is(3));
+  }
+
+  /**
+   * Stub whether the programme membership event is recorded as seen for the first time.
+   *
+   * @param firstSeen Whether the event is seen for the first time.
+   */
+  private void stubFirstSeen(Boolean firstSeen) {
+    when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Boolean>>any(),
+        eq(List.of(SEEN_KEY, LATEST_KEY)), eq(TIS_ID), eq(MESSAGE_ID.toString()),
+        eq(String.valueOf(TTL.toMillis())))).thenReturn(firstSeen);
+  }
+
+  /**
+   * Get the count of a programme membership coalescing counter.
+   *
+   * @param outcome The outcome of the counter.
+   * @return The counted outcomes.
+   */
+  private double getCount(String outcome) {
+    return meterRegistry.get("notifications.event.coalescing." + outcome)
+        .tag("entity", PROGRAMME_MEMBERSHIP.name())
+        .counter()
+        .count();
+  }
+
+  /**
+   * Get the coalescing ratio for an entity type.
+   *
+   * @param entity The entity type.
+   * @return The coalescing ratio.
+   */
+  private double getRatio(String entity) {
+    return meterRegistry.get("notifications.event.coalescing.ratio")
+        .tag("entity", entity)
+        .gauge()
+        .value();
+  }
+}
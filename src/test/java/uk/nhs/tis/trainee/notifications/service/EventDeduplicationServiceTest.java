@@ -0,0 +1,211 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+class EventDeduplicationServiceTest {
+
+  private static final String KEY_PREFIX = "Notifications";
+  private static final Duration TTL = Duration.ofHours(6);
+  private static final String QUEUE = "placement-updated";
+  private static final String ENTITY_ID = "123";
+  private static final String STORED_KEY = KEY_PREFIX + ":EventHash:" + QUEUE + ":" + ENTITY_ID;
+
+  private EventDeduplicationService service;
+  private StringRedisTemplate redisTemplate;
+  private ValueOperations<String, String> valueOperations;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    valueOperations = mock(ValueOperations.class);
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+    meterRegistry = new SimpleMeterRegistry();
+    service = new EventDeduplicationService(redisTemplate, meterRegistry, KEY_PREFIX,
+        Set.of(QUEUE), TTL);
+  }
+
+  @Test
+  void shouldNotDeduplicateQueuesNotConfigured() {
+    boolean duplicate = service.isDuplicate("other-queue", ENTITY_ID, Map.of("id", ENTITY_ID));
+    service.recordProcessed("other-queue", ENTITY_ID, Map.of("id", ENTITY_ID));
+
+    assertThat("Unexpected duplicate result.", duplicate, is(false));
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  void shouldNotDeduplicateEventsWithoutEntityId() {
+    boolean duplicate = service.isDuplicate(QUEUE, null, Map.of("id", ENTITY_ID));
+    service.recordProcessed(QUEUE, null, Map.of("id", ENTITY_ID));
+
+    assertThat("Unexpected duplicate result.", duplicate, is(false));
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  void shouldRecordProcessedPayloadHashWithTtl() {
+    service.recordProcessed(QUEUE, ENTITY_ID, Map.of("id", ENTITY_ID));
+
+    verify(valueOperations).set(eq(STORED_KEY), anyString(), eq(TTL));
+  }
+
+  @Test
+  void shouldNotBeDuplicateWhenNoPayloadProcessed() {
+    when(valueOperations.get(STORED_KEY)).thenReturn(null);
+
+    boolean duplicate = service.isDuplicate(QUEUE, ENTITY_ID, Map.of("id", ENTITY_ID));
+
+    assertThat("Unexpected duplicate result.", duplicate, is(false));
+    assertThat("Unexpected suppressed count.", getSuppressedCount(), is(0.0));
+  }
+
+  @Test
+  void shouldBeDuplicateWhenPayloadMatchesLastProcessedRegardlessOfOrder() {
+    Map<String, String> processed = new LinkedHashMap<>();
+    processed.put("id", ENTITY_ID);
+    processed.put("startDate", "2026-01-01");
+    String hash = recordAndCaptureHash(processed);
+
+    Map<String, String> repeated = new LinkedHashMap<>();
+    repeated.put("startDate", "2026-01-01");
+    repeated.put("id", ENTITY_ID);
+    when(valueOperations.get(STORED_KEY)).thenReturn(hash);
+
+    boolean duplicate = service.isDuplicate(QUEUE, ENTITY_ID, repeated);
+
+    assertThat("Unexpected duplicate result.", duplicate, is(true));
+    assertThat("Unexpected suppressed count.", getSuppressedCount(), is(1.0));
+  }
+
+  @Test
+  void shouldNotBeDuplicateWhenPayloadChanged() {
+    String hash = recordAndCaptureHash(Map.of("id", ENTITY_ID, "startDate", "2026-01-01"));
+    when(valueOperations.get(STORED_KEY)).thenReturn(hash);
+
+    boolean duplicate = service.isDuplicate(QUEUE, ENTITY_ID,
+        Map.of("id", ENTITY_ID, "startDate", "2026-02-01"));
+
+    assertThat("Unexpected duplicate result.", duplicate, is(false));
+    assertThat("Unexpected hash.", hash, not(recordAndCaptureHash(
+        Map.of("id", ENTITY_ID, "startDate", "2026-02-01"))));
+  }
+
+  @Test
+  void shouldNotBeDuplicateWhenCheckFails() {
+    when(valueOperations.get(any())).thenThrow(new RedisConnectionFailureException("expected"));
+
+    boolean duplicate = service.isDuplicate(QUEUE, ENTITY_ID, Map.of("id", ENTITY_ID));
+
+    assertThat("Unexpected duplicate result.", duplicate, is(false));
+  }
+
+  @Test
+  void shouldNotThrowExceptionWhenRecordFails() {
+    doThrow(new RedisConnectionFailureException("expected")).when(valueOperations)
+        .set(any(), any(), any(Duration.class));
+
+    assertDoesNotThrow(() -> service.recordProcessed(QUEUE, ENTITY_ID, Map.of("id", ENTITY_ID)));
+  }
+
+  @Test
+  void shouldDeleteProcessedPayloadHashWhenCleared() {
+    service.clearProcessed(QUEUE, ENTITY_ID);
+
+    verify(redisTemplate).delete(STORED_KEY);
+  }
+
+  @Test
+  void shouldNotClearQueuesNotConfigured() {
+    service.clearProcessed("other-queue", ENTITY_ID);
+
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenClearFails() {
+    when(redisTemplate.delete(anyString())).thenThrow(
+        new RedisConnectionFailureException("expected"));
+
+    assertThrows(RedisConnectionFailureException.class,
+        () -> service.clearProcessed(QUEUE, ENTITY_ID));
+  }
+
+  /**
+   * Record a processed payload and capture the stored hash.
+   *
+   * @param payload The payload to record.
+   * @return The stored hash.
+   */
+  private String recordAndCaptureHash(Object payload) {
+    service.recordProcessed(QUEUE, ENTITY_ID, payload);
+
+    ArgumentCaptor<String> hashCaptor = ArgumentCaptor.captor();
+    verify(valueOperations, atLeastOnce()).set(eq(STORED_KEY),
+        hashCaptor.capture(), eq(TTL));
+    return hashCaptor.getValue();
+  }
+
+  /**
+   * Get the count of suppressed events for the queue.
+   *
+   * @return The suppressed event count.
+   */
+  private double getSuppressedCount() {
+    return meterRegistry.find("notifications.event.duplicates.suppressed")
+        .tag("queue", QUEUE)
+        .counters()
+        .stream()
+        .mapToDouble(Counter::count)
+        .sum();
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.nhs.tis.trainee.notifications.TestContainerConfiguration.MONGODB;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.HISTORY;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.STATUS;
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.FORM_UPDATED;
+
+import io.awspring.cloud.sqs.operations.SqsTemplate;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.services.sns.SnsClient;
+import uk.nhs.tis.trainee.notifications.job.EventOutboxRelay;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
+
+@SpringBootTest(properties = {
+    "application.sns.notifications-event.arn=arn:aws:sns:eu-west-2:000000000000:events",
+    "application.sns.outbox.enabled=true",
+    "application.sns.outbox.transactional=true"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class EventOutboxIntegrationTest {
+
+  @Container
+  @ServiceConnection
+  private static final MongoDBContainer MONGODB_CONTAINER = new MongoDBContainer(MONGODB);
+
+  @MockitoBean
+  private SqsTemplate sqsTemplate;
+
+  @MockitoBean
+  private SnsClient snsClient;
+
+  @MockitoBean
+  private EventOutboxRelay relay;
+
+  @Autowired
+  private MongoTemplate mongoTemplate;
+
+  @Autowired
+  private EventOutbox outbox;
+
+  @Autowired
+  private HistoryService historyService;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.remove(History.class).all();
+    mongoTemplate.remove(EventOutboxEntry.class).all();
+  }
+
+  @Test
+  void shouldAppendEventWhenHistorySaved() {
+    History saved = historyService.save(buildHistory());
+
+    List<EventOutboxEntry> events = outbox.findUndelivered(10);
+    assertThat("Unexpected event count.", events, hasSize(1));
+
+    EventOutboxEntry event = events.get(0);
+    assertThat("Unexpected event ID.", event.eventId(), is(saved.id()));
+    assertThat("Unexpected payload.", event.payload().contains(saved.id().toString()),
+        is(true));
+  }
+
+  @Test
+  void shouldRollBackHistoryAndEventWhenTransactionFails() {
+    History history = buildHistory();
+
+    assertThrows(IllegalStateException.class, () -> outbox.runInTransaction(() -> {
+      History saved = mongoTemplate.insert(history);
+      outbox.append(saved.id(), HISTORY, "{}");
+      throw new IllegalStateException("expected");
+    }));
+
+    assertThat("Unexpected history count.", mongoTemplate.count(new Query(), History.class),
+        is(0L));
+    assertThat("Unexpected event count.", outbox.findUndelivered(10), hasSize(0));
+  }
+
+  @Test
+  void shouldNotFindDeliveredEvents() {
+    EventOutboxEntry delivered = outbox.append(ObjectId.get(), HISTORY, "{}");
+    EventOutboxEntry undelivered = outbox.append(ObjectId.get(), HISTORY, "{}");
+
+    long count = outbox.markDelivered(Set.of(delivered.id()));
+
+    assertThat("Unexpected delivered count.", count, is(1L));
+
+    List<EventOutboxEntry> events = outbox.findUndelivered(10);
+    assertThat("Unexpected event count.", events, hasSize(1));
+    assertThat("Unexpected event.", events.get(0).id(), is(undelivered.id()));
+
+    EventOutboxEntry stored = mongoTemplate.findById(delivered.id(), EventOutboxEntry.class);
+    assertThat("Unexpected stored event.", stored, notNullValue());
+    assertThat("Unexpected expires at.", stored.expiresAt(), notNullValue());
+  }
+
+  @Test
+  void shouldNotFindEventsForNotificationWaitingToRetry() {
+    ObjectId waitingId = ObjectId.get();
+    EventOutboxEntry failed = outbox.append(waitingId, HISTORY, "{}");
+    outbox.append(waitingId, STATUS, "{}");
+    EventOutboxEntry other = outbox.append(ObjectId.get(), HISTORY, "{}");
+
+    outbox.markRetry(failed.id(), Instant.now().plusSeconds(60));
+
+    List<EventOutboxEntry> events = outbox.findUndelivered(10);
+    assertThat("Unexpected event count.", events, hasSize(1));
+    assertThat("Unexpected event.", events.get(0).id(), is(other.id()));
+
+    EventOutboxEntry stored = mongoTemplate.findById(failed.id(), EventOutboxEntry.class);
+    assertThat("Unexpected attempts.", stored.attempts(), is(1));
+  }
+
+  @Test
+  void shouldFindEventsWhenRetryDue() {
+    EventOutboxEntry failed = outbox.append(ObjectId.get(), HISTORY, "{}");
+
+    outbox.markRetry(failed.id(), Instant.now().minusSeconds(1));
+
+    List<EventOutboxEntry> events = outbox.findUndelivered(10);
+    assertThat("Unexpected event count.", events, hasSize(1));
+    assertThat("Unexpected event.", events.get(0).id(), is(failed.id()));
+  }
+
+  @Test
+  void shouldNotFindDeadLetteredEvents() {
+    ObjectId eventId = ObjectId.get();
+    EventOutboxEntry failed = outbox.append(eventId, HISTORY, "{}");
+    EventOutboxEntry later = outbox.append(eventId, STATUS, "{}");
+
+    outbox.markFailed(failed.id());
+
+    List<EventOutboxEntry> events = outbox.findUndelivered(10);
+    assertThat("Unexpected event count.", events, hasSize(1));
+    assertThat("Unexpected event.", events.get(0).id(), is(later.id()));
+
+    EventOutboxEntry stored = mongoTemplate.findById(failed.id(), EventOutboxEntry.class);
+    assertThat("Unexpected failed at.", stored.failedAt(), notNullValue());
+    assertThat("Unexpected expires at.", stored.expiresAt(), nullValue());
+  }
+
+  /**
+   * Build a notification history for test purposes.
+   *
+   * @return the built history.
+   */
+  private History buildHistory() {
+    return History.builder()
+        .type(FORM_UPDATED)
+        .recipient(new RecipientInfo("40", EMAIL, "test@tis.nhs.uk"))
+        .sentAt(Instant.now())
+        .status(SENT)
+        .build();
+  }
+}
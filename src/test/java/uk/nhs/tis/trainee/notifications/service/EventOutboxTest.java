@@ -0,0 +1,272 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.HISTORY;
+import static uk.nhs.tis.trainee.notifications.model.HistoryEventType.STATUS;
+
+import com.mongodb.client.result.UpdateResult;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.nhs.tis.trainee.notifications.model.EventOutboxEntry;
+
+class EventOutboxTest {
+
+  private static final Duration RETENTION = Duration.ofDays(7);
+
+  private EventOutbox outbox;
+
+  private MongoTemplate mongoTemplate;
+  private ObjectProvider<MongoTransactionManager> transactionManagerProvider;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate = mock(MongoTemplate.class);
+    transactionManagerProvider = mock(ObjectProvider.class);
+    outbox = new EventOutbox(mongoTemplate, transactionManagerProvider, true, false, RETENTION);
+  }
+
+  @Test
+  void shouldBeEnabledWhenConfigured() {
+    assertThat("Unexpected enabled flag.", outbox.isEnabled(), is(true));
+
+    outbox = new EventOutbox(mongoTemplate, transactionManagerProvider, false, false, RETENTION);
+    assertThat("Unexpected enabled flag.", outbox.isEnabled(), is(false));
+  }
+
+  @Test
+  void shouldRunActionDirectlyWhenNotTransactional() {
+    String result = outbox.callInTransaction(() -> "result");
+
+    assertThat("Unexpected result.", result, is("result"));
+    verifyNoInteractions(mongoTemplate, transactionManagerProvider);
+  }
+
+  @Test
+  void shouldRunActionInContextTransactionWhenTransactional() {
+    MongoTransactionManager transactionManager = mock(MongoTransactionManager.class);
+    when(transactionManagerProvider.getObject()).thenReturn(transactionManager);
+    outbox = new EventOutbox(mongoTemplate, transactionManagerProvider, true, true, RETENTION);
+
+    String result = outbox.callInTransaction(() -> "result");
+
+    assertThat("Unexpected result.", result, is("result"));
+    verify(transactionManager).getTransaction(any());
+    verify(transactionManager).commit(any());
+  }
+
+  @Test
+  void shouldNotUseTransactionManagerWhenDisabled() {
+    outbox = new EventOutbox(mongoTemplate, transactionManagerProvider, false, true, RETENTION);
+
+    String result = outbox.callInTransaction(() -> "result");
+
+    assertThat("Unexpected result.", result, is("result"));
+    verifyNoInteractions(transactionManagerProvider);
+  }
+
+  @Test
+  void shouldAppendUndeliveredEvent() {
+    when(mongoTemplate.insert(any(EventOutboxEntry.class))).then(inv -> inv.getArgument(0));
+    ObjectId eventId = ObjectId.get();
+    Instant before = Instant.now();
+
+    EventOutboxEntry entry = outbox.append(eventId, STATUS, "{\"id\":\"123\"}");
+
+    assertThat("Unexpected event ID.", entry.eventId(), is(eventId));
+    assertThat("Unexpected event type.", entry.eventType(), is(STATUS));
+    assertThat("Unexpected payload.", entry.payload(), is("{\"id\":\"123\"}"));
+    assertThat("Unexpected created at.", entry.createdAt().isBefore(before), is(false));
+    assertThat("Unexpected delivered at.", entry.deliveredAt(), nullValue());
+    assertThat("Unexpected expires at.", entry.expiresAt(), nullValue());
+  }
+
+  @Test
+  void shouldNotInsertWhenNoEventsAppended() {
+    Collection<EventOutboxEntry> entries = outbox.appendAll(HISTORY, Map.of());
+
+    assertThat("Unexpected entry count.", entries.size(), is(0));
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldAppendAllEventsInSingleInsert() {
+    when(mongoTemplate.insert(anyCollection(), eq(EventOutboxEntry.class))).then(
+        inv -> inv.getArgument(0));
+    ObjectId eventId1 = ObjectId.get();
+    ObjectId eventId2 = ObjectId.get();
+
+    Collection<EventOutboxEntry> entries = outbox.appendAll(STATUS,
+        Map.of(eventId1, "{\"id\":\"1\"}", eventId2, "{\"id\":\"2\"}"));
+
+    assertThat("Unexpected event IDs.", entries.stream().map(EventOutboxEntry::eventId).toList(),
+        containsInAnyOrder(eventId1, eventId2));
+    assertThat("Unexpected event types.",
+        entries.stream().map(EventOutboxEntry::eventType).toList(), everyItem(is(STATUS)));
+    assertThat("Unexpected created at count.",
+        entries.stream().map(EventOutboxEntry::createdAt).distinct().count(), is(1L));
+    verify(mongoTemplate).insert(anyCollection(), eq(EventOutboxEntry.class));
+  }
+
+  @Test
+  void shouldFindOldestUndeliveredEvents() {
+    List<EventOutboxEntry> events = List.of(
+        new EventOutboxEntry(ObjectId.get(), ObjectId.get(), HISTORY, "{}", Instant.now()));
+    when(mongoTemplate.find(any(Query.class), eq(EventOutboxEntry.class))).thenReturn(events);
+
+    List<EventOutboxEntry> found = outbox.findUndelivered(50);
+
+    assertThat("Unexpected events.", found, is(events));
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).find(queryCaptor.capture(), eq(EventOutboxEntry.class));
+
+    Query query = queryCaptor.getValue();
+    Document queryObject = query.getQueryObject();
+    assertThat("Unexpected delivered at.", queryObject.containsKey("deliveredAt"), is(true));
+    assertThat("Unexpected delivered at.", queryObject.get("deliveredAt"), nullValue());
+    assertThat("Unexpected failed at.", queryObject.containsKey("failedAt"), is(true));
+    assertThat("Unexpected failed at.", queryObject.get("failedAt"), nullValue());
+    assertThat("Unexpected retry criteria.", queryObject.get("$or"), notNullValue());
+    assertThat("Unexpected sort.", query.getSortObject(),
+        is(new Document("createdAt", 1).append("_id", 1)));
+    assertThat("Unexpected limit.", query.getLimit(), is(50));
+  }
+
+  @Test
+  void shouldNotFindEventsForNotificationsWaitingToRetry() {
+    ObjectId waitingId = ObjectId.get();
+    when(mongoTemplate.findDistinct(any(Query.class), eq("eventId"), eq(EventOutboxEntry.class),
+        eq(ObjectId.class))).thenReturn(List.of(waitingId));
+
+    outbox.findUndelivered(50);
+
+    ArgumentCaptor<Query> waitingCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).findDistinct(waitingCaptor.capture(), eq("eventId"),
+        eq(EventOutboxEntry.class), eq(ObjectId.class));
+    Document retryAt = waitingCaptor.getValue().getQueryObject().get("retryAt", Document.class);
+    assertThat("Unexpected retry at criteria.", retryAt.get("$gt"), notNullValue());
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).find(queryCaptor.capture(), eq(EventOutboxEntry.class));
+    Document eventId = queryCaptor.getValue().getQueryObject().get("eventId", Document.class);
+    assertThat("Unexpected excluded IDs.", (Collection<?>) eventId.get("$nin"),
+        containsInAnyOrder(waitingId));
+  }
+
+  @Test
+  void shouldMarkEventForRetry() {
+    ObjectId id = ObjectId.get();
+    Instant retryAt = Instant.now().plusSeconds(10);
+
+    outbox.markRetry(id, retryAt);
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(),
+        eq(EventOutboxEntry.class));
+
+    assertThat("Unexpected query.", queryCaptor.getValue().getQueryObject(),
+        is(new Document("_id", id)));
+    Document updateObject = updateCaptor.getValue().getUpdateObject();
+    assertThat("Unexpected increment.", updateObject.get("$inc"),
+        is(new Document("attempts", 1)));
+    assertThat("Unexpected set.", updateObject.get("$set"), is(new Document("retryAt", retryAt)));
+  }
+
+  @Test
+  void shouldMarkEventFailedWithoutExpiry() {
+    ObjectId id = ObjectId.get();
+
+    outbox.markFailed(id);
+
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).updateFirst(eq(Query.query(Criteria.where("_id").is(id))),
+        updateCaptor.capture(), eq(EventOutboxEntry.class));
+
+    Document setObject = updateCaptor.getValue().getUpdateObject().get("$set", Document.class);
+    assertThat("Unexpected failed at.", setObject.get("failedAt"), notNullValue());
+    assertThat("Unexpected expires at.", setObject.containsKey("expiresAt"), is(false));
+  }
+
+  @Test
+  void shouldNotUpdateWhenNoEventsDelivered() {
+    long delivered = outbox.markDelivered(Set.of());
+
+    assertThat("Unexpected delivered count.", delivered, is(0L));
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldMarkEventsDeliveredWithExpiry() {
+    when(mongoTemplate.updateMulti(any(), any(), eq(EventOutboxEntry.class))).thenReturn(
+        UpdateResult.acknowledged(2, 2L, null));
+    Set<ObjectId> ids = Set.of(ObjectId.get(), ObjectId.get());
+
+    long delivered = outbox.markDelivered(ids);
+
+    assertThat("Unexpected delivered count.", delivered, is(2L));
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).updateMulti(queryCaptor.capture(), updateCaptor.capture(),
+        eq(EventOutboxEntry.class));
+
+    Document idCriteria = queryCaptor.getValue().getQueryObject().get("_id", Document.class);
+    assertThat("Unexpected IDs.", (Collection<?>) idCriteria.get("$in"),
+        containsInAnyOrder(ids.toArray()));
+
+    Document setObject = updateCaptor.getValue().getUpdateObject().get("$set", Document.class);
+    Instant deliveredAt = setObject.get("deliveredAt", Instant.class);
+    assertThat("Unexpected delivered at.", deliveredAt, notNullValue());
+    assertThat("Unexpected expires at.", setObject.get("expiresAt"),
+        is(deliveredAt.plus(RETENTION)));
+  }
+}
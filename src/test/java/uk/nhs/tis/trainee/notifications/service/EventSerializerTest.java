@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_CREATED;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.nhs.tis.trainee.notifications.config.ObjectIdSerializerModule;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
+import uk.nhs.tis.trainee.notifications.model.TisReferenceType;
+
+class EventSerializerTest {
+
+  private static final ObjectId HISTORY_ID = ObjectId.get();
+  private static final Instant SENT_AT = Instant.parse("2024-07-01T09:00:00Z");
+
+  private EventSerializer serializer;
+  private ObjectMapper objectMapper;
+  private History history;
+
+  @BeforeEach
+  void setUp() {
+    serializer = new EventSerializer();
+    objectMapper = new ObjectMapper();
+    history = History.builder()
+        .id(HISTORY_ID)
+        .tisReference(new TisReferenceInfo(TisReferenceType.PROGRAMME_MEMBERSHIP, "40"))
+        .type(PROGRAMME_CREATED)
+        .recipient(new RecipientInfo("47165", EMAIL, "anthony.gilliam@example.com"))
+        .template(new TemplateInfo("template", "v1.2.3", Map.of("key1", "value1")))
+        .sentAt(SENT_AT)
+        .status(SENT)
+        .build();
+  }
+
+  @Test
+  void shouldSerializeObjectIdsAsStrings() throws JsonProcessingException {
+    String json = serializer.serialize(history);
+
+    JsonNode event = objectMapper.readTree(json);
+    assertThat("Unexpected id.", event.get("id").asText(), is(HISTORY_ID.toString()));
+  }
+
+  @Test
+  void shouldSerializeDatesAsIsoStrings() throws JsonProcessingException {
+    String json = serializer.serialize(history);
+
+    JsonNode event = objectMapper.readTree(json);
+    assertThat("Unexpected sent at.", event.get("sentAt").asText(), is(SENT_AT.toString()));
+  }
+
+  @Test
+  void shouldSerializeSameContentAsTreeSerialization() throws JsonProcessingException {
+    ObjectMapper treeMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .registerModule(new ObjectIdSerializerModule());
+    String expected = treeMapper.valueToTree(history).toString();
+
+    String json = serializer.serialize(history);
+
+    assertThat("Unexpected event.", objectMapper.readTree(json),
+        is(objectMapper.readTree(expected)));
+  }
+
+  @Test
+  void shouldSerializeSameContentAsBytes() {
+    byte[] bytes = serializer.serializeToBytes(history);
+
+    assertThat("Unexpected event.", new String(bytes, StandardCharsets.UTF_8),
+        is(serializer.serialize(history)));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenEventCanNotBeSerialized() {
+    Object event = new Object();
+
+    assertThrows(UncheckedIOException.class, () -> serializer.serialize(event));
+    assertThrows(UncheckedIOException.class, () -> serializer.serializeToBytes(event));
+  }
+}
@@ -79,6 +79,7 @@ import uk.nhs.tis.trainee.notifications.model.History;
 import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
 import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
 import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
+import uk.nhs.tis.trainee.notifications.model.HistoryStatusUpdate;
 import uk.nhs.tis.trainee.notifications.model.MessageType;
 import uk.nhs.tis.trainee.notifications.model.NotificationType;
 import uk.nhs.tis.trainee.notifications.model.ObjectIdWrapper;
@@ -188,6 +189,31 @@ class HistoryServiceIntegrationTest {
     assertThat("Unexpected overdue IDs.", overdue, hasItems(past.id(), current.id()));
   }
 
+  @Test
+  void shouldFindOverdueNotificationsWhenClaimExpired() {
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(TIS_REFERENCE_TYPE, TIS_REFERENCE_ID);
+    History.HistoryBuilder builder = History.builder()
+        .tisReference(tisReferenceInfo)
+        .type(FORM_UPDATED)
+        .recipient(recipientInfo)
+        .template(templateInfo)
+        .sentAt(SENT_AT.plus(Duration.ofDays(1)))
+        .status(PENDING);
+
+    History expired = service.save(
+        builder.claimedAt(Instant.now().minus(Duration.ofDays(1))).build());
+    service.save(builder.claimedAt(Instant.now()).build());
+    service.save(builder.claimedAt(null).build());
+
+    List<ObjectIdWrapper> wrappedOverdue = service.findAllOverdue();
+
+    assertThat("Unexpected overdue count.", wrappedOverdue, hasSize(1));
+    assertThat("Unexpected overdue ID.", wrappedOverdue.get(0).id(), is(expired.id()));
+  }
+
   @Test
   void shouldNotFindNotificationsWhenTraineeIdNotMatches() {
     RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
@@ -401,48 +427,154 @@ class HistoryServiceIntegrationTest {
   }
 
   @Test
-  void shouldSortScheduledEmailNotificationsByRefAndType() {
+  void shouldClaimLatestScheduledEmailAndDeleteDuplicates(
+      @Autowired HistoryRepository repository) {
     RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
     TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
         TEMPLATE_VARIABLES);
-    TisReferenceInfo tisReferenceInfo1 =
-        new TisReferenceInfo(TisReferenceType.PLACEMENT, TIS_REFERENCE_ID);
-    TisReferenceInfo tisReferenceInfo2 =
-        new TisReferenceInfo(TisReferenceType.PROGRAMME_MEMBERSHIP, TIS_REFERENCE_ID);
-    TisReferenceInfo tisReferenceInfo3 =
-        new TisReferenceInfo(TisReferenceType.PROGRAMME_MEMBERSHIP, TIS_REFERENCE_ID_2);
-    TisReferenceInfo tisReferenceInfo4 =
-        new TisReferenceInfo(TisReferenceType.PLACEMENT, TIS_REFERENCE_ID);
-    TisReferenceInfo tisReferenceInfo5 =
-        new TisReferenceInfo(TisReferenceType.PLACEMENT, TIS_REFERENCE_ID_2);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID);
+    TisReferenceInfo otherReferenceInfo = new TisReferenceInfo(PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID_2);
 
     Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
-    service.save(new History(null, tisReferenceInfo1, FORM_UPDATED, recipientInfo, templateInfo,
-        null, now, now, SENT, null, null));
-    service.save(new History(null, tisReferenceInfo2, PROGRAMME_DAY_ONE, recipientInfo,
-        templateInfo, null, now, now, SCHEDULED, null, null));
-    service.save(new History(null, tisReferenceInfo3, PROGRAMME_DAY_ONE, recipientInfo,
-        templateInfo, null, now, now, SCHEDULED, null, null));
-    service.save(new History(null, tisReferenceInfo4, PROGRAMME_DAY_ONE, recipientInfo,
-        templateInfo, null, now, now, SCHEDULED, null, null));
-    service.save(new History(null, tisReferenceInfo5, PROGRAMME_DAY_ONE, recipientInfo,
-        templateInfo, null, now, now, SCHEDULED, null, null));
+    History duplicate = service.save(new History(null, tisReferenceInfo, PROGRAMME_DAY_ONE,
+        recipientInfo, templateInfo, null, now.minus(Duration.ofDays(1)), null, SCHEDULED, null,
+        null));
+    History latest = service.save(new History(null, tisReferenceInfo, PROGRAMME_DAY_ONE,
+        recipientInfo, templateInfo, null, now, null, SCHEDULED, null, null));
+    History other = service.save(new History(null, otherReferenceInfo, PROGRAMME_DAY_ONE,
+        recipientInfo, templateInfo, null, now, null, SCHEDULED, null, null));
+
+    Optional<History> claimed = service.claimScheduledEmail(TRAINEE_ID, PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
+
+    assertThat("Unexpected claimed history presence.", claimed.isPresent(), is(true));
+    assertThat("Unexpected claimed history id.", claimed.get().id(), is(latest.id()));
+    assertThat("Unexpected claimed history status.",
+        repository.findById(latest.id()).map(History::status).orElse(null), is(PENDING));
+    assertThat("Unexpected duplicate history presence.",
+        repository.findById(duplicate.id()).isPresent(), is(false));
+    assertThat("Unexpected other history status.",
+        repository.findById(other.id()).map(History::status).orElse(null), is(SCHEDULED));
+
+    verify(eventBroadcastService).publishNotificationsDeleteEvents(List.of(duplicate.id()));
+  }
 
-    History foundHistory = service.findScheduledEmailForTraineeByRefAndType(
-        TRAINEE_ID, TisReferenceType.PROGRAMME_MEMBERSHIP, TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
+  @Test
+  void shouldNotClaimScheduledEmailTwice() {
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID);
+    service.save(new History(null, tisReferenceInfo, PROGRAMME_DAY_ONE, recipientInfo,
+        templateInfo, null, SENT_AT, null, SCHEDULED, null, null));
 
-    assertThat("Unexpected history message type.", foundHistory.recipient().type(), is(EMAIL));
-    assertThat("Unexpected history reference type.", foundHistory.tisReference().type(),
-        is(TisReferenceType.PROGRAMME_MEMBERSHIP));
-    assertThat("Unexpected history reference id.", foundHistory.tisReference().id(),
-        is(TIS_REFERENCE_ID));
-    assertThat("Unexpected history notification type.", foundHistory.type(),
-        is(PROGRAMME_DAY_ONE));
-    assertThat("Unexpected history status.", foundHistory.status(), is(SCHEDULED));
+    Optional<History> claimed1 = service.claimScheduledEmail(TRAINEE_ID, PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
+    Optional<History> claimed2 = service.claimScheduledEmail(TRAINEE_ID, PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
+
+    assertThat("Unexpected first claim presence.", claimed1.isPresent(), is(true));
+    assertThat("Unexpected second claim presence.", claimed2.isPresent(), is(false));
   }
 
   @Test
-  void shouldNotReturnInAppNotificationsBySentAt() {
+  void shouldReleaseClaimedScheduledEmail(@Autowired HistoryRepository repository) {
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID);
+    History scheduled = service.save(new History(null, tisReferenceInfo, PROGRAMME_DAY_ONE,
+        recipientInfo, templateInfo, null, SENT_AT, null, SCHEDULED, null, null));
+
+    service.claimScheduledEmail(TRAINEE_ID, PROGRAMME_MEMBERSHIP, TIS_REFERENCE_ID,
+        PROGRAMME_DAY_ONE);
+    service.releaseScheduledEmail(scheduled.id());
+
+    assertThat("Unexpected released history status.",
+        repository.findById(scheduled.id()).map(History::status).orElse(null), is(SCHEDULED));
+    assertThat("Unexpected released history claimed at.",
+        repository.findById(scheduled.id()).map(History::claimedAt).orElse(null),
+        nullValue());
+
+    Optional<History> reclaimed = service.claimScheduledEmail(TRAINEE_ID, PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
+    assertThat("Unexpected reclaimed history id.", reclaimed.map(History::id).orElse(null),
+        is(scheduled.id()));
+  }
+
+  @Test
+  void shouldReclaimScheduledEmailWhenClaimExpired() {
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID);
+    History expired = service.save(History.builder()
+        .tisReference(tisReferenceInfo)
+        .type(PROGRAMME_DAY_ONE)
+        .recipient(recipientInfo)
+        .template(templateInfo)
+        .sentAt(SENT_AT)
+        .status(PENDING)
+        .claimedAt(Instant.now().minus(Duration.ofDays(1)))
+        .build());
+
+    Optional<History> reclaimed = service.claimScheduledEmail(TRAINEE_ID, PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
+
+    assertThat("Unexpected reclaimed history id.", reclaimed.map(History::id).orElse(null),
+        is(expired.id()));
+  }
+
+  @Test
+  void shouldNotClaimSentEmail() {
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID);
+    service.save(new History(null, tisReferenceInfo, PROGRAMME_DAY_ONE, recipientInfo,
+        templateInfo, null, SENT_AT, null, PENDING, null, null));
+
+    Optional<History> claimed = service.claimScheduledEmail(TRAINEE_ID, PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
+
+    assertThat("Unexpected claim presence.", claimed.isPresent(), is(false));
+  }
+
+  @Test
+  void shouldDeleteAllScheduledEmails(@Autowired HistoryRepository repository) {
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID);
+    History scheduled1 = service.save(new History(null, tisReferenceInfo, PROGRAMME_DAY_ONE,
+        recipientInfo, templateInfo, null, SENT_AT, null, SCHEDULED, null, null));
+    History scheduled2 = service.save(new History(null, tisReferenceInfo, PROGRAMME_DAY_ONE,
+        recipientInfo, templateInfo, null, SENT_AT, null, SCHEDULED, null, null));
+    History sent = service.save(new History(null, tisReferenceInfo, PROGRAMME_DAY_ONE,
+        recipientInfo, templateInfo, null, SENT_AT, null, SENT, null, null));
+
+    List<History> deleted = service.deleteScheduledEmails(TRAINEE_ID, PROGRAMME_MEMBERSHIP,
+        TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
+
+    assertThat("Unexpected deleted count.", deleted, hasSize(2));
+    assertThat("Unexpected remaining history.", repository.findAll().stream()
+        .map(History::id).toList(), is(List.of(sent.id())));
+
+    ArgumentCaptor<List<ObjectId>> idsCaptor = ArgumentCaptor.captor();
+    verify(eventBroadcastService).publishNotificationsDeleteEvents(idsCaptor.capture());
+    assertThat("Unexpected deleted ids.", idsCaptor.getValue(),
+        hasItems(scheduled1.id(), scheduled2.id()));
+  }
+
+  @Test
+  void shouldNotClaimInAppNotifications() {
     RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, IN_APP, TRAINEE_CONTACT);
     TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
         TEMPLATE_VARIABLES);
@@ -457,10 +589,10 @@ class HistoryServiceIntegrationTest {
     service.save(new History(null, tisReferenceInfo2, PROGRAMME_DAY_ONE, recipientInfo,
         templateInfo, null, now, now, SCHEDULED, null, null));
 
-    History foundHistory = service.findScheduledEmailForTraineeByRefAndType(
-        TRAINEE_ID, TisReferenceType.PROGRAMME_MEMBERSHIP, TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
+    Optional<History> claimed = service.claimScheduledEmail(TRAINEE_ID,
+        TisReferenceType.PROGRAMME_MEMBERSHIP, TIS_REFERENCE_ID, PROGRAMME_DAY_ONE);
 
-    assertThat("Unexpected history count.", foundHistory, is(nullValue()));
+    assertThat("Unexpected claimed history.", claimed.isPresent(), is(false));
   }
 
   @Test
@@ -1099,6 +1231,95 @@ class HistoryServiceIntegrationTest {
     }
   }
 
+  @Test
+  void shouldApplyNewestStatusUpdateForEachNotificationInBulk(
+      @Autowired HistoryRepository repository) {
+    History history1 = repository.save(History.builder()
+        .id(new ObjectId())
+        .recipient(new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT))
+        .type(FORM_UPDATED)
+        .template(new TemplateInfo("template", "1.0", Map.of()))
+        .sentAt(SENT_AT)
+        .status(PENDING)
+        .build());
+    History history2 = repository.save(History.builder()
+        .id(new ObjectId())
+        .recipient(new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT))
+        .type(FORM_UPDATED)
+        .template(new TemplateInfo("template", "1.0", Map.of()))
+        .sentAt(SENT_AT)
+        .status(PENDING)
+        .build());
+
+    Instant eventAt = SENT_AT.plusSeconds(60);
+    List<History> updated = service.updateStatusesIfNewer(List.of(
+        new HistoryStatusUpdate(history1.id(), FAILED, "Bounce: type1 - type2",
+            eventAt.plusSeconds(1)),
+        new HistoryStatusUpdate(history1.id(), SENT, null, eventAt),
+        new HistoryStatusUpdate(history2.id(), SENT, null, eventAt)));
+
+    assertThat("Unexpected updated count.", updated, hasSize(2));
+
+    History updated1 = repository.findById(history1.id()).orElseThrow();
+    assertThat("Unexpected status.", updated1.status(), is(FAILED));
+    assertThat("Unexpected status detail.", updated1.statusDetail(), is("Bounce: type1 - type2"));
+    assertThat("Unexpected latest status event.", updated1.latestStatusEventAt(),
+        is(eventAt.plusSeconds(1)));
+
+    History updated2 = repository.findById(history2.id()).orElseThrow();
+    assertThat("Unexpected status.", updated2.status(), is(SENT));
+    assertThat("Unexpected latest status event.", updated2.latestStatusEventAt(), is(eventAt));
+
+    ArgumentCaptor<List<History>> publishedCaptor = ArgumentCaptor.captor();
+    verify(eventBroadcastService).publishNotificationsStatusEvents(publishedCaptor.capture());
+    assertThat("Unexpected published count.", publishedCaptor.getValue(), hasSize(2));
+  }
+
+  @Test
+  void shouldNotApplyStatusUpdatesOlderThanLatestStatusEvent(
+      @Autowired HistoryRepository repository) {
+    Instant latestEventAt = SENT_AT.plusSeconds(60);
+    History history = repository.save(History.builder()
+        .id(new ObjectId())
+        .recipient(new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT))
+        .type(FORM_UPDATED)
+        .template(new TemplateInfo("template", "1.0", Map.of()))
+        .sentAt(SENT_AT)
+        .status(FAILED)
+        .latestStatusEventAt(latestEventAt)
+        .build());
+
+    List<History> updated = service.updateStatusesIfNewer(List.of(
+        new HistoryStatusUpdate(history.id(), SENT, null, latestEventAt.minusSeconds(1))));
+
+    assertThat("Unexpected updated count.", updated, hasSize(0));
+
+    History unchanged = repository.findById(history.id()).orElseThrow();
+    assertThat("Unexpected status.", unchanged.status(), is(FAILED));
+    assertThat("Unexpected latest status event.", unchanged.latestStatusEventAt(),
+        is(latestEventAt));
+  }
+
+  @Test
+  void shouldNotApplyStatusUpdatesInvalidForMessageType(@Autowired HistoryRepository repository) {
+    History history = repository.save(History.builder()
+        .id(new ObjectId())
+        .recipient(new RecipientInfo(TRAINEE_ID, IN_APP, TRAINEE_CONTACT))
+        .type(FORM_UPDATED)
+        .template(new TemplateInfo("template", "1.0", Map.of()))
+        .sentAt(SENT_AT)
+        .status(UNREAD)
+        .build());
+
+    List<History> updated = service.updateStatusesIfNewer(List.of(
+        new HistoryStatusUpdate(history.id(), SENT, null, SENT_AT.plusSeconds(60))));
+
+    assertThat("Unexpected updated count.", updated, hasSize(0));
+
+    History unchanged = repository.findById(history.id()).orElseThrow();
+    assertThat("Unexpected status.", unchanged.status(), is(UNREAD));
+  }
+
   /**
    * Helper method to create a basic History object for testing.
    */
@@ -46,6 +46,7 @@ import static uk.nhs.tis.trainee.notifications.matcher.InstantCloseTo.closeTo;
 import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
 import static uk.nhs.tis.trainee.notifications.model.MessageType.IN_APP;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.FAILED;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.PENDING;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SCHEDULED;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.UNREAD;
@@ -57,6 +58,7 @@ import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_
 import static uk.nhs.tis.trainee.notifications.model.NotificationType.PROGRAMME_DAY_ONE;
 import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PLACEMENT;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
@@ -78,13 +80,17 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.EnumSource.Mode;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.util.unit.DataSize;
 import uk.nhs.tis.trainee.notifications.dto.HistoryDto;
 import uk.nhs.tis.trainee.notifications.dto.HistoryMessageDto;
 import uk.nhs.tis.trainee.notifications.mapper.HistoryMapper;
@@ -99,6 +105,7 @@ import uk.nhs.tis.trainee.notifications.model.NotificationType;
 import uk.nhs.tis.trainee.notifications.model.ObjectIdWrapper;
 import uk.nhs.tis.trainee.notifications.model.TisReferenceType;
 import uk.nhs.tis.trainee.notifications.repository.HistoryRepository;
+import uk.nhs.tis.trainee.notifications.service.TemplateService.RenderedMessage;
 
 class HistoryServiceTest {
 
@@ -107,6 +114,7 @@ class HistoryServiceTest {
 
   private static final String NOTIFICATION_ID = ObjectId.get().toString();
   private static final ObjectId HISTORY_ID = ObjectId.get();
+  private static final Duration CLAIM_LEASE = Duration.ofMinutes(15);
 
   private static final String TEMPLATE_NAME = "test/template";
   private static final String TEMPLATE_VERSION = "v1.2.3";
@@ -132,8 +140,11 @@ class HistoryServiceTest {
     templateService = mock(TemplateService.class);
     eventBroadcastService = mock(EventBroadcastService.class);
     mongoTemplate = mock(MongoTemplate.class);
+    RenderedMessageCache messageCache = new RenderedMessageCache(new ConcurrentMapCacheManager(),
+        new SimpleMeterRegistry(), DataSize.ofMegabytes(1), false);
+    EventOutbox eventOutbox = new EventOutbox(mongoTemplate, null, false, false, Duration.ZERO);
     service = new HistoryService(repository, templateService, eventBroadcastService,
-        mapper, mongoTemplate);
+        eventOutbox, mapper, mongoTemplate, messageCache, CLAIM_LEASE);
   }
 
   @ParameterizedTest
@@ -242,7 +253,7 @@ class HistoryServiceTest {
     assertThat("Unexpected read at.", history.readAt(), is(Instant.MAX));
 
     ArgumentCaptor<History> historyPublished = ArgumentCaptor.forClass(History.class);
-    verify(eventBroadcastService).publishNotificationsEvent(historyPublished.capture());
+    verify(eventBroadcastService).publishNotificationsStatusEvent(historyPublished.capture());
 
     History historyPublishedValue = historyPublished.getValue();
     HistoryDto publishedDto = mapper.toDto(historyPublishedValue, "Test Subject");
@@ -309,7 +320,7 @@ class HistoryServiceTest {
     assertThat("Unexpected read at.", history.readAt(), is(Instant.MAX));
 
     ArgumentCaptor<History> historyPublished = ArgumentCaptor.forClass(History.class);
-    verify(eventBroadcastService).publishNotificationsEvent(historyPublished.capture());
+    verify(eventBroadcastService).publishNotificationsStatusEvent(historyPublished.capture());
 
     History historyPublishedValue = historyPublished.getValue();
     HistoryDto publishedDto = mapper.toDto(historyPublishedValue, "Test Subject");
@@ -387,7 +398,7 @@ class HistoryServiceTest {
     assertThat("Unexpected read at.", history.readAt(), is(Instant.MAX));
 
     ArgumentCaptor<History> historyPublished = ArgumentCaptor.forClass(History.class);
-    verify(eventBroadcastService).publishNotificationsEvent(historyPublished.capture());
+    verify(eventBroadcastService).publishNotificationsStatusEvent(historyPublished.capture());
 
     History historyPublishedValue = historyPublished.getValue();
     HistoryDto publishedDto = mapper.toDto(historyPublishedValue, "Test Subject");
@@ -455,7 +466,7 @@ class HistoryServiceTest {
     assertThat("Unexpected read at.", history.readAt(), is(Instant.MAX));
 
     ArgumentCaptor<History> historyPublished = ArgumentCaptor.forClass(History.class);
-    verify(eventBroadcastService).publishNotificationsEvent(historyPublished.capture());
+    verify(eventBroadcastService).publishNotificationsStatusEvent(historyPublished.capture());
 
     History historyPublishedValue = historyPublished.getValue();
     HistoryDto publishedDto = mapper.toDto(historyPublishedValue, "Test Subject");
@@ -465,8 +476,7 @@ class HistoryServiceTest {
 
   @Test
   void shouldFindNoOverdueNotificationsWhenNoneExist() {
-    when(repository.findIdByStatusAndSentAtLessThanEqualOrderById(any(), any())).thenReturn(
-        List.of());
+    when(mongoTemplate.find(any(), eq(History.class))).thenReturn(List.of());
 
     List<ObjectIdWrapper> allOverdue = service.findAllOverdue();
 
@@ -475,26 +485,40 @@ class HistoryServiceTest {
 
   @Test
   void shouldFindOverdueNotificationsWhenExists() {
-    ObjectIdWrapper overdueId = new ObjectIdWrapper(ObjectId.get());
-    when(repository.findIdByStatusAndSentAtLessThanEqualOrderById(any(), any())).thenReturn(
-        List.of(overdueId));
+    ObjectId overdueId = ObjectId.get();
+    when(mongoTemplate.find(any(), eq(History.class))).thenReturn(
+        List.of(History.builder().id(overdueId).build()));
 
     List<ObjectIdWrapper> allOverdue = service.findAllOverdue();
 
     assertThat("Unexpected overdue count.", allOverdue.size(), is(1));
-    assertThat("Unexpected overdue ID.", allOverdue.get(0), sameInstance(overdueId));
+    assertThat("Unexpected overdue ID.", allOverdue.get(0).id(), is(overdueId));
   }
 
   @Test
-  void shouldUseScheduledDueAtCurrentTimeWhenLookingForOverdueNotifications() {
+  void shouldFindScheduledAndExpiredClaimsWhenLookingForOverdueNotifications() {
     service.findAllOverdue();
 
-    ArgumentCaptor<Instant> dueCaptor = ArgumentCaptor.captor();
-    verify(repository).findIdByStatusAndSentAtLessThanEqualOrderById(eq(SCHEDULED),
-        dueCaptor.capture());
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).find(queryCaptor.capture(), eq(History.class));
+
+    Document queryObject = queryCaptor.getValue().getQueryObject();
+    List<Document> conditions = queryObject.getList("$or", Document.class);
+    assertThat("Unexpected condition count.", conditions, hasSize(2));
+
+    Document scheduled = conditions.get(0);
+    assertThat("Unexpected scheduled status.", scheduled.get("status"), is(SCHEDULED));
+    Instant due = scheduled.get("sentAt", Document.class).get("$lte", Instant.class);
+    assertThat("Unexpected due timestamp.", due, closeTo(Instant.now().getEpochSecond(), 1));
+
+    Document claimed = conditions.get(1);
+    assertThat("Unexpected claimed status.", claimed.get("status"), is(PENDING));
+    Instant leaseExpiry = claimed.get("claimedAt", Document.class).get("$lt", Instant.class);
+    assertThat("Unexpected lease expiry.", leaseExpiry,
+        closeTo(Instant.now().minus(CLAIM_LEASE).getEpochSecond(), 1));
 
-    assertThat("Unexpected due timestamp.", dueCaptor.getValue(),
-        closeTo(Instant.now().getEpochSecond(), 1));
+    assertThat("Unexpected projection.", queryCaptor.getValue().getFieldsObject(),
+        is(new Document("_id", 1)));
   }
 
   @Test
@@ -1358,6 +1382,166 @@ class HistoryServiceTest {
     verify(eventBroadcastService).publishNotificationsDeleteEvent(HISTORY_ID);
   }
 
+  @Test
+  void shouldClaimLatestScheduledEmail() {
+    History claimedHistory = History.builder().id(HISTORY_ID).status(PENDING).build();
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(History.class))).thenReturn(claimedHistory);
+
+    Instant before = Instant.now();
+    Optional<History> claimed = service.claimScheduledEmail(TRAINEE_ID, PLACEMENT, "ref1",
+        PROGRAMME_CREATED);
+
+    assertThat("Unexpected claimed history.", claimed, is(Optional.of(claimedHistory)));
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<FindAndModifyOptions> optionsCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(),
+        optionsCaptor.capture(), eq(History.class));
+
+    Document queryObject = queryCaptor.getValue().getQueryObject();
+    assertThat("Unexpected recipient id.", queryObject.get("recipient.id"), is(TRAINEE_ID));
+    assertThat("Unexpected recipient type.", queryObject.get("recipient.type"), is(EMAIL));
+    assertThat("Unexpected reference type.", queryObject.get("tisReference.type"),
+        is(PLACEMENT));
+    assertThat("Unexpected reference id.", queryObject.get("tisReference.id"), is("ref1"));
+    assertThat("Unexpected type.", queryObject.get("type"), is(PROGRAMME_CREATED));
+    assertThat("Unexpected sort.", queryCaptor.getValue().getSortObject().get("sentAt"), is(-1));
+
+    List<Document> claimable = queryObject.getList("$and", Document.class).get(0)
+        .getList("$or", Document.class);
+    assertThat("Unexpected claimable status.", claimable.get(0).get("status"), is(SCHEDULED));
+    assertThat("Unexpected expired claim status.", claimable.get(1).get("status"), is(PENDING));
+    Instant leaseExpiry = claimable.get(1).get("claimedAt", Document.class)
+        .get("$lt", Instant.class);
+    assertThat("Unexpected lease expiry.", leaseExpiry.isBefore(before.minus(CLAIM_LEASE)),
+        is(false));
+
+    Document setObject = updateCaptor.getValue().getUpdateObject().get("$set", Document.class);
+    assertThat("Unexpected claimed status.", setObject.get("status"), is(PENDING));
+    Instant claimedAt = setObject.get("claimedAt", Instant.class);
+    assertThat("Unexpected claimed at.", claimedAt.isBefore(before), is(false));
+    assertThat("Unexpected return new.", optionsCaptor.getValue().isReturnNew(), is(true));
+  }
+
+  @Test
+  void shouldPublishStatusEventWhenScheduledEmailClaimed() {
+    History claimedHistory = History.builder().id(HISTORY_ID).status(PENDING).build();
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(History.class))).thenReturn(claimedHistory);
+
+    service.claimScheduledEmail(TRAINEE_ID, PLACEMENT, "ref1", PROGRAMME_CREATED);
+
+    verify(eventBroadcastService).publishNotificationsStatusEvent(claimedHistory);
+  }
+
+  @Test
+  void shouldDeleteDuplicatesWhenScheduledEmailClaimed() {
+    History claimedHistory = History.builder().id(HISTORY_ID).status(PENDING).build();
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(History.class))).thenReturn(claimedHistory);
+    ObjectId duplicateId1 = ObjectId.get();
+    ObjectId duplicateId2 = ObjectId.get();
+    when(mongoTemplate.findAllAndRemove(any(Query.class), eq(History.class))).thenReturn(List.of(
+        History.builder().id(duplicateId1).build(), History.builder().id(duplicateId2).build()));
+
+    service.claimScheduledEmail(TRAINEE_ID, PLACEMENT, "ref1", PROGRAMME_CREATED);
+
+    verify(eventBroadcastService).publishNotificationsDeleteEvents(
+        List.of(duplicateId1, duplicateId2));
+    verify(eventBroadcastService, never()).publishNotificationsDeleteEvent(any());
+  }
+
+  @Test
+  void shouldNotDeleteDuplicatesWhenNoScheduledEmailClaimed() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(History.class))).thenReturn(null);
+
+    Optional<History> claimed = service.claimScheduledEmail(TRAINEE_ID, PLACEMENT, "ref1",
+        PROGRAMME_CREATED);
+
+    assertThat("Unexpected claimed history.", claimed, is(Optional.empty()));
+    verify(mongoTemplate, never()).findAllAndRemove(any(Query.class), eq(History.class));
+    verifyNoInteractions(eventBroadcastService);
+  }
+
+  @Test
+  void shouldReleaseClaimedScheduledEmail() {
+    History released = History.builder().id(HISTORY_ID).status(SCHEDULED).build();
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(History.class))).thenReturn(released);
+
+    service.releaseScheduledEmail(HISTORY_ID);
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(),
+        any(FindAndModifyOptions.class), eq(History.class));
+
+    Document queryObject = queryCaptor.getValue().getQueryObject();
+    assertThat("Unexpected id.", queryObject.get("_id"), is(HISTORY_ID));
+    assertThat("Unexpected status.", queryObject.get("status"), is(PENDING));
+    assertThat("Unexpected claimed at.", queryObject.get("claimedAt"),
+        is(new Document("$exists", true)));
+
+    Document updateObject = updateCaptor.getValue().getUpdateObject();
+    Document setObject = updateObject.get("$set", Document.class);
+    assertThat("Unexpected released status.", setObject.get("status"), is(SCHEDULED));
+    Document unsetObject = updateObject.get("$unset", Document.class);
+    assertThat("Unexpected unset fields.", unsetObject.keySet(), is(Set.of("claimedAt")));
+
+    verify(eventBroadcastService).publishNotificationsStatusEvent(released);
+  }
+
+  @Test
+  void shouldNotPublishStatusEventWhenNoClaimReleased() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(History.class))).thenReturn(null);
+
+    service.releaseScheduledEmail(HISTORY_ID);
+
+    verifyNoInteractions(eventBroadcastService);
+  }
+
+  @Test
+  void shouldDeleteScheduledEmailsWithSingleBroadcast() {
+    ObjectId scheduledId1 = ObjectId.get();
+    ObjectId scheduledId2 = ObjectId.get();
+    List<History> scheduled = List.of(History.builder().id(scheduledId1).build(),
+        History.builder().id(scheduledId2).build());
+    when(mongoTemplate.findAllAndRemove(any(Query.class), eq(History.class)))
+        .thenReturn(scheduled);
+
+    List<History> deleted = service.deleteScheduledEmails(TRAINEE_ID, PLACEMENT, "ref1",
+        PROGRAMME_CREATED);
+
+    assertThat("Unexpected deleted history.", deleted, is(scheduled));
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).findAllAndRemove(queryCaptor.capture(), eq(History.class));
+
+    Document queryObject = queryCaptor.getValue().getQueryObject();
+    assertThat("Unexpected recipient id.", queryObject.get("recipient.id"), is(TRAINEE_ID));
+    assertThat("Unexpected status.", queryObject.get("status"), is(SCHEDULED));
+
+    verify(eventBroadcastService).publishNotificationsDeleteEvents(
+        List.of(scheduledId1, scheduledId2));
+    verify(repository, never()).deleteByIdAndRecipient_Id(any(), any());
+  }
+
+  @Test
+  void shouldNotBroadcastWhenNoScheduledEmailsDeleted() {
+    when(mongoTemplate.findAllAndRemove(any(Query.class), eq(History.class)))
+        .thenReturn(List.of());
+
+    List<History> deleted = service.deleteScheduledEmails(TRAINEE_ID, PLACEMENT, "ref1",
+        PROGRAMME_CREATED);
+
+    assertThat("Unexpected deleted history.", deleted, hasSize(0));
+    verifyNoInteractions(eventBroadcastService);
+  }
+
   @ParameterizedTest
   @EnumSource(NotificationType.class)
   void shouldPopulateSubjectInFoundHistoryWhenInAppNotificationWithSubject(
@@ -1549,6 +1733,114 @@ class HistoryServiceTest {
     assertThat("Unexpected message.", rebuiltMessage.get(), is(message));
   }
 
+  @Test
+  void shouldRebuildMessageFromCacheWhenAlreadyRebuilt() {
+    ObjectId notificationId = new ObjectId(NOTIFICATION_ID);
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(TIS_REFERENCE_TYPE, TIS_REFERENCE_ID);
+
+    History history = new History(notificationId, tisReferenceInfo, COJ_CONFIRMATION,
+        recipientInfo, templateInfo, null, NOW, NOW, SENT, null, null);
+    when(repository.findById(any())).thenReturn(Optional.of(history));
+
+    String templatePath = "type/test/template/v1.2.3";
+    when(templateService.getTemplatePath(EMAIL, TEMPLATE_NAME, TEMPLATE_VERSION)).thenReturn(
+        templatePath);
+    when(templateService.process(templatePath, Set.of(), TEMPLATE_VARIABLES)).thenReturn(
+        "<p>Rebuilt message</p>");
+
+    service.rebuildMessage(NOTIFICATION_ID);
+    Optional<String> rebuiltMessage = service.rebuildMessage(NOTIFICATION_ID);
+
+    assertThat("Unexpected message.", rebuiltMessage, is(Optional.of("<p>Rebuilt message</p>")));
+    verify(templateService).process(any(), any(), anyMap());
+  }
+
+  @Test
+  void shouldNotCacheRebuiltMessageWhenInApp() {
+    ObjectId notificationId = new ObjectId(NOTIFICATION_ID);
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, IN_APP, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(TIS_REFERENCE_TYPE, TIS_REFERENCE_ID);
+
+    History history = new History(notificationId, tisReferenceInfo, COJ_CONFIRMATION,
+        recipientInfo, templateInfo, null, NOW, NOW, UNREAD, null, null);
+    when(repository.findById(any())).thenReturn(Optional.of(history));
+
+    String templatePath = "type/test/template/v1.2.3";
+    when(templateService.getTemplatePath(IN_APP, TEMPLATE_NAME, TEMPLATE_VERSION)).thenReturn(
+        templatePath);
+    when(templateService.process(templatePath, Set.of(), TEMPLATE_VARIABLES)).thenReturn(
+        "<p>Rebuilt message</p>");
+
+    service.rebuildMessage(NOTIFICATION_ID);
+    Optional<String> rebuiltMessage = service.rebuildMessage(NOTIFICATION_ID);
+
+    assertThat("Unexpected message.", rebuiltMessage, is(Optional.of("<p>Rebuilt message</p>")));
+    verify(templateService, times(2)).process(any(), any(), anyMap());
+  }
+
+  @Test
+  void shouldRebuildFullMessageFromCacheWhenAlreadyRebuilt() {
+    ObjectId notificationId = new ObjectId(NOTIFICATION_ID);
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, EMAIL, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(TIS_REFERENCE_TYPE, TIS_REFERENCE_ID);
+
+    History history = new History(notificationId, tisReferenceInfo, COJ_CONFIRMATION,
+        recipientInfo, templateInfo, null, NOW, NOW, SENT, null, null);
+    when(repository.findByIdAndRecipient_Id(any(), any())).thenReturn(Optional.of(history));
+
+    String templatePath = "type/test/template/v1.2.3";
+    when(templateService.getTemplatePath(EMAIL, TEMPLATE_NAME, TEMPLATE_VERSION)).thenReturn(
+        templatePath);
+    when(templateService.processMessage(templatePath, TEMPLATE_VARIABLES)).thenReturn(
+        new RenderedMessage("Rebuilt Subject", "<p>Rebuilt message</p>"));
+
+    service.rebuildMessageFull(TRAINEE_ID, NOTIFICATION_ID);
+    Optional<HistoryMessageDto> rebuiltMessage = service.rebuildMessageFull(TRAINEE_ID,
+        NOTIFICATION_ID);
+
+    assertThat("Unexpected message presence.", rebuiltMessage.isPresent(), is(true));
+    assertThat("Unexpected subject.", rebuiltMessage.get().subject(), is("Rebuilt Subject"));
+    assertThat("Unexpected content.", rebuiltMessage.get().content(),
+        is("<p>Rebuilt message</p>"));
+    verify(templateService).processMessage(any(), anyMap());
+  }
+
+  @Test
+  void shouldNotCacheRebuiltFullMessageWhenInApp() {
+    ObjectId notificationId = new ObjectId(NOTIFICATION_ID);
+    RecipientInfo recipientInfo = new RecipientInfo(TRAINEE_ID, IN_APP, TRAINEE_CONTACT);
+    TemplateInfo templateInfo = new TemplateInfo(TEMPLATE_NAME, TEMPLATE_VERSION,
+        TEMPLATE_VARIABLES);
+    TisReferenceInfo tisReferenceInfo = new TisReferenceInfo(TIS_REFERENCE_TYPE, TIS_REFERENCE_ID);
+
+    History history = new History(notificationId, tisReferenceInfo, COJ_CONFIRMATION,
+        recipientInfo, templateInfo, null, NOW, NOW, UNREAD, null, null);
+    when(repository.findByIdAndRecipient_Id(any(), any())).thenReturn(Optional.of(history));
+
+    String templatePath = "type/test/template/v1.2.3";
+    when(templateService.getTemplatePath(IN_APP, TEMPLATE_NAME, TEMPLATE_VERSION)).thenReturn(
+        templatePath);
+    when(templateService.processMessage(templatePath, TEMPLATE_VARIABLES)).thenReturn(
+        new RenderedMessage("Rebuilt Subject", "<p>Rebuilt message</p>"));
+
+    service.rebuildMessageFull(TRAINEE_ID, NOTIFICATION_ID);
+    Optional<HistoryMessageDto> rebuiltMessage = service.rebuildMessageFull(TRAINEE_ID,
+        NOTIFICATION_ID);
+
+    assertThat("Unexpected message presence.", rebuiltMessage.isPresent(), is(true));
+    assertThat("Unexpected subject.", rebuiltMessage.get().subject(), is("Rebuilt Subject"));
+    assertThat("Unexpected content.", rebuiltMessage.get().content(),
+        is("<p>Rebuilt message</p>"));
+    verify(templateService, times(2)).processMessage(any(), anyMap());
+  }
+
   @Test
   void shouldNotRebuildFullMessageForTraineeWhenNotificationNotFound() {
     when(repository.findByIdAndRecipient_Id(any(), any())).thenReturn(Optional.empty());
@@ -1578,15 +1870,12 @@ class HistoryServiceTest {
     when(templateService.getTemplatePath(messageType, TEMPLATE_NAME, TEMPLATE_VERSION)).thenReturn(
         templatePath);
 
-    when(templateService.process(templatePath, Set.of("subject"), TEMPLATE_VARIABLES))
-        .thenReturn("");
-
     String message = """
         <html>
           <p>Rebuilt message</p>
         </html>""";
-    when(templateService.process(templatePath, Set.of("content"), TEMPLATE_VARIABLES))
-        .thenReturn(message);
+    when(templateService.processMessage(templatePath, TEMPLATE_VARIABLES))
+        .thenReturn(new RenderedMessage("", message));
 
     Optional<HistoryMessageDto> rebuiltMessage = service.rebuildMessageFull(TRAINEE_ID,
         NOTIFICATION_ID);
@@ -1612,11 +1901,8 @@ class HistoryServiceTest {
     when(templateService.getTemplatePath(messageType, TEMPLATE_NAME, TEMPLATE_VERSION)).thenReturn(
         templatePath);
 
-    when(templateService.process(templatePath, Set.of("subject"), TEMPLATE_VARIABLES))
-        .thenReturn("Rebuilt Subject");
-
-    when(templateService.process(templatePath, Set.of("content"), TEMPLATE_VARIABLES))
-        .thenReturn("");
+    when(templateService.processMessage(templatePath, TEMPLATE_VARIABLES))
+        .thenReturn(new RenderedMessage("Rebuilt Subject", ""));
 
     Optional<HistoryMessageDto> rebuiltMessage = service.rebuildMessageFull(TRAINEE_ID,
         NOTIFICATION_ID);
@@ -1643,15 +1929,12 @@ class HistoryServiceTest {
     when(templateService.getTemplatePath(messageType, TEMPLATE_NAME, TEMPLATE_VERSION)).thenReturn(
         templatePath);
 
-    when(templateService.process(templatePath, Set.of("subject"), TEMPLATE_VARIABLES))
-        .thenReturn("Rebuilt Subject");
-
     String message = """
         <html>
           <p>Rebuilt message</p>
         </html>""";
-    when(templateService.process(templatePath, Set.of("content"), TEMPLATE_VARIABLES))
-        .thenReturn(message);
+    when(templateService.processMessage(templatePath, TEMPLATE_VARIABLES))
+        .thenReturn(new RenderedMessage("Rebuilt Subject", message));
 
     Optional<HistoryMessageDto> rebuiltMessage = service.rebuildMessageFull(TRAINEE_ID,
         NOTIFICATION_ID);
@@ -1816,7 +2099,7 @@ class HistoryServiceTest {
         is(Optional.of(expectedHistory)));
     verify(repository, never()).save(any());
     verify(repository).updateStatusIfNewer(notificationId, newerTimestamp, SENT, statusDetail);
-    verify(eventBroadcastService).publishNotificationsEvent(updatedHistory);
+    verify(eventBroadcastService).publishNotificationsStatusEvent(updatedHistory);
   }
 
   @Test
@@ -23,6 +23,7 @@ package uk.nhs.tis.trainee.notifications.service;
 
 import static io.awspring.cloud.sqs.listener.SqsHeaders.MessageSystemAttributes.SQS_AWS_TRACE_HEADER;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasKey;
 import static org.hamcrest.Matchers.hasSize;
@@ -34,12 +35,15 @@ import static org.junit.jupiter.params.provider.EnumSource.Mode.EXCLUDE;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.PENDING;
 import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SCHEDULED;
+import static uk.nhs.tis.trainee.notifications.service.NotificationService.PERSON_ID_FIELD;
 
 import com.amazonaws.xray.AWSXRay;
 import com.amazonaws.xray.AWSXRayRecorder;
@@ -47,14 +51,19 @@ import com.amazonaws.xray.entities.Segment;
 import io.awspring.cloud.sqs.operations.SendResult.Batch;
 import io.awspring.cloud.sqs.operations.SendResult.Failed;
 import io.awspring.cloud.sqs.operations.SqsTemplate;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -63,6 +72,7 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.MessagingException;
@@ -71,23 +81,34 @@ import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
 import uk.nhs.tis.trainee.notifications.model.NotificationStatus;
 import uk.nhs.tis.trainee.notifications.model.ObjectIdWrapper;
 import uk.nhs.tis.trainee.notifications.repository.HistoryRepository;
+import uk.nhs.tis.trainee.notifications.service.NotificationService.TraineeLookup;
 
 class MessageSendingServiceTest {
 
   private static final String OUTBOX_QUEUE = "http://outbox.example.com";
   private static final ObjectId NOTIFICATION_ID = ObjectId.get();
+  private static final int SEND_CONCURRENCY = 2;
+  private static final Duration CLAIM_LEASE = Duration.ofMinutes(15);
 
   private MessageSendingService service;
   private HistoryRepository repository;
   private NotificationService notificationService;
   private SqsTemplate sqsTemplate;
+  private ObjectProvider<BulkEmailSender> bulkEmailSenderProvider;
 
   @BeforeEach
   void setUp() {
     repository = mock(HistoryRepository.class);
     notificationService = mock(NotificationService.class);
     sqsTemplate = mock(SqsTemplate.class);
-    service = new MessageSendingService(repository, notificationService, sqsTemplate, OUTBOX_QUEUE);
+    bulkEmailSenderProvider = mock(ObjectProvider.class);
+    service = new MessageSendingService(repository, notificationService, sqsTemplate,
+        bulkEmailSenderProvider, OUTBOX_QUEUE, SEND_CONCURRENCY, CLAIM_LEASE);
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
   }
 
   @Test
@@ -121,6 +142,41 @@ class MessageSendingServiceTest {
     verifyNoInteractions(notificationService);
   }
 
+  @Test
+  void shouldThrowErrorSendingScheduledWhenClaimHeld() {
+    when(repository.findById(NOTIFICATION_ID)).thenReturn(Optional.of(
+        History.builder()
+            .status(PENDING)
+            .claimedAt(Instant.now())
+            .template(new TemplateInfo("template", "v1.2.3", Map.of()))
+            .build()
+    ));
+
+    ObjectIdWrapper notificationIdWrapper = new ObjectIdWrapper(NOTIFICATION_ID);
+    assertThrows(MessagingException.class, () -> service.sendScheduled(notificationIdWrapper));
+
+    verifyNoInteractions(notificationService);
+  }
+
+  @Test
+  void shouldSendScheduledWhenClaimExpired() {
+    when(repository.findById(NOTIFICATION_ID)).thenReturn(Optional.of(
+        History.builder()
+            .status(PENDING)
+            .claimedAt(Instant.now().minus(CLAIM_LEASE).minusSeconds(1))
+            .template(new TemplateInfo("template", "v1.2.3", Map.of()))
+            .build()
+    ));
+
+    when(notificationService.executeNow(any(), any())).thenReturn(
+        Map.of("status", "sent " + Instant.now()));
+
+    ObjectIdWrapper notificationIdWrapper = new ObjectIdWrapper(NOTIFICATION_ID);
+    service.sendScheduled(notificationIdWrapper);
+
+    verify(notificationService).executeNow(eq("OUTBOX_" + NOTIFICATION_ID), any());
+  }
+
   @Test
   void shouldSendScheduledWithTemplateVariables() {
     Map<String, Object> templateVariables = Map.of(
@@ -176,6 +232,255 @@ class MessageSendingServiceTest {
     assertThrows(MessagingException.class, () -> service.sendScheduled(notificationIdWrapper));
   }
 
+  @Test
+  void shouldPrefetchAllNotificationsWhenSendingScheduledBatch() {
+    ObjectId notificationId2 = ObjectId.get();
+    when(repository.findAllById(any())).thenReturn(List.of());
+
+    service.sendScheduled(List.of(new ObjectIdWrapper(NOTIFICATION_ID),
+        new ObjectIdWrapper(notificationId2)));
+
+    ArgumentCaptor<Iterable<ObjectId>> idsCaptor = ArgumentCaptor.captor();
+    verify(repository).findAllById(idsCaptor.capture());
+    verify(repository, never()).findById(any());
+
+    Iterable<ObjectId> ids = idsCaptor.getValue();
+    assertThat("Unexpected notification IDs.", ids, containsInAnyOrder(NOTIFICATION_ID,
+        notificationId2));
+  }
+
+  @Test
+  void shouldHandleMissingNotificationsWhenSendingScheduledBatch() {
+    when(repository.findAllById(any())).thenReturn(List.of());
+
+    Set<ObjectId> handled = service.sendScheduled(
+        List.of(new ObjectIdWrapper(NOTIFICATION_ID)));
+
+    assertThat("Unexpected handled IDs.", handled, is(Set.of(NOTIFICATION_ID)));
+    verifyNoInteractions(notificationService);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = NotificationStatus.class, mode = EXCLUDE, names = "SCHEDULED")
+  void shouldSkipAndHandleNonScheduledWhenSendingScheduledBatch(NotificationStatus status) {
+    when(repository.findAllById(any())).thenReturn(List.of(
+        History.builder()
+            .id(NOTIFICATION_ID)
+            .status(status)
+            .template(new TemplateInfo("template", "v1.2.3", Map.of(PERSON_ID_FIELD, "40")))
+            .build()
+    ));
+
+    Set<ObjectId> handled = service.sendScheduled(
+        List.of(new ObjectIdWrapper(NOTIFICATION_ID)));
+
+    assertThat("Unexpected handled count.", handled, hasSize(1));
+    assertThat("Unexpected handled IDs.", handled, hasItems(NOTIFICATION_ID));
+    verifyNoInteractions(notificationService);
+  }
+
+  @Test
+  void shouldNotHandleClaimedWhenSendingScheduledBatch() {
+    when(repository.findAllById(any())).thenReturn(List.of(
+        History.builder()
+            .id(NOTIFICATION_ID)
+            .status(PENDING)
+            .claimedAt(Instant.now())
+            .template(new TemplateInfo("template", "v1.2.3", Map.of(PERSON_ID_FIELD, "40")))
+            .build()
+    ));
+
+    Set<ObjectId> handled = service.sendScheduled(
+        List.of(new ObjectIdWrapper(NOTIFICATION_ID)));
+
+    assertThat("Unexpected handled count.", handled, hasSize(0));
+    verifyNoInteractions(notificationService);
+  }
+
+  @Test
+  void shouldSendExpiredClaimWhenSendingScheduledBatch() {
+    Map<String, Object> variables = Map.of(PERSON_ID_FIELD, "40");
+    when(repository.findAllById(any())).thenReturn(List.of(
+        History.builder()
+            .id(NOTIFICATION_ID)
+            .status(PENDING)
+            .claimedAt(Instant.now().minus(CLAIM_LEASE).minusSeconds(1))
+            .template(new TemplateInfo("template", "v1.2.3", variables))
+            .build()
+    ));
+
+    TraineeLookup trainee = new TraineeLookup(null, null);
+    when(notificationService.lookupTrainee("40")).thenReturn(trainee);
+    when(notificationService.executeNow(any(), any(), any())).thenReturn(
+        Map.of("status", "sent " + Instant.now()));
+
+    Set<ObjectId> handled = service.sendScheduled(
+        List.of(new ObjectIdWrapper(NOTIFICATION_ID)));
+
+    assertThat("Unexpected handled IDs.", handled, is(Set.of(NOTIFICATION_ID)));
+    verify(notificationService).executeNow("OUTBOX_" + NOTIFICATION_ID, variables, trainee);
+  }
+
+  @Test
+  void shouldShareTraineeLookupWhenSendingScheduledBatch() {
+    ObjectId notificationId2 = ObjectId.get();
+    ObjectId notificationId3 = ObjectId.get();
+    Map<String, Object> trainee1Variables = Map.of(PERSON_ID_FIELD, "40");
+    Map<String, Object> trainee2Variables = Map.of(PERSON_ID_FIELD, "41");
+
+    when(repository.findAllById(any())).thenReturn(List.of(
+        History.builder().id(NOTIFICATION_ID).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3", trainee1Variables)).build(),
+        History.builder().id(notificationId2).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3", trainee1Variables)).build(),
+        History.builder().id(notificationId3).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3", trainee2Variables)).build()
+    ));
+
+    TraineeLookup trainee1 = new TraineeLookup(null, null);
+    TraineeLookup trainee2 = new TraineeLookup(null, null);
+    when(notificationService.lookupTrainee("40")).thenReturn(trainee1);
+    when(notificationService.lookupTrainee("41")).thenReturn(trainee2);
+    when(notificationService.executeNow(any(), any(), any())).thenReturn(
+        Map.of("status", "sent " + Instant.now()));
+
+    Set<ObjectId> handled = service.sendScheduled(List.of(new ObjectIdWrapper(NOTIFICATION_ID),
+        new ObjectIdWrapper(notificationId2), new ObjectIdWrapper(notificationId3)));
+
+    assertThat("Unexpected handled count.", handled, hasSize(3));
+    verify(notificationService).lookupTrainee("40");
+    verify(notificationService).lookupTrainee("41");
+    verify(notificationService).executeNow("OUTBOX_" + NOTIFICATION_ID, trainee1Variables,
+        trainee1);
+    verify(notificationService).executeNow("OUTBOX_" + notificationId2, trainee1Variables,
+        trainee1);
+    verify(notificationService).executeNow("OUTBOX_" + notificationId3, trainee2Variables,
+        trainee2);
+  }
+
+  @Test
+  void shouldSendToTraineesConcurrentlyWhenSendingScheduledBatch() {
+    ObjectId notificationId2 = ObjectId.get();
+    Map<String, Object> trainee1Variables = Map.of(PERSON_ID_FIELD, "40");
+    Map<String, Object> trainee2Variables = Map.of(PERSON_ID_FIELD, "41");
+
+    when(repository.findAllById(any())).thenReturn(List.of(
+        History.builder().id(NOTIFICATION_ID).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3", trainee1Variables)).build(),
+        History.builder().id(notificationId2).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3", trainee2Variables)).build()
+    ));
+    when(notificationService.lookupTrainee(any())).thenReturn(new TraineeLookup(null, null));
+
+    // Each send waits for the other to start, so only succeeds when sent concurrently.
+    CountDownLatch started = new CountDownLatch(SEND_CONCURRENCY);
+    when(notificationService.executeNow(any(), any(), any())).thenAnswer(inv -> {
+      started.countDown();
+      return started.await(5, TimeUnit.SECONDS)
+          ? Map.of("status", "sent " + Instant.now())
+          : Map.of();
+    });
+
+    Set<ObjectId> handled = service.sendScheduled(List.of(new ObjectIdWrapper(NOTIFICATION_ID),
+        new ObjectIdWrapper(notificationId2)));
+
+    assertThat("Unexpected handled count.", handled, hasSize(2));
+  }
+
+  @Test
+  void shouldRaiseSendConcurrencyToBulkBatchSizeWhenBulkEnabled() {
+    int batchSize = SEND_CONCURRENCY + 2;
+    BulkEmailSender bulkEmailSender = mock(BulkEmailSender.class);
+    when(bulkEmailSender.getBatchSize()).thenReturn(batchSize);
+    when(bulkEmailSenderProvider.getIfAvailable()).thenReturn(bulkEmailSender);
+    service.shutdown();
+    service = new MessageSendingService(repository, notificationService, sqsTemplate,
+        bulkEmailSenderProvider, OUTBOX_QUEUE, SEND_CONCURRENCY, CLAIM_LEASE);
+
+    List<History> histories = IntStream.range(0, batchSize)
+        .mapToObj(i -> History.builder().id(ObjectId.get()).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3",
+                Map.of(PERSON_ID_FIELD, String.valueOf(i))))
+            .build())
+        .toList();
+    when(repository.findAllById(any())).thenReturn(histories);
+    when(notificationService.lookupTrainee(any())).thenReturn(new TraineeLookup(null, null));
+
+    // Each send waits for the others to start, so only succeeds when a full batch is concurrent.
+    CountDownLatch started = new CountDownLatch(batchSize);
+    when(notificationService.executeNow(any(), any(), any())).thenAnswer(inv -> {
+      started.countDown();
+      return started.await(5, TimeUnit.SECONDS)
+          ? Map.of("status", "sent " + Instant.now())
+          : Map.of();
+    });
+
+    Set<ObjectId> handled = service.sendScheduled(histories.stream()
+        .map(history -> new ObjectIdWrapper(history.id()))
+        .toList());
+
+    assertThat("Unexpected handled count.", handled, hasSize(batchSize));
+  }
+
+  @Test
+  void shouldExcludeFailuresFromHandledWhenSendingScheduledBatch() {
+    ObjectId notificationId2 = ObjectId.get();
+    Map<String, Object> templateVariables = Map.of(PERSON_ID_FIELD, "40");
+
+    when(repository.findAllById(any())).thenReturn(List.of(
+        History.builder().id(NOTIFICATION_ID).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3", templateVariables)).build(),
+        History.builder().id(notificationId2).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3", templateVariables)).build()
+    ));
+
+    when(notificationService.lookupTrainee("40")).thenReturn(new TraineeLookup(null, null));
+    when(notificationService.executeNow(eq("OUTBOX_" + NOTIFICATION_ID), any(), any()))
+        .thenThrow(new RuntimeException("expected"));
+    when(notificationService.executeNow(eq("OUTBOX_" + notificationId2), any(), any()))
+        .thenReturn(Map.of("status", "sent " + Instant.now()));
+
+    Set<ObjectId> handled = service.sendScheduled(List.of(new ObjectIdWrapper(NOTIFICATION_ID),
+        new ObjectIdWrapper(notificationId2)));
+
+    assertThat("Unexpected handled count.", handled, hasSize(1));
+    assertThat("Unexpected handled IDs.", handled, hasItems(notificationId2));
+  }
+
+  @Test
+  void shouldExcludeUnsentFromHandledWhenSendingScheduledBatch() {
+    when(repository.findAllById(any())).thenReturn(List.of(
+        History.builder().id(NOTIFICATION_ID).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3", Map.of(PERSON_ID_FIELD, "40")))
+            .build()
+    ));
+
+    when(notificationService.lookupTrainee("40")).thenReturn(new TraineeLookup(null, null));
+    when(notificationService.executeNow(any(), any(), any())).thenReturn(Map.of());
+
+    Set<ObjectId> handled = service.sendScheduled(
+        List.of(new ObjectIdWrapper(NOTIFICATION_ID)));
+
+    assertThat("Unexpected handled count.", handled, hasSize(0));
+  }
+
+  @Test
+  void shouldExcludeTraineeFromHandledWhenLookupFailsSendingScheduledBatch() {
+    when(repository.findAllById(any())).thenReturn(List.of(
+        History.builder().id(NOTIFICATION_ID).status(SCHEDULED)
+            .template(new TemplateInfo("template", "v1.2.3", Map.of(PERSON_ID_FIELD, "40")))
+            .build()
+    ));
+
+    when(notificationService.lookupTrainee("40")).thenThrow(new RuntimeException("expected"));
+
+    Set<ObjectId> handled = service.sendScheduled(
+        List.of(new ObjectIdWrapper(NOTIFICATION_ID)));
+
+    assertThat("Unexpected handled count.", handled, hasSize(0));
+    verify(notificationService, never()).executeNow(any(), any(), any());
+  }
+
   @ParameterizedTest
   @CsvSource(delimiter = '|', textBlock = """
       0  | 0
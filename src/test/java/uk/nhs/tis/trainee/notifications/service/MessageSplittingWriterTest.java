@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MessageSplittingWriterTest {
+
+  private static final String BOUNDARY = "--boundary--";
+
+  private MessageSplittingWriter writer;
+  private StringWriter contentWriter;
+
+  @BeforeEach
+  void setUp() {
+    contentWriter = new StringWriter();
+    writer = new MessageSplittingWriter(BOUNDARY, contentWriter);
+  }
+
+  @Test
+  void shouldNotFindBoundaryWhenNotWritten() throws IOException {
+    writer.write("Subject<p>Content</p>");
+
+    assertThat("Unexpected boundary found.", writer.isBoundaryFound(), is(false));
+    assertThat("Unexpected subject.", writer.getSubject(), is("Subject<p>Content</p>"));
+    assertThat("Unexpected content.", contentWriter.toString(), is(""));
+  }
+
+  @Test
+  void shouldSplitWhenBoundaryInSingleWrite() throws IOException {
+    writer.write("Subject" + BOUNDARY + "<p>Content</p>");
+
+    assertThat("Unexpected boundary found.", writer.isBoundaryFound(), is(true));
+    assertThat("Unexpected subject.", writer.getSubject(), is("Subject"));
+    assertThat("Unexpected content.", contentWriter.toString(), is("<p>Content</p>"));
+  }
+
+  @Test
+  void shouldSplitWhenBoundarySpansWrites() throws IOException {
+    writer.write("Subject--bou");
+    writer.write("nd".toCharArray());
+    writer.write("ary--<p>Con");
+    writer.write("tent</p>");
+
+    assertThat("Unexpected boundary found.", writer.isBoundaryFound(), is(true));
+    assertThat("Unexpected subject.", writer.getSubject(), is("Subject"));
+    assertThat("Unexpected content.", contentWriter.toString(), is("<p>Content</p>"));
+  }
+
+  @Test
+  void shouldWriteLaterBoundariesToContent() throws IOException {
+    writer.write("Subject" + BOUNDARY + "<p>Content" + BOUNDARY + "</p>");
+
+    assertThat("Unexpected subject.", writer.getSubject(), is("Subject"));
+    assertThat("Unexpected content.", contentWriter.toString(),
+        is("<p>Content" + BOUNDARY + "</p>"));
+  }
+
+  @Test
+  void shouldSplitWhenSubjectEmpty() throws IOException {
+    writer.write(BOUNDARY + "<p>Content</p>");
+
+    assertThat("Unexpected subject.", writer.getSubject(), is(""));
+    assertThat("Unexpected content.", contentWriter.toString(), is("<p>Content</p>"));
+  }
+}
@@ -22,7 +22,6 @@
 package uk.nhs.tis.trainee.notifications.service;
 
 import static org.hamcrest.CoreMatchers.is;
-import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -33,12 +32,14 @@ import static org.junit.Assert.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -80,6 +81,7 @@ import static uk.nhs.tis.trainee.notifications.service.ProgrammeMembershipServic
 import jakarta.mail.MessagingException;
 import java.net.URI;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.Month;
@@ -108,6 +110,7 @@ import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -128,6 +131,7 @@ import uk.nhs.tis.trainee.notifications.model.NotificationType;
 import uk.nhs.tis.trainee.notifications.model.Placement;
 import uk.nhs.tis.trainee.notifications.model.ProgrammeMembership;
 import uk.nhs.tis.trainee.notifications.model.TraineeType;
+import uk.nhs.tis.trainee.notifications.service.NotificationService.TraineeLookup;
 
 class NotificationServiceTest {
 
@@ -179,6 +183,7 @@ class NotificationServiceTest {
   private NotificationService serviceWhitelisted;
   private EmailService emailService;
   private HistoryService historyService;
+  private ScheduleSlotAllocator slotAllocator;
   private ProgrammeMembershipActionsService programmeMembershipActionsService;
   private RestTemplate restTemplate;
   private MessagingControllerService messagingControllerService;
@@ -187,6 +192,8 @@ class NotificationServiceTest {
   void setUp() {
     emailService = mock(EmailService.class);
     historyService = mock(HistoryService.class);
+    slotAllocator = mock(ScheduleSlotAllocator.class);
+    when(slotAllocator.allocate(any(), anyLong())).thenAnswer(inv -> inv.getArgument(0));
     programmeMembershipActionsService = mock(ProgrammeMembershipActionsService.class);
     restTemplate = mock(RestTemplate.class);
     messagingControllerService = mock(MessagingControllerService.class);
@@ -220,11 +227,11 @@ class NotificationServiceTest {
             e -> new MessageTypeVersions(TEMPLATE_VERSION, null)
         )));
 
-    service = new NotificationService(emailService, historyService,
+    service = new NotificationService(emailService, historyService, slotAllocator,
         programmeMembershipActionsService, restTemplate, messagingControllerService,
         templateVersions, SERVICE_URL, REFERENCE_URL, NOTIFICATION_DELAY, NOT_WHITELISTED,
         TIMEZONE);
-    serviceWhitelisted = new NotificationService(emailService, historyService,
+    serviceWhitelisted = new NotificationService(emailService, historyService, slotAllocator,
         programmeMembershipActionsService, restTemplate, messagingControllerService,
         templateVersions, SERVICE_URL, REFERENCE_URL, NOTIFICATION_DELAY, WHITELISTED, TIMEZONE);
   }
@@ -237,7 +244,7 @@ class NotificationServiceTest {
             e -> new MessageTypeVersions(null, null)
         )));
 
-    service = new NotificationService(emailService, historyService,
+    service = new NotificationService(emailService, historyService, slotAllocator,
         programmeMembershipActionsService, restTemplate, messagingControllerService,
         templateVersions, SERVICE_URL, REFERENCE_URL, NOTIFICATION_DELAY, NOT_WHITELISTED,
         TIMEZONE);
@@ -353,7 +360,77 @@ class NotificationServiceTest {
 
     assertDoesNotThrow(() -> service.executeNow(JOB_KEY, programmeJobDataMap));
 
-    verify(emailService, times(2)).getRecipientAccountByEmail(any());
+    verify(emailService).getRecipientAccountByEmail(any());
+  }
+
+  @Test
+  void shouldLookupTraineeOnceWhenExecutingNow() {
+    UserDetails userAccountDetails = new UserDetails(false, USER_EMAIL, USER_TITLE,
+        USER_FAMILY_NAME, USER_GIVEN_NAME, USER_GMC);
+    when(restTemplate.getForObject(ACCOUNT_DETAILS_URL, UserDetails.class,
+        Map.of(TIS_ID_FIELD, PERSON_ID))).thenReturn(userAccountDetails);
+
+    service.executeNow(JOB_KEY, programmeJobDataMap);
+
+    verify(restTemplate).getForObject(ACCOUNT_DETAILS_URL, UserDetails.class,
+        Map.of(TIS_ID_FIELD, PERSON_ID));
+    verify(emailService).getRecipientAccountByEmail(USER_EMAIL);
+  }
+
+  @Test
+  void shouldLookupTraineeProfileAndAccountDetails() {
+    UserDetails traineeDetails = new UserDetails(false, USER_EMAIL, USER_TITLE, USER_FAMILY_NAME,
+        USER_GIVEN_NAME, USER_GMC);
+    UserDetails accountDetails = new UserDetails(true, COGNITO_EMAIL, null, COGNITO_FAMILY_NAME,
+        COGNITO_GIVEN_NAME, null);
+    when(restTemplate.getForObject(ACCOUNT_DETAILS_URL, UserDetails.class,
+        Map.of(TIS_ID_FIELD, PERSON_ID))).thenReturn(traineeDetails);
+    when(emailService.getRecipientAccountByEmail(USER_EMAIL)).thenReturn(accountDetails);
+
+    TraineeLookup trainee = service.lookupTrainee(PERSON_ID);
+
+    assertThat("Unexpected trainee details.", trainee.traineeDetails(), is(traineeDetails));
+    assertThat("Unexpected account details.", trainee.accountDetails(), is(accountDetails));
+  }
+
+  @Test
+  void shouldNotLookupAccountDetailsWhenTraineeNotFound() {
+    when(restTemplate.getForObject(any(), any(), anyMap())).thenReturn(null);
+
+    TraineeLookup trainee = service.lookupTrainee(PERSON_ID);
+
+    assertThat("Unexpected trainee details.", trainee.traineeDetails(), nullValue());
+    assertThat("Unexpected account details.", trainee.accountDetails(), nullValue());
+    verify(emailService, never()).getRecipientAccountByEmail(any());
+  }
+
+  @Test
+  void shouldNotLookupTraineeWhenExecutingWithProvidedTrainee() {
+    UserDetails userAccountDetails = new UserDetails(true, USER_EMAIL, USER_TITLE, USER_FAMILY_NAME,
+        USER_GIVEN_NAME, USER_GMC);
+    when(messagingControllerService.isValidRecipient(PERSON_ID, MessageType.EMAIL))
+        .thenReturn(true);
+    when(messagingControllerService.isProgrammeMembershipNewStarter(PERSON_ID, TIS_ID))
+        .thenReturn(true);
+
+    TraineeLookup trainee = new TraineeLookup(userAccountDetails, userAccountDetails);
+    Map<String, String> result = service.executeNow(JOB_KEY, programmeJobDataMap, trainee);
+
+    assertThat("Unexpected result size.", result.keySet(), hasSize(1));
+    assertThat("Unexpected result size.", result.get("status"), startsWith("sent "));
+    verify(restTemplate, never()).getForObject(eq(ACCOUNT_DETAILS_URL), eq(UserDetails.class),
+        anyMap());
+    verify(emailService, never()).getRecipientAccountByEmail(any());
+  }
+
+  @Test
+  void shouldThrowExceptionWhenExecutingWithProvidedTraineeNotFound() {
+    TraineeLookup trainee = new TraineeLookup(null, null);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> service.executeNow(JOB_KEY, programmeJobDataMap, trainee));
+
+    verify(historyService, never()).save(any());
   }
 
   @Test
@@ -1086,7 +1163,7 @@ class NotificationServiceTest {
   void shouldNotSaveScheduleNotificationAndThrowExceptionIfTemplateVersionMissing() {
     TemplateVersionsProperties templateVersions = mock(TemplateVersionsProperties.class);
     when(templateVersions.getTemplateVersion(any(), any())).thenReturn(Optional.empty());
-    service = new NotificationService(emailService, historyService,
+    service = new NotificationService(emailService, historyService, slotAllocator,
         programmeMembershipActionsService, restTemplate, messagingControllerService,
         templateVersions, SERVICE_URL, REFERENCE_URL, NOTIFICATION_DELAY, NOT_WHITELISTED,
         TIMEZONE);
@@ -1309,9 +1386,6 @@ class NotificationServiceTest {
     when(messagingControllerService.isProgrammeMembershipNewStarter(any(), any())).thenReturn(true);
     when(messagingControllerService.isProgrammeMembershipInPilot2024(any(), any()))
         .thenReturn(true);
-    History welcomeNotification = History.builder().build();
-    when(historyService.findScheduledEmailForTraineeByRefAndType(PERSON_ID, PROGRAMME_MEMBERSHIP,
-        TIS_ID, PROGRAMME_CREATED)).thenReturn(welcomeNotification);
 
     service.executeNow(JOB_KEY, programmeJobDataMap);
 
@@ -1502,7 +1576,7 @@ class NotificationServiceTest {
   }
 
   @Test
-  void shouldScheduleJobsWithRandomness() {
+  void shouldScheduleJobsInAllocatedSlot() {
     LocalDate startDate = NOW_LOCALDATE.plusMonths(12);
     int daysBeforeStart = 100;
     Date scheduledDate = service.getScheduleDate(startDate, daysBeforeStart);
@@ -1517,16 +1591,65 @@ class NotificationServiceTest {
     when(restTemplate.getForObject(ACCOUNT_DETAILS_URL, UserDetails.class,
         Map.of(TIS_ID_FIELD, PERSON_ID))).thenReturn(userAccountDetails);
 
+    Instant allocated = scheduledDate.toInstant().plus(Duration.ofHours(5));
+    when(slotAllocator.allocate(scheduledDate.toInstant(), ONE_DAY_IN_SECONDS))
+        .thenReturn(allocated);
+
     serviceWhitelisted.scheduleNotification("id1", jobDataMap, scheduledDate, ONE_DAY_IN_SECONDS);
-    serviceWhitelisted.scheduleNotification("id2", jobDataMap, scheduledDate, ONE_DAY_IN_SECONDS);
-    serviceWhitelisted.scheduleNotification("id3", jobDataMap, scheduledDate, ONE_DAY_IN_SECONDS);
 
     ArgumentCaptor<History> historyCaptor = ArgumentCaptor.captor();
-    verify(historyService, times(3)).save(any());
-    //there is a less than 1 in 10^9 chance that all three dates are the same
-    assertThat("Unexpected repeated scheduled date: either you are exceptionally unlucky "
-            + "or something is wrong.",
-        historyCaptor.getAllValues().stream().map(History::sentAt).distinct().count(), not(1));
+    verify(historyService).save(historyCaptor.capture());
+    assertThat("Unexpected scheduled date.", historyCaptor.getValue().sentAt(), is(allocated));
+  }
+
+  @Test
+  void shouldCompleteSlotAllocationWhenScheduled() {
+    Date scheduledDate = service.getScheduleDate(NOW_LOCALDATE.plusMonths(12), 100);
+    Map<String, Object> jobDataMap = new HashMap<>(Map.of(
+        PERSON_ID_FIELD, PERSON_ID,
+        TIS_ID_FIELD, TIS_ID,
+        TEMPLATE_NOTIFICATION_TYPE_FIELD, PROGRAMME_CREATED
+    ));
+    UserDetails userAccountDetails = new UserDetails(false, USER_EMAIL, USER_TITLE,
+        USER_FAMILY_NAME, USER_GIVEN_NAME, USER_GMC);
+    when(emailService.getRecipientAccountByEmail(USER_EMAIL)).thenReturn(userAccountDetails);
+    when(restTemplate.getForObject(ACCOUNT_DETAILS_URL, UserDetails.class,
+        Map.of(TIS_ID_FIELD, PERSON_ID))).thenReturn(userAccountDetails);
+
+    Instant allocated = scheduledDate.toInstant().plus(Duration.ofHours(5));
+    when(slotAllocator.allocate(scheduledDate.toInstant(), ONE_DAY_IN_SECONDS))
+        .thenReturn(allocated);
+
+    serviceWhitelisted.scheduleNotification("id1", jobDataMap, scheduledDate, ONE_DAY_IN_SECONDS);
+
+    InOrder inOrder = inOrder(historyService, slotAllocator);
+    inOrder.verify(historyService).save(any());
+    inOrder.verify(slotAllocator).complete(allocated);
+  }
+
+  @Test
+  void shouldCompleteSlotAllocationWhenSchedulingFails() {
+    Date scheduledDate = service.getScheduleDate(NOW_LOCALDATE.plusMonths(12), 100);
+    Map<String, Object> jobDataMap = new HashMap<>(Map.of(
+        PERSON_ID_FIELD, PERSON_ID,
+        TIS_ID_FIELD, TIS_ID,
+        TEMPLATE_NOTIFICATION_TYPE_FIELD, PROGRAMME_CREATED
+    ));
+    UserDetails userAccountDetails = new UserDetails(false, USER_EMAIL, USER_TITLE,
+        USER_FAMILY_NAME, USER_GIVEN_NAME, USER_GMC);
+    when(emailService.getRecipientAccountByEmail(USER_EMAIL)).thenReturn(userAccountDetails);
+    when(restTemplate.getForObject(ACCOUNT_DETAILS_URL, UserDetails.class,
+        Map.of(TIS_ID_FIELD, PERSON_ID))).thenReturn(userAccountDetails);
+    when(historyService.save(any())).thenThrow(new IllegalStateException("expected"));
+
+    Instant allocated = scheduledDate.toInstant().plus(Duration.ofHours(5));
+    when(slotAllocator.allocate(scheduledDate.toInstant(), ONE_DAY_IN_SECONDS))
+        .thenReturn(allocated);
+
+    assertThrows(IllegalStateException.class, () -> serviceWhitelisted.scheduleNotification(
+        "id1", jobDataMap, scheduledDate, ONE_DAY_IN_SECONDS));
+
+    verify(slotAllocator).complete(allocated);
   }
 
   @Test
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RenderedContentDataSourceTest {
+
+  private RenderedContentDataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    dataSource = new RenderedContentDataSource();
+  }
+
+  @Test
+  void shouldHaveHtmlContentType() {
+    assertThat("Unexpected content type.", dataSource.getContentType(),
+        is("text/html;charset=UTF-8"));
+  }
+
+  @Test
+  void shouldReadWrittenContentAsUtf8() throws IOException {
+    try (Writer writer = dataSource.getWriter()) {
+      writer.write("<p>Café £10</p>");
+    }
+
+    try (InputStream inputStream = dataSource.getInputStream()) {
+      String content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+      assertThat("Unexpected content.", content, is("<p>Café £10</p>"));
+    }
+  }
+
+  @Test
+  void shouldReadContentRepeatedly() throws IOException {
+    try (Writer writer = dataSource.getWriter()) {
+      writer.write("<p>Content</p>");
+    }
+
+    byte[] first = dataSource.getInputStream().readAllBytes();
+    byte[] second = dataSource.getInputStream().readAllBytes();
+
+    assertThat("Unexpected content.", second, is(first));
+  }
+
+  @Test
+  void shouldGetWrittenContentAsString() throws IOException {
+    try (Writer writer = dataSource.getWriter()) {
+      writer.write("<p>Café £10</p>");
+    }
+
+    assertThat("Unexpected content.", dataSource.getContent(), is("<p>Café £10</p>"));
+  }
+
+  @Test
+  void shouldNotReadContentWhenReleased() throws IOException {
+    try (Writer writer = dataSource.getWriter()) {
+      writer.write("<p>Café £10</p>");
+    }
+
+    dataSource.release();
+
+    assertThrows(IllegalStateException.class, () -> dataSource.getContent());
+    assertThrows(IllegalStateException.class, () -> dataSource.getInputStream());
+  }
+
+  @Test
+  void shouldNotIncludeReleasedContentWhenBufferReused() throws IOException {
+    try (Writer writer = dataSource.getWriter()) {
+      writer.write("<p>Previous content</p>");
+    }
+
+    dataSource.release();
+
+    RenderedContentDataSource reused = new RenderedContentDataSource();
+    try (Writer writer = reused.getWriter()) {
+      writer.write("<p>New</p>");
+    }
+
+    assertThat("Unexpected content.", reused.getContent(), is("<p>New</p>"));
+  }
+
+  @Test
+  void shouldAllowRepeatedRelease() throws IOException {
+    try (Writer writer = dataSource.getWriter()) {
+      writer.write("<p>Café £10</p>");
+    }
+
+    dataSource.release();
+    dataSource.release();
+
+    RenderedContentDataSource first = new RenderedContentDataSource();
+    RenderedContentDataSource second = new RenderedContentDataSource();
+    try (Writer writer = first.getWriter()) {
+      writer.write("<p>First</p>");
+    }
+    try (Writer writer = second.getWriter()) {
+      writer.write("<p>Second</p>");
+    }
+
+    assertThat("Unexpected content.", first.getContent(), is("<p>First</p>"));
+    assertThat("Unexpected content.", second.getContent(), is("<p>Second</p>"));
+  }
+
+  @Test
+  void shouldNotProvideOutputStream() {
+    assertThrows(IOException.class, () -> dataSource.getOutputStream());
+  }
+}
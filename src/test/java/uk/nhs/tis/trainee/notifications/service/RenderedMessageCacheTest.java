@@ -0,0 +1,195 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.MessageType.EMAIL;
+import static uk.nhs.tis.trainee.notifications.model.MessageType.IN_APP;
+import static uk.nhs.tis.trainee.notifications.model.NotificationStatus.SENT;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.COJ_CONFIRMATION;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.util.unit.DataSize;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.History.RecipientInfo;
+import uk.nhs.tis.trainee.notifications.model.History.TemplateInfo;
+import uk.nhs.tis.trainee.notifications.model.MessageType;
+import uk.nhs.tis.trainee.notifications.service.TemplateService.RenderedMessage;
+
+class RenderedMessageCacheTest {
+
+  private static final ObjectId NOTIFICATION_ID = ObjectId.get();
+
+  private RenderedMessageCache cache;
+  private ConcurrentMapCache sharedCache;
+
+  @BeforeEach
+  void setUp() {
+    sharedCache = new ConcurrentMapCache(RenderedMessageCache.CACHE_NAME);
+    CacheManager cacheManager = mock(CacheManager.class);
+    when(cacheManager.getCache(RenderedMessageCache.CACHE_NAME)).thenReturn(sharedCache);
+
+    cache = new RenderedMessageCache(cacheManager, new SimpleMeterRegistry(),
+        DataSize.ofMegabytes(1), true);
+  }
+
+  @Test
+  void shouldRenderMessageWhenNotCached() {
+    String message = cache.get(buildHistory(EMAIL, "v1"), Set.of(), () -> "rendered");
+
+    assertThat("Unexpected message.", message, is("rendered"));
+  }
+
+  @Test
+  void shouldGetCachedMessageWhenAlreadyRendered() {
+    AtomicInteger renderCount = new AtomicInteger();
+    History history = buildHistory(EMAIL, "v1");
+
+    cache.get(history, Set.of("content"), () -> "rendered" + renderCount.incrementAndGet());
+    String message = cache.get(history, Set.of("content"),
+        () -> "rendered" + renderCount.incrementAndGet());
+
+    assertThat("Unexpected message.", message, is("rendered1"));
+    assertThat("Unexpected render count.", renderCount.get(), is(1));
+  }
+
+  @Test
+  void shouldRenderMessageWhenSelectorsDiffer() {
+    History history = buildHistory(EMAIL, "v1");
+
+    cache.get(history, Set.of("subject"), () -> "subject");
+    String message = cache.get(history, Set.of("content"), () -> "content");
+
+    assertThat("Unexpected message.", message, is("content"));
+  }
+
+  @Test
+  void shouldRenderMessageWhenTemplateInfoChanged() {
+    cache.get(buildHistory(EMAIL, "v1"), Set.of(), () -> "version 1");
+    String message = cache.get(buildHistory(EMAIL, "v2"), Set.of(), () -> "version 2");
+
+    assertThat("Unexpected message.", message, is("version 2"));
+  }
+
+  @Test
+  void shouldRenderMessageWhenMessageTypeChanged() {
+    cache.get(buildHistory(EMAIL, "v1"), Set.of(), () -> "email");
+    String message = cache.get(buildHistory(IN_APP, "v1"), Set.of(), () -> "in-app");
+
+    assertThat("Unexpected message.", message, is("in-app"));
+  }
+
+  @Test
+  void shouldNotCacheMessageWhenNoNotificationId() {
+    History history = History.builder()
+        .recipient(new RecipientInfo("40", EMAIL, "anthony.gilliam@tis.nhs.uk"))
+        .template(new TemplateInfo("template", "v1", Map.of()))
+        .build();
+
+    cache.get(history, Set.of(), () -> "first");
+    String message = cache.get(history, Set.of(), () -> "second");
+
+    assertThat("Unexpected message.", message, is("second"));
+  }
+
+  @Test
+  void shouldGetMessageFromSharedCacheWhenNotCachedLocally() {
+    History history = buildHistory(EMAIL, "v1");
+    cache.get(history, Set.of(), () -> "shared");
+
+    CacheManager cacheManager = mock(CacheManager.class);
+    when(cacheManager.getCache(RenderedMessageCache.CACHE_NAME)).thenReturn(sharedCache);
+    RenderedMessageCache otherCache = new RenderedMessageCache(cacheManager,
+        new SimpleMeterRegistry(), DataSize.ofMegabytes(1), true);
+    String message = otherCache.get(history, Set.of(), () -> "rendered");
+
+    assertThat("Unexpected message.", message, is("shared"));
+  }
+
+  @Test
+  void shouldGetCachedSubjectAndContentWhenAlreadyRendered() {
+    AtomicInteger renderCount = new AtomicInteger();
+    History history = buildHistory(IN_APP, "v1");
+
+    cache.getMessage(history,
+        () -> new RenderedMessage("subject", "content" + renderCount.incrementAndGet()));
+    RenderedMessage message = cache.getMessage(history,
+        () -> new RenderedMessage("subject", "content" + renderCount.incrementAndGet()));
+
+    assertThat("Unexpected subject.", message.subject(), is("subject"));
+    assertThat("Unexpected content.", message.content(), is("content1"));
+    assertThat("Unexpected render count.", renderCount.get(), is(1));
+  }
+
+  @Test
+  void shouldShareSelectorEntriesBetweenFullAndPartialMessages() {
+    History history = buildHistory(IN_APP, "v1");
+
+    cache.getMessage(history, () -> new RenderedMessage("subject", "content"));
+    String content = cache.get(history, Set.of("content"), () -> "rendered");
+
+    assertThat("Unexpected content.", content, is("content"));
+  }
+
+  @Test
+  void shouldBuildKeysUnaffectedBySelectorOrder() {
+    History history = buildHistory(EMAIL, "v1");
+
+    String key1 = RenderedMessageCache.buildKey(history, Set.of("subject", "content"));
+    String key2 = RenderedMessageCache.buildKey(history, Set.of("content", "subject"));
+
+    assertThat("Unexpected key.", key1, is(key2));
+    assertThat("Unexpected key.", key1,
+        not(RenderedMessageCache.buildKey(history, Set.of("content"))));
+  }
+
+  /**
+   * Build a history with the given message type and template version.
+   *
+   * @param messageType The message type of the history.
+   * @param version     The template version of the history.
+   * @return The built history.
+   */
+  private History buildHistory(MessageType messageType, String version) {
+    return History.builder()
+        .id(NOTIFICATION_ID)
+        .type(COJ_CONFIRMATION)
+        .recipient(new RecipientInfo("40", messageType, "anthony.gilliam@tis.nhs.uk"))
+        .template(new TemplateInfo("template", version, Map.of("key", "value")))
+        .sentAt(Instant.now())
+        .status(SENT)
+        .build();
+  }
+}
@@ -0,0 +1,293 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import uk.nhs.tis.trainee.notifications.model.History;
+import uk.nhs.tis.trainee.notifications.model.ScheduleSlot;
+
+class ScheduleSlotAllocatorTest {
+
+  private static final Instant WINDOW_START = Instant.parse("2026-08-01T00:00:00Z");
+  private static final long FIVE_MINUTES_IN_SECONDS = 300;
+  private static final Duration VIEW_TTL = Duration.ofHours(1);
+
+  private ScheduleSlotAllocator allocator;
+  private MongoTemplate mongoTemplate;
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate = mock(MongoTemplate.class);
+    when(mongoTemplate.find(any(), eq(ScheduleSlot.class))).thenReturn(List.of());
+    stubScheduled(Map.of());
+    allocator = new ScheduleSlotAllocator(mongoTemplate, VIEW_TTL);
+  }
+
+  @Test
+  void shouldReturnWindowStartWhenWindowContainsNoSlots() {
+    Instant from = WINDOW_START.plusSeconds(10);
+
+    Instant allocated = allocator.allocate(from, 30);
+
+    assertThat("Unexpected allocated time.", allocated, is(from));
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void shouldAllocateFirstSlotWhenNoSlotsLoaded() {
+    Instant allocated = allocator.allocate(WINDOW_START, FIVE_MINUTES_IN_SECONDS);
+
+    assertThat("Unexpected allocated time.", allocated, is(WINDOW_START));
+  }
+
+  @Test
+  void shouldAllocateSlotsWithinWindowOnMinuteBoundaries() {
+    Instant allocated = allocator.allocate(WINDOW_START.plusSeconds(10), FIVE_MINUTES_IN_SECONDS);
+
+    assertThat("Unexpected allocated time.", allocated, is(WINDOW_START.plusSeconds(60)));
+  }
+
+  @Test
+  void shouldAllocateEarliestEmptySlot() {
+    stubScheduled(Map.of(
+        WINDOW_START, 3,
+        WINDOW_START.plusSeconds(60), 3,
+        WINDOW_START.plusSeconds(180), 3));
+
+    Instant allocated = allocator.allocate(WINDOW_START, FIVE_MINUTES_IN_SECONDS);
+
+    assertThat("Unexpected allocated time.", allocated, is(WINDOW_START.plusSeconds(120)));
+  }
+
+  @Test
+  void shouldAllocateLeastLoadedSlotWhenAllSlotsLoaded() {
+    stubScheduled(Map.of(
+        WINDOW_START, 3,
+        WINDOW_START.plusSeconds(60), 2,
+        WINDOW_START.plusSeconds(120), 3,
+        WINDOW_START.plusSeconds(180), 1,
+        WINDOW_START.plusSeconds(240), 1,
+        WINDOW_START.plusSeconds(300), 2));
+
+    Instant allocated = allocator.allocate(WINDOW_START, FIVE_MINUTES_IN_SECONDS);
+
+    assertThat("Unexpected allocated time.", allocated, is(WINDOW_START.plusSeconds(180)));
+  }
+
+  @Test
+  void shouldCountScheduledNotificationsWithinSlot() {
+    stubScheduled(Map.of(
+        WINDOW_START, 1,
+        WINDOW_START.plusSeconds(30), 1,
+        WINDOW_START.plusSeconds(60), 1));
+
+    Instant allocated = allocator.allocate(WINDOW_START, 60);
+
+    assertThat("Unexpected allocated time.", allocated, is(WINDOW_START.plusSeconds(60)));
+  }
+
+  @Test
+  void shouldIncludePendingAllocationsInSlotLoad() {
+    when(mongoTemplate.find(any(), eq(ScheduleSlot.class))).thenReturn(List.of(
+        slot(WINDOW_START, 2),
+        slot(WINDOW_START.plusSeconds(60), 0)));
+    stubScheduled(Map.of(
+        WINDOW_START, 1,
+        WINDOW_START.plusSeconds(60), 2));
+
+    Instant allocated = allocator.allocate(WINDOW_START, 60);
+
+    assertThat("Unexpected allocated time.", allocated, is(WINDOW_START.plusSeconds(60)));
+  }
+
+  @Test
+  void shouldLoadSlotsForWholeDay() {
+    allocator.allocate(WINDOW_START.plusSeconds(600), FIVE_MINUTES_IN_SECONDS);
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).find(queryCaptor.capture(), eq(ScheduleSlot.class));
+
+    Document query = queryCaptor.getValue().getQueryObject();
+    Document slotFilter = query.get("_id", Document.class);
+    assertThat("Unexpected day start.", slotFilter.get("$gte"), is(WINDOW_START));
+    assertThat("Unexpected day end.", slotFilter.get("$lt"),
+        is(WINDOW_START.plus(Duration.ofDays(1))));
+  }
+
+  @Test
+  void shouldLoadEachDayWithinWindow() {
+    stubScheduled(Map.of(WINDOW_START.minusSeconds(60), 1));
+
+    Instant allocated = allocator.allocate(WINDOW_START.minusSeconds(60), FIVE_MINUTES_IN_SECONDS);
+
+    assertThat("Unexpected allocated time.", allocated, is(WINDOW_START));
+
+    verify(mongoTemplate, times(2)).find(any(), eq(ScheduleSlot.class));
+    verify(mongoTemplate, times(2)).aggregate(any(Aggregation.class), eq(History.class),
+        eq(Document.class));
+  }
+
+  @Test
+  void shouldAllocateFromLoadedSlotsWhenViewCurrent() {
+    allocator.allocate(WINDOW_START, FIVE_MINUTES_IN_SECONDS);
+    allocator.allocate(WINDOW_START.plusSeconds(60), FIVE_MINUTES_IN_SECONDS);
+
+    verify(mongoTemplate).find(any(), eq(ScheduleSlot.class));
+    verify(mongoTemplate).aggregate(any(Aggregation.class), eq(History.class),
+        eq(Document.class));
+  }
+
+  @Test
+  void shouldReloadSlotsWhenViewExpired() {
+    allocator = new ScheduleSlotAllocator(mongoTemplate, Duration.ZERO);
+
+    allocator.allocate(WINDOW_START, FIVE_MINUTES_IN_SECONDS);
+    allocator.allocate(WINDOW_START, FIVE_MINUTES_IN_SECONDS);
+
+    verify(mongoTemplate, times(2)).find(any(), eq(ScheduleSlot.class));
+    verify(mongoTemplate, times(2)).aggregate(any(Aggregation.class), eq(History.class),
+        eq(Document.class));
+  }
+
+  @Test
+  void shouldClaimOnlyAllocatedSlot() {
+    Instant allocated = allocator.allocate(WINDOW_START, FIVE_MINUTES_IN_SECONDS);
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<FindAndModifyOptions> optionsCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).findAndModify(queryCaptor.capture(), updateCaptor.capture(),
+        optionsCaptor.capture(), eq(ScheduleSlot.class));
+
+    Document query = queryCaptor.getValue().getQueryObject();
+    assertThat("Unexpected query.", query, is(new Document("_id", allocated)));
+
+    Document update = updateCaptor.getValue().getUpdateObject();
+    assertThat("Unexpected increments.", update.get("$inc", Document.class),
+        is(new Document("pending", 1)));
+    assertThat("Unexpected expiry.", update.get("$setOnInsert", Document.class).get("expiresAt"),
+        is(allocated.plus(Duration.ofDays(1))));
+
+    assertThat("Unexpected upsert.", optionsCaptor.getValue().isUpsert(), is(true));
+  }
+
+  @Test
+  void shouldRetryClaimWhenSlotInsertedConcurrently() {
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(ScheduleSlot.class)))
+        .thenThrow(new DuplicateKeyException("expected"))
+        .thenAnswer(inv -> slot(WINDOW_START, 1));
+
+    Instant allocated = allocator.allocate(WINDOW_START, FIVE_MINUTES_IN_SECONDS);
+
+    assertThat("Unexpected allocated time.", allocated, is(WINDOW_START));
+    verify(mongoTemplate, times(2)).findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(ScheduleSlot.class));
+  }
+
+  @Test
+  void shouldReducePendingWhenAllocationCompleted() {
+    allocator.complete(WINDOW_START);
+
+    ArgumentCaptor<Query> queryCaptor = ArgumentCaptor.captor();
+    ArgumentCaptor<Update> updateCaptor = ArgumentCaptor.captor();
+    verify(mongoTemplate).updateFirst(queryCaptor.capture(), updateCaptor.capture(),
+        eq(ScheduleSlot.class));
+
+    Document query = queryCaptor.getValue().getQueryObject();
+    assertThat("Unexpected slot.", query.get("_id"), is(WINDOW_START));
+    assertThat("Unexpected pending filter.", query.get("pending"), is(new Document("$gt", 0)));
+
+    Document update = updateCaptor.getValue().getUpdateObject();
+    assertThat("Unexpected pending decrement.", update.get("$inc", Document.class).get("pending"),
+        is(-1));
+  }
+
+  @Test
+  void shouldLevelAllocationsAcrossWindow() {
+    Map<Instant, Long> claims = new HashMap<>();
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class),
+        any(FindAndModifyOptions.class), eq(ScheduleSlot.class))).thenAnswer(inv -> {
+          Instant slotStart = (Instant) inv.getArgument(0, Query.class).getQueryObject().get("_id");
+          long pending = claims.merge(slotStart, 1L, Long::sum);
+          return slot(slotStart, pending);
+        });
+
+    for (int i = 0; i < 60; i++) {
+      allocator.allocate(WINDOW_START, FIVE_MINUTES_IN_SECONDS);
+    }
+
+    assertThat("Unexpected slot count.", claims.size(), is(6));
+    claims.values().forEach(c -> assertThat("Unexpected slot load.", c, is(10L)));
+    verify(mongoTemplate).find(any(), eq(ScheduleSlot.class));
+  }
+
+  /**
+   * Stub the counts of scheduled notifications, grouped by their scheduled time.
+   *
+   * @param scheduled The number of scheduled notifications, keyed by scheduled time.
+   */
+  private void stubScheduled(Map<Instant, Integer> scheduled) {
+    List<Document> results = scheduled.entrySet().stream()
+        .map(e -> new Document("_id", Date.from(e.getKey())).append("count", e.getValue()))
+        .toList();
+    when(mongoTemplate.aggregate(any(Aggregation.class), eq(History.class), eq(Document.class)))
+        .thenReturn(new AggregationResults<>(results, new Document()));
+  }
+
+  /**
+   * Create a schedule slot with the given pending allocations.
+   *
+   * @param slot    The slot start.
+   * @param pending The slot pending allocation count.
+   * @return The created schedule slot.
+   */
+  private static ScheduleSlot slot(Instant slot, long pending) {
+    return new ScheduleSlot(slot, pending, slot.plus(Duration.ofDays(1)));
+  }
+}
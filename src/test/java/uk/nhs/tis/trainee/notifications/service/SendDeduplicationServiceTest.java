@@ -0,0 +1,231 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.COJ_CONFIRMATION;
+import static uk.nhs.tis.trainee.notifications.model.NotificationType.FORM_UPDATED;
+import static uk.nhs.tis.trainee.notifications.model.TisReferenceType.PLACEMENT;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import uk.nhs.tis.trainee.notifications.model.History.TisReferenceInfo;
+import uk.nhs.tis.trainee.notifications.service.SendDeduplicationService.ClaimStatus;
+
+class SendDeduplicationServiceTest {
+
+  private static final String KEY_PREFIX = "Notifications";
+  private static final Duration TTL = Duration.ofHours(24);
+  private static final Duration CLAIM_TTL = Duration.ofMinutes(10);
+  private static final Duration CLAIM_LEASE = Duration.ofMinutes(15);
+  private static final ObjectId NOTIFICATION_ID = ObjectId.get();
+  private static final String SEND_KEY = NOTIFICATION_ID.toHexString();
+  private static final String STORED_KEY = KEY_PREFIX + ":SendClaim:" + SEND_KEY;
+  private static final TisReferenceInfo TIS_REFERENCE = new TisReferenceInfo(PLACEMENT, "40");
+  private static final String RECIPIENT = "anthony.gilliam@tis.nhs.uk";
+
+  private SendDeduplicationService service;
+  private StringRedisTemplate redisTemplate;
+  private ValueOperations<String, String> valueOperations;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    redisTemplate = mock(StringRedisTemplate.class);
+    valueOperations = mock(ValueOperations.class);
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+    meterRegistry = new SimpleMeterRegistry();
+    service = new SendDeduplicationService(redisTemplate, meterRegistry, KEY_PREFIX, TTL,
+        CLAIM_TTL, CLAIM_LEASE);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenClaimTtlNotShorterThanLease() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new SendDeduplicationService(redisTemplate, meterRegistry, KEY_PREFIX, TTL,
+            CLAIM_LEASE, CLAIM_LEASE));
+  }
+
+  @Test
+  void shouldUseNotificationIdAsSendKey() {
+    String sendKey = SendDeduplicationService.getSendKey(NOTIFICATION_ID);
+
+    assertThat("Unexpected send key.", sendKey, is(SEND_KEY));
+  }
+
+  @Test
+  void shouldUseSameSendKeyForSameReferenceTypeAndRecipient() {
+    String sendKey1 = SendDeduplicationService.getSendKey(TIS_REFERENCE, COJ_CONFIRMATION,
+        RECIPIENT);
+    String sendKey2 = SendDeduplicationService.getSendKey(
+        new TisReferenceInfo(PLACEMENT, "40"), COJ_CONFIRMATION, RECIPIENT);
+
+    assertThat("Unexpected send key.", sendKey2, is(sendKey1));
+    assertThat("Unexpected recipient in send key.", sendKey1, not(containsString(RECIPIENT)));
+  }
+
+  @Test
+  void shouldUseDifferentSendKeyForDifferentReference() {
+    String sendKey1 = SendDeduplicationService.getSendKey(TIS_REFERENCE, COJ_CONFIRMATION,
+        RECIPIENT);
+    String sendKey2 = SendDeduplicationService.getSendKey(
+        new TisReferenceInfo(PLACEMENT, "41"), COJ_CONFIRMATION, RECIPIENT);
+
+    assertThat("Unexpected send key.", sendKey2, not(sendKey1));
+  }
+
+  @Test
+  void shouldUseDifferentSendKeyForDifferentType() {
+    String sendKey1 = SendDeduplicationService.getSendKey(TIS_REFERENCE, COJ_CONFIRMATION,
+        RECIPIENT);
+    String sendKey2 = SendDeduplicationService.getSendKey(TIS_REFERENCE, FORM_UPDATED,
+        RECIPIENT);
+
+    assertThat("Unexpected send key.", sendKey2, not(sendKey1));
+  }
+
+  @Test
+  void shouldUseDifferentSendKeyForDifferentRecipient() {
+    String sendKey1 = SendDeduplicationService.getSendKey(TIS_REFERENCE, COJ_CONFIRMATION,
+        RECIPIENT);
+    String sendKey2 = SendDeduplicationService.getSendKey(TIS_REFERENCE, COJ_CONFIRMATION,
+        "someone.else@tis.nhs.uk");
+
+    assertThat("Unexpected send key.", sendKey2, not(sendKey1));
+  }
+
+  @Test
+  void shouldClaimKeyWithClaimTtlWhenNotAlreadyClaimed() {
+    when(valueOperations.setIfAbsent(eq(STORED_KEY), startsWith("CLAIMED:"), eq(CLAIM_TTL)))
+        .thenReturn(true);
+
+    ClaimStatus claimStatus = service.claim(SEND_KEY);
+
+    assertThat("Unexpected claim status.", claimStatus, is(ClaimStatus.CLAIMED));
+    assertThat("Unexpected suppressed count.", getSuppressedCount(), is(0.0));
+  }
+
+  @Test
+  void shouldReturnSentWhenAlreadySent() {
+    when(valueOperations.setIfAbsent(eq(STORED_KEY), anyString(), eq(CLAIM_TTL)))
+        .thenReturn(false);
+    when(valueOperations.get(STORED_KEY)).thenReturn("SENT:2026-01-01T00:00:00Z");
+
+    ClaimStatus claimStatus = service.claim(SEND_KEY);
+
+    assertThat("Unexpected claim status.", claimStatus, is(ClaimStatus.SENT));
+    assertThat("Unexpected suppressed count.", getSuppressedCount(), is(1.0));
+  }
+
+  @Test
+  void shouldReturnHeldWhenClaimedByAnotherAttempt() {
+    when(valueOperations.setIfAbsent(eq(STORED_KEY), anyString(), eq(CLAIM_TTL)))
+        .thenReturn(false);
+    when(valueOperations.get(STORED_KEY)).thenReturn("CLAIMED:2026-01-01T00:00:00Z");
+
+    ClaimStatus claimStatus = service.claim(SEND_KEY);
+
+    assertThat("Unexpected claim status.", claimStatus, is(ClaimStatus.HELD));
+    assertThat("Unexpected suppressed count.", getSuppressedCount(), is(0.0));
+  }
+
+  @Test
+  void shouldReturnHeldWhenClaimExpiresBeforeChecked() {
+    when(valueOperations.setIfAbsent(eq(STORED_KEY), anyString(), eq(CLAIM_TTL)))
+        .thenReturn(false);
+    when(valueOperations.get(STORED_KEY)).thenReturn(null);
+
+    ClaimStatus claimStatus = service.claim(SEND_KEY);
+
+    assertThat("Unexpected claim status.", claimStatus, is(ClaimStatus.HELD));
+  }
+
+  @Test
+  void shouldClaimKeyWhenClaimCannotBeChecked() {
+    when(valueOperations.setIfAbsent(any(), any(), any(Duration.class))).thenThrow(
+        new RedisConnectionFailureException("expected"));
+
+    ClaimStatus claimStatus = service.claim(SEND_KEY);
+
+    assertThat("Unexpected claim status.", claimStatus, is(ClaimStatus.CLAIMED));
+  }
+
+  @Test
+  void shouldRetainSentKeyWithTtlWhenMarkedSent() {
+    service.markSent(SEND_KEY);
+
+    verify(valueOperations).set(eq(STORED_KEY), startsWith("SENT:"), eq(TTL));
+  }
+
+  @Test
+  void shouldNotThrowExceptionWhenMarkSentFails() {
+    doThrow(new RedisConnectionFailureException("expected"))
+        .when(valueOperations).set(any(), any(), any(Duration.class));
+
+    assertDoesNotThrow(() -> service.markSent(SEND_KEY));
+  }
+
+  @Test
+  void shouldDeleteKeyWhenReleased() {
+    service.release(SEND_KEY);
+
+    verify(redisTemplate).delete(STORED_KEY);
+  }
+
+  @Test
+  void shouldNotThrowExceptionWhenReleaseFails() {
+    when(redisTemplate.delete(anyString())).thenThrow(
+        new RedisConnectionFailureException("expected"));
+
+    assertDoesNotThrow(() -> service.release(SEND_KEY));
+  }
+
+  /**
+   * Get the count of suppressed duplicates from the metric.
+   *
+   * @return The suppressed duplicate count.
+   */
+  private double getSuppressedCount() {
+    return meterRegistry.get("notifications.email.duplicates.suppressed").counter().count();
+  }
+}
@@ -0,0 +1,455 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static uk.nhs.tis.trainee.notifications.model.NotificationPriority.BULK;
+import static uk.nhs.tis.trainee.notifications.model.NotificationPriority.TRANSACTIONAL;
+
+import io.awspring.cloud.sqs.listener.MessageListenerContainer;
+import io.awspring.cloud.sqs.listener.MessageListenerContainerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.MailSendException;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import uk.nhs.tis.trainee.notifications.model.NotificationPriority;
+
+class SendRateGovernorTest {
+
+  private static final double INITIAL_RATE = 10;
+  private static final double MIN_RATE = 1;
+  private static final double MAX_RATE = 12;
+  private static final double INCREMENT = 0.5;
+  private static final double DECREASE_FACTOR = 0.5;
+  private static final double TRANSACTIONAL_SHARE = 0.2;
+  private static final String TRANSACTIONAL_LISTENER_ID = "coj-published";
+  private static final String BULK_LISTENER_ID = "outbox";
+  private static final String OTHER_LISTENER_ID = "email-event";
+
+  private SendRateGovernor governor;
+  private ObjectProvider<MessageListenerContainerRegistry> containerRegistryProvider;
+  private SqsListenerCoordinator listenerCoordinator;
+  private MeterRegistry meterRegistry;
+  private List<SendRateGovernor> createdGovernors;
+
+  @BeforeEach
+  void setUp() {
+    containerRegistryProvider = mock(ObjectProvider.class);
+    listenerCoordinator = new SqsListenerCoordinator(containerRegistryProvider);
+    meterRegistry = new SimpleMeterRegistry();
+    createdGovernors = new ArrayList<>();
+    governor = createGovernor(INITIAL_RATE, MIN_RATE, MAX_RATE, INCREMENT, DECREASE_FACTOR);
+  }
+
+  @AfterEach
+  void tearDown() {
+    createdGovernors.forEach(SendRateGovernor::shutdown);
+  }
+
+  @Test
+  void shouldThrowExceptionWhenMinRateNotPositive() {
+    assertThrows(IllegalArgumentException.class,
+        () -> createGovernor(INITIAL_RATE, 0, MAX_RATE, INCREMENT, DECREASE_FACTOR));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenMinRateGreaterThanMaxRate() {
+    assertThrows(IllegalArgumentException.class,
+        () -> createGovernor(INITIAL_RATE, MAX_RATE + 1, MAX_RATE, INCREMENT, DECREASE_FACTOR));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenDecreaseFactorNotFractional() {
+    assertThrows(IllegalArgumentException.class,
+        () -> createGovernor(INITIAL_RATE, MIN_RATE, MAX_RATE, INCREMENT, 1));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenTransactionalShareNotFractional() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new SendRateGovernor(listenerCoordinator, meterRegistry, INITIAL_RATE,
+            MIN_RATE, MAX_RATE, INCREMENT, DECREASE_FACTOR, Duration.ZERO, 0, 1, 1,
+            Set.of(TRANSACTIONAL_LISTENER_ID), Set.of(BULK_LISTENER_ID)));
+  }
+
+  @Test
+  void shouldClampInitialRateToMaxRate() {
+    governor = createGovernor(MAX_RATE + 10, MIN_RATE, MAX_RATE, INCREMENT, DECREASE_FACTOR);
+
+    assertThat("Unexpected rate.", governor.getRate(), is(MAX_RATE));
+  }
+
+  @Test
+  void shouldExecuteSend() {
+    Runnable send = mock(Runnable.class);
+
+    governor.execute(TRANSACTIONAL, send);
+
+    verify(send).run();
+  }
+
+  @Test
+  void shouldIncreaseRateAdditivelyWhenSendSucceeds() {
+    governor.execute(TRANSACTIONAL, () -> { });
+
+    assertThat("Unexpected rate.", governor.getRate(), is(INITIAL_RATE + INCREMENT));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenSendHasNoPermits() {
+    Runnable send = mock(Runnable.class);
+
+    assertThrows(IllegalArgumentException.class, () -> governor.execute(BULK, 0, send));
+
+    verifyNoInteractions(send);
+  }
+
+  @Test
+  void shouldIncreaseRatePerEmailWhenMultipleEmailSendSucceeds() {
+    governor.execute(BULK, 3, () -> { });
+
+    assertThat("Unexpected rate.", governor.getRate(), is(INITIAL_RATE + INCREMENT * 3));
+  }
+
+  @Test
+  void shouldWaitForAllPermitsWhenMultipleEmailSendExceedsTokens() {
+    governor = createGovernor(MAX_RATE, MIN_RATE, MAX_RATE, 0, DECREASE_FACTOR);
+
+    governor.execute(TRANSACTIONAL, (int) MAX_RATE + 3, () -> { });
+
+    double waitSeconds = meterRegistry.get("notifications.email.send.wait")
+        .tag("lane", "transactional")
+        .timer()
+        .max(TimeUnit.SECONDS);
+    assertThat("Unexpected wait time.", waitSeconds, closeTo(3 / MAX_RATE, 0.05));
+  }
+
+  @Test
+  void shouldNotIncreaseRateAboveMaxRate() {
+    for (int i = 0; i < 5; i++) {
+      governor.execute(TRANSACTIONAL, () -> { });
+    }
+
+    assertThat("Unexpected rate.", governor.getRate(), is(MAX_RATE));
+  }
+
+  @Test
+  void shouldDecreaseRateMultiplicativelyWhenSendThrottled() {
+    AwsServiceException throttled = AwsServiceException.builder()
+        .awsErrorDetails(AwsErrorDetails.builder().errorCode("Throttling").build())
+        .build();
+
+    assertThrows(AwsServiceException.class, () -> governor.execute(TRANSACTIONAL, () -> {
+      throw throttled;
+    }));
+
+    assertThat("Unexpected rate.", governor.getRate(), is(INITIAL_RATE * DECREASE_FACTOR));
+  }
+
+  @Test
+  void shouldDecreaseRateWhenMailSendFailedWithThrottling() {
+    MailSendException throttled = new MailSendException(Map.of("message",
+        new IllegalStateException("Maximum sending rate exceeded.")));
+
+    assertThrows(MailSendException.class, () -> governor.execute(TRANSACTIONAL, () -> {
+      throw throttled;
+    }));
+
+    assertThat("Unexpected rate.", governor.getRate(), is(INITIAL_RATE * DECREASE_FACTOR));
+  }
+
+  @Test
+  void shouldNotDecreaseRateBelowMinRate() {
+    MailSendException throttled = new MailSendException("Maximum sending rate exceeded.");
+
+    for (int i = 0; i < 10; i++) {
+      assertThrows(MailSendException.class, () -> governor.execute(TRANSACTIONAL, () -> {
+        throw throttled;
+      }));
+    }
+
+    assertThat("Unexpected rate.", governor.getRate(), is(MIN_RATE));
+  }
+
+  @Test
+  void shouldNotChangeRateWhenSendFailsWithoutThrottling() {
+    MailSendException failure = new MailSendException("Invalid recipient.");
+
+    assertThrows(MailSendException.class, () -> governor.execute(TRANSACTIONAL, () -> {
+      throw failure;
+    }));
+
+    assertThat("Unexpected rate.", governor.getRate(), is(INITIAL_RATE));
+  }
+
+  @Test
+  void shouldPublishRateMetric() {
+    governor.execute(TRANSACTIONAL, () -> { });
+
+    double rate = meterRegistry.get("notifications.email.send.rate").gauge().value();
+    assertThat("Unexpected rate metric.", rate, is(INITIAL_RATE + INCREMENT));
+  }
+
+  @Test
+  void shouldPauseAndResumeSendingListenersWhenSharedTokensExhausted() {
+    MessageListenerContainer<?> container = mockContainer(TRANSACTIONAL_LISTENER_ID);
+    MessageListenerContainer<?> bulkContainer = mockContainer(BULK_LISTENER_ID);
+    MessageListenerContainer<?> otherContainer = mockContainer(OTHER_LISTENER_ID);
+    mockContainerRegistry(container, bulkContainer, otherContainer);
+
+    governor = createGovernor(MAX_RATE, MIN_RATE, MAX_RATE, 0, DECREASE_FACTOR);
+
+    for (int i = 0; i < MAX_RATE; i++) {
+      governor.execute(TRANSACTIONAL, () -> { });
+    }
+    verify(container, never()).stop();
+
+    governor.execute(TRANSACTIONAL, () -> { });
+
+    verify(container, timeout(1000)).stop();
+    verify(bulkContainer, timeout(1000)).stop();
+    verify(container, timeout(1000)).start();
+    verify(bulkContainer, timeout(1000)).start();
+    verify(otherContainer, never()).stop();
+    verify(otherContainer, never()).start();
+
+    double waitSeconds = meterRegistry.get("notifications.email.send.wait")
+        .tag("lane", "transactional")
+        .timer()
+        .max(TimeUnit.SECONDS);
+    assertThat("Unexpected wait time.", waitSeconds, closeTo(1 / MAX_RATE, 0.05));
+  }
+
+  @Test
+  void shouldPauseAndResumeOnlyBulkListenersWhenBulkTokensExhausted() {
+    MessageListenerContainer<?> container = mockContainer(TRANSACTIONAL_LISTENER_ID);
+    MessageListenerContainer<?> bulkContainer = mockContainer(BULK_LISTENER_ID);
+    mockContainerRegistry(container, bulkContainer);
+
+    governor = createGovernor(10, MIN_RATE, 10, 0, DECREASE_FACTOR);
+
+    for (int i = 0; i < 8; i++) {
+      governor.execute(BULK, () -> { });
+    }
+    verify(bulkContainer, never()).stop();
+
+    governor.execute(BULK, () -> { });
+
+    verify(bulkContainer, timeout(1000)).stop();
+    verify(bulkContainer, timeout(1000)).start();
+    verify(container, never()).stop();
+
+    double waitSeconds = meterRegistry.get("notifications.email.send.wait")
+        .tag("lane", "bulk")
+        .timer()
+        .max(TimeUnit.SECONDS);
+    assertThat("Unexpected wait time.", waitSeconds, closeTo(1 / 8.0, 0.05));
+  }
+
+  @Test
+  void shouldNotPauseListenersWhenWaitWithinPauseThreshold() {
+    MessageListenerContainer<?> container = mockContainer(TRANSACTIONAL_LISTENER_ID);
+    MessageListenerContainer<?> bulkContainer = mockContainer(BULK_LISTENER_ID);
+    mockContainerRegistry(container, bulkContainer);
+
+    governor = createGovernor(MAX_RATE, MIN_RATE, MAX_RATE, 0, DECREASE_FACTOR,
+        Duration.ofSeconds(1));
+
+    for (int i = 0; i < MAX_RATE + 2; i++) {
+      governor.execute(TRANSACTIONAL, () -> { });
+    }
+
+    verify(container, never()).stop();
+    verify(bulkContainer, never()).stop();
+  }
+
+  @Test
+  void shouldReserveTransactionalShareWhenBulkTokensExhausted() {
+    governor = createGovernor(10, MIN_RATE, 10, 0, DECREASE_FACTOR);
+
+    for (int i = 0; i < 8; i++) {
+      governor.execute(BULK, () -> { });
+    }
+    governor.execute(TRANSACTIONAL, () -> { });
+    governor.execute(TRANSACTIONAL, () -> { });
+
+    double waitSeconds = meterRegistry.get("notifications.email.send.wait")
+        .tag("lane", "transactional")
+        .timer()
+        .max(TimeUnit.SECONDS);
+    assertThat("Unexpected wait time.", waitSeconds, closeTo(0, 0.01));
+  }
+
+  @ParameterizedTest
+  @EnumSource(NotificationPriority.class)
+  void shouldSendOnCallerThread(NotificationPriority priority) {
+    AtomicReference<Thread> thread = new AtomicReference<>();
+
+    governor.execute(priority, () -> thread.set(Thread.currentThread()));
+
+    assertThat("Unexpected thread.", thread.get(), is(Thread.currentThread()));
+  }
+
+  @ParameterizedTest
+  @EnumSource(NotificationPriority.class)
+  void shouldQueueSendsWhenLaneSlotsInUse(NotificationPriority priority) throws Exception {
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch release = new CountDownLatch(1);
+    Runnable blockingSend = () -> {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+
+    ExecutorService senders = Executors.newFixedThreadPool(3);
+
+    try {
+      senders.execute(() -> governor.execute(priority, blockingSend));
+      senders.execute(() -> governor.execute(priority, blockingSend));
+      assertThat("Unexpected start.", started.await(1, TimeUnit.SECONDS), is(true));
+
+      Runnable queuedSend = mock(Runnable.class);
+      senders.execute(() -> governor.execute(priority, queuedSend));
+
+      Thread.sleep(100);
+      verifyNoInteractions(queuedSend);
+
+      double depth = meterRegistry.get("notifications.email.lane.queue.depth")
+          .tag("lane", priority.getLaneName())
+          .gauge()
+          .value();
+      assertThat("Unexpected queue depth.", depth, is(1.0));
+
+      release.countDown();
+      verify(queuedSend, timeout(1000)).run();
+    } finally {
+      release.countDown();
+      senders.shutdownNow();
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(NotificationPriority.class)
+  void shouldPublishLaneMetrics(NotificationPriority priority) {
+    governor.execute(priority, () -> { });
+
+    long count = meterRegistry.get("notifications.email.lane.latency")
+        .tag("lane", priority.getLaneName())
+        .timer()
+        .count();
+    assertThat("Unexpected latency count.", count, is(1L));
+
+    double depth = meterRegistry.get("notifications.email.lane.queue.depth")
+        .tag("lane", priority.getLaneName())
+        .gauge()
+        .value();
+    assertThat("Unexpected queue depth.", depth, is(0.0));
+  }
+
+  /**
+   * Create a governor with the default lane configuration.
+   *
+   * @param initialRate    The initial rate.
+   * @param minRate        The minimum rate.
+   * @param maxRate        The maximum rate.
+   * @param increment      The rate increment.
+   * @param decreaseFactor The rate decrease factor.
+   * @return The created governor.
+   */
+  private SendRateGovernor createGovernor(double initialRate, double minRate, double maxRate,
+      double increment, double decreaseFactor) {
+    return createGovernor(initialRate, minRate, maxRate, increment, decreaseFactor, Duration.ZERO);
+  }
+
+  /**
+   * Create a governor with the default lane configuration.
+   *
+   * @param initialRate    The initial rate.
+   * @param minRate        The minimum rate.
+   * @param maxRate        The maximum rate.
+   * @param increment      The rate increment.
+   * @param decreaseFactor The rate decrease factor.
+   * @param pauseThreshold The wait after which listeners are paused.
+   * @return The created governor.
+   */
+  private SendRateGovernor createGovernor(double initialRate, double minRate, double maxRate,
+      double increment, double decreaseFactor, Duration pauseThreshold) {
+    SendRateGovernor created = new SendRateGovernor(listenerCoordinator, meterRegistry,
+        initialRate, minRate, maxRate, increment, decreaseFactor, pauseThreshold,
+        TRANSACTIONAL_SHARE, 2, 2, Set.of(TRANSACTIONAL_LISTENER_ID), Set.of(BULK_LISTENER_ID));
+    createdGovernors.add(created);
+    return created;
+  }
+
+  /**
+   * Create a mock listener container.
+   *
+   * @param id The container ID.
+   * @return The mock container.
+   */
+  private MessageListenerContainer<?> mockContainer(String id) {
+    MessageListenerContainer<?> container = mock(MessageListenerContainer.class);
+    when(container.getId()).thenReturn(id);
+    return container;
+  }
+
+  /**
+   * Register the given containers with a mock container registry.
+   *
+   * @param containers The containers to register.
+   */
+  private void mockContainerRegistry(MessageListenerContainer<?>... containers) {
+    MessageListenerContainerRegistry containerRegistry = mock(
+        MessageListenerContainerRegistry.class);
+    when(containerRegistry.getListenerContainers()).thenReturn(List.of(containers));
+    when(containerRegistryProvider.getIfAvailable()).thenReturn(containerRegistry);
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.awspring.cloud.sqs.listener.MessageListenerContainerRegistry;
+import io.awspring.cloud.sqs.listener.SqsMessageListenerContainer;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.ObjectProvider;
+
+class SqsListenerCoordinatorTest {
+
+  private static final String LISTENER_ID = "coj-published";
+  private static final String OTHER_LISTENER_ID = "email-event";
+
+  private SqsListenerCoordinator coordinator;
+  private SqsMessageListenerContainer<?> container;
+  private SqsMessageListenerContainer<?> otherContainer;
+
+  @BeforeEach
+  void setUp() {
+    container = mock(SqsMessageListenerContainer.class);
+    when(container.getId()).thenReturn(LISTENER_ID);
+    otherContainer = mock(SqsMessageListenerContainer.class);
+    when(otherContainer.getId()).thenReturn(OTHER_LISTENER_ID);
+
+    MessageListenerContainerRegistry registry = mock(MessageListenerContainerRegistry.class);
+    when(registry.getListenerContainers()).thenReturn(List.of(container, otherContainer));
+    doReturn(container).when(registry).getContainerById(LISTENER_ID);
+
+    ObjectProvider<MessageListenerContainerRegistry> registryProvider = mock(ObjectProvider.class);
+    when(registryProvider.getIfAvailable()).thenReturn(registry);
+
+    coordinator = new SqsListenerCoordinator(registryProvider);
+  }
+
+  @Test
+  void shouldReturnNoContainersWhenRegistryNotAvailable() {
+    ObjectProvider<MessageListenerContainerRegistry> registryProvider = mock(ObjectProvider.class);
+    coordinator = new SqsListenerCoordinator(registryProvider);
+
+    assertThat("Unexpected containers.", coordinator.getContainers(), empty());
+    assertThat("Unexpected container.", coordinator.getContainer(LISTENER_ID), nullValue());
+  }
+
+  @Test
+  void shouldStopOnlyMatchingContainersWhenPaused() {
+    coordinator.pause("holder", LISTENER_ID::equals);
+
+    verify(container).stop();
+    verify(otherContainer, never()).stop();
+    assertThat("Unexpected paused state.", coordinator.isPaused(LISTENER_ID), is(true));
+    assertThat("Unexpected paused state.", coordinator.isPaused(OTHER_LISTENER_ID), is(false));
+  }
+
+  @Test
+  void shouldStartContainerWhenPauseResumed() {
+    coordinator.pause("holder", LISTENER_ID::equals);
+    coordinator.resume("holder", LISTENER_ID::equals);
+
+    verify(container).start();
+    assertThat("Unexpected paused state.", coordinator.isPaused(LISTENER_ID), is(false));
+  }
+
+  @Test
+  void shouldNotStartContainerWhenNotPaused() {
+    coordinator.resume("holder", LISTENER_ID::equals);
+
+    verify(container, never()).start();
+  }
+
+  @Test
+  void shouldStartContainerOnlyWhenAllHoldersResumed() {
+    coordinator.pause("holder1", LISTENER_ID::equals);
+    coordinator.pause("holder2", LISTENER_ID::equals);
+    verify(container, times(1)).stop();
+
+    coordinator.resume("holder1", LISTENER_ID::equals);
+    verify(container, never()).start();
+
+    coordinator.resume("holder2", LISTENER_ID::equals);
+    verify(container).start();
+  }
+
+  @Test
+  void shouldReturnNullWhenReconfiguringUnknownContainer() {
+    SqsMessageListenerContainer<?> reconfigured = coordinator.reconfigure("unknown", options -> {
+    });
+
+    assertThat("Unexpected container.", reconfigured, nullValue());
+  }
+
+  @Test
+  void shouldRestartRunningContainerWhenReconfigured() {
+    when(container.isRunning()).thenReturn(true);
+
+    coordinator.reconfigure(LISTENER_ID, options -> {
+    });
+
+    InOrder inOrder = inOrder(container);
+    inOrder.verify(container).stop();
+    inOrder.verify(container).configure(any());
+    inOrder.verify(container).start();
+  }
+
+  @Test
+  void shouldNotStartPausedContainerWhenReconfigured() {
+    coordinator.pause("holder", LISTENER_ID::equals);
+    when(container.isRunning()).thenReturn(false);
+
+    coordinator.reconfigure(LISTENER_ID, options -> {
+    });
+
+    verify(container).configure(any());
+    verify(container, never()).start();
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.thymeleaf.context.Context;
+import uk.nhs.tis.trainee.notifications.model.TraineeType;
+import uk.nhs.tis.trainee.notifications.service.TemplateService.RenderedMessage;
+
+class TemplateOutputCacheTest {
+
+  private static final String TEMPLATE = "in-app/template/v1.0.0";
+  private static final Set<String> SELECTORS = Set.of("content");
+
+  private TemplateOutputCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new TemplateOutputCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+  }
+
+  @Test
+  void shouldBuildSameKeyWhenVariableOrderDiffers() {
+    Map<String, Object> nested1 = new LinkedHashMap<>();
+    nested1.put("a", 1);
+    nested1.put("b", "two");
+    Map<String, Object> nested2 = new LinkedHashMap<>();
+    nested2.put("b", "two");
+    nested2.put("a", 1);
+
+    Optional<String> key1 = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS,
+        context(Map.of("nested", nested1, "name", "Anthony")));
+    Optional<String> key2 = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS,
+        context(Map.of("name", "Anthony", "nested", nested2)));
+
+    assertThat("Unexpected key presence.", key1.isPresent(), is(true));
+    assertThat("Unexpected key.", key1, is(key2));
+  }
+
+  @Test
+  void shouldBuildDifferentKeyWhenValuesDiffer() {
+    Optional<String> key1 = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS,
+        context(Map.of("name", "Anthony")));
+    Optional<String> key2 = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS,
+        context(Map.of("name", "Gilliam")));
+
+    assertThat("Unexpected key.", key1, not(key2));
+  }
+
+  @Test
+  void shouldBuildDifferentKeyWhenValueTypesDiffer() {
+    Optional<String> key1 = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS,
+        context(Map.of("value", "1")));
+    Optional<String> key2 = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS,
+        context(Map.of("value", 1)));
+
+    assertThat("Unexpected key.", key1, not(key2));
+  }
+
+  @Test
+  void shouldBuildDifferentKeyWhenValueBoundariesDiffer() {
+    Optional<String> key1 = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS,
+        context(Map.of("value", List.of("ab", "c"))));
+    Optional<String> key2 = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS,
+        context(Map.of("value", List.of("a", "bc"))));
+
+    assertThat("Unexpected key.", key1, not(key2));
+  }
+
+  @Test
+  void shouldBuildDifferentKeyWhenSelectorsDiffer() {
+    Context context = context(Map.of("name", "Anthony"));
+
+    Optional<String> key1 = TemplateOutputCache.buildKey(TEMPLATE, Set.of("subject"), context);
+    Optional<String> key2 = TemplateOutputCache.buildKey(TEMPLATE, Set.of("content"), context);
+
+    assertThat("Unexpected key.", key1, not(key2));
+  }
+
+  @Test
+  void shouldBuildDifferentKeyWhenTemplatesDiffer() {
+    Context context = context(Map.of("name", "Anthony"));
+
+    Optional<String> key1 = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS, context);
+    Optional<String> key2 = TemplateOutputCache.buildKey("in-app/template/v2.0.0", SELECTORS,
+        context);
+
+    assertThat("Unexpected key.", key1, not(key2));
+  }
+
+  @Test
+  void shouldBuildKeyWhenContextContainsSupportedTypes() {
+    Optional<String> key = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS, context(Map.of(
+        "instant", Instant.EPOCH,
+        "traineeType", TraineeType.FOUNDATION,
+        "array", new Object[]{"a", 1, true})));
+
+    assertThat("Unexpected key presence.", key.isPresent(), is(true));
+  }
+
+  @Test
+  void shouldNotBuildKeyWhenContextContainsUnsupportedTypes() {
+    Optional<String> key = TemplateOutputCache.buildKey(TEMPLATE, SELECTORS,
+        context(Map.of("unsupported", new Object())));
+
+    assertThat("Unexpected key presence.", key.isPresent(), is(false));
+  }
+
+  @Test
+  void shouldRenderOnceWhenOutputCached() {
+    AtomicInteger renders = new AtomicInteger();
+    Context context = context(Map.of("name", "Anthony"));
+
+    cache.get(TEMPLATE, SELECTORS, context, () -> "output" + renders.incrementAndGet());
+    String output = cache.get(TEMPLATE, SELECTORS, context,
+        () -> "output" + renders.incrementAndGet());
+
+    assertThat("Unexpected output.", output, is("output1"));
+    assertThat("Unexpected render count.", renders.get(), is(1));
+  }
+
+  @Test
+  void shouldRenderEveryTimeWhenContextCanNotBeCanonicalized() {
+    AtomicInteger renders = new AtomicInteger();
+    Context context = context(Map.of("unsupported", new Object()));
+
+    cache.get(TEMPLATE, SELECTORS, context, () -> "output" + renders.incrementAndGet());
+    String output = cache.get(TEMPLATE, SELECTORS, context,
+        () -> "output" + renders.incrementAndGet());
+
+    assertThat("Unexpected output.", output, is("output2"));
+    assertThat("Unexpected render count.", renders.get(), is(2));
+  }
+
+  @Test
+  void shouldRenderMessageOnceWhenMessageCached() {
+    AtomicInteger renders = new AtomicInteger();
+    Context context = context(Map.of("name", "Anthony"));
+
+    cache.getMessage(TEMPLATE, context, () -> {
+      renders.incrementAndGet();
+      return new RenderedMessage("subject", "content");
+    });
+    RenderedMessage message = cache.getMessage(TEMPLATE, context, () -> {
+      renders.incrementAndGet();
+      return new RenderedMessage("other subject", "other content");
+    });
+
+    assertThat("Unexpected subject.", message.subject(), is("subject"));
+    assertThat("Unexpected content.", message.content(), is("content"));
+    assertThat("Unexpected render count.", renders.get(), is(1));
+  }
+
+  @Test
+  void shouldShareMessageContentWithSelectorOutput() {
+    Context context = context(Map.of("name", "Anthony"));
+    cache.getMessage(TEMPLATE, context, () -> new RenderedMessage("subject", "content"));
+
+    String content = cache.get(TEMPLATE, Set.of("content"), context, () -> "rendered");
+
+    assertThat("Unexpected content.", content, is("content"));
+  }
+
+  /**
+   * Build a template context with the given variables.
+   *
+   * @param variables The context variables.
+   * @return The built context.
+   */
+  private static Context context(Map<String, Object> variables) {
+    Context context = new Context();
+    context.setVariables(variables);
+    return context;
+  }
+}
@@ -27,11 +27,20 @@ import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.Month;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -43,12 +52,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.util.unit.DataSize;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 import uk.nhs.tis.trainee.notifications.model.MessageType;
 import uk.nhs.tis.trainee.notifications.model.NotificationType;
 import uk.nhs.tis.trainee.notifications.model.TraineeType;
+import uk.nhs.tis.trainee.notifications.service.TemplateService.RenderedMessage;
 
 class TemplateServiceTest {
 
@@ -58,11 +72,13 @@ class TemplateServiceTest {
 
   private TemplateService service;
   private TemplateEngine templateEngine;
+  private TemplateOutputCache outputCache;
 
   @BeforeEach
   void setUp() {
     templateEngine = mock(TemplateEngine.class);
-    service = new TemplateService(templateEngine, TIMEZONE);
+    outputCache = new TemplateOutputCache(new SimpleMeterRegistry(), DataSize.ofMegabytes(1));
+    service = new TemplateService(templateEngine, outputCache, TIMEZONE);
   }
 
   @Test
@@ -226,4 +242,179 @@ class TemplateServiceTest {
 
     assertThat("Unexpected processed template.", processed, is("processedTemplate"));
   }
+
+  @Test
+  void shouldProcessMessageInSinglePass() {
+    ArgumentCaptor<Context> contextCaptor = ArgumentCaptor.captor();
+    doAnswer(inv -> {
+      Context context = inv.getArgument(2);
+      Writer writer = inv.getArgument(3);
+      writer.write("Sub");
+      writer.write("ject" + context.getVariable("renderedMessageBoundary") + "<p>Con");
+      writer.write("tent</p>");
+      return null;
+    }).when(templateEngine).process(eq("fragments/message/v1.0.0"), eq(Set.of("message")),
+        contextCaptor.capture(), any(Writer.class));
+
+    RenderedMessage message = service.processMessage("templatePath", Map.of("key1", "value1"));
+
+    assertThat("Unexpected subject.", message.subject(), is("Subject"));
+    assertThat("Unexpected content.", message.content(), is("<p>Content</p>"));
+
+    Context context = contextCaptor.getValue();
+    assertThat("Unexpected context variable.", context.getVariable("key1"), is("value1"));
+    assertThat("Unexpected template variable.", context.getVariable("renderedMessageTemplate"),
+        is("templatePath"));
+  }
+
+  @Test
+  void shouldNotModifyProvidedContextWhenProcessingMessage() {
+    doAnswer(inv -> {
+      Context context = inv.getArgument(2);
+      inv.getArgument(3, Writer.class).write(
+          (String) context.getVariable("renderedMessageBoundary"));
+      return null;
+    }).when(templateEngine).process(any(String.class), any(), any(Context.class),
+        any(Writer.class));
+    Context context = new Context();
+    context.setVariable("key1", "value1");
+
+    service.processMessage("templatePath", context);
+
+    assertThat("Unexpected context variables.", context.getVariableNames(), is(Set.of("key1")));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenProcessedMessageCannotBeSplit() {
+    doAnswer(inv -> {
+      inv.getArgument(3, Writer.class).write("Subject<p>Content</p>");
+      return null;
+    }).when(templateEngine).process(any(String.class), any(), any(Context.class),
+        any(Writer.class));
+
+    assertThrows(IllegalStateException.class,
+        () -> service.processMessage("templatePath", new Context()));
+  }
+
+  @Test
+  void shouldStreamMessageContentToWriter() {
+    doAnswer(inv -> {
+      Context context = inv.getArgument(2);
+      String boundary = (String) context.getVariable("renderedMessageBoundary");
+      Writer writer = inv.getArgument(3);
+      writer.write("Subject" + boundary.substring(0, 4));
+      writer.write(boundary.substring(4) + "<p>");
+      writer.write("Content</p>".toCharArray());
+      return null;
+    }).when(templateEngine).process(any(String.class), any(), any(Context.class),
+        any(Writer.class));
+
+    StringWriter contentWriter = new StringWriter();
+    String subject = service.processMessage("templatePath", new Context(), contentWriter);
+
+    assertThat("Unexpected subject.", subject, is("Subject"));
+    assertThat("Unexpected content.", contentWriter.toString(), is("<p>Content</p>"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"email/coj-confirmation/v1.0.0", "in-app/day-one/v1.1.0"})
+  void shouldProcessMessageMatchingSeparateFragments(String template) {
+    ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+    resolver.setPrefix("templates/");
+    resolver.setSuffix(".html");
+    SpringTemplateEngine springTemplateEngine = new SpringTemplateEngine();
+    springTemplateEngine.setTemplateResolver(resolver);
+    service = new TemplateService(springTemplateEngine, outputCache, TIMEZONE);
+
+    Map<String, Object> variables = Map.of("familyName", "Gilliam", "syncedAt", GMT,
+        "startDate", LocalDate.of(2021, 8, 4));
+    RenderedMessage message = service.processMessage(template, variables);
+
+    assertThat("Unexpected subject.", message.subject(),
+        is(service.process(template, Set.of("subject"), variables)));
+    assertThat("Unexpected content.", message.content(),
+        is(service.process(template, Set.of("content"), variables)));
+  }
+
+  @Test
+  void shouldCacheInAppTemplateOutput() {
+    String template = "in-app/template/v1.0.0";
+    when(templateEngine.process(eq(template), eq(Set.of("content")), any(Context.class)))
+        .thenReturn("processedTemplate");
+
+    service.process(template, Set.of("content"), Map.of("key1", "value1"));
+    String processed = service.process(template, Set.of("content"), Map.of("key1", "value1"));
+
+    assertThat("Unexpected processed template.", processed, is("processedTemplate"));
+    verify(templateEngine).process(any(String.class), any(), any(Context.class));
+  }
+
+  @Test
+  void shouldNotCacheEmailTemplateOutput() {
+    String template = "email/template/v1.0.0";
+    when(templateEngine.process(eq(template), eq(Set.of("content")), any(Context.class)))
+        .thenReturn("processedTemplate");
+
+    service.process(template, Set.of("content"), Map.of("key1", "value1"));
+    service.process(template, Set.of("content"), Map.of("key1", "value1"));
+
+    verify(templateEngine, times(2)).process(any(String.class), any(), any(Context.class));
+  }
+
+  @Test
+  void shouldRenderInAppTemplateAgainWhenVariablesDiffer() {
+    String template = "in-app/template/v1.0.0";
+    when(templateEngine.process(eq(template), eq(Set.of("content")), any(Context.class)))
+        .thenReturn("processedTemplate");
+
+    service.process(template, Set.of("content"), Map.of("key1", "value1"));
+    service.process(template, Set.of("content"), Map.of("key1", "value2"));
+
+    verify(templateEngine, times(2)).process(any(String.class), any(), any(Context.class));
+  }
+
+  @Test
+  void shouldShareCachedInAppOutputWhenTimestampTypesDiffer() {
+    String template = "in-app/template/v1.0.0";
+    when(templateEngine.process(eq(template), eq(Set.of("content")), any(Context.class)))
+        .thenReturn("processedTemplate");
+
+    service.process(template, Set.of("content"), Map.of("timestamp", GMT));
+    service.process(template, Set.of("content"), Map.of("timestamp", Date.from(GMT)));
+
+    verify(templateEngine).process(any(String.class), any(), any(Context.class));
+  }
+
+  @ParameterizedTest
+  @EnumSource(TraineeType.class)
+  void shouldShareCachedInAppOutputWhenTraineeTypeTypesDiffer(TraineeType traineeType) {
+    String template = "in-app/template/v1.0.0";
+    when(templateEngine.process(eq(template), eq(Set.of("content")), any(Context.class)))
+        .thenReturn("processedTemplate");
+
+    service.process(template, Set.of("content"), Map.of("traineeType", traineeType));
+    service.process(template, Set.of("content"), Map.of("traineeType", traineeType.name()));
+
+    verify(templateEngine).process(any(String.class), any(), any(Context.class));
+  }
+
+  @Test
+  void shouldCacheInAppMessageOutput() {
+    doAnswer(inv -> {
+      Context context = inv.getArgument(2);
+      inv.getArgument(3, Writer.class).write(
+          "Subject" + context.getVariable("renderedMessageBoundary") + "<p>Content</p>");
+      return null;
+    }).when(templateEngine).process(any(String.class), any(), any(Context.class),
+        any(Writer.class));
+
+    String template = "in-app/template/v1.0.0";
+    service.processMessage(template, Map.of("key1", "value1"));
+    RenderedMessage message = service.processMessage(template, Map.of("key1", "value1"));
+
+    assertThat("Unexpected subject.", message.subject(), is("Subject"));
+    assertThat("Unexpected content.", message.content(), is("<p>Content</p>"));
+    verify(templateEngine).process(any(String.class), any(), any(Context.class),
+        any(Writer.class));
+  }
 }
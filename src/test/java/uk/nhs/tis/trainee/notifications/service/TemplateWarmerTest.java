@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright 2026 Crown Copyright (Health Education England)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package uk.nhs.tis.trainee.notifications.service;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import uk.nhs.tis.trainee.notifications.config.TemplateVersionsProperties;
+import uk.nhs.tis.trainee.notifications.config.TemplateVersionsProperties.MessageTypeVersions;
+
+class TemplateWarmerTest {
+
+  private static final URI APP_DOMAIN = URI.create("https://local.notifications.com");
+
+  private SpringTemplateEngine templateEngine;
+  private TemplateService templateService;
+  private MeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+    resolver.setPrefix("templates/");
+    resolver.setSuffix(".html");
+
+    templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(resolver);
+
+    meterRegistry = new SimpleMeterRegistry();
+    TemplateOutputCache outputCache = new TemplateOutputCache(meterRegistry,
+        DataSize.ofMegabytes(1));
+    templateService = spy(new TemplateService(templateEngine, outputCache, "Europe/London"));
+  }
+
+  @Test
+  void shouldRenderEveryConfiguredTemplate() {
+    TemplateVersionsProperties templateVersions = new TemplateVersionsProperties(Map.of(
+        "programme-created", new MessageTypeVersions("v1.0.0", null),
+        "day-one", new MessageTypeVersions(null, "v1.0.0")));
+    TemplateWarmer warmer = new TemplateWarmer(templateEngine, templateService, templateVersions,
+        APP_DOMAIN, meterRegistry);
+
+    warmer.run(null);
+
+    verify(templateService).process(eq("email/programme-created/v1.0.0"), isNull(), anyMap());
+    verify(templateService).process(eq("in-app/day-one/v1.0.0"), isNull(), anyMap());
+  }
+
+  @Test
+  void shouldFailWhenConfiguredTemplateMissing() {
+    TemplateVersionsProperties templateVersions = new TemplateVersionsProperties(Map.of(
+        "programme-created", new MessageTypeVersions("v0.0.0", null)));
+    TemplateWarmer warmer = new TemplateWarmer(templateEngine, templateService, templateVersions,
+        APP_DOMAIN, meterRegistry);
+
+    IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> warmer.run(null));
+
+    assertThat("Unexpected message.", exception.getMessage(),
+        containsString("email/programme-created/v0.0.0"));
+    verify(templateService, never()).process(any(), any(), anyMap());
+  }
+
+  @Test
+  void shouldNotFailWhenSyntheticRenderFails() {
+    TemplateVersionsProperties templateVersions = new TemplateVersionsProperties(Map.of(
+        "programme-created", new MessageTypeVersions("v1.0.0", null)));
+    TemplateWarmer warmer = new TemplateWarmer(templateEngine, templateService, templateVersions,
+        APP_DOMAIN, meterRegistry);
+    doThrow(new IllegalArgumentException("expected"))
+        .when(templateService).process(any(), any(), anyMap());
+
+    warmer.run(null);
+
+    long count = meterRegistry.get("notifications.template.warm-up").timer().count();
+    assertThat("Unexpected warm-up count.", count, is(1L));
+  }
+
+  @Test
+  void shouldRecordWarmUpDuration() {
+    TemplateVersionsProperties templateVersions = new TemplateVersionsProperties(Map.of(
+        "programme-created", new MessageTypeVersions("v1.0.0", null)));
+    TemplateWarmer warmer = new TemplateWarmer(templateEngine, templateService, templateVersions,
+        APP_DOMAIN, meterRegistry);
+
+    warmer.run(null);
+
+    long count = meterRegistry.get("notifications.template.warm-up").timer().count();
+    assertThat("Unexpected warm-up count.", count, is(1L));
+  }
+}